@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+
+/**
+ * Set of devices that co-execute a task-graph. The iteration space of the
+ * task-graph is split in contiguous slices, one per device, that run
+ * concurrently. Each device copies in and out only the part of the arrays that
+ * corresponds to its slice, so the output slices are merged in the host arrays.
+ * The JVM can also take a slice, which runs the sequential Java code.
+ *
+ * <p>
+ * The size of each slice is proportional to the ratio of its device. By
+ * default, the split is adaptive: the ratios are only the initial split, and
+ * after each execution the slices are resized according to the throughput
+ * measured for each device. With {@link #withStaticSplit()}, the ratios are
+ * kept for all the executions.
+ * </p>
+ *
+ * <p>
+ * Co-execution follows the same rules as batch processing: all the arrays of
+ * the task-graph must have the same size and element type, and each iteration
+ * {@code i} must only access the element {@code i} of each array.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <code>
+ * CoExecution coExecution = new CoExecution() //
+ * .addDevice(gpu, 0.7) //
+ * .addDevice(cpu, 0.2) //
+ * .addJVM(0.1);
+ * executionPlan.withCoExecution(coExecution).execute();
+ * </code>
+ * </p>
+ *
+ * @since 1.0.9
+ */
+public final class CoExecution {
+
+    private final List<TornadoDevice> devices;
+    private final List<Double> ratios;
+    private boolean adaptive;
+    private volatile int[] split;
+
+    public CoExecution() {
+        devices = new ArrayList<>();
+        ratios = new ArrayList<>();
+        adaptive = true;
+    }
+
+    /**
+     * Adds a device with the same initial ratio as the rest of devices added
+     * with this method.
+     *
+     * @param device
+     *     {@link TornadoDevice}
+     * @return {@link CoExecution}
+     */
+    public CoExecution addDevice(TornadoDevice device) {
+        return addDevice(device, 1.0);
+    }
+
+    /**
+     * Adds a device.
+     *
+     * @param device
+     *     {@link TornadoDevice}
+     * @param ratio
+     *     Share of the iteration space for the device, relative to the ratios
+     *     of the other devices.
+     * @return {@link CoExecution}
+     */
+    public CoExecution addDevice(TornadoDevice device, double ratio) {
+        if (device == null) {
+            throw new IllegalArgumentException("The device cannot be null. Use addJVM() to co-execute on the JVM");
+        }
+        return add(device, ratio);
+    }
+
+    /**
+     * Adds the JVM, with the same initial ratio as the devices added with
+     * {@link #addDevice(TornadoDevice)}.
+     *
+     * @return {@link CoExecution}
+     */
+    public CoExecution addJVM() {
+        return addJVM(1.0);
+    }
+
+    /**
+     * Adds the JVM. Its slice runs the sequential Java code of the tasks.
+     *
+     * @param ratio
+     *     Share of the iteration space for the JVM, relative to the ratios of
+     *     the devices.
+     * @return {@link CoExecution}
+     */
+    public CoExecution addJVM(double ratio) {
+        return add(null, ratio);
+    }
+
+    private CoExecution add(TornadoDevice device, double ratio) {
+        if (!(ratio > 0)) {
+            throw new IllegalArgumentException("The ratio must be positive: " + ratio);
+        }
+        if (devices.contains(device)) {
+            throw new IllegalArgumentException("Device already added to the co-execution: " + (device == null ? "JVM" : device));
+        }
+        devices.add(device);
+        ratios.add(ratio);
+        return this;
+    }
+
+    /**
+     * Keeps the initial ratios for all the executions, instead of adapting the
+     * split to the throughput of each device.
+     *
+     * @return {@link CoExecution}
+     */
+    public CoExecution withStaticSplit() {
+        adaptive = false;
+        return this;
+    }
+
+    /**
+     * @return The devices, in the order of their slices. The JVM is represented
+     *     by {@code null}.
+     */
+    public List<TornadoDevice> getDevices() {
+        return Collections.unmodifiableList(devices);
+    }
+
+    /**
+     * @return The initial ratios, in the order of the devices.
+     */
+    public double[] getRatios() {
+        return ratios.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return The number of elements of the slice of each device in the last
+     *     execution, in the order of the devices, or {@code null} if the
+     *     task-graph has not been co-executed yet.
+     */
+    public int[] getSplit() {
+        int[] current = split;
+        return current == null ? null : current.clone();
+    }
+
+    /**
+     * Records the split used by the runtime. It is not meant to be called by
+     * applications.
+     *
+     * @param split
+     *     Number of elements of the slice of each device.
+     */
+    public void updateSplit(int[] split) {
+        this.split = split.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < devices.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(devices.get(i) == null ? "JVM" : devices.get(i).getDeviceName()).append('=').append(ratios.get(i));
+        }
+        return sb.append(adaptive ? " (adaptive)" : " (static)").toString();
+    }
+}
@@ -23,8 +23,10 @@ import uk.ac.manchester.tornado.api.plan.types.OffPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.OffProfiler;
 import uk.ac.manchester.tornado.api.plan.types.OffThreadInfo;
 import uk.ac.manchester.tornado.api.plan.types.WithAllGraphs;
+import uk.ac.manchester.tornado.api.plan.types.WithArena;
 import uk.ac.manchester.tornado.api.plan.types.WithBatch;
 import uk.ac.manchester.tornado.api.plan.types.WithClearProfiles;
+import uk.ac.manchester.tornado.api.plan.types.WithCoExecution;
 import uk.ac.manchester.tornado.api.plan.types.WithCompilerFlags;
 import uk.ac.manchester.tornado.api.plan.types.WithConcurrentDevices;
 import uk.ac.manchester.tornado.api.plan.types.WithDefaultScheduler;
@@ -34,6 +36,8 @@ import uk.ac.manchester.tornado.api.plan.types.WithFreeDeviceMemory;
 import uk.ac.manchester.tornado.api.plan.types.WithGraph;
 import uk.ac.manchester.tornado.api.plan.types.WithGridScheduler;
 import uk.ac.manchester.tornado.api.plan.types.WithMemoryLimit;
+import uk.ac.manchester.tornado.api.plan.types.WithPipelinedBatch;
+import uk.ac.manchester.tornado.api.plan.types.WithPrecompilation;
 import uk.ac.manchester.tornado.api.plan.types.WithPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.WithProfiler;
 import uk.ac.manchester.tornado.api.plan.types.WithResetDevice;
@@ -42,9 +46,9 @@ import uk.ac.manchester.tornado.api.plan.types.WithWarmUp;
 
 public abstract sealed class ExecutionPlanType extends TornadoExecutionPlan //
         permits OffConcurrentDevices, OffMemoryLimit, OffPrintKernel, OffProfiler, //
-        OffThreadInfo, WithAllGraphs, WithBatch, WithClearProfiles, WithCompilerFlags,  //
+        OffThreadInfo, WithAllGraphs, WithArena, WithBatch, WithClearProfiles, WithCoExecution, WithCompilerFlags,  //
         WithConcurrentDevices, WithDefaultScheduler, WithDevice, WithDynamicReconfiguration, //
-        WithFreeDeviceMemory, WithGraph, WithGridScheduler, WithMemoryLimit, WithPrintKernel, //
+        WithFreeDeviceMemory, WithGraph, WithGridScheduler, WithMemoryLimit, WithPipelinedBatch, WithPrecompilation, WithPrintKernel, //
         WithProfiler, WithResetDevice, WithThreadInfo, WithWarmUp { //
 
     public ExecutionPlanType(TornadoExecutionPlan parentNode) {
@@ -64,6 +68,9 @@ public abstract sealed class ExecutionPlanType extends TornadoExecutionPlan //
         // Copy the reference for the execution frame
         this.executionFrame = parentNode.executionFrame;
 
+        // Share the results of the execution plan
+        this.planResults = parentNode.planResults;
+
         // Set child reference to this instance
         this.childLink = this;
     }
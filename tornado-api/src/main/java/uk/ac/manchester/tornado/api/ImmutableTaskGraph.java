@@ -18,10 +18,12 @@
 package uk.ac.manchester.tornado.api;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 
 /**
@@ -54,6 +56,10 @@ public class ImmutableTaskGraph {
         taskGraph.warmup(executionPackage);
     }
 
+    CompletableFuture<Void> precompile(ExecutorFrame executionPackage) {
+        return taskGraph.precompile(executionPackage);
+    }
+
     void withDevice(TornadoDevice device) {
         taskGraph.withDevice(device);
     }
@@ -150,6 +156,10 @@ public class ImmutableTaskGraph {
         taskGraph.batch(batchSize);
     }
 
+    void withPipelinedBatch(String batchSize) {
+        taskGraph.pipelinedBatch(batchSize);
+    }
+
     void withMemoryLimit(String memoryLimit) {
         taskGraph.withMemoryLimit(memoryLimit);
     }
@@ -213,4 +223,8 @@ public class ImmutableTaskGraph {
     long getCurrentDeviceMemoryUsage() {
         return taskGraph.getCurrentDeviceMemoryUsage();
     }
+
+    LatencyHistograms getLatencyHistograms() {
+        return taskGraph.getLatencyHistograms();
+    }
 }
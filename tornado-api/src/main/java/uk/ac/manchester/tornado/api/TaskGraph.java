@@ -20,6 +20,7 @@ package uk.ac.manchester.tornado.api;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
 import uk.ac.manchester.tornado.api.common.TaskPackage;
@@ -43,6 +44,7 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoAPIProvider;
 
@@ -751,6 +753,10 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.withBatch(batchSize);
     }
 
+    void pipelinedBatch(String batchSize) {
+        taskGraphImpl.withPipelinedBatch(batchSize);
+    }
+
     void withMemoryLimit(String memoryLimit) {
         taskGraphImpl.withMemoryLimit(memoryLimit);
     }
@@ -763,6 +769,10 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.warmup(executionPackage);
     }
 
+    CompletableFuture<Void> precompile(ExecutorFrame executionPackage) {
+        return taskGraphImpl.precompile(executionPackage);
+    }
+
     void dumpProfiles() {
         taskGraphImpl.dumpProfiles();
     }
@@ -905,4 +915,8 @@ public class TaskGraph implements TaskGraphInterface {
     long getCurrentDeviceMemoryUsage() {
         return taskGraphImpl.getCurrentDeviceMemoryUsage();
     }
+
+    LatencyHistograms getLatencyHistograms() {
+        return taskGraphImpl.getLatencyHistograms();
+    }
 }
@@ -17,9 +17,14 @@
  */
 package uk.ac.manchester.tornado.api;
 
+import java.lang.foreign.Arena;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
@@ -33,8 +38,10 @@ import uk.ac.manchester.tornado.api.plan.types.OffPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.OffProfiler;
 import uk.ac.manchester.tornado.api.plan.types.OffThreadInfo;
 import uk.ac.manchester.tornado.api.plan.types.WithAllGraphs;
+import uk.ac.manchester.tornado.api.plan.types.WithArena;
 import uk.ac.manchester.tornado.api.plan.types.WithBatch;
 import uk.ac.manchester.tornado.api.plan.types.WithClearProfiles;
+import uk.ac.manchester.tornado.api.plan.types.WithCoExecution;
 import uk.ac.manchester.tornado.api.plan.types.WithCompilerFlags;
 import uk.ac.manchester.tornado.api.plan.types.WithConcurrentDevices;
 import uk.ac.manchester.tornado.api.plan.types.WithDefaultScheduler;
@@ -44,6 +51,8 @@ import uk.ac.manchester.tornado.api.plan.types.WithFreeDeviceMemory;
 import uk.ac.manchester.tornado.api.plan.types.WithGraph;
 import uk.ac.manchester.tornado.api.plan.types.WithGridScheduler;
 import uk.ac.manchester.tornado.api.plan.types.WithMemoryLimit;
+import uk.ac.manchester.tornado.api.plan.types.WithPipelinedBatch;
+import uk.ac.manchester.tornado.api.plan.types.WithPrecompilation;
 import uk.ac.manchester.tornado.api.plan.types.WithPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.WithProfiler;
 import uk.ac.manchester.tornado.api.plan.types.WithResetDevice;
@@ -71,6 +80,19 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
 
     private static final AtomicLong globalExecutionPlanCounter = new AtomicLong(0);
 
+    private static final AtomicLong asyncThreadCounter = new AtomicLong(0);
+
+    /**
+     * Threads that run the executions launched with {@link #executeAsync()}. The
+     * threads are daemon threads, so pending executions do not keep the JVM
+     * alive.
+     */
+    private static final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "TornadoExecutionPlan-Async-" + asyncThreadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * The TornadoVM executor is a list of chain of actions to be performed.
      * Each action can enable/disable runtime features, influence the compiler,
@@ -98,6 +120,19 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
 
     protected List<TornadoExecutionResult> planResults;
 
+    /**
+     * Last execution launched with {@link #executeAsync()}. It is only used from
+     * the root node, so all nodes of the plan share the same order of
+     * executions.
+     */
+    private CompletableFuture<TornadoExecutionResult> lastAsyncExecution;
+
+    /**
+     * Arenas closed with the execution plan (see {@link #withArena(Arena)}). It
+     * is only used from the root node.
+     */
+    private List<Arena> arenas;
+
     /**
      * Create an Execution Plan: Object to create and optimize an execution plan for
      * running a set of immutable tasks-graphs. An executor plan contains an
@@ -113,7 +148,8 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         final long id = globalExecutionPlanCounter.incrementAndGet();
         executionFrame = new ExecutorFrame(id);
         rootNode = this;
-        planResults = new ArrayList<>();
+        planResults = Collections.synchronizedList(new ArrayList<>());
+        arenas = new ArrayList<>();
     }
 
     /**
@@ -160,6 +196,61 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      * @return {@link TornadoExecutionPlan}
      */
     public TornadoExecutionResult execute() {
+        waitForAsyncExecutions();
+        return executePlan();
+    }
+
+    /**
+     * Execute an execution plan without blocking the calling thread. The
+     * execution runs in a TornadoVM thread, and the returned
+     * {@link CompletableFuture} is completed with the
+     * {@link TornadoExecutionResult} once the data has been copied back to the
+     * host. If the execution fails, the future is completed exceptionally.
+     *
+     * <p>
+     * Thus, the caller can overlap host-side work with the execution, or compose
+     * the executions of several execution plans. Waiting on the returned future
+     * from a virtual thread does not pin its carrier thread, since the blocking
+     * wait for the device happens in the TornadoVM thread.
+     * </p>
+     *
+     * <p>
+     * Executions of the same execution plan run in the order in which they were
+     * launched, and {@link #execute()} and {@link #close()} wait for the pending
+     * ones. Execution plans must not be reconfigured (e.g., with
+     * {@link #withDevice(TornadoDevice)}) while an execution is pending.
+     * </p>
+     *
+     * @since 1.0.9
+     * @return {@link CompletableFuture} with the {@link TornadoExecutionResult}
+     */
+    public CompletableFuture<TornadoExecutionResult> executeAsync() {
+        synchronized (rootNode) {
+            CompletableFuture<TornadoExecutionResult> previous = rootNode.lastAsyncExecution;
+            CompletableFuture<TornadoExecutionResult> execution;
+            if (previous == null) {
+                execution = CompletableFuture.supplyAsync(this::executePlan, ASYNC_EXECUTOR);
+            } else {
+                // The execution starts after the previous one, even if it failed
+                execution = previous.handleAsync((result, throwable) -> executePlan(), ASYNC_EXECUTOR);
+            }
+            rootNode.lastAsyncExecution = execution;
+            return execution;
+        }
+    }
+
+    private void waitForAsyncExecutions() {
+        CompletableFuture<TornadoExecutionResult> pending;
+        synchronized (rootNode) {
+            pending = rootNode.lastAsyncExecution;
+        }
+        if (pending != null) {
+            // Failures are reported through the future returned to the caller of executeAsync
+            pending.handle((result, throwable) -> null).join();
+        }
+    }
+
+    private TornadoExecutionResult executePlan() {
         tornadoExecutor.execute(executionFrame);
         TornadoProfilerResult profilerResult = new TornadoProfilerResult(tornadoExecutor, this.getTraceExecutionPlan());
         TornadoExecutionResult executionResult = new TornadoExecutionResult(profilerResult);
@@ -206,6 +297,22 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new WithWarmUp(this);
     }
 
+    /**
+     * It invokes the JIT compiler for all immutable tasks-graphs associated to an
+     * executor, like {@link #withWarmUp()}, but the tasks of all graphs are
+     * compiled in parallel. Thus, the time to the first execution is close to
+     * the compilation time of the slowest task, instead of the sum for all tasks.
+     * The number of compiler threads is set with
+     * {@code -Dtornado.compiler.threads}.
+     *
+     * @since 1.0.9
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withPrecompilation() {
+        tornadoExecutor.precompile(executionFrame);
+        return new WithPrecompilation(this);
+    }
+
     /**
      * It selects a specific device for all immutable tasks graphs associated to an
      * executor.
@@ -355,6 +462,23 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new WithDynamicReconfiguration(this, policy, mode);
     }
 
+    /**
+     * Co-execute the task-graphs across several devices (e.g., a GPU, the CPU
+     * through OpenCL and the JVM). The iteration space is split in one slice per
+     * device, the slices run concurrently, and the output slices are merged in
+     * the host arrays. The split is either static or adapted after each execution
+     * to the throughput of each device. See {@link CoExecution}.
+     *
+     * @since 1.0.9
+     * @param coExecution
+     *     {@link CoExecution} with the devices and their initial ratios.
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withCoExecution(CoExecution coExecution) {
+        executionFrame.withCoExecution(coExecution);
+        return new WithCoExecution(this, coExecution);
+    }
+
     /**
      * Enable batch processing. TornadoVM will split the iteration space in smaller
      * batches (with batch size specified by the user). This is used mainly when
@@ -370,6 +494,58 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new WithBatch(this, batchSize);
     }
 
+    /**
+     * Enable pipelined batch processing. Like {@link #withBatch(String)}, TornadoVM
+     * splits the iteration space in batches, but the batches are not processed
+     * strictly one after another. Each batch uses its own set of device buffers
+     * (double-buffering by default), and the copies back to the host do not block.
+     * Thus, the copy-in and the kernel of the next batch are enqueued while the
+     * previous batch is still running, and the device is never idle waiting for
+     * the host between batches. The number of batches in flight is set with
+     * {@code -Dtornado.batch.pipeline.depth}.
+     *
+     * <p>
+     * Each batch in flight allocates its own device buffers. Thus, the batch size
+     * should be smaller than the device memory divided by the pipeline depth.
+     * </p>
+     *
+     * @since 1.0.9
+     * @param batchSize
+     *     String in the format a number + "MB" Example "512MB".
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withPipelinedBatch(String batchSize) {
+        tornadoExecutor.withPipelinedBatch(batchSize);
+        return new WithPipelinedBatch(this, batchSize);
+    }
+
+    /**
+     * Binds the lifetime of an {@link Arena} to the execution plan. When the plan
+     * is closed, the device buffers are released first, and then the arena is
+     * closed, releasing the host memory of the native arrays allocated in it (e.g.,
+     * with {@code FloatArray.allocate(arena, size)}). Thus, the host and the
+     * device memory used by the plan are released as a unit, without waiting for
+     * the garbage collector.
+     *
+     * <p>
+     * The arena must be a confined or a shared arena. Plans that run on other
+     * threads (e.g., with {@link #executeAsync()}) need a shared arena, since
+     * the segments of a confined arena can only be accessed by its owner thread.
+     * </p>
+     *
+     * @since 1.0.9
+     * @param arena
+     *     {@link Arena} to close when the plan is closed.
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withArena(Arena arena) {
+        Objects.requireNonNull(arena);
+        synchronized (rootNode) {
+            rootNode.arenas.add(arena);
+        }
+        return new WithArena(this);
+    }
+
     /**
      * Enables the profiler. The profiler includes options to query device kernel
      * time, data transfers and compilation at different stages (JIT, driver
@@ -533,7 +709,21 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
      */
     @Override
     public void close() throws TornadoExecutionPlanException {
+        waitForAsyncExecutions();
         tornadoExecutor.freeDeviceMemory();
+        closeArenas();
+    }
+
+    private void closeArenas() {
+        List<Arena> toClose;
+        synchronized (rootNode) {
+            toClose = new ArrayList<>(rootNode.arenas);
+            rootNode.arenas.clear();
+        }
+        // Close in the reverse order of registration, as try-with-resources does
+        for (int i = toClose.size() - 1; i >= 0; i--) {
+            toClose.get(i).close();
+        }
     }
 
     /**
@@ -20,11 +20,14 @@ package uk.ac.manchester.tornado.api;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 
 /**
@@ -55,10 +58,31 @@ class TornadoExecutor {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.warmup(executorFrame));
     }
 
+    void precompile(ExecutorFrame executorFrame) {
+        // All graphs submit their tasks before waiting, so they are compiled together
+        CompletableFuture<?>[] compilations = immutableTaskGraphList.stream() //
+                .map(immutableTaskGraph -> immutableTaskGraph.precompile(executorFrame)) //
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(compilations).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
     void withBatch(String batchSize) {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withBatch(batchSize));
     }
 
+    void withPipelinedBatch(String batchSize) {
+        immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withPipelinedBatch(batchSize));
+    }
+
     void withMemoryLimit(String memoryLimit) {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withMemoryLimit(memoryLimit));
     }
@@ -224,6 +248,12 @@ class TornadoExecutor {
         return immutableTaskGraphList.stream().mapToLong(ImmutableTaskGraph::getCurrentDeviceMemoryUsage).sum();
     }
 
+    LatencyHistograms getLatencyHistograms() {
+        LatencyHistograms latencyHistograms = new LatencyHistograms();
+        immutableTaskGraphList.forEach(immutableTaskGraph -> latencyHistograms.addAll(immutableTaskGraph.getLatencyHistograms()));
+        return latencyHistograms;
+    }
+
     void selectGraph(int graphIndex) {
         if (subgraphList == null) {
             subgraphList = new ArrayList<>();
@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.api;
 
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
 import uk.ac.manchester.tornado.api.profiler.ProfilerInterface;
 
 /**
@@ -228,6 +229,22 @@ public class TornadoProfilerResult implements ProfilerInterface {
         return executor.getTotalDeviceMemoryUsage();
     }
 
+    /**
+     * Returns the latency histograms of the kernels, data transfers and
+     * end-to-end executions of all immutable task-graphs, accumulated across the
+     * executions of the execution plan while the profiler is enabled. The
+     * histograms can be queried per task and timer (e.g., the p99 of
+     * {@link uk.ac.manchester.tornado.api.profiler.ProfilerType#TASK_KERNEL_TIME}),
+     * or exported in the Prometheus text format.
+     *
+     * @return {@link LatencyHistograms}
+     * @since 1.0.9
+     */
+    @Override
+    public LatencyHistograms getLatencyHistograms() {
+        return executor.getLatencyHistograms();
+    }
+
     public String getTraceExecutionPlan() {
         return traceExecutionPlan;
     }
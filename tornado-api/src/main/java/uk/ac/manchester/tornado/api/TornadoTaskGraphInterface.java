@@ -19,6 +19,7 @@ package uk.ac.manchester.tornado.api;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
@@ -50,6 +51,8 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     void withBatch(String batchSize);
 
+    void withPipelinedBatch(String batchSize);
+
     void withMemoryLimit(String memoryLimit);
 
     void withoutMemoryLimit();
@@ -76,6 +79,8 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     void warmup(ExecutorFrame executionPackage);
 
+    CompletableFuture<Void> precompile(ExecutorFrame executionPackage);
+
     void freeDeviceMemory();
 
     void syncRuntimeTransferToHost(Object... objects);
@@ -28,4 +28,25 @@ public interface Event extends ProfiledAction {
      * Call to native wait depending on internal state.
      */
     void waitOn();
+
+    /**
+     * Retains the event in the event pool of the device, so that its slot is not
+     * reused until {@link #releaseRetained()} is called. This keeps the event valid
+     * when it is read after other commands have been enqueued.
+     *
+     * @return true if the event stays valid until it is released, false if the
+     *     event has to be read now (e.g., the pool cannot retain more events).
+     * @since 1.0.9
+     */
+    default boolean retain() {
+        return true;
+    }
+
+    /**
+     * Releases an event retained with {@link #retain()}.
+     *
+     * @since 1.0.9
+     */
+    default void releaseRetained() {
+    }
 }
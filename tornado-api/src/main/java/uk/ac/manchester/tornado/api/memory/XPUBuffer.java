@@ -63,6 +63,15 @@ public interface XPUBuffer {
 
     long deallocate();
 
+    /**
+     * Releases the native memory of this buffer only. Unlike
+     * {@link #deallocate()}, the free buffers that the device keeps for reuse
+     * are not released.
+     *
+     * @return Size in bytes returned to the device.
+     */
+    long release() throws TornadoMemoryException;
+
     default int[] getIntBuffer() {
         return null;
     }
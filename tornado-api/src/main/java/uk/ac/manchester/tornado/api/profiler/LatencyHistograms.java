@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of a task-graph (or of all the task-graphs of an execution
+ * plan), accumulated across executions. The histograms are identified by the
+ * id of the task-graph or task (e.g., {@code s0} or {@code s0.t0}) and the
+ * {@link ProfilerType} of the timer, for example:
+ *
+ * <ul>
+ * <li>{@link ProfilerType#TOTAL_TASK_GRAPH_TIME}: end-to-end execution of the
+ * task-graph.</li>
+ * <li>{@link ProfilerType#TOTAL_KERNEL_TIME},
+ * {@link ProfilerType#COPY_IN_TIME} and {@link ProfilerType#COPY_OUT_TIME}: time
+ * of the kernels and data transfers of the task-graph, per execution.</li>
+ * <li>{@link ProfilerType#TASK_KERNEL_TIME}: kernel time of each task.</li>
+ * </ul>
+ *
+ * <p>
+ * The histograms are recorded when the profiler is enabled. They can be
+ * exported in the Prometheus text format, with one summary per histogram
+ * reporting the p50, p99 and p999 latencies in seconds.
+ * </p>
+ *
+ * @since 1.0.9
+ */
+public final class LatencyHistograms {
+
+    /**
+     * Name of the metric in the Prometheus text format.
+     */
+    public static final String PROMETHEUS_METRIC = "tornado_latency_seconds";
+
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+
+    /**
+     * Identifier of a histogram.
+     *
+     * @param id
+     *     Id of the task-graph or the task.
+     * @param type
+     *     Timer recorded in the histogram.
+     */
+    public record Key(String id, ProfilerType type) {
+    }
+
+    private final Map<Key, LatencyHistogram> histograms;
+
+    public LatencyHistograms() {
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Records a latency in the histogram of a task-graph or task.
+     *
+     * @param id
+     *     Id of the task-graph or the task.
+     * @param type
+     *     Timer recorded.
+     * @param nanoseconds
+     *     Latency in nanoseconds.
+     */
+    public void record(String id, ProfilerType type, long nanoseconds) {
+        histograms.computeIfAbsent(new Key(id, type), key -> new LatencyHistogram()).record(nanoseconds);
+    }
+
+    /**
+     * @param id
+     *     Id of the task-graph or the task.
+     * @param type
+     *     Timer recorded.
+     * @return The histogram, or null if no value has been recorded for this id
+     *     and timer.
+     */
+    public LatencyHistogram getHistogram(String id, ProfilerType type) {
+        return histograms.get(new Key(id, type));
+    }
+
+    /**
+     * @return An unmodifiable view of all the histograms.
+     */
+    public Map<Key, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Adds the histograms of another instance to this one. The histograms are
+     * shared, so the values recorded later in the other instance are visible in
+     * this one.
+     *
+     * @param other
+     *     {@link LatencyHistograms} to add.
+     */
+    public void addAll(LatencyHistograms other) {
+        histograms.putAll(other.histograms);
+    }
+
+    /**
+     * Removes the recorded values of all the histograms.
+     */
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Appends the header of the {@link #PROMETHEUS_METRIC} metric in the
+     * Prometheus text format.
+     *
+     * @param builder
+     *     Output.
+     */
+    public static void appendPrometheusHeader(StringBuilder builder) {
+        builder.append("# HELP ").append(PROMETHEUS_METRIC).append(" Latency of the TornadoVM task-graphs, tasks and data transfers.\n");
+        builder.append("# TYPE ").append(PROMETHEUS_METRIC).append(" summary\n");
+    }
+
+    /**
+     * Appends one summary per histogram in the Prometheus text format.
+     *
+     * @param builder
+     *     Output.
+     * @param extraLabels
+     *     Labels added to every sample (e.g., {@code plan="0"}), or an empty
+     *     string.
+     */
+    public void appendPrometheusSamples(StringBuilder builder, String extraLabels) {
+        histograms.forEach((key, histogram) -> {
+            String labels = (extraLabels.isEmpty() ? "" : extraLabels + ",") + "id=\"" + escape(key.id()) + "\",type=\"" + key.type() + "\"";
+            for (double quantile : QUANTILES) {
+                builder.append(PROMETHEUS_METRIC).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ");
+                builder.append(toSeconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            builder.append(PROMETHEUS_METRIC).append("_sum{").append(labels).append("} ").append(toSeconds(histogram.getSum())).append('\n');
+            builder.append(PROMETHEUS_METRIC).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+        });
+    }
+
+    /**
+     * @return The histograms in the Prometheus text format.
+     */
+    public String toPrometheusText() {
+        StringBuilder builder = new StringBuilder();
+        appendPrometheusHeader(builder);
+        appendPrometheusSamples(builder, "");
+        return builder.toString();
+    }
+
+    /**
+     * Writes the histograms in the Prometheus text format to a file (e.g., for
+     * the textfile collector of the node exporter).
+     *
+     * @param path
+     *     Output file.
+     * @throws IOException
+     *     If the file cannot be written.
+     */
+    public void writePrometheusText(Path path) throws IOException {
+        Files.writeString(path, toPrometheusText());
+    }
+
+    private static String toSeconds(long nanoseconds) {
+        return String.format(Locale.ROOT, "%.9f", nanoseconds / 1.0e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -48,4 +48,6 @@ public interface ProfilerInterface {
     long getTotalBytesTransferred();
 
     long getTotalDeviceMemoryUsage();
+
+    LatencyHistograms getLatencyHistograms();
 }
@@ -17,6 +17,10 @@
  */
 package uk.ac.manchester.tornado.api.profiler;
 
+import java.util.function.Consumer;
+
+import uk.ac.manchester.tornado.api.common.Event;
+
 public interface TornadoProfiler {
 
     void addValueToMetric(ProfilerType type, String taskName, long value);
@@ -59,4 +63,39 @@ public interface TornadoProfiler {
 
     void sum(ProfilerType type, long timer);
 
+    /**
+     * Registers a device event whose profiling information is read at the next
+     * synchronization point of the execution (see {@link #resolveDeferredEvents()}),
+     * instead of waiting for the event right after it is enqueued.
+     *
+     * @param executionPlanId
+     *     Identifier of the execution plan that enqueued the event.
+     * @param event
+     *     Device event (e.g., a kernel launch or a data transfer).
+     * @param update
+     *     Action that updates the profiler with the timers of the completed event.
+     * @since 1.0.9
+     */
+    default void deferEvent(long executionPlanId, Event event, Consumer<Event> update) {
+        event.waitForEvents(executionPlanId);
+        update.accept(event);
+    }
+
+    /**
+     * Waits for the deferred events and updates the profiler with their timers.
+     *
+     * @since 1.0.9
+     */
+    default void resolveDeferredEvents() {
+    }
+
+    /**
+     * Drops the deferred events without reading their timers (e.g., when the
+     * execution bails out), releasing the events retained by the devices.
+     *
+     * @since 1.0.9
+     */
+    default void discardDeferredEvents() {
+    }
+
 }
@@ -0,0 +1,760 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.reductions;
+
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+
+/**
+ * Reductions by dense keys (GROUP BY). Each input value has an integer key in
+ * the range {@code [0, numKeys)}, and the values with the same key are reduced
+ * to one element of the output. Values with keys out of the range are ignored.
+ * These are dense-key helpers: there is no hash table on the device, so keys of
+ * other domains (e.g., hashed or sparse keys) have to be mapped to this range
+ * first, or sorted and reduced with {@link #segmentsByKey(IntArray, IntArray, int)}.
+ *
+ * <p>
+ * The reduction has two passes, which are added as two tasks of the
+ * task-graph. The first pass splits the input in chunks, and each thread
+ * reduces its chunk into a private row of a partial results array. The second
+ * pass combines the rows, one thread per key. No atomics are needed, so it runs
+ * on all the backends. The number of chunks is derived from the size of the
+ * input by {@link #partialsSize(int, int)}: each chunk has about
+ * {@code max(numKeys, 64)} values, so initializing a row costs no more than
+ * reducing the chunk, and the partial results take at most as many elements as
+ * the input plus {@code numKeys}. The first pass initializes the partial results, so they
+ * only have to be copied to the device on the first execution. Min and max use
+ * the same identities as {@link SegmentedReductions}.
+ * </p>
+ *
+ * <p>
+ * Small key domains get many chunks, and so many threads in the first pass.
+ * When the number of keys gets close to the size of the input, the first pass
+ * runs on few threads. For large key domains, sort the input by key and use
+ * {@link #segmentsByKey(IntArray, IntArray, int)} to find the segment of each
+ * key, which only needs {@code numKeys + 1} elements, and reduce the segments
+ * with {@link SegmentedReductions}.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <code>
+ * FloatArray partials = new FloatArray(KeyedReductions.partialsSize(values.getSize(), numKeys));
+ * taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, partials) //
+ * .task("partial", KeyedReductions::partialSumByKey, keys, values, partials, numKeys) //
+ * .task("merge", KeyedReductions::mergeSumByKey, partials, output, numKeys);
+ * </code>
+ * </p>
+ *
+ * <p>
+ * With the input sorted by key:
+ * <code>
+ * IntArray offsets = new IntArray(numKeys + 1);
+ * taskGraph.task("segments", KeyedReductions::segmentsByKey, sortedKeys, offsets, numKeys) //
+ * .task("reduce", SegmentedReductions::sum, sortedValues, offsets, output);
+ * </code>
+ * </p>
+ *
+ * @since 1.0.9
+ */
+public final class KeyedReductions {
+
+    /**
+     * Minimum number of values of each chunk of the first pass.
+     */
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private KeyedReductions() {
+    }
+
+    /**
+     * Number of elements of the partial results of a reduction by key. The input
+     * is split in chunks of {@code max(numKeys, 64)} values, and each chunk
+     * takes {@code numKeys} elements.
+     *
+     * @param numValues
+     *     Number of input values.
+     * @param numKeys
+     *     Number of keys.
+     * @return Number of elements of the partial results array.
+     */
+    public static int partialsSize(int numValues, int numKeys) {
+        int chunkSize = Math.max(numKeys, MIN_CHUNK_SIZE);
+        int numChunks = Math.max(1, (numValues + chunkSize - 1) / chunkSize);
+        return Math.multiplyExact(numChunks, numKeys);
+    }
+
+    /**
+     * Finds the segment of each key in keys sorted in ascending order, so that
+     * the values with the key {@code k} are in
+     * {@code [offsets[k], offsets[k + 1])}. Each thread finds the first
+     * position of one key with a binary search, and keys out of the range are
+     * left out of all the segments. The offsets can be passed to the methods of
+     * {@link SegmentedReductions}.
+     *
+     * @param sortedKeys
+     *     Key of each value, in ascending order.
+     * @param offsets
+     *     Start of the segment of each key, followed by the end of the last
+     *     segment, with {@code numKeys + 1} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void segmentsByKey(IntArray sortedKeys, IntArray offsets, int numKeys) {
+        for (@Parallel int key = 0; key <= numKeys; key++) {
+            int low = 0;
+            int high = sortedKeys.getSize();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (sortedKeys.get(middle) < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            offsets.set(key, low);
+        }
+    }
+
+    /**
+     * First pass of the sum by key: each chunk of the input computes the sum of
+     * each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialSumByKey(IntArray keys, IntArray values, IntArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, 0);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, partials.get(base + key) + values.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the sum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialSumByKey(IntArray, IntArray, IntArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeSumByKey(IntArray partials, IntArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            int acc = 0;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc += partials.get(chunk * numKeys + key);
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the sum by key: each chunk of the input computes the sum of
+     * each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialSumByKey(IntArray keys, FloatArray values, FloatArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, 0.0f);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, partials.get(base + key) + values.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the sum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialSumByKey(IntArray, FloatArray, FloatArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeSumByKey(FloatArray partials, FloatArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            float acc = 0.0f;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc += partials.get(chunk * numKeys + key);
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the sum by key: each chunk of the input computes the sum of
+     * each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialSumByKey(IntArray keys, DoubleArray values, DoubleArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, 0.0);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, partials.get(base + key) + values.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the sum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialSumByKey(IntArray, DoubleArray, DoubleArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeSumByKey(DoubleArray partials, DoubleArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            double acc = 0.0;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc += partials.get(chunk * numKeys + key);
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the sum by key: each chunk of the input computes the sum of
+     * each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialSumByKey(IntArray keys, LongArray values, LongArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, 0L);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, partials.get(base + key) + values.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the sum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialSumByKey(IntArray, LongArray, LongArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeSumByKey(LongArray partials, LongArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            long acc = 0L;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc += partials.get(chunk * numKeys + key);
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the minimum by key: each chunk of the input computes the
+     * minimum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMinByKey(IntArray keys, IntArray values, IntArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Integer.MAX_VALUE);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.min(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the minimum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMinByKey(IntArray, IntArray, IntArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMinByKey(IntArray partials, IntArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            int acc = Integer.MAX_VALUE;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.min(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the minimum by key: each chunk of the input computes the
+     * minimum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMinByKey(IntArray keys, FloatArray values, FloatArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Float.POSITIVE_INFINITY);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.min(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the minimum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMinByKey(IntArray, FloatArray, FloatArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMinByKey(FloatArray partials, FloatArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            float acc = Float.POSITIVE_INFINITY;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.min(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the minimum by key: each chunk of the input computes the
+     * minimum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMinByKey(IntArray keys, DoubleArray values, DoubleArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Double.POSITIVE_INFINITY);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.min(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the minimum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMinByKey(IntArray, DoubleArray, DoubleArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMinByKey(DoubleArray partials, DoubleArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            double acc = Double.POSITIVE_INFINITY;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.min(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the minimum by key: each chunk of the input computes the
+     * minimum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMinByKey(IntArray keys, LongArray values, LongArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Long.MAX_VALUE);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.min(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the minimum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMinByKey(IntArray, LongArray, LongArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMinByKey(LongArray partials, LongArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            long acc = Long.MAX_VALUE;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.min(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the maximum by key: each chunk of the input computes the
+     * maximum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMaxByKey(IntArray keys, IntArray values, IntArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Integer.MIN_VALUE);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.max(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the maximum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMaxByKey(IntArray, IntArray, IntArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMaxByKey(IntArray partials, IntArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            int acc = Integer.MIN_VALUE;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.max(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the maximum by key: each chunk of the input computes the
+     * maximum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMaxByKey(IntArray keys, FloatArray values, FloatArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Float.NEGATIVE_INFINITY);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.max(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the maximum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMaxByKey(IntArray, FloatArray, FloatArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMaxByKey(FloatArray partials, FloatArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            float acc = Float.NEGATIVE_INFINITY;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.max(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the maximum by key: each chunk of the input computes the
+     * maximum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMaxByKey(IntArray keys, DoubleArray values, DoubleArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Double.NEGATIVE_INFINITY);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.max(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the maximum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMaxByKey(IntArray, DoubleArray, DoubleArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMaxByKey(DoubleArray partials, DoubleArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            double acc = Double.NEGATIVE_INFINITY;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.max(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+
+    /**
+     * First pass of the maximum by key: each chunk of the input computes the
+     * maximum of each key in its own row of {@code partials}.
+     *
+     * @param keys
+     *     Key of each value.
+     * @param values
+     *     Input values.
+     * @param partials
+     *     Partial results, with {@link #partialsSize(int, int)} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void partialMaxByKey(IntArray keys, LongArray values, LongArray partials, int numKeys) {
+        for (@Parallel int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+            int base = chunk * numKeys;
+            for (int key = 0; key < numKeys; key++) {
+                partials.set(base + key, Long.MIN_VALUE);
+            }
+            int numChunks = partials.getSize() / numKeys;
+            int chunkSize = (values.getSize() + numChunks - 1) / numChunks;
+            int first = chunk * chunkSize;
+            int last = Math.min(first + chunkSize, values.getSize());
+            for (int i = first; i < last; i++) {
+                int key = keys.get(i);
+                if (key >= 0 && key < numKeys) {
+                    partials.set(base + key, Math.max(partials.get(base + key), values.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Second pass of the maximum by key: combines the rows of {@code partials}.
+     *
+     * @param partials
+     *     Partial results of {@link #partialMaxByKey(IntArray, LongArray, LongArray, int)}.
+     * @param output
+     *     Result of each key, with at least {@code numKeys} elements.
+     * @param numKeys
+     *     Number of keys.
+     */
+    public static void mergeMaxByKey(LongArray partials, LongArray output, int numKeys) {
+        for (@Parallel int key = 0; key < numKeys; key++) {
+            long acc = Long.MIN_VALUE;
+            for (int chunk = 0; chunk < partials.getSize() / numKeys; chunk++) {
+                acc = Math.max(acc, partials.get(chunk * numKeys + key));
+            }
+            output.set(key, acc);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.reductions;
+
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+
+/**
+ * Segmented reductions. The input values are split in contiguous segments,
+ * described by an offsets array in the CSR format: segment {@code s} covers the
+ * elements {@code [offsets[s], offsets[s + 1])}, so {@code offsets} has one
+ * element more than the number of segments. Each method reduces every segment
+ * to one element of the output.
+ *
+ * <p>
+ * The methods are regular TornadoVM tasks: each thread reduces one segment, so
+ * they do not need {@code @Reduce} and run on all the backends. Empty segments
+ * get the identity of the operation (0, the maximum value for {@code min} and
+ * the minimum value for {@code max}, which are the infinities for floating
+ * point values). Segments should have similar sizes, as
+ * the longest segment bounds the execution time.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <code>
+ * taskGraph.task("t0", SegmentedReductions::sum, values, offsets, output);
+ * </code>
+ * </p>
+ *
+ * @since 1.0.9
+ */
+public final class SegmentedReductions {
+
+    private SegmentedReductions() {
+    }
+
+    /**
+     * Sum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void sum(IntArray values, IntArray offsets, IntArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            int acc = 0;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc += values.get(i);
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Sum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void sum(FloatArray values, IntArray offsets, FloatArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            float acc = 0.0f;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc += values.get(i);
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Sum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void sum(DoubleArray values, IntArray offsets, DoubleArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            double acc = 0.0;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc += values.get(i);
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Sum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void sum(LongArray values, IntArray offsets, LongArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            long acc = 0L;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc += values.get(i);
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Minimum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void min(IntArray values, IntArray offsets, IntArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            int acc = Integer.MAX_VALUE;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.min(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Minimum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void min(FloatArray values, IntArray offsets, FloatArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            float acc = Float.POSITIVE_INFINITY;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.min(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Minimum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void min(DoubleArray values, IntArray offsets, DoubleArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            double acc = Double.POSITIVE_INFINITY;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.min(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Minimum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void min(LongArray values, IntArray offsets, LongArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            long acc = Long.MAX_VALUE;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.min(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Maximum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void max(IntArray values, IntArray offsets, IntArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            int acc = Integer.MIN_VALUE;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.max(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Maximum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void max(FloatArray values, IntArray offsets, FloatArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            float acc = Float.NEGATIVE_INFINITY;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.max(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Maximum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void max(DoubleArray values, IntArray offsets, DoubleArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            double acc = Double.NEGATIVE_INFINITY;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.max(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+
+    /**
+     * Maximum of each segment of {@code values}.
+     *
+     * @param values
+     *     Input values.
+     * @param offsets
+     *     Start of each segment in {@code values}, followed by the end of the
+     *     last segment.
+     * @param output
+     *     Result of each segment.
+     */
+    public static void max(LongArray values, IntArray offsets, LongArray output) {
+        for (@Parallel int segment = 0; segment < output.getSize(); segment++) {
+            long acc = Long.MIN_VALUE;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                acc = Math.max(acc, values.get(i));
+            }
+            output.set(segment, acc);
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package uk.ac.manchester.tornado.api.runtime;
 
+import uk.ac.manchester.tornado.api.CoExecution;
 import uk.ac.manchester.tornado.api.DRMode;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.Policy;
@@ -32,6 +33,7 @@ public class ExecutorFrame {
     private Policy dynamicReconfigurationPolicy;
     private GridScheduler gridScheduler;
     private ProfilerMode profilerMode;
+    private CoExecution coExecution;
 
     public ExecutorFrame(long id) {
         this.executionPlanId = id;
@@ -52,6 +54,11 @@ public class ExecutorFrame {
         return this;
     }
 
+    public ExecutorFrame withCoExecution(CoExecution coExecution) {
+        this.coExecution = coExecution;
+        return this;
+    }
+
     public Policy getDynamicReconfigurationPolicy() {
         return dynamicReconfigurationPolicy;
     }
@@ -60,6 +67,10 @@ public class ExecutorFrame {
         return dynamicReconfigurationMode;
     }
 
+    public CoExecution getCoExecution() {
+        return coExecution;
+    }
+
     public GridScheduler getGridScheduler() {
         return gridScheduler;
     }
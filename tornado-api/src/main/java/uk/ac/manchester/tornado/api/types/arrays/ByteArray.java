@@ -24,6 +24,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -52,12 +53,16 @@ public final class ByteArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public ByteArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private ByteArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / BYTE_BYTES;
-        segmentByteSize = numberOfElements * BYTE_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * BYTE_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -71,6 +76,14 @@ public final class ByteArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    ByteArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link ByteArray} from on-heap data.
      *
@@ -80,12 +93,26 @@ public final class ByteArray extends TornadoNativeArray {
      */
     private static ByteArray createSegment(byte[] values) {
         ByteArray array = new ByteArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link ByteArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link ByteArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static ByteArray allocate(Arena arena, int numberOfElements) {
+        return new ByteArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link ByteArray} class from an on-heap byte array.
      *
@@ -117,10 +144,10 @@ public final class ByteArray extends TornadoNativeArray {
      */
     public static ByteArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / BYTE_BYTES);
+        int numElements = toNumberOfElements(byteSize / BYTE_BYTES);
         ensureMultipleOfElementSize(byteSize, BYTE_BYTES);
         ByteArray byteArray = new ByteArray(numElements);
-        MemorySegment.copy(segment, 0, byteArray.segment, byteArray.baseIndex * BYTE_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, byteArray.segment, (long) byteArray.baseIndex * BYTE_BYTES, byteSize);
         return byteArray;
     }
 
@@ -146,12 +173,52 @@ public final class ByteArray extends TornadoNativeArray {
      */
     public byte[] toHeapArray() {
         byte[] outputArray = new byte[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap byte array into the {@link ByteArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap byte array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link ByteArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link ByteArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(byte[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_BYTE, ((long) baseIndex + index) * BYTE_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link ByteArray} instance into an on-heap byte array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link ByteArray} instance.
+     * @param destination
+     *     The on-heap byte array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link ByteArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, byte[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_BYTE, ((long) baseIndex + index) * BYTE_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the byte value at a specified index of the {@link ByteArray} instance.
      *
@@ -216,7 +283,7 @@ public final class ByteArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -273,7 +340,7 @@ public final class ByteArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static ByteArray concat(ByteArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(ByteArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(ByteArray::getSize).sum());
         ByteArray concatArray = new ByteArray(newSize);
         long currentPositionBytes = 0;
         for (ByteArray array : arrays) {
@@ -296,12 +363,12 @@ public final class ByteArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public ByteArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * BYTE_BYTES;
-        long sliceByteLength = length * BYTE_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * BYTE_BYTES;
+        long sliceByteLength = (long) length * BYTE_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         ByteArray slice = fromSegment(sliceSegment);
         return slice;
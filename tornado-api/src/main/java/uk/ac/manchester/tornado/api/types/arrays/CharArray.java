@@ -24,6 +24,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.CharBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -52,12 +53,16 @@ public final class CharArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public CharArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private CharArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / CHAR_BYTES;
-        segmentByteSize = numberOfElements * CHAR_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * CHAR_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -71,6 +76,14 @@ public final class CharArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    CharArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link CharArray} from on-heap data.
      *
@@ -80,12 +93,26 @@ public final class CharArray extends TornadoNativeArray {
      */
     private static CharArray createSegment(char[] values) {
         CharArray array = new CharArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link CharArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link CharArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static CharArray allocate(Arena arena, int numberOfElements) {
+        return new CharArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link CharArray} class from an on-heap char array.
      *
@@ -117,10 +144,10 @@ public final class CharArray extends TornadoNativeArray {
      */
     public static CharArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / CHAR_BYTES);
+        int numElements = toNumberOfElements(byteSize / CHAR_BYTES);
         ensureMultipleOfElementSize(byteSize, CHAR_BYTES);
         CharArray charArray = new CharArray(numElements);
-        MemorySegment.copy(segment, 0, charArray.segment, charArray.baseIndex * CHAR_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, charArray.segment, (long) charArray.baseIndex * CHAR_BYTES, byteSize);
         return charArray;
     }
 
@@ -159,12 +186,52 @@ public final class CharArray extends TornadoNativeArray {
      */
     public char[] toHeapArray() {
         char[] outputArray = new char[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap char array into the {@link CharArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap char array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link CharArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link CharArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(char[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_CHAR, ((long) baseIndex + index) * CHAR_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link CharArray} instance into an on-heap char array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link CharArray} instance.
+     * @param destination
+     *     The on-heap char array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link CharArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, char[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_CHAR, ((long) baseIndex + index) * CHAR_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the char value at a specified index of the {@link CharArray} instance.
      *
@@ -217,7 +284,7 @@ public final class CharArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -274,7 +341,7 @@ public final class CharArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static CharArray concat(CharArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(CharArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(CharArray::getSize).sum());
         CharArray concatArray = new CharArray(newSize);
         long currentPositionBytes = 0;
         for (CharArray array : arrays) {
@@ -297,12 +364,12 @@ public final class CharArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public CharArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * CHAR_BYTES;
-        long sliceByteLength = length * CHAR_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * CHAR_BYTES;
+        long sliceByteLength = (long) length * CHAR_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         CharArray slice = fromSegment(sliceSegment);
         return slice;
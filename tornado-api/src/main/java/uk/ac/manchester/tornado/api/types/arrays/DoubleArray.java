@@ -24,6 +24,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.DoubleBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -53,13 +54,17 @@ public final class DoubleArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public DoubleArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private DoubleArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         assert arrayHeaderSize >= 8;
         baseIndex = arrayHeaderSize / DOUBLE_BYTES;
-        segmentByteSize = numberOfElements * DOUBLE_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * DOUBLE_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -73,6 +78,14 @@ public final class DoubleArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    DoubleArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link DoubleArray} from on-heap data.
      *
@@ -82,12 +95,26 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     private static DoubleArray createSegment(double[] values) {
         DoubleArray array = new DoubleArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link DoubleArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link DoubleArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static DoubleArray allocate(Arena arena, int numberOfElements) {
+        return new DoubleArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link DoubleArray} class from an on-heap double array.
      *
@@ -119,10 +146,10 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     public static DoubleArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / DOUBLE_BYTES);
+        int numElements = toNumberOfElements(byteSize / DOUBLE_BYTES);
         ensureMultipleOfElementSize(byteSize, DOUBLE_BYTES);
         DoubleArray doubleArray = new DoubleArray(numElements);
-        MemorySegment.copy(segment, 0, doubleArray.segment, doubleArray.baseIndex * DOUBLE_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, doubleArray.segment, (long) doubleArray.baseIndex * DOUBLE_BYTES, byteSize);
         return doubleArray;
     }
 
@@ -148,12 +175,52 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     public double[] toHeapArray() {
         double[] outputArray = new double[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap double array into the {@link DoubleArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap double array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link DoubleArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link DoubleArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(double[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_DOUBLE, ((long) baseIndex + index) * DOUBLE_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link DoubleArray} instance into an on-heap double array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link DoubleArray} instance.
+     * @param destination
+     *     The on-heap double array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link DoubleArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, double[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_DOUBLE, ((long) baseIndex + index) * DOUBLE_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the double value at a specified index of the {@link DoubleArray} instance.
      *
@@ -219,7 +286,7 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -276,7 +343,7 @@ public final class DoubleArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static DoubleArray concat(DoubleArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(DoubleArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(DoubleArray::getSize).sum());
         DoubleArray concatArray = new DoubleArray(newSize);
         long currentPositionBytes = 0;
         for (DoubleArray array : arrays) {
@@ -299,12 +366,12 @@ public final class DoubleArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public DoubleArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * DOUBLE_BYTES;
-        long sliceByteLength = length * DOUBLE_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * DOUBLE_BYTES;
+        long sliceByteLength = (long) length * DOUBLE_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         DoubleArray slice = fromSegment(sliceSegment);
         return slice;
@@ -24,6 +24,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.FloatBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -54,12 +55,16 @@ public final class FloatArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public FloatArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private FloatArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / FLOAT_BYTES;
-        segmentByteSize = numberOfElements * FLOAT_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * FLOAT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -73,6 +78,14 @@ public final class FloatArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    FloatArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link FloatArray} from on-heap data.
      *
@@ -82,12 +95,26 @@ public final class FloatArray extends TornadoNativeArray {
      */
     private static FloatArray createSegment(float[] values) {
         FloatArray array = new FloatArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link FloatArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link FloatArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static FloatArray allocate(Arena arena, int numberOfElements) {
+        return new FloatArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link FloatArray} class from an on-heap float array.
      *
@@ -119,10 +146,10 @@ public final class FloatArray extends TornadoNativeArray {
      */
     public static FloatArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / FLOAT_BYTES);
+        int numElements = toNumberOfElements(byteSize / FLOAT_BYTES);
         ensureMultipleOfElementSize(byteSize, FLOAT_BYTES);
         FloatArray floatArray = new FloatArray(numElements);
-        MemorySegment.copy(segment, 0, floatArray.segment, floatArray.baseIndex * FLOAT_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, floatArray.segment, (long) floatArray.baseIndex * FLOAT_BYTES, byteSize);
         return floatArray;
     }
 
@@ -148,12 +175,52 @@ public final class FloatArray extends TornadoNativeArray {
      */
     public float[] toHeapArray() {
         float[] outputArray = new float[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap float array into the {@link FloatArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap float array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link FloatArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link FloatArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(float[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_FLOAT, ((long) baseIndex + index) * FLOAT_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link FloatArray} instance into an on-heap float array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link FloatArray} instance.
+     * @param destination
+     *     The on-heap float array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link FloatArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, float[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_FLOAT, ((long) baseIndex + index) * FLOAT_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the float value at a specified index of the {@link FloatArray} instance.
      *
@@ -219,7 +286,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -276,7 +343,7 @@ public final class FloatArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static FloatArray concat(FloatArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(FloatArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(FloatArray::getSize).sum());
         FloatArray concatArray = new FloatArray(newSize);
         long currentPositionBytes = 0;
         for (FloatArray array : arrays) {
@@ -299,12 +366,12 @@ public final class FloatArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public FloatArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * FLOAT_BYTES;
-        long sliceByteLength = length * FLOAT_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * FLOAT_BYTES;
+        long sliceByteLength = (long) length * FLOAT_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         FloatArray slice = fromSegment(sliceSegment);
         return slice;
@@ -55,12 +55,16 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public HalfFloatArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private HalfFloatArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
-        segmentByteSize = numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -74,6 +78,14 @@ public final class HalfFloatArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    HalfFloatArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link HalfFloatArray} from on-heap data.
      *
@@ -89,6 +101,22 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return array;
     }
 
+    /**
+     * Allocates a new {@link HalfFloatArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link HalfFloatArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static HalfFloatArray allocate(Arena arena, int numberOfElements) {
+        return new HalfFloatArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link HalfFloatArray} class from an on-heap {@link HalfFloat}.
      *
@@ -120,7 +148,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     public static HalfFloatArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / HALF_FLOAT_BYTES);
+        int numElements = toNumberOfElements(byteSize / HALF_FLOAT_BYTES);
         ensureMultipleOfElementSize(byteSize, HALF_FLOAT_BYTES);
         HalfFloatArray halfFloatArray = new HalfFloatArray(numElements);
         MemorySegment.copy(segment, 0, halfFloatArray.segment, (long) halfFloatArray.baseIndex * HALF_FLOAT_BYTES, byteSize);
@@ -150,8 +178,40 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     public short[] toShortArray() {
         short[] outputArray = new short[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i).getHalfFloatValue();
+        MemorySegment.copy(segment, JAVA_SHORT, (long) baseIndex * HALF_FLOAT_BYTES, outputArray, 0, getSize());
+        return outputArray;
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class from an on-heap float array. Each
+     * value is converted to a half float with {@link Float#floatToFloat16(float)}, without creating
+     * intermediate {@link HalfFloat} objects.
+     *
+     * @param values
+     *     The on-heap float array to create the instance from.
+     * @return A new {@link HalfFloatArray} instance, initialized with the converted values.
+     * @since 1.0.9
+     */
+    public static HalfFloatArray fromFloatArray(float[] values) {
+        HalfFloatArray array = new HalfFloatArray(values.length);
+        for (int i = 0; i < values.length; i++) {
+            array.segment.setAtIndex(JAVA_SHORT, array.baseIndex + i, Float.floatToFloat16(values[i]));
+        }
+        return array;
+    }
+
+    /**
+     * Converts the {@link HalfFloat} data from off-heap to an on-heap float array. Each value
+     * is converted with {@link Float#float16ToFloat(short)}, without creating intermediate
+     * {@link HalfFloat} objects.
+     *
+     * @return A new on-heap float array, initialized with the converted values.
+     * @since 1.0.9
+     */
+    public float[] toFloatArray() {
+        float[] outputArray = new float[getSize()];
+        for (int i = 0; i < outputArray.length; i++) {
+            outputArray[i] = Float.float16ToFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + i));
         }
         return outputArray;
     }
@@ -222,7 +282,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -279,7 +339,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static HalfFloatArray concat(HalfFloatArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(HalfFloatArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(HalfFloatArray::getSize).sum());
         HalfFloatArray concatArray = new HalfFloatArray(newSize);
         long currentPositionBytes = 0;
         for (HalfFloatArray array : arrays) {
@@ -302,12 +362,12 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public HalfFloatArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * HALF_FLOAT_BYTES;
-        long sliceByteLength = length * HALF_FLOAT_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * HALF_FLOAT_BYTES;
+        long sliceByteLength = (long) length * HALF_FLOAT_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         HalfFloatArray slice = fromSegment(sliceSegment);
         return slice;
@@ -23,6 +23,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -51,12 +52,16 @@ public final class IntArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public IntArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private IntArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / INT_BYTES;
-        segmentByteSize = numberOfElements * INT_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * INT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -70,6 +75,14 @@ public final class IntArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    IntArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link IntArray} from on-heap data.
      *
@@ -79,12 +92,26 @@ public final class IntArray extends TornadoNativeArray {
      */
     private static IntArray createSegment(int[] values) {
         IntArray array = new IntArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link IntArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link IntArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static IntArray allocate(Arena arena, int numberOfElements) {
+        return new IntArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link IntArray} class from an on-heap int array.
      *
@@ -116,10 +143,10 @@ public final class IntArray extends TornadoNativeArray {
      */
     public static IntArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / INT_BYTES);
+        int numElements = toNumberOfElements(byteSize / INT_BYTES);
         ensureMultipleOfElementSize(byteSize, INT_BYTES);
         IntArray intArray = new IntArray(numElements);
-        MemorySegment.copy(segment, 0, intArray.segment, intArray.baseIndex * INT_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, intArray.segment, (long) intArray.baseIndex * INT_BYTES, byteSize);
         return intArray;
     }
 
@@ -145,12 +172,52 @@ public final class IntArray extends TornadoNativeArray {
      */
     public int[] toHeapArray() {
         int[] outputArray = new int[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap int array into the {@link IntArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap int array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link IntArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link IntArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(int[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_INT, ((long) baseIndex + index) * INT_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link IntArray} instance into an on-heap int array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link IntArray} instance.
+     * @param destination
+     *     The on-heap int array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link IntArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, int[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_INT, ((long) baseIndex + index) * INT_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the int value at a specified index of the {@link IntArray} instance.
      *
@@ -237,7 +304,7 @@ public final class IntArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -273,7 +340,7 @@ public final class IntArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static IntArray concat(IntArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(IntArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(IntArray::getSize).sum());
         IntArray concatArray = new IntArray(newSize);
         long currentPositionBytes = 0;
         for (IntArray array : arrays) {
@@ -296,12 +363,12 @@ public final class IntArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public IntArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * INT_BYTES;
-        long sliceByteLength = length * INT_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * INT_BYTES;
+        long sliceByteLength = (long) length * INT_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         IntArray slice = fromSegment(sliceSegment);
         return slice;
@@ -24,6 +24,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.LongBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -52,12 +53,16 @@ public final class LongArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public LongArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private LongArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / LONG_BYTES;
 
-        segmentByteSize = numberOfElements * LONG_BYTES + arrayHeaderSize;
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segmentByteSize = (long) numberOfElements * LONG_BYTES + arrayHeaderSize;
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -71,6 +76,14 @@ public final class LongArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    LongArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link LongArray} from on-heap data.
      *
@@ -80,12 +93,26 @@ public final class LongArray extends TornadoNativeArray {
      */
     private static LongArray createSegment(long[] values) {
         LongArray array = new LongArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link LongArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link LongArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static LongArray allocate(Arena arena, int numberOfElements) {
+        return new LongArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link LongArray} class from an on-heap long array.
      *
@@ -117,10 +144,10 @@ public final class LongArray extends TornadoNativeArray {
      */
     public static LongArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / LONG_BYTES);
+        int numElements = toNumberOfElements(byteSize / LONG_BYTES);
         ensureMultipleOfElementSize(byteSize, LONG_BYTES);
         LongArray longArray = new LongArray(numElements);
-        MemorySegment.copy(segment, 0, longArray.segment, longArray.baseIndex * LONG_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, longArray.segment, (long) longArray.baseIndex * LONG_BYTES, byteSize);
         return longArray;
     }
 
@@ -146,12 +173,52 @@ public final class LongArray extends TornadoNativeArray {
      */
     public long[] toHeapArray() {
         long[] outputArray = new long[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap long array into the {@link LongArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap long array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link LongArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link LongArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(long[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_LONG, ((long) baseIndex + index) * LONG_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link LongArray} instance into an on-heap long array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link LongArray} instance.
+     * @param destination
+     *     The on-heap long array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link LongArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, long[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_LONG, ((long) baseIndex + index) * LONG_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the long value at a specified index of the {@link LongArray} instance.
      *
@@ -217,7 +284,7 @@ public final class LongArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -274,7 +341,7 @@ public final class LongArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static LongArray concat(LongArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(LongArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(LongArray::getSize).sum());
         LongArray concatArray = new LongArray(newSize);
         long currentPositionBytes = 0;
         for (LongArray array : arrays) {
@@ -297,12 +364,12 @@ public final class LongArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public LongArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * LONG_BYTES;
-        long sliceByteLength = length * LONG_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * LONG_BYTES;
+        long sliceByteLength = (long) length * LONG_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         LongArray slice = fromSegment(sliceSegment);
         return slice;
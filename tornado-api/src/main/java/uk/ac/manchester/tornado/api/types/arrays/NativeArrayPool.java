@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import static java.lang.String.format;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * A thread-safe pool of native arrays, keyed by the element type and the number
+ * of elements. Applications that process many requests of the same shape can
+ * borrow the arrays of each request from the pool and release them afterwards,
+ * instead of allocating (and zeroing) new off-heap memory per request and
+ * leaving the old arrays to the garbage collector.
+ *
+ * <p>
+ * Since the arrays keep their identity across borrows, an execution plan that
+ * is built over pooled arrays keeps its device buffers between requests. When
+ * a plan is built per request, the device buffers released by the previous
+ * plan are reused by the buffer provider of the device, because the pooled
+ * arrays have the same sizes.
+ * </p>
+ *
+ * <p>
+ * Arrays are pooled by their exact number of elements, since kernels iterate
+ * up to {@link TornadoNativeArray#getSize()}. When the released arrays exceed
+ * the capacity of the pool, the least recently released arrays are evicted,
+ * and their memory is reclaimed by the garbage collector (or when their arena
+ * is closed).
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <code>
+ * FloatArray input = pool.borrow(FloatArray.class, size);
+ * ...
+ * pool.release(input);
+ * </code>
+ * </p>
+ *
+ * @since 1.0.9
+ */
+public final class NativeArrayPool {
+
+    private static final Map<Class<?>, IntFunction<? extends TornadoNativeArray>> FACTORIES = Map.of( //
+            ByteArray.class, ByteArray::new, //
+            CharArray.class, CharArray::new, //
+            DoubleArray.class, DoubleArray::new, //
+            FloatArray.class, FloatArray::new, //
+            HalfFloatArray.class, HalfFloatArray::new, //
+            IntArray.class, IntArray::new, //
+            LongArray.class, LongArray::new, //
+            ShortArray.class, ShortArray::new);
+
+    private record Key(Class<?> type, int numberOfElements) {
+    }
+
+    private record Release(TornadoNativeArray array, long sequence) {
+    }
+
+    private final long capacityInBytes;
+    private final Map<Key, ArrayDeque<TornadoNativeArray>> freeArrays;
+
+    /**
+     * Released arrays in the order of release, for the eviction of the least
+     * recently released arrays. It also detects arrays released twice.
+     */
+    private final IdentityHashMap<TornadoNativeArray, Long> releaseOrder;
+    private final ArrayDeque<Release> evictionQueue;
+
+    private long pooledBytes;
+    private long releaseCounter;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a pool that keeps up to {@code capacityInBytes} bytes of released
+     * arrays, including the array headers.
+     *
+     * @param capacityInBytes
+     *     Maximum number of bytes kept by the pool.
+     */
+    public NativeArrayPool(long capacityInBytes) {
+        if (capacityInBytes < 0) {
+            throw new IllegalArgumentException(format("Invalid capacity: %d", capacityInBytes));
+        }
+        this.capacityInBytes = capacityInBytes;
+        this.freeArrays = new HashMap<>();
+        this.releaseOrder = new IdentityHashMap<>();
+        this.evictionQueue = new ArrayDeque<>();
+    }
+
+    /**
+     * Borrows an array from the pool, or allocates a new one if there is no
+     * pooled array of the same type and size. The contents of the array are
+     * cleared.
+     *
+     * @param type
+     *     Class of the native array (e.g., {@link FloatArray}).
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A native array of the given type and size, with all elements set
+     *     to zero.
+     */
+    public <T extends TornadoNativeArray> T borrow(Class<T> type, int numberOfElements) {
+        IntFunction<? extends TornadoNativeArray> factory = FACTORIES.get(type);
+        if (factory == null) {
+            throw new IllegalArgumentException(format("Type not supported by the pool: %s", type.getName()));
+        }
+        TornadoNativeArray array = poll(new Key(type, numberOfElements));
+        if (array == null) {
+            array = factory.apply(numberOfElements);
+        }
+        array.clear();
+        return type.cast(array);
+    }
+
+    private synchronized TornadoNativeArray poll(Key key) {
+        ArrayDeque<TornadoNativeArray> arrays = freeArrays.get(key);
+        while (arrays != null && !arrays.isEmpty()) {
+            TornadoNativeArray array = arrays.pollLast();
+            releaseOrder.remove(array);
+            pooledBytes -= array.getNumBytesOfSegmentWithHeader();
+            if (array.getSegmentWithHeader().scope().isAlive()) {
+                hits++;
+                return array;
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Returns an array to the pool. The array must not be used after it is
+     * released, since it can be handed out again by {@link #borrow}.
+     *
+     * @param array
+     *     Native array to release.
+     */
+    public synchronized void release(TornadoNativeArray array) {
+        if (!FACTORIES.containsKey(array.getClass())) {
+            throw new IllegalArgumentException(format("Type not supported by the pool: %s", array.getClass().getName()));
+        }
+        if (releaseOrder.containsKey(array)) {
+            throw new IllegalStateException("The array has already been released to the pool");
+        }
+        long bytes = array.getNumBytesOfSegmentWithHeader();
+        if (bytes > capacityInBytes || !array.getSegmentWithHeader().scope().isAlive()) {
+            return;
+        }
+        freeArrays.computeIfAbsent(new Key(array.getClass(), array.getSize()), k -> new ArrayDeque<>()).addLast(array);
+        releaseOrder.put(array, releaseCounter);
+        evictionQueue.addLast(new Release(array, releaseCounter));
+        releaseCounter++;
+        pooledBytes += bytes;
+        evict();
+    }
+
+    private void evict() {
+        while (pooledBytes > capacityInBytes) {
+            Release release = evictionQueue.pollFirst();
+            if (!isPooled(release)) {
+                // The array has been borrowed since this release
+                continue;
+            }
+            TornadoNativeArray array = release.array();
+            releaseOrder.remove(array);
+            freeArrays.get(new Key(array.getClass(), array.getSize())).remove(array);
+            pooledBytes -= array.getNumBytesOfSegmentWithHeader();
+        }
+        if (evictionQueue.size() > 2 * releaseOrder.size()) {
+            evictionQueue.removeIf(release -> !isPooled(release));
+        }
+    }
+
+    private boolean isPooled(Release release) {
+        Long sequence = releaseOrder.get(release.array());
+        return sequence != null && sequence == release.sequence();
+    }
+
+    /**
+     * Removes all the arrays from the pool.
+     */
+    public synchronized void clear() {
+        freeArrays.clear();
+        releaseOrder.clear();
+        evictionQueue.clear();
+        pooledBytes = 0;
+    }
+
+    /**
+     * @return The number of bytes of the arrays currently kept by the pool.
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * @return The number of arrays currently kept by the pool.
+     */
+    public synchronized int getNumberOfPooledArrays() {
+        return releaseOrder.size();
+    }
+
+    /**
+     * @return The number of borrows served with a pooled array.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of borrows that allocated a new array.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
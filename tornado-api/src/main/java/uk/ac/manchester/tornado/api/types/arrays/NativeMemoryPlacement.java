@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.util.Locale;
+
+/**
+ * Best-effort placement hints for the off-heap memory of the native arrays. The
+ * hints are applied with the Linux system calls {@code madvise} and
+ * {@code mbind}, through the Foreign Function API. On other platforms, or if
+ * the calls cannot be resolved, the hints are ignored and the memory keeps the
+ * default policy of the operating system.
+ */
+final class NativeMemoryPlacement {
+
+    static final long HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final long PAGE_SIZE = 4096;
+    private static final int MADV_HUGEPAGE = 14;
+    private static final long MPOL_BIND = 2;
+    private static final long MPOL_MF_MOVE = 1 << 1;
+
+    private static final boolean LINUX = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("linux");
+    private static final long SYS_MBIND = mbindSyscallNumber(System.getProperty("os.arch", ""));
+
+    private static MethodHandle madvise;
+    private static MethodHandle syscall;
+    private static boolean initialized;
+
+    private NativeMemoryPlacement() {
+    }
+
+    private static long mbindSyscallNumber(String arch) {
+        return switch (arch) {
+            case "amd64", "x86_64" -> 237;
+            case "aarch64", "riscv64" -> 235;
+            default -> -1;
+        };
+    }
+
+    private static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        if (!LINUX) {
+            return;
+        }
+        try {
+            Linker linker = Linker.nativeLinker();
+            linker.defaultLookup().find("madvise").ifPresent(symbol -> madvise = linker.downcallHandle(symbol, FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_LONG, JAVA_INT)));
+            if (SYS_MBIND != -1) {
+                // long syscall(long number, ...): all the variadic arguments are passed as longs
+                FunctionDescriptor descriptor = FunctionDescriptor.of(JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_LONG, JAVA_LONG, ADDRESS, JAVA_LONG, JAVA_LONG);
+                linker.defaultLookup().find("syscall").ifPresent(symbol -> syscall = linker.downcallHandle(symbol, descriptor, Linker.Option.firstVariadicArg(1)));
+            }
+        } catch (RuntimeException | LinkageError e) {
+            madvise = null;
+            syscall = null;
+        }
+    }
+
+    /**
+     * Returns the sub-segment covering the whole pages of a segment, or
+     * {@code null} if the segment does not span a full page.
+     */
+    private static MemorySegment wholePages(MemorySegment segment, long pageSize) {
+        long start = (segment.address() + pageSize - 1) & -pageSize;
+        long end = (segment.address() + segment.byteSize()) & -pageSize;
+        if (end <= start) {
+            return null;
+        }
+        return segment.asSlice(start - segment.address(), end - start);
+    }
+
+    /**
+     * Asks the kernel to back the segment with transparent huge pages. This is
+     * needed when the transparent huge pages are configured in
+     * {@code madvise} mode.
+     *
+     * @param segment
+     *     Native {@link MemorySegment}, aligned to {@link #HUGE_PAGE_SIZE}.
+     * @return true if the hint was accepted.
+     */
+    static boolean adviseHugePages(MemorySegment segment) {
+        initialize();
+        MemorySegment pages = segment.isNative() ? wholePages(segment, HUGE_PAGE_SIZE) : null;
+        if (madvise == null || pages == null) {
+            return false;
+        }
+        try {
+            return (int) madvise.invokeExact(pages, pages.byteSize(), MADV_HUGEPAGE) == 0;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Binds the pages of the segment to a NUMA node, moving the pages that
+     * have already been touched. Only the pages fully contained in the segment
+     * are bound, so the memory of other allocations is not affected.
+     *
+     * @param segment
+     *     Native {@link MemorySegment}.
+     * @param node
+     *     NUMA node identifier.
+     * @return true if the memory policy was applied.
+     */
+    static boolean bindToNode(MemorySegment segment, int node) {
+        if (node < 0) {
+            throw new IllegalArgumentException("Invalid NUMA node: " + node);
+        }
+        initialize();
+        MemorySegment pages = segment.isNative() ? wholePages(segment, PAGE_SIZE) : null;
+        if (syscall == null || pages == null) {
+            return false;
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            int words = node / Long.SIZE + 1;
+            MemorySegment nodeMask = arena.allocate((long) words * Long.BYTES, Long.BYTES);
+            nodeMask.setAtIndex(JAVA_LONG, node / Long.SIZE, 1L << (node % Long.SIZE));
+            // The kernel ignores the last bit of maxnode
+            long maxNode = (long) words * Long.SIZE + 1;
+            return (long) syscall.invokeExact(SYS_MBIND, pages.address(), pages.byteSize(), MPOL_BIND, nodeMask, maxNode, MPOL_MF_MOVE) == 0;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
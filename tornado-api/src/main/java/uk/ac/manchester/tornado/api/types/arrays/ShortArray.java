@@ -24,6 +24,7 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.ShortBuffer;
 import java.util.Arrays;
+import java.util.Objects;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
@@ -52,13 +53,17 @@ public final class ShortArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public ShortArray(int numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    private ShortArray(int numberOfElements, Arena arena) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         assert arrayHeaderSize >= 4;
         baseIndex = arrayHeaderSize / SHORT_BYTES;
-        segmentByteSize = numberOfElements * SHORT_BYTES + arrayHeaderSize;
+        segmentByteSize = (long) numberOfElements * SHORT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment = allocateSegment(segmentByteSize, arena);
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
@@ -72,6 +77,14 @@ public final class ShortArray extends TornadoNativeArray {
         concat(arrays);
     }
 
+    ShortArray(MemorySegment elements, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = 0;
+        baseIndex = 0;
+        segmentByteSize = elements.byteSize() + TornadoNativeArray.ARRAY_HEADER;
+        this.segment = elements;
+    }
+
     /**
      * Internal method used to create a new instance of the {@link ShortArray} from on-heap data.
      *
@@ -81,12 +94,26 @@ public final class ShortArray extends TornadoNativeArray {
      */
     private static ShortArray createSegment(short[] values) {
         ShortArray array = new ShortArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        array.copyFrom(values, 0, 0, values.length);
         return array;
     }
 
+    /**
+     * Allocates a new {@link ShortArray} in the given {@link Arena}. The memory of the array is released when the arena is closed,
+     * instead of when the array is reclaimed by the garbage collector. The arena must be kept open while the array is in
+     * use, including by the execution plans that access it (see {@code TornadoExecutionPlan#withArena}).
+     *
+     * @param arena
+     *     The {@link Arena} that manages the lifetime of the array.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @return A new {@link ShortArray} instance allocated in the arena.
+     * @since 1.0.9
+     */
+    public static ShortArray allocate(Arena arena, int numberOfElements) {
+        return new ShortArray(numberOfElements, arena);
+    }
+
     /**
      * Creates a new instance of the {@link ShortArray} class from an on-heap short array.
      *
@@ -118,10 +145,10 @@ public final class ShortArray extends TornadoNativeArray {
      */
     public static ShortArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / SHORT_BYTES);
+        int numElements = toNumberOfElements(byteSize / SHORT_BYTES);
         ensureMultipleOfElementSize(byteSize, SHORT_BYTES);
         ShortArray shortArray = new ShortArray(numElements);
-        MemorySegment.copy(segment, 0, shortArray.segment, shortArray.baseIndex * SHORT_BYTES, byteSize);
+        MemorySegment.copy(segment, 0, shortArray.segment, (long) shortArray.baseIndex * SHORT_BYTES, byteSize);
         return shortArray;
     }
 
@@ -147,12 +174,52 @@ public final class ShortArray extends TornadoNativeArray {
      */
     public short[] toHeapArray() {
         short[] outputArray = new short[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        copyTo(0, outputArray, 0, getSize());
         return outputArray;
     }
 
+    /**
+     * Copies a range of elements from an on-heap short array into the {@link ShortArray} instance, with a
+     * bulk memory copy.
+     *
+     * @param source
+     *     The on-heap short array to copy the elements from.
+     * @param sourceIndex
+     *     The index of the first element to copy from the source array.
+     * @param index
+     *     The index of the {@link ShortArray} at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the source array or of the {@link ShortArray} instance.
+     * @since 1.0.9
+     */
+    public void copyFrom(short[] source, int sourceIndex, int index, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(source, sourceIndex, segment, JAVA_SHORT, ((long) baseIndex + index) * SHORT_BYTES, length);
+    }
+
+    /**
+     * Copies a range of elements from the {@link ShortArray} instance into an on-heap short array, with a
+     * bulk memory copy.
+     *
+     * @param index
+     *     The index of the first element to copy from the {@link ShortArray} instance.
+     * @param destination
+     *     The on-heap short array to copy the elements to.
+     * @param destinationIndex
+     *     The index of the destination array at which to store the first element.
+     * @param length
+     *     The number of elements to copy.
+     * @throws IndexOutOfBoundsException
+     *     if the range is out of the bounds of the {@link ShortArray} instance or of the destination array.
+     * @since 1.0.9
+     */
+    public void copyTo(int index, short[] destination, int destinationIndex, int length) {
+        Objects.checkFromIndexSize(index, length, numberOfElements);
+        MemorySegment.copy(segment, JAVA_SHORT, ((long) baseIndex + index) * SHORT_BYTES, destination, destinationIndex, length);
+    }
+
     /**
      * Sets the short value at a specified index of the {@link ShortArray} instance.
      *
@@ -218,7 +285,7 @@ public final class ShortArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
-        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+        return segment.asSlice(arrayHeaderSize);
     }
 
     /**
@@ -275,7 +342,7 @@ public final class ShortArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static ShortArray concat(ShortArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(ShortArray::getSize).sum();
+        int newSize = toNumberOfElements(Arrays.stream(arrays).mapToLong(ShortArray::getSize).sum());
         ShortArray concatArray = new ShortArray(newSize);
         long currentPositionBytes = 0;
         for (ShortArray array : arrays) {
@@ -297,12 +364,12 @@ public final class ShortArray extends TornadoNativeArray {
      *     if the specified slice is out of the bounds of the original array.
      */
     public ShortArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * SHORT_BYTES;
-        long sliceByteLength = length * SHORT_BYTES;
+        long sliceOffsetInBytes = arrayHeaderSize + (long) offset * SHORT_BYTES;
+        long sliceByteLength = (long) length * SHORT_BYTES;
         MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
         ShortArray slice = fromSegment(sliceSegment);
         return slice;
@@ -17,11 +17,19 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
+import java.io.IOException;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.function.BiFunction;
 
 import uk.ac.manchester.tornado.api.types.tensors.Tensor;
 
 import static java.lang.String.format;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
 
 /**
  * This abstract sealed class represents the common functionality of the TornadoVM custom native arrays,
@@ -48,6 +56,38 @@ public abstract sealed class TornadoNativeArray //
      */
     public static final long ARRAY_HEADER = Long.parseLong(System.getProperty("tornado.panama.objectHeader", "24"));
 
+    /**
+     * The alignment in bytes of the memory segments allocated for the native arrays. By default (1), the segments are not
+     * aligned beyond what the allocator provides. Larger alignments are opt-in through the "tornado.panama.alignment"
+     * system property (e.g., 128 to match the base address alignment of most OpenCL devices, 4KB or 2MB). With an
+     * alignment of 2MB or more, the arrays are backed by transparent huge pages on Linux.
+     */
+    public static final long ARRAY_ALIGNMENT = parseAlignment(System.getProperty("tornado.panama.alignment", "1"));
+
+    /**
+     * The NUMA node in which the memory segments of the native arrays are placed, configurable through the
+     * "tornado.panama.numaNode" system property. By default (-1), the operating system decides the placement.
+     */
+    public static final int ARRAY_NUMA_NODE = Integer.parseInt(System.getProperty("tornado.panama.numaNode", "-1"));
+
+    private record MappedArrayFactory(int elementSize, BiFunction<MemorySegment, Integer, ? extends TornadoNativeArray> constructor) {
+    }
+
+    private static final Map<Class<?>, MappedArrayFactory> MAPPED_FACTORIES = Map.of( //
+            ByteArray.class, new MappedArrayFactory(Byte.BYTES, ByteArray::new), //
+            CharArray.class, new MappedArrayFactory(Character.BYTES, CharArray::new), //
+            DoubleArray.class, new MappedArrayFactory(Double.BYTES, DoubleArray::new), //
+            FloatArray.class, new MappedArrayFactory(Float.BYTES, FloatArray::new), //
+            HalfFloatArray.class, new MappedArrayFactory(Short.BYTES, HalfFloatArray::new), //
+            IntArray.class, new MappedArrayFactory(Integer.BYTES, IntArray::new), //
+            LongArray.class, new MappedArrayFactory(Long.BYTES, LongArray::new), //
+            ShortArray.class, new MappedArrayFactory(Short.BYTES, ShortArray::new));
+
+    /**
+     * Header of the arrays whose elements are stored apart from it (e.g., arrays mapped from a file).
+     */
+    private MemorySegment detachedHeader;
+
     /**
      * Returns the number of elements stored in the native array.
      *
@@ -63,12 +103,34 @@ public abstract sealed class TornadoNativeArray //
     public abstract MemorySegment getSegment();
 
     /**
-     * Returns the underlying {@link MemorySegment} of the native array, including the header.
+     * Returns the underlying {@link MemorySegment} of the native array, including the header. If the
+     * header is detached (see {@link #isHeaderDetached()}), the segment only contains the elements.
      *
      * @return The {@link MemorySegment} associated with the native array instance.
      */
     public abstract MemorySegment getSegmentWithHeader();
 
+    /**
+     * Returns the {@link #ARRAY_HEADER} bytes of the header of the native array.
+     *
+     * @return The {@link MemorySegment} that holds the header.
+     * @since 1.0.9
+     */
+    public MemorySegment getHeaderSegment() {
+        return detachedHeader != null ? detachedHeader : getSegmentWithHeader().asSlice(0, ARRAY_HEADER);
+    }
+
+    /**
+     * Checks whether the header is stored apart from the elements, as in the arrays created with
+     * {@link #mapFile}. The backends then copy the header from {@link #getHeaderSegment()}.
+     *
+     * @return true if the header is not part of {@link #getSegmentWithHeader()}.
+     * @since 1.0.9
+     */
+    public boolean isHeaderDetached() {
+        return detachedHeader != null;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment} occupies, including the header bytes.
      *
@@ -90,6 +152,51 @@ public abstract sealed class TornadoNativeArray //
 
     public abstract int getElementSize();
 
+    /**
+     * Binds the memory of the native array to a NUMA node, migrating the pages that have already been touched. This
+     * is useful to place the arrays that feed a device in the node attached to it. Only the pages fully contained in
+     * the array are bound. This is a hint supported on Linux: in other platforms, or for arrays that do not span a
+     * full page, the placement is not changed.
+     *
+     * @param node
+     *     The NUMA node identifier.
+     * @return true if the memory policy was applied, false otherwise.
+     * @since 1.0.9
+     */
+    public boolean bindToNumaNode(int node) {
+        return NativeMemoryPlacement.bindToNode(getSegmentWithHeader(), node);
+    }
+
+    /**
+     * Allocates the memory segment of a native array in an arena with {@link #ARRAY_ALIGNMENT},
+     * applying the huge page and NUMA placement hints when they are configured.
+     */
+    static MemorySegment allocateSegment(long byteSize, Arena arena) {
+        MemorySegment segment = arena.allocate(byteSize, ARRAY_ALIGNMENT);
+        if (ARRAY_ALIGNMENT >= NativeMemoryPlacement.HUGE_PAGE_SIZE) {
+            NativeMemoryPlacement.adviseHugePages(segment);
+        }
+        if (ARRAY_NUMA_NODE >= 0) {
+            NativeMemoryPlacement.bindToNode(segment, ARRAY_NUMA_NODE);
+        }
+        return segment;
+    }
+
+    private static long parseAlignment(String value) {
+        String size = value.trim().toUpperCase();
+        long unit = 1;
+        if (size.endsWith("KB")) {
+            unit = 1024;
+        } else if (size.endsWith("MB")) {
+            unit = 1024 * 1024;
+        }
+        long alignment = Long.parseLong(unit == 1 ? size : size.substring(0, size.length() - 2).trim()) * unit;
+        if (alignment <= 0 || Long.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException(format("The alignment of the native arrays must be a power of two: %s", value));
+        }
+        return alignment;
+    }
+
     /**
      * Checks that the byte size is a multiple of the element size.
      */
@@ -99,4 +206,71 @@ public abstract sealed class TornadoNativeArray //
         }
     }
 
+    /**
+     * Checks that a number of elements fits in the {@code int} element count of
+     * the array header. The byte size of an array is computed with {@code long}
+     * arithmetic, so arrays larger than 2GB are supported as long as their
+     * number of elements is below {@link Integer#MAX_VALUE}.
+     */
+    static int toNumberOfElements(long numberOfElements) {
+        if (numberOfElements < 0 || numberOfElements > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(format("Invalid number of elements: %d (the maximum is %d)", numberOfElements, Integer.MAX_VALUE));
+        }
+        return (int) numberOfElements;
+    }
+
+    /**
+     * Creates a native array backed by a region of a file mapped into memory. The elements are not
+     * copied: they are read from (and, with {@link FileChannel.MapMode#READ_WRITE}, written to) the
+     * file on demand, and the mapping is passed to the device as any other native array.
+     *
+     * <p>
+     * The array header is kept in a separate segment (see {@link #getHeaderSegment()}), so the file
+     * only holds the elements and is never modified by TornadoVM. The file is opened for writing only
+     * with {@link FileChannel.MapMode#READ_WRITE} and {@link FileChannel.MapMode#PRIVATE}, since the JDK
+     * requires a writable channel for copy-on-write mappings. Arrays mapped with
+     * {@link FileChannel.MapMode#READ_ONLY} cannot be modified, so they can only be copied to the device.
+     * The mapping is released when the array is no longer reachable.
+     * </p>
+     *
+     * @param type
+     *     The class of the native array (e.g., {@code FloatArray.class}).
+     * @param path
+     *     The file that contains the elements.
+     * @param offset
+     *     Offset in bytes of the first element in the file. It must be a multiple of the element size.
+     * @param numberOfElements
+     *     The number of elements to map.
+     * @param mode
+     *     The {@link FileChannel.MapMode} of the mapping.
+     * @return A new native array of the given type, backed by the file.
+     * @throws IOException
+     *     If the file cannot be opened or mapped.
+     * @since 1.0.9
+     */
+    public static <T extends TornadoNativeArray> T mapFile(Class<T> type, Path path, long offset, int numberOfElements, FileChannel.MapMode mode) throws IOException {
+        MappedArrayFactory factory = MAPPED_FACTORIES.get(type);
+        if (factory == null) {
+            throw new IllegalArgumentException(format("Type not supported by mapFile: %s", type.getName()));
+        }
+        if (offset < 0 || offset % factory.elementSize() != 0) {
+            throw new IllegalArgumentException(format("The offset (%d) is not a multiple of the element size (%d)", offset, factory.elementSize()));
+        }
+        if (numberOfElements < 0) {
+            throw new IllegalArgumentException(format("Invalid number of elements: %d", numberOfElements));
+        }
+        long dataByteSize = (long) numberOfElements * factory.elementSize();
+        try (FileChannel channel = mode == FileChannel.MapMode.READ_ONLY //
+                ? FileChannel.open(path, StandardOpenOption.READ) //
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (offset + dataByteSize > channel.size()) {
+                throw new IllegalArgumentException(format("The region [%d, %d) exceeds the size of the file %s (%d bytes)", offset, offset + dataByteSize, path, channel.size()));
+            }
+            TornadoNativeArray array = factory.constructor().apply(channel.map(mode, offset, dataByteSize, Arena.ofAuto()), numberOfElements);
+            array.detachedHeader = Arena.ofAuto().allocate(ARRAY_HEADER, Long.BYTES);
+            array.detachedHeader.set(JAVA_INT, 0, numberOfElements);
+            return type.cast(array);
+        }
+    }
+
 }
@@ -107,11 +107,7 @@ public final class Matrix2DDouble extends Matrix2DType implements TornadoMatrixI
         int baseIndex = toRowMajor(row, 0, COLUMNS);
         int to = getFinalIndexOfRange(baseIndex);
         int size = to - baseIndex;
-        DoubleArray f = new DoubleArray(size);
-        int j = 0;
-        for (int i = baseIndex; i < to; i++, j++) {
-            f.set(j, storage.get(i));
-        }
+        DoubleArray f = storage.slice(baseIndex, size);
         return new VectorDouble(COLUMNS, f);
     }
 
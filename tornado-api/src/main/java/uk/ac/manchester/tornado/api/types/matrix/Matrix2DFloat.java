@@ -114,12 +114,7 @@ public final class Matrix2DFloat extends Matrix2DType implements TornadoMatrixIn
         int baseIndex = toRowMajor(row, 0, COLUMNS);
         int to = getFinalIndexOfRange(baseIndex);
         int size = to - baseIndex;
-        FloatArray f = new FloatArray(size);
-        int j = 0;
-        for (int i = baseIndex; i < to; i++) {
-            f.set(j, storage.get(i));
-            j++;
-        }
+        FloatArray f = storage.slice(baseIndex, size);
         return new VectorFloat(COLUMNS, f);
     }
 
@@ -114,12 +114,7 @@ public final class Matrix2DInt extends Matrix2DType implements TornadoMatrixInte
         int baseIndex = toRowMajor(row, 0, COLUMNS);
         int to = getFinalIndexOfRange(baseIndex);
         int size = to - baseIndex;
-        IntArray f = new IntArray(size);
-        int j = 0;
-        for (int i = baseIndex; i < to; i++) {
-            f.set(j, storage.get(i));
-            j++;
-        }
+        IntArray f = storage.slice(baseIndex, size);
         return new VectorInt(COLUMNS, f);
     }
 
@@ -43,9 +43,27 @@ public record Shape(long... dimensions) {
      * Calculates and returns the size of the shape, which is the product of all its dimensions.
      *
      * @return the total size of the shape as an int
+     * @throws IllegalArgumentException
+     *     if the size does not fit in an int. Use {@link #getSizeLong()} for larger shapes.
      */
     public int getSize() {
-        return (int) Arrays.stream(dimensions).reduce(1, (a, b) -> a * b);
+        long size = getSizeLong();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The size of " + this + " (" + size + " elements) exceeds the maximum number of elements of a tensor (" + Integer.MAX_VALUE + ")");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Calculates and returns the size of the shape, which is the product of all its dimensions.
+     *
+     * @return the total size of the shape as a long
+     * @throws ArithmeticException
+     *     if the size overflows a long
+     * @since 1.0.9
+     */
+    public long getSizeLong() {
+        return Arrays.stream(dimensions).reduce(1, Math::multiplyExact);
     }
 
     @Override
@@ -133,11 +133,7 @@ public final class TensorFP32 extends Tensor {
     }
 
     public float[] toHeapArray() {
-        float[] outputArray = new float[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
-        return outputArray;
+        return tensorStorage.toHeapArray();
     }
 
     public FloatBuffer getFloatBuffer() {
@@ -156,9 +156,7 @@ public final class StorageFormats {
         final int rows = matrix.length;
         DoubleArray flattenMatrix = new DoubleArray(rows * cols);
         for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                flattenMatrix.set(toRowMajor(i, j, cols), matrix[i][j]);
-            }
+            flattenMatrix.copyFrom(matrix[i], 0, toRowMajor(i, 0, cols), cols);
         }
         return flattenMatrix;
     }
@@ -177,9 +175,7 @@ public final class StorageFormats {
         FloatArray flattenMatrix = new FloatArray(dimX * dimY);
 
         for (int i = 0; i < dimX; i++) {
-            for (int j = 0; j < dimY; j++) {
-                flattenMatrix.set(toRowMajor(i, j, dimY), matrix[i][j]);
-            }
+            flattenMatrix.copyFrom(matrix[i], 0, toRowMajor(i, 0, dimY), dimY);
         }
 
         return flattenMatrix;
@@ -193,10 +189,7 @@ public final class StorageFormats {
 
         for (int i = 0; i < dimX; i++) {
             for (int j = 0; j < dimY; j++) {
-                for (int k = 0; k < dimZ; k++) {
-                    int index = toRowMajor3D(i, j, k, dimZ, dimY);
-                    flattenMatrix.set(index, matrix[i][j][k]);
-                }
+                flattenMatrix.copyFrom(matrix[i][j], 0, toRowMajor3D(i, j, 0, dimZ, dimY), dimZ);
             }
         }
         return flattenMatrix;
@@ -210,10 +203,7 @@ public final class StorageFormats {
 
         for (int i = 0; i < dimX; i++) {
             for (int j = 0; j < dimY; j++) {
-                for (int k = 0; k < dimZ; k++) {
-                    int index = toRowMajor3D(i, j, k, dimZ, dimY);
-                    flattenMatrix.set(index, matrix[i][j][k]);
-                }
+                flattenMatrix.copyFrom(matrix[i][j], 0, toRowMajor3D(i, j, 0, dimZ, dimY), dimZ);
             }
         }
         return flattenMatrix;
@@ -227,10 +217,7 @@ public final class StorageFormats {
 
         for (int i = 0; i < dimX; i++) {
             for (int j = 0; j < dimY; j++) {
-                for (int k = 0; k < dimZ; k++) {
-                    int index = toRowMajor3D(i, j, k, dimZ, dimY);
-                    flattenMatrix.set(index, matrix[i][j][k]);
-                }
+                flattenMatrix.copyFrom(matrix[i][j], 0, toRowMajor3D(i, j, 0, dimZ, dimY), dimZ);
             }
         }
         return flattenMatrix;
@@ -244,10 +231,7 @@ public final class StorageFormats {
 
         for (int i = 0; i < dimX; i++) {
             for (int j = 0; j < dimY; j++) {
-                for (int k = 0; k < dimZ; k++) {
-                    int index = toRowMajor3D(i, j, k, dimZ, dimY);
-                    flattenMatrix.set(index, matrix[i][j][k]);
-                }
+                flattenMatrix.copyFrom(matrix[i][j], 0, toRowMajor3D(i, j, 0, dimZ, dimY), dimZ);
             }
         }
         return flattenMatrix;
@@ -261,10 +245,7 @@ public final class StorageFormats {
 
         for (int i = 0; i < dimX; i++) {
             for (int j = 0; j < dimY; j++) {
-                for (int k = 0; k < dimZ; k++) {
-                    int index = toRowMajor3D(i, j, k, dimZ, dimY);
-                    flattenMatrix.set(index, matrix[i][j][k]);
-                }
+                flattenMatrix.copyFrom(matrix[i][j], 0, toRowMajor3D(i, j, 0, dimZ, dimY), dimZ);
             }
         }
         return flattenMatrix;
@@ -276,9 +257,7 @@ public final class StorageFormats {
 
         IntArray matrixRM = new IntArray(dimX * dimY);
         for (int i = 0; i < dimX; i++) {
-            for (int j = 0; j < dimY; j++) {
-                matrixRM.set(toRowMajor(i, j, dimY), matrix[i][j]);
-            }
+            matrixRM.copyFrom(matrix[i], 0, toRowMajor(i, 0, dimY), dimY);
         }
         return matrixRM;
     }
@@ -17,6 +17,7 @@ if not errorlevel 1 (
 	echo:
 	python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLJITCompiler
 	python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLTornadoCompiler
+	python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLBufferArena
 )
 echo %backends% | findstr "\<spirv\>" >nul
 if not errorlevel 1 (
@@ -30,4 +31,5 @@ if not errorlevel 1 (
 	echo:
 	python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLJITCompiler
 	python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLTornadoCompiler
+	python %TORNADO_SDK%\bin\tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLBufferArena
 )
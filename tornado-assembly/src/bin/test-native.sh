@@ -28,6 +28,7 @@ if [[ $selected_backends == *"opencl"* ]]; then
   echo -e "\nTesting the Native OpenCL API\n"
   tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLJITCompiler
   tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLTornadoCompiler
+  tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLBufferArena
 fi
 
 if [[ $selected_backends == *"spirv"* ]]; then
@@ -42,6 +43,7 @@ if [[ $selected_backends == *"spirv"* ]]; then
   echo -e "\nTesting the Native OpenCL API\n"
   tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLJITCompiler
   tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLTornadoCompiler
+  tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLBufferArena
 fi
 
 echo " "
@@ -22,11 +22,13 @@ module tornado.benchmarks {
 
     requires transitive tornado.api;
     requires transitive tornado.matrices;
+    requires tornado.drivers.common;
 
     exports uk.ac.manchester.tornado.benchmarks;
     exports uk.ac.manchester.tornado.benchmarks.addImage;
     exports uk.ac.manchester.tornado.benchmarks.blackscholes;
     exports uk.ac.manchester.tornado.benchmarks.blurFilter;
+    exports uk.ac.manchester.tornado.benchmarks.bufferprovider;
     exports uk.ac.manchester.tornado.benchmarks.convolvearray;
     exports uk.ac.manchester.tornado.benchmarks.convolveimage;
     exports uk.ac.manchester.tornado.benchmarks.dft;
@@ -35,6 +37,7 @@ module tornado.benchmarks {
     exports uk.ac.manchester.tornado.benchmarks.dotvector;
     exports uk.ac.manchester.tornado.benchmarks.euler;
     exports uk.ac.manchester.tornado.benchmarks.hilbert;
+    exports uk.ac.manchester.tornado.benchmarks.launch;
     exports uk.ac.manchester.tornado.benchmarks.mandelbrot;
     exports uk.ac.manchester.tornado.benchmarks.montecarlo;
     exports uk.ac.manchester.tornado.benchmarks.nbody;
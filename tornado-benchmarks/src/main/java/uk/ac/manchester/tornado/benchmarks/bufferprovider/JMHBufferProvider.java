@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.bufferprovider;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+
+/**
+ * <p>
+ * Micro-benchmark that churns allocations and releases through the
+ * {@link TornadoBufferProvider} on a mock device. No native buffers are
+ * created, so it measures the book-keeping cost of the buffer cache only.
+ * </p>
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.bufferprovider.JMHBufferProvider
+ * </code>
+ */
+public class JMHBufferProvider {
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+        int numLiveBuffers = Integer.parseInt(System.getProperty("x", "256"));
+        int maxBufferSize = Integer.parseInt(System.getProperty("y", "4194304"));
+        private MockBufferProvider bufferProvider;
+        private long[] liveBuffers;
+        private Random random;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            bufferProvider = new MockBufferProvider(createMockDeviceContext());
+            liveBuffers = new long[numLiveBuffers];
+            random = new Random(7);
+            for (int i = 0; i < numLiveBuffers; i++) {
+                liveBuffers[i] = bufferProvider.getOrAllocateBufferWithSize(nextSize(), Access.READ_WRITE);
+            }
+        }
+
+        private long nextSize() {
+            return 1 + random.nextInt(maxBufferSize);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedProvider {
+        private MockBufferProvider bufferProvider;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            bufferProvider = new MockBufferProvider(createMockDeviceContext());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadBuffers {
+        int numLiveBuffers = Integer.parseInt(System.getProperty("x", "256")) / 4;
+        int maxBufferSize = Integer.parseInt(System.getProperty("y", "4194304"));
+        private long[] liveBuffers;
+        private Random random;
+
+        @Setup(Level.Trial)
+        public void doSetup(SharedProvider shared) {
+            liveBuffers = new long[numLiveBuffers];
+            random = new Random();
+            for (int i = 0; i < numLiveBuffers; i++) {
+                liveBuffers[i] = shared.bufferProvider.getOrAllocateBufferWithSize(nextSize(), Access.READ_WRITE);
+            }
+        }
+
+        private long nextSize() {
+            return 1 + random.nextInt(maxBufferSize);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    public void allocateRelease(BenchmarkSetup state, Blackhole blackhole) {
+        int slot = state.random.nextInt(state.numLiveBuffers);
+        state.bufferProvider.markBufferReleased(state.liveBuffers[slot], Access.READ_WRITE);
+        state.liveBuffers[slot] = state.bufferProvider.getOrAllocateBufferWithSize(state.nextSize(), Access.READ_WRITE);
+        blackhole.consume(state.liveBuffers[slot]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    @Threads(4)
+    public void allocateReleaseConcurrent(SharedProvider shared, ThreadBuffers state, Blackhole blackhole) {
+        int slot = state.random.nextInt(state.numLiveBuffers);
+        shared.bufferProvider.markBufferReleased(state.liveBuffers[slot], Access.READ_WRITE);
+        state.liveBuffers[slot] = shared.bufferProvider.getOrAllocateBufferWithSize(state.nextSize(), Access.READ_WRITE);
+        blackhole.consume(state.liveBuffers[slot]);
+    }
+
+    private static TornadoDeviceContext createMockDeviceContext() {
+        TornadoTargetDevice device = (TornadoTargetDevice) Proxy.newProxyInstance(TornadoTargetDevice.class.getClassLoader(), new Class<?>[] { TornadoTargetDevice.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getDeviceMaxAllocationSize", "getDeviceGlobalMemorySize" -> Long.MAX_VALUE;
+                    case "getDeviceName" -> "mock-device";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (TornadoDeviceContext) Proxy.newProxyInstance(TornadoDeviceContext.class.getClassLoader(), new Class<?>[] { TornadoDeviceContext.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getDevice" -> device;
+                    case "getDeviceName" -> "mock-device";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Buffer provider that hands out increasing fake buffer ids instead of
+     * allocating device memory.
+     */
+    private static class MockBufferProvider extends TornadoBufferProvider {
+
+        private final AtomicLong nextBufferId = new AtomicLong(1);
+
+        MockBufferProvider(TornadoDeviceContext deviceContext) {
+            super(deviceContext);
+        }
+
+        @Override
+        protected long allocateBuffer(long size, Access access) {
+            return nextBufferId.getAndIncrement();
+        }
+
+        @Override
+        protected void releaseBuffer(long buffer) {
+            // Nothing to release on the mock device
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHBufferProvider.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.NANOSECONDS) //
+                .warmupTime(TimeValue.seconds(10)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(10)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+import uk.ac.manchester.tornado.api.common.Access;
+
+/**
+ * Free device buffers of a single {@link Access} type, segregated into bins of
+ * equal size kept in a sorted map. This gives logarithmic-time best-fit search
+ * on allocation.
+ *
+ * <p>
+ * Each pool is one lock stripe of the {@link TornadoBufferProvider}: all
+ * methods synchronize on the pool instance, and no native calls are performed
+ * while holding the lock.
+ * </p>
+ */
+final class BufferPool {
+
+    private final TreeMap<Long, ArrayDeque<BufferContainer>> freeBins;
+    private int numFreeBuffers;
+
+    BufferPool() {
+        this.freeBins = new TreeMap<>();
+    }
+
+    /**
+     * Adds a released buffer to the bin of free buffers of its size.
+     *
+     * @param bufferInfo
+     *     {@link BufferContainer} of the released buffer.
+     */
+    synchronized void addFree(BufferContainer bufferInfo) {
+        freeBins.computeIfAbsent(bufferInfo.size(), size -> new ArrayDeque<>()).addLast(bufferInfo);
+        numFreeBuffers++;
+    }
+
+    /**
+     * Removes from the free bins the smallest buffer that can fulfill the
+     * requested size.
+     *
+     * @param sizeInBytes
+     *     Size in bytes for the requested buffer.
+     * @return the {@link BufferContainer} found, or null if no free buffer is
+     *     large enough.
+     */
+    synchronized BufferContainer pollBestFit(long sizeInBytes) {
+        Map.Entry<Long, ArrayDeque<BufferContainer>> bin = freeBins.ceilingEntry(sizeInBytes);
+        if (bin == null) {
+            return null;
+        }
+        return pollFromBin(bin);
+    }
+
+    /**
+     * Removes the largest free buffer. Freeing the largest buffers first
+     * recovers the requested space with the lowest number of native calls.
+     *
+     * @return the {@link BufferContainer} removed, or null if there are no free
+     *     buffers.
+     */
+    synchronized BufferContainer pollLargestFree() {
+        Map.Entry<Long, ArrayDeque<BufferContainer>> bin = freeBins.lastEntry();
+        if (bin == null) {
+            return null;
+        }
+        return pollFromBin(bin);
+    }
+
+    private BufferContainer pollFromBin(Map.Entry<Long, ArrayDeque<BufferContainer>> bin) {
+        ArrayDeque<BufferContainer> buffers = bin.getValue();
+        BufferContainer bufferInfo = buffers.pollFirst();
+        if (buffers.isEmpty()) {
+            freeBins.remove(bin.getKey());
+        }
+        numFreeBuffers--;
+        return bufferInfo;
+    }
+
+    synchronized int getNumFreeBuffers() {
+        return numFreeBuffers;
+    }
+
+    record BufferContainer(long buffer, long size, Access access) {
+    }
+}
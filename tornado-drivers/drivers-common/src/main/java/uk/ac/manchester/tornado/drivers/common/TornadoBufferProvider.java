@@ -24,32 +24,44 @@ package uk.ac.manchester.tornado.drivers.common;
 
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.DEVICE_AVAILABLE_MEMORY;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import uk.ac.manchester.tornado.api.TornadoDeviceContext;
 import uk.ac.manchester.tornado.api.TornadoTargetDevice;
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.drivers.common.BufferPool.BufferContainer;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 /**
  * This class implements a cache of allocated buffers on the device and also
  * handles the logic to allocate and free buffers. This class is extended for
- * each backend. The logic is as follows: it maintains a list of used buffers
- * and another list of free buffers. When performing an allocation, it first
- * checks if memory is available on the device. If it is not, then it will try
- * to reuse a buffer from the free list of buffers.
+ * each backend. The logic is as follows: it maintains an index of used buffers
+ * and, per {@link Access} type, bins of free buffers segregated by size (see
+ * {@link BufferPool}). When performing an allocation, it first checks if memory
+ * is available on the device. If it is not, then it will try to reuse the
+ * best-fitting buffer from the free bins.
+ *
+ * <p>
+ * There is no global lock. The free bins of each access type are split into
+ * {@link TornadoOptions#DEVICE_BUFFER_POOL_STRIPES} stripes and each thread
+ * releases buffers into, and reuses buffers from, its own stripe first. Thus,
+ * execution plans running from different threads on the same device do not
+ * block each other. The index of used buffers is a concurrent map and the
+ * available device memory is accounted with atomic operations.
+ * </p>
  */
 public abstract class TornadoBufferProvider {
 
     protected final TornadoDeviceContext deviceContext;
-    protected final HashMap<Access, ArrayList<BufferContainer>> freeBuffers;
-    protected final HashMap<Access, ArrayList<BufferContainer>> usedBuffers;
-    protected long currentMemoryAvailable;
+    private final EnumMap<Access, BufferPool[]> bufferPools;
+    private final ConcurrentHashMap<Long, BufferContainer> usedBuffers;
+    protected final AtomicLong currentMemoryAvailable;
+    private final int stripeMask;
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
     private static final String RESET = "\u001B[0m";
@@ -58,85 +70,107 @@ public abstract class TornadoBufferProvider {
 
     protected TornadoBufferProvider(TornadoDeviceContext deviceContext) {
         this.deviceContext = deviceContext;
-        this.usedBuffers = initializeBufferHashMap();
-        this.freeBuffers = initializeBufferHashMap();
-        currentMemoryAvailable = TornadoOptions.DEVICE_AVAILABLE_MEMORY;
+        int numStripes = Integer.highestOneBit(Math.max(1, TornadoOptions.DEVICE_BUFFER_POOL_STRIPES) * 2 - 1);
+        this.stripeMask = numStripes - 1;
+        this.bufferPools = initializeBufferPools(numStripes);
+        this.usedBuffers = new ConcurrentHashMap<>();
+        this.currentMemoryAvailable = new AtomicLong(TornadoOptions.DEVICE_AVAILABLE_MEMORY);
     }
 
-    private HashMap<Access, ArrayList<BufferContainer>> initializeBufferHashMap() {
-        HashMap<Access, ArrayList<BufferContainer>> bufferAccesses = new HashMap<>();
+    private EnumMap<Access, BufferPool[]> initializeBufferPools(int numStripes) {
+        EnumMap<Access, BufferPool[]> pools = new EnumMap<>(Access.class);
         for (Access access : Access.values()) {
-            ArrayList<BufferContainer> bufferList = new ArrayList<>();
-            bufferAccesses.put(access, bufferList);
+            BufferPool[] stripes = new BufferPool[numStripes];
+            for (int i = 0; i < numStripes; i++) {
+                stripes[i] = new BufferPool();
+            }
+            pools.put(access, stripes);
         }
-        return bufferAccesses;
+        return pools;
     }
 
     protected abstract long allocateBuffer(long size, Access access);
 
     protected abstract void releaseBuffer(long buffer);
 
-    private synchronized long allocate(long size, Access access) {
-        long buffer = allocateBuffer(size, access);
-        currentMemoryAvailable -= size;
-        BufferContainer bufferInfo = new BufferContainer(buffer, size, access);
-        usedBuffers.get(access).add(bufferInfo);
-        logger.debug("Buffer %s has been allocated and included in the usedBuffers list with access: %s", bufferInfo, access);
-        return bufferInfo.buffer;
+    private int homeStripe() {
+        return (int) (Thread.currentThread().threadId() & stripeMask);
+    }
+
+    /**
+     * Reserves space from the available device memory without taking any lock.
+     *
+     * @param size
+     *     Size in bytes to reserve.
+     * @return true if the space was reserved.
+     */
+    private boolean reserveMemory(long size) {
+        long available;
+        do {
+            available = currentMemoryAvailable.get();
+            if (size > available) {
+                return false;
+            }
+        } while (!currentMemoryAvailable.compareAndSet(available, available - size));
+        return true;
     }
 
-    private synchronized void freeBuffers(long size, Access access) {
-        // Attempts to free buffers of given size.
-        long remainingSize = size;
-        while (!freeBuffers.get(access).isEmpty() && remainingSize > 0) {
-            BufferContainer bufferInfo = freeBuffers.get(access).removeFirst();
-            TornadoInternalError.guarantee(!usedBuffers.get(access).contains(bufferInfo), "This buffer should not be used");
-            remainingSize -= bufferInfo.size;
-            currentMemoryAvailable += bufferInfo.size;
-            releaseBuffer(bufferInfo.buffer);
+    /**
+     * Allocates a new native buffer. The space must have been reserved with
+     * {@link #reserveMemory(long)}.
+     */
+    private long allocate(long size, Access access) {
+        long buffer;
+        try {
+            buffer = allocateBuffer(size, access);
+        } catch (RuntimeException e) {
+            currentMemoryAvailable.addAndGet(size);
+            throw e;
         }
+        BufferContainer bufferInfo = new BufferContainer(buffer, size, access);
+        usedBuffers.put(buffer, bufferInfo);
+        logger.debug("Buffer %s has been allocated and included in the usedBuffers list with access: %s", bufferInfo, access);
+        return bufferInfo.buffer();
     }
 
-    public synchronized long deallocate(Access access) {
-        // Attempts to free buffers of given size.
+    private long freeBuffers(long size, Access access) {
+        // Attempts to free buffers of given size, starting from the stripe of the current thread.
+        // The largest buffers of each stripe are freed first.
+        BufferPool[] stripes = bufferPools.get(access);
+        int home = homeStripe();
         long spaceDeallocated = 0;
-        while (!freeBuffers.get(access).isEmpty()) {
-            BufferContainer bufferInfo = freeBuffers.get(access).removeFirst();
-            TornadoInternalError.guarantee(!usedBuffers.get(access).contains(bufferInfo), "This buffer should not be used");
-            currentMemoryAvailable += bufferInfo.size;
-            spaceDeallocated += bufferInfo.size;
-            releaseBuffer(bufferInfo.buffer);
+        for (int i = 0; i < stripes.length && spaceDeallocated < size; i++) {
+            BufferPool pool = stripes[(home + i) & stripeMask];
+            BufferContainer bufferInfo;
+            while (spaceDeallocated < size && (bufferInfo = pool.pollLargestFree()) != null) {
+                TornadoInternalError.guarantee(!usedBuffers.containsKey(bufferInfo.buffer()), "This buffer should not be used");
+                releaseBuffer(bufferInfo.buffer());
+                spaceDeallocated += bufferInfo.size();
+                currentMemoryAvailable.addAndGet(bufferInfo.size());
+            }
         }
         return spaceDeallocated;
     }
 
-    private synchronized BufferContainer markBufferUsed(int freeBufferIndex, Access access) {
-        BufferContainer buffer = freeBuffers.get(access).get(freeBufferIndex);
-        usedBuffers.get(access).add(buffer);
-        freeBuffers.get(access).remove(buffer);
-        return buffer;
+    public long deallocate(Access access) {
+        return freeBuffers(Long.MAX_VALUE, access);
     }
 
     /**
-     * First check if there is an available buffer of a given size. Perform a
-     * sequential search through the freeBuffers to get the buffer with the smaller
-     * size than can fulfill the allocation. The number of allocated buffers is
-     * usually low, so searching sequentially should not take a lot of time.
-     *
-     * @param sizeInBytes
-     *     Size in bytes for the requested buffer.
-     * @return returns the index position of a free buffer within the free buffer
-     *     list. It returns -1 if a free buffer slot is not found.
+     * Looks for the best-fitting free buffer, starting from the stripe of the
+     * current thread and borrowing from the other stripes if needed.
      */
-    private synchronized int bufferIndexOfAFreeSpace(long sizeInBytes, Access access) {
-        int minBufferIndex = -1;
-        for (int i = 0; i < freeBuffers.get(access).size(); i++) {
-            BufferContainer bufferInfo = freeBuffers.get(access).get(i);
-            if (bufferInfo.size >= sizeInBytes && (minBufferIndex == -1 || bufferInfo.size < freeBuffers.get(access).get(minBufferIndex).size)) {
-                minBufferIndex = i;
+    private BufferContainer reuseFreeBuffer(long sizeInBytes, Access access) {
+        BufferPool[] stripes = bufferPools.get(access);
+        int home = homeStripe();
+        for (int i = 0; i < stripes.length; i++) {
+            BufferContainer bufferInfo = stripes[(home + i) & stripeMask].pollBestFit(sizeInBytes);
+            if (bufferInfo != null) {
+                usedBuffers.put(bufferInfo.buffer(), bufferInfo);
+                return bufferInfo;
             }
         }
-        return minBufferIndex;
+        return null;
     }
 
     /**
@@ -147,13 +181,18 @@ public abstract class TornadoBufferProvider {
      *     Size in bytes for the requested buffer.
      * @return It returns a buffer native pointer.
      */
-    private synchronized long freeUnusedNativeBufferAndAssignRegion(long sizeInBytes, Access access) {
-        freeBuffers(sizeInBytes, access);
-        if (sizeInBytes <= currentMemoryAvailable) {
+    private long freeUnusedNativeBufferAndAssignRegion(long sizeInBytes, Access access) {
+        // Another thread can take the space we free before we reserve it, so we retry
+        // while there are still free buffers to release.
+        while (freeBuffers(sizeInBytes, access) > 0) {
+            if (reserveMemory(sizeInBytes)) {
+                return allocate(sizeInBytes, access);
+            }
+        }
+        if (reserveMemory(sizeInBytes)) {
             return allocate(sizeInBytes, access);
-        } else {
-            throw new TornadoOutOfMemoryException("Unable to allocate " + sizeInBytes + " bytes of memory." + OUT_OF_MEMORY_MESSAGE);
         }
+        throw new TornadoOutOfMemoryException("Unable to allocate " + sizeInBytes + " bytes of memory." + OUT_OF_MEMORY_MESSAGE);
     }
 
     /**
@@ -168,44 +207,53 @@ public abstract class TornadoBufferProvider {
      * @throws {@link
      *     TornadoOutOfMemoryException}
      */
-    public synchronized long getOrAllocateBufferWithSize(long sizeInBytes, Access access) {
+    public long getOrAllocateBufferWithSize(long sizeInBytes, Access access) {
         TornadoTargetDevice device = deviceContext.getDevice();
-        if (sizeInBytes <= currentMemoryAvailable && sizeInBytes < device.getDeviceMaxAllocationSize()) {
+        if (sizeInBytes >= device.getDeviceMaxAllocationSize()) {
+            throw new TornadoOutOfMemoryException("[ERROR] Unable to allocate " + sizeInBytes + " bytes of memory." + OUT_OF_MEMORY_MESSAGE);
+        }
+        if (reserveMemory(sizeInBytes)) {
             // Allocate if there is enough device memory.
             return allocate(sizeInBytes, access);
-        } else if (sizeInBytes < device.getDeviceMaxAllocationSize()) {
-            int minBufferIndex = bufferIndexOfAFreeSpace(sizeInBytes, access);
-            // If a buffer was found, mark it as used and return it.
-            if (minBufferIndex != -1) {
-                return markBufferUsed(minBufferIndex, access).buffer;
-            } else {
-                return freeUnusedNativeBufferAndAssignRegion(sizeInBytes, access);
-            }
+        }
+        // If a free buffer is found, it is marked as used and returned.
+        BufferContainer bufferInfo = reuseFreeBuffer(sizeInBytes, access);
+        if (bufferInfo != null) {
+            return bufferInfo.buffer();
         } else {
-            throw new TornadoOutOfMemoryException("[ERROR] Unable to allocate " + sizeInBytes + " bytes of memory." + OUT_OF_MEMORY_MESSAGE);
+            return freeUnusedNativeBufferAndAssignRegion(sizeInBytes, access);
         }
     }
 
     /**
-     * Removes the buffer from the {@link #usedBuffers} list and add it to
-     * the @{@link #freeBuffers} list.
+     * Removes the buffer from the index of used buffers and adds it to the bin of
+     * free buffers with the same size, in the stripe of the current thread.
      */
-    public synchronized void markBufferReleased(long buffer, Access access) {
-        int foundIndex = -1;
-        for (int i = 0; i < usedBuffers.get(access).size(); i++) {
-            // find the buffer slot to mark it as free
-            if (usedBuffers.get(access).get(i) != null && usedBuffers.get(access).get(i).buffer == buffer) {
-                foundIndex = i;
-                break;
-            }
+    public void markBufferReleased(long buffer, Access access) {
+        BufferContainer removedBuffer = usedBuffers.remove(buffer);
+        if (removedBuffer != null) {
+            bufferPools.get(removedBuffer.access())[homeStripe()].addFree(removedBuffer);
+            logger.debug("Buffer %s has been released and included in the freeBuffers list for access: %s", removedBuffer, access);
         }
+    }
 
-        if (foundIndex != -1) {
-            // if found, we mark it as free by inserting it into the free list
-            BufferContainer removedBuffer = usedBuffers.get(access).remove(foundIndex);
-            freeBuffers.get(access).add(removedBuffer);
-            logger.debug("Buffer %s has been released and included in the freeBuffers list for access: %s", removedBuffer, access);
+    /**
+     * Removes the buffer from the index of used buffers and releases its native
+     * memory. The free buffers of the same access type are kept.
+     *
+     * @param buffer
+     *     Native buffer to release.
+     * @return Size in bytes released, or 0 if the buffer is not in use.
+     */
+    public long deallocateBuffer(long buffer) {
+        BufferContainer removedBuffer = usedBuffers.remove(buffer);
+        if (removedBuffer == null) {
+            return 0;
         }
+        releaseBuffer(removedBuffer.buffer());
+        currentMemoryAvailable.addAndGet(removedBuffer.size());
+        logger.debug("Buffer %s has been deallocated", removedBuffer);
+        return removedBuffer.size();
     }
 
     /**
@@ -216,29 +264,17 @@ public abstract class TornadoBufferProvider {
      * @return boolean.
      */
     public boolean isNumFreeBuffersAvailable(int numBuffers, Access access) {
-        return freeBuffers.get(access).size() >= numBuffers;
-    }
-
-    public synchronized void resetBuffers(Access access) {
-        freeBuffers(DEVICE_AVAILABLE_MEMORY, access);
-    }
-
-    private record BufferContainer(long buffer, long size, Access access) {
-
-        @Override
-        public boolean equals(Object object) {
-            if (this == object) {
+        int numFreeBuffers = 0;
+        for (BufferPool pool : bufferPools.get(access)) {
+            numFreeBuffers += pool.getNumFreeBuffers();
+            if (numFreeBuffers >= numBuffers) {
                 return true;
             }
-            if (!(object instanceof BufferContainer that)) {
-                return false;
-            }
-            return buffer == that.buffer && size == that.size;
         }
+        return numFreeBuffers >= numBuffers;
+    }
 
-        @Override
-        public int hashCode() {
-            return (int) buffer;
-        }
+    public void resetBuffers(Access access) {
+        freeBuffers(DEVICE_AVAILABLE_MEMORY, access);
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package uk.ac.manchester.tornado.drivers.common.mm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+
+/**
+ * Binary buddy allocator that manages offsets within a region of device
+ * memory. It does not allocate any memory: backends use it to place small
+ * buffers inside a large device buffer (arena). Every block is a power of two
+ * multiple of the minimum block size, and it starts at an offset aligned to its
+ * own size. Thus, if the minimum block size is a multiple of the device base
+ * address alignment, all returned offsets are valid sub-buffer origins.
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class BuddyAllocator {
+
+    public static final long NO_SPACE = -1;
+
+    private final long capacity;
+    private final long minBlockSize;
+    private final int maxOrder;
+    private final List<HashSet<Long>> freeBlocks;
+    private final HashMap<Long, Integer> allocatedBlocks;
+
+    /**
+     * @param capacity
+     *     Size in bytes of the managed region. It must be a power of two.
+     * @param minBlockSize
+     *     Size in bytes of the smallest block. It must be a power of two, not
+     *     larger than the capacity.
+     */
+    public BuddyAllocator(long capacity, long minBlockSize) {
+        TornadoInternalError.guarantee(Long.bitCount(capacity) == 1 && Long.bitCount(minBlockSize) == 1 && minBlockSize <= capacity,
+                "Buddy allocator sizes must be powers of two (capacity=" + capacity + ", minBlockSize=" + minBlockSize + ")");
+        this.capacity = capacity;
+        this.minBlockSize = minBlockSize;
+        this.maxOrder = Long.numberOfTrailingZeros(capacity / minBlockSize);
+        this.freeBlocks = new ArrayList<>(maxOrder + 1);
+        for (int order = 0; order <= maxOrder; order++) {
+            freeBlocks.add(new HashSet<>());
+        }
+        this.allocatedBlocks = new HashMap<>();
+        freeBlocks.get(maxOrder).add(0L);
+    }
+
+    private long blockSize(int order) {
+        return minBlockSize << order;
+    }
+
+    private int orderFor(long size) {
+        long blocks = (Math.max(size, 1) + minBlockSize - 1) / minBlockSize;
+        return 64 - Long.numberOfLeadingZeros(blocks - 1);
+    }
+
+    /**
+     * Reserves a block that can hold the requested size.
+     *
+     * @param size
+     *     Size in bytes.
+     * @return The offset of the block within the region, or {@link #NO_SPACE}
+     *     if there is no free block large enough.
+     */
+    public long allocate(long size) {
+        if (size > capacity) {
+            return NO_SPACE;
+        }
+        int order = orderFor(size);
+        int current = order;
+        while (current <= maxOrder && freeBlocks.get(current).isEmpty()) {
+            current++;
+        }
+        if (current > maxOrder) {
+            return NO_SPACE;
+        }
+        Iterator<Long> iterator = freeBlocks.get(current).iterator();
+        long offset = iterator.next();
+        iterator.remove();
+        // Split the block, keeping the lower half and releasing the upper half
+        while (current > order) {
+            current--;
+            freeBlocks.get(current).add(offset + blockSize(current));
+        }
+        allocatedBlocks.put(offset, order);
+        return offset;
+    }
+
+    /**
+     * Releases a block previously returned by {@link #allocate(long)} and merges
+     * it with its free buddies.
+     *
+     * @param offset
+     *     Offset of the block.
+     */
+    public void free(long offset) {
+        Integer order = allocatedBlocks.remove(offset);
+        TornadoInternalError.guarantee(order != null, "Block at offset " + offset + " is not allocated");
+        long block = offset;
+        int current = order;
+        while (current < maxOrder) {
+            long buddy = block ^ blockSize(current);
+            if (!freeBlocks.get(current).remove(buddy)) {
+                break;
+            }
+            block = Math.min(block, buddy);
+            current++;
+        }
+        freeBlocks.get(current).add(block);
+    }
+
+    /**
+     * @return Size in bytes of the block allocated at the given offset, or 0 if
+     *     there is no block allocated at that offset.
+     */
+    public long getBlockSize(long offset) {
+        Integer order = allocatedBlocks.get(offset);
+        return order == null ? 0 : blockSize(order);
+    }
+
+    public boolean isEmpty() {
+        return allocatedBlocks.isEmpty();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+}
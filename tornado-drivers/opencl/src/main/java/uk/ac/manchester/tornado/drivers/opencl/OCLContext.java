@@ -26,6 +26,7 @@
 package uk.ac.manchester.tornado.drivers.opencl;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,6 +40,8 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class OCLContext implements OCLContextInterface {
 
+    private static final int CL_BUFFER_CREATE_TYPE_REGION = 0x1220;
+
     private final long contextID;
     private final List<OCLTargetDevice> devices;
     private final List<OCLDeviceContext> deviceContexts;
@@ -207,7 +210,15 @@ public class OCLContext implements OCLContextInterface {
         return createBuffer(flags, bytes, 0L);
     }
 
-    private OCLBufferResult createBuffer(long flags, long bytes, long hostPointer) {
+    /**
+     * Creates a buffer. If the flags include
+     * {@link uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags#CL_MEM_USE_HOST_PTR},
+     * the buffer uses the host memory that starts at {@code hostPointer} as its
+     * storage.
+     *
+     * @return The buffer, or null if it could not be created.
+     */
+    public OCLBufferResult createBuffer(long flags, long bytes, long hostPointer) {
         try {
             final OCLBufferResult result = createBuffer(contextID, flags, bytes, hostPointer);
             logger.info("buffer allocated %s @ 0x%x", RuntimeUtilities.humanReadableByteCount(bytes, false), result.getBuffer());
@@ -218,6 +229,36 @@ public class OCLContext implements OCLContextInterface {
         return null;
     }
 
+    /**
+     * Creates a sub-buffer that covers a region of an existing buffer. The
+     * sub-buffer inherits the access flags of its parent buffer.
+     *
+     * @param parentBuffer
+     *     OpenCL buffer that contains the region.
+     * @param origin
+     *     Offset in bytes of the region. It must be aligned to the device
+     *     CL_DEVICE_MEM_BASE_ADDR_ALIGN.
+     * @param size
+     *     Size in bytes of the region.
+     * @return The sub-buffer, or -1 if it could not be created.
+     */
+    public long createSubBuffer(long parentBuffer, long origin, long size) {
+        // cl_buffer_region: {size_t origin; size_t size;}
+        byte[] region = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.nativeOrder()).putLong(origin).putLong(size).array();
+        try {
+            long subBuffer = createSubBuffer(parentBuffer, 0, CL_BUFFER_CREATE_TYPE_REGION, region);
+            if (subBuffer == 0) {
+                logger.warn("unable to create a sub-buffer of %s @ 0x%x + %d", RuntimeUtilities.humanReadableByteCount(size, false), parentBuffer, origin);
+                return -1;
+            }
+            logger.info("sub-buffer created %s @ 0x%x + %d", RuntimeUtilities.humanReadableByteCount(size, false), parentBuffer, origin);
+            return subBuffer;
+        } catch (OCLException e) {
+            logger.error(e.getMessage());
+        }
+        return -1;
+    }
+
     public void releaseBuffer(long bufferId) {
         try {
             clReleaseMemObject(bufferId);
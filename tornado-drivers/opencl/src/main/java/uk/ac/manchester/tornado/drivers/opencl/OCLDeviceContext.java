@@ -44,7 +44,9 @@ import uk.ac.manchester.tornado.drivers.common.utils.EventDescriptor;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResult;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLBufferArena;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLMemoryManager;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLZeroCopyBuffers;
 import uk.ac.manchester.tornado.drivers.opencl.power.OCLEmptyPowerMetricHandler;
 import uk.ac.manchester.tornado.drivers.opencl.power.OCLNvidiaPowerMetricHandler;
 import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLBufferProvider;
@@ -65,6 +67,8 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     private final OCLMemoryManager memoryManager;
     private final Map<Long, OCLEventPool> oclEventPool;
     private final TornadoBufferProvider bufferProvider;
+    private final OCLBufferArena bufferArena;
+    private final OCLZeroCopyBuffers zeroCopyBuffers;
     private boolean wasReset;
     private final Set<Long> executionIDs;
 
@@ -80,6 +84,8 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
         this.memoryManager = new OCLMemoryManager(this);
         this.oclEventPool = new ConcurrentHashMap<>();
         this.bufferProvider = new OCLBufferProvider(this);
+        this.bufferArena = new OCLBufferArena(this);
+        this.zeroCopyBuffers = new OCLZeroCopyBuffers(this);
         this.commandQueueTable = new ConcurrentHashMap<>();
         this.device.setDeviceContext(this);
         this.executionIDs = Collections.synchronizedSet(new HashSet<>());
@@ -142,6 +148,14 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
         return bufferProvider;
     }
 
+    public OCLBufferArena getBufferArena() {
+        return bufferArena;
+    }
+
+    public OCLZeroCopyBuffers getZeroCopyBuffers() {
+        return zeroCopyBuffers;
+    }
+
     @Override
     public void sync(long executionPlanId) {
         OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
@@ -599,7 +613,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
         }
         OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
         OCLEventPool eventPool = getOCLEventPool(executionPlanId);
-        return new OCLEvent(eventPool.getDescriptor(event).getNameDescription(), commandQueue, event, eventPool.getOCLEvent(event));
+        return new OCLEvent(eventPool.getDescriptor(event).getNameDescription(), commandQueue, event, eventPool.getOCLEvent(event), eventPool);
     }
 
     @Override
@@ -615,10 +629,8 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     }
 
     private OCLCodeCache getOCLCodeCache(long executionPlanId) {
-        if (!codeCache.containsKey(executionPlanId)) {
-            codeCache.put(executionPlanId, new OCLCodeCache(this));
-        }
-        return codeCache.get(executionPlanId);
+        // Tasks of a precompiled execution plan are installed from several threads
+        return codeCache.computeIfAbsent(executionPlanId, id -> new OCLCodeCache(this));
     }
 
     @Override
@@ -53,6 +53,7 @@ public class OCLEvent implements Event {
     private String name;
     private int status;
     private TornadoLogger logger;
+    private OCLEventPool eventPool;
 
     OCLEvent() {
         buffer.order(OpenCL.BYTE_ORDER);
@@ -68,6 +69,11 @@ public class OCLEvent implements Event {
         this.status = -1;
     }
 
+    public OCLEvent(String eventNameDescription, final OCLCommandQueue queue, final int event, final long oclEventID, OCLEventPool eventPool) {
+        this(eventNameDescription, queue, event, oclEventID);
+        this.eventPool = eventPool;
+    }
+
     void setEventId(int localId, long eventId) {
         this.localId = localId;
         this.oclEventID = eventId;
@@ -224,6 +230,18 @@ public class OCLEvent implements Event {
         return getCLEndTime();
     }
 
+    @Override
+    public boolean retain() {
+        return eventPool != null && eventPool.retainEvent(localId, oclEventID);
+    }
+
+    @Override
+    public void releaseRetained() {
+        if (eventPool != null) {
+            eventPool.releaseEvent(localId);
+        }
+    }
+
     void release() {
         try {
             clReleaseEvent(oclEventID);
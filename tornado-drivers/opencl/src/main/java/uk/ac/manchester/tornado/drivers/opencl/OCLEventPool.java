@@ -157,6 +157,7 @@ public class OCLEventPool {
             }
         }
         Arrays.fill(events, 0);
+        retain.clear();
         eventIndex = 0;
     }
 
@@ -164,6 +165,21 @@ public class OCLEventPool {
         retain.set(localEventID);
     }
 
+    /**
+     * Retains the slot of an event, so that the OpenCL event is not released when
+     * new events are registered. At most half of the pool can be retained, leaving
+     * room for the events of the commands in flight.
+     *
+     * @return true if the slot still holds the event and it has been retained.
+     */
+    boolean retainEvent(int localEventID, long oclEventId) {
+        if (events[localEventID] != oclEventId || retain.cardinality() >= eventPoolSize / 2) {
+            return false;
+        }
+        retain.set(localEventID);
+        return true;
+    }
+
     protected void releaseEvent(int localEventID) {
         retain.clear(localEventID);
     }
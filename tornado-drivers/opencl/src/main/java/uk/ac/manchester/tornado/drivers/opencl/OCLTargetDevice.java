@@ -40,6 +40,18 @@ public interface OCLTargetDevice extends TornadoTargetDevice {
 
     ByteOrder getByteOrder();
 
+    /**
+     * @return Alignment, in bits, required for the origin of sub-buffers
+     *     (CL_DEVICE_MEM_BASE_ADDR_ALIGN).
+     */
+    int getDeviceMemoryBaseAlignment();
+
+    /**
+     * @return True if the device and the host share the same physical memory
+     *     (CL_DEVICE_HOST_UNIFIED_MEMORY).
+     */
+    boolean hasDeviceUnifiedMemory();
+
     boolean isDeviceDoubleFPSupported();
 
     String getDeviceExtensions();
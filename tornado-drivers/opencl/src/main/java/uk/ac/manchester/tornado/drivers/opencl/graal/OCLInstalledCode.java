@@ -264,17 +264,18 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
             task = deviceContext.enqueueNDRangeKernel(executionPlanId, kernel, 1, null, meta.getGlobalWork(), meta.getLocalWork(), null);
         }
         if (TornadoOptions.isProfilerEnabled()) {
+            TornadoProfiler profiler = meta.getProfiler();
+            String taskId = meta.getId();
             Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, task);
-            tornadoKernelEvent.waitForEvents(executionPlanId);
-            long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
-            // Register globalTime
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + tornadoKernelEvent.getElapsedTime());
-            // Register the time for the task
-            meta.getProfiler().setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), tornadoKernelEvent.getElapsedTime());
-            // Register the dispatch time of the kernel
-            long dispatchValue = meta.getProfiler().getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
-            dispatchValue += tornadoKernelEvent.getDriverDispatchTime();
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
+            // The timers are read when the execution of the task-graph finishes
+            profiler.deferEvent(executionPlanId, tornadoKernelEvent, kernelEvent -> {
+                // Register globalTime
+                profiler.sum(ProfilerType.TOTAL_KERNEL_TIME, kernelEvent.getElapsedTime());
+                // Register the time for the task
+                profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, taskId, kernelEvent.getElapsedTime());
+                // Register the dispatch time of the kernel
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, kernelEvent.getDriverDispatchTime());
+            });
         }
         return task;
     }
@@ -318,15 +319,11 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         if (TornadoOptions.isProfilerEnabled()) {
             TornadoProfiler profiler = meta.getProfiler();
             Event event = deviceContext.resolveEvent(executionPlanId, kernelContextWriteEventId);
-            event.waitForEvents(executionPlanId);
-            long copyInTimer = meta.getProfiler().getTimer(ProfilerType.COPY_IN_TIME);
-            copyInTimer += event.getElapsedTime();
-            profiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
+            profiler.deferEvent(executionPlanId, event, writeEvent -> {
+                profiler.sum(ProfilerType.COPY_IN_TIME, writeEvent.getElapsedTime());
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, writeEvent.getDriverDispatchTime());
+            });
             profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, meta.getId(), callWrapper.getSize());
-
-            long dispatchValue = profiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            profiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
         }
     }
 
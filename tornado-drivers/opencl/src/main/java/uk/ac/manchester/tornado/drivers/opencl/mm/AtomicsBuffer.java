@@ -102,6 +102,13 @@ public class AtomicsBuffer implements XPUBuffer {
         deviceContext.getMemoryManager().deallocateAtomicRegion();
     }
 
+    @Override
+    public long release() throws TornadoMemoryException {
+        // The atomic region is not allocated through the buffer provider
+        deviceContext.getMemoryManager().deallocateAtomicRegion();
+        return 0;
+    }
+
     @Override
     public long size() {
         return atomicsList.length * 4;
@@ -91,6 +91,10 @@ public class FieldBuffer {
         return objectBuffer.size();
     }
 
+    public long release() {
+        return objectBuffer.release();
+    }
+
     void setBuffer(XPUBuffer.XPUBufferWrapper bufferWrapper) {
         objectBuffer.setBuffer(bufferWrapper);
     }
@@ -127,6 +127,15 @@ public abstract class OCLArrayWrapper<T> implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() {
+        TornadoInternalError.guarantee(bufferId != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(bufferId);
+        bufferId = INIT_VALUE;
+        bufferSize = INIT_VALUE;
+        return releasedSize;
+    }
+
     @Override
     public long deallocate() {
         return deviceContext.getBufferProvider().deallocate(access);
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.mm;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.drivers.common.mm.BuddyAllocator;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Arena mode for small device buffers (enabled with
+ * {@code -Dtornado.opencl.arena=True}). Instead of asking the
+ * {@link uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider} for one
+ * {@code cl_mem} per array, arrays up to
+ * {@link TornadoOptions#OPENCL_BUFFER_ARENA_THRESHOLD} bytes are placed inside a
+ * single large buffer per {@link Access} type. Offsets are managed with a
+ * {@link BuddyAllocator} aligned to the device base address alignment, and each
+ * array gets an OpenCL sub-buffer of the arena. Since a sub-buffer is a regular
+ * {@code cl_mem}, data transfers and kernel arguments do not change: the arena
+ * reduces the number of device allocations, not the number of kernel arguments.
+ *
+ * <p>
+ * The arena buffer is requested from the buffer provider the first time it is
+ * needed, and it is returned to the provider when its last sub-buffer is
+ * released.
+ * </p>
+ */
+public class OCLBufferArena {
+
+    private final OCLDeviceContext deviceContext;
+    private final EnumMap<Access, BuddyAllocator> allocators;
+    private final EnumMap<Access, Long> arenaBuffers;
+    private final HashMap<Long, SubBuffer> subBuffers;
+    private final long arenaSize;
+    private final TornadoLogger logger;
+
+    public OCLBufferArena(OCLDeviceContext deviceContext) {
+        this.deviceContext = deviceContext;
+        this.allocators = new EnumMap<>(Access.class);
+        this.arenaBuffers = new EnumMap<>(Access.class);
+        this.subBuffers = new HashMap<>();
+        this.arenaSize = Long.highestOneBit(Math.max(1, TornadoOptions.OPENCL_BUFFER_ARENA_SIZE) * 2 - 1);
+        this.logger = new TornadoLogger(this.getClass());
+    }
+
+    public boolean isSubAllocationEnabled(long sizeInBytes) {
+        return TornadoOptions.OPENCL_BUFFER_ARENA && sizeInBytes <= TornadoOptions.OPENCL_BUFFER_ARENA_THRESHOLD && sizeInBytes <= arenaSize;
+    }
+
+    private long getMinBlockSize() {
+        long alignment = Math.max(deviceContext.getDevice().getDeviceMemoryBaseAlignment() / 8, TornadoOptions.OPENCL_ARRAY_ALIGNMENT);
+        return Math.min(Long.highestOneBit(alignment * 2 - 1), arenaSize);
+    }
+
+    /**
+     * Places a buffer of the given size in the arena of the given access type.
+     *
+     * @param sizeInBytes
+     *     Size in bytes for the requested buffer.
+     * @param access
+     *     Access type of the buffer.
+     * @return An OpenCL sub-buffer, or -1 if the arena has no space left. In this
+     *     case, the caller should allocate a regular buffer.
+     */
+    public synchronized long allocate(long sizeInBytes, Access access) {
+        BuddyAllocator allocator = allocators.get(access);
+        if (allocator == null) {
+            try {
+                long arenaBuffer = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(arenaSize, access);
+                arenaBuffers.put(access, arenaBuffer);
+            } catch (TornadoOutOfMemoryException e) {
+                return -1;
+            }
+            allocator = new BuddyAllocator(arenaSize, getMinBlockSize());
+            allocators.put(access, allocator);
+        }
+
+        long offset = allocator.allocate(sizeInBytes);
+        if (offset == BuddyAllocator.NO_SPACE) {
+            return -1;
+        }
+        long subBuffer = deviceContext.getPlatformContext().createSubBuffer(arenaBuffers.get(access), offset, sizeInBytes);
+        if (subBuffer <= 0) {
+            // clCreateSubBuffer returns NULL on failure (e.g., the offset does not match
+            // the base address alignment of the device)
+            allocator.free(offset);
+            releaseArenaIfEmpty(access);
+            return -1;
+        }
+        subBuffers.put(subBuffer, new SubBuffer(access, offset));
+        logger.debug("Sub-buffer 0x%x of %d bytes placed at offset %d of the %s arena", subBuffer, sizeInBytes, offset, access);
+        return subBuffer;
+    }
+
+    /**
+     * Releases a sub-buffer and its region in the arena.
+     *
+     * @param buffer
+     *     OpenCL buffer to release.
+     * @return true if the buffer was a sub-buffer of the arena. False otherwise,
+     *     and in this case the caller should release it through the buffer
+     *     provider.
+     */
+    public synchronized boolean release(long buffer) {
+        SubBuffer subBuffer = subBuffers.remove(buffer);
+        if (subBuffer == null) {
+            return false;
+        }
+        deviceContext.getPlatformContext().releaseBuffer(buffer);
+        allocators.get(subBuffer.access()).free(subBuffer.offset());
+        releaseArenaIfEmpty(subBuffer.access());
+        return true;
+    }
+
+    /**
+     * Returns the offset of a sub-buffer inside its arena.
+     *
+     * @param buffer
+     *     OpenCL buffer.
+     * @return The offset in bytes, or -1 if the buffer is not a sub-buffer of the
+     *     arena.
+     */
+    public synchronized long getOffset(long buffer) {
+        SubBuffer subBuffer = subBuffers.get(buffer);
+        return subBuffer == null ? -1 : subBuffer.offset();
+    }
+
+    /**
+     * @return true if no arena buffer is held, i.e., all sub-buffers have been
+     *     released and the arenas have been returned to the buffer provider.
+     */
+    public synchronized boolean isEmpty() {
+        return subBuffers.isEmpty() && arenaBuffers.isEmpty();
+    }
+
+    private void releaseArenaIfEmpty(Access access) {
+        BuddyAllocator allocator = allocators.get(access);
+        if (allocator != null && allocator.isEmpty()) {
+            deviceContext.getBufferProvider().markBufferReleased(arenaBuffers.remove(access), access);
+            allocators.remove(access);
+        }
+    }
+
+    private record SubBuffer(Access access, long offset) {
+    }
+}
@@ -97,7 +97,7 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         read(executionPlanId, reference, 0, 0, null, false);
     }
 
-    private MemorySegment getSegmentWithHeader(final Object reference) {
+    private static MemorySegment getSegmentWithHeader(final Object reference) {
         return switch (reference) {
             case TornadoNativeArray tornadoNativeArray -> tornadoNativeArray.getSegmentWithHeader();
             case TornadoCollectionInterface<?> tornadoCollectionInterface -> tornadoCollectionInterface.getSegmentWithHeader();
@@ -108,22 +108,52 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * Returns the number of bytes of the header that a copy from the host offset would access
+     * when the header is detached from the elements (e.g., arrays mapped from a file). These
+     * bytes are not part of the host segment, so they are copied from the header segment or skipped.
+     */
+    private static long getDetachedHeaderBytes(final Object reference, long hostOffset) {
+        if (reference instanceof TornadoNativeArray nativeArray && nativeArray.isHeaderDetached()) {
+            return Math.max(0, TornadoNativeArray.ARRAY_HEADER - hostOffset);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the host address that corresponds to the device offset 0. For arrays with a detached
+     * header, it is computed as if the header preceded the elements, but the header bytes are never
+     * accessed through it.
+     */
+    private static long getHostAddress(final Object reference, MemorySegment segment) {
+        return segment.address() - getDetachedHeaderBytes(reference, 0);
+    }
+
+    private static MemorySegment getWritableSegment(final Object reference) {
+        MemorySegment segment = getSegmentWithHeader(reference);
+        if (segment.isReadOnly()) {
+            throw new TornadoMemoryException("Cannot copy the device buffer into a read-only segment: " + reference.getClass());
+        }
+        return segment;
+    }
+
     @Override
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
-        MemorySegment segment;
-        segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, getWritableSegment(reference));
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (partialReadSize != 0) {
             // Partial Copy Out due to an under demand copy by the user
             // in this case the host offset is equal to the device offset
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset + skip, partialReadSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + skip, numBytes - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
             // Full copy out (default)
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, numBytes, hostAddress, hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
                     ? events
                     : null);
         }
@@ -137,7 +167,11 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment;
         segment = getSegmentWithHeader(reference);
         if (batchSize <= 0) {
-            deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), 0, null);
+            final long skip = getDetachedHeaderBytes(reference, 0);
+            if (skip > 0) {
+                deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, skip, ((TornadoNativeArray) reference).getHeaderSegment().address(), 0, null);
+            }
+            deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset + skip, bufferSize - skip, getHostAddress(reference, segment), skip, null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for writeBuffer operation");
         }
@@ -146,14 +180,17 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
 
     @Override
     public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] events, boolean useDeps) {
-        MemorySegment segment;
-        segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, getWritableSegment(reference));
 
         final int returnEvent;
         if (batchSize <= 0) {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + skip, bufferSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
-            throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
+            // Copy out of a batch, used by pipelined batch processing
+            final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, numBytes, hostAddress, hostOffset + TornadoNativeArray.ARRAY_HEADER,
+                    (useDeps) ? events : null);
         }
         return useDeps ? returnEvent : -1;
     }
@@ -163,14 +200,22 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         List<Integer> returnEvents = new ArrayList<>();
         MemorySegment segment;
         segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, segment);
 
         int internalEvent;
         if (batchSize <= 0) {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            if (skip > 0) {
+                internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, skip, ((TornadoNativeArray) reference).getHeaderSegment().address(), hostOffset,
+                        (useDeps) ? events : null);
+                returnEvents.add(internalEvent);
+            }
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + skip, bufferSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoNativeArray.ARRAY_HEADER, segment.address(), 0, (useDeps) ? events : null);
+            MemorySegment header = reference instanceof TornadoNativeArray nativeArray ? nativeArray.getHeaderSegment() : segment;
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoNativeArray.ARRAY_HEADER, header.address(), 0, (useDeps) ? events : null);
             returnEvents.add(internalEvent);
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize, segment.address(),
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize, hostAddress,
                     hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
         }
         returnEvents.add(internalEvent);
@@ -184,8 +229,19 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         segment = getSegmentWithHeader(reference);
 
         if (batchSize <= 0) {
-            bufferSize = segment.byteSize();
-            bufferId = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(bufferSize, access);
+            // Arrays with a detached header cannot be used as zero-copy buffers, since the header is not in the segment
+            final long detachedHeaderBytes = getDetachedHeaderBytes(reference, 0);
+            bufferSize = segment.byteSize() + detachedHeaderBytes;
+            bufferId = INIT_VALUE;
+            if (detachedHeaderBytes == 0 && deviceContext.getZeroCopyBuffers().isZeroCopyEnabled(segment)) {
+                bufferId = deviceContext.getZeroCopyBuffers().allocate(segment, access);
+            }
+            if (bufferId == INIT_VALUE && deviceContext.getBufferArena().isSubAllocationEnabled(bufferSize)) {
+                bufferId = deviceContext.getBufferArena().allocate(bufferSize, access);
+            }
+            if (bufferId == INIT_VALUE) {
+                bufferId = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(bufferSize, access);
+            }
         } else {
             bufferSize = batchSize;
             bufferId = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(bufferSize + TornadoNativeArray.ARRAY_HEADER, access);
@@ -203,7 +259,9 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
     @Override
     public void markAsFreeBuffer() throws TornadoMemoryException {
         TornadoInternalError.guarantee(bufferId != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
-        deviceContext.getBufferProvider().markBufferReleased(bufferId, access);
+        if (!deviceContext.getZeroCopyBuffers().release(bufferId) && !deviceContext.getBufferArena().release(bufferId)) {
+            deviceContext.getBufferProvider().markBufferReleased(bufferId, access);
+        }
         bufferId = INIT_VALUE;
         bufferSize = INIT_VALUE;
 
@@ -212,6 +270,18 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() {
+        TornadoInternalError.guarantee(bufferId != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
+        long releasedSize = 0;
+        if (!deviceContext.getZeroCopyBuffers().release(bufferId) && !deviceContext.getBufferArena().release(bufferId)) {
+            releasedSize = deviceContext.getBufferProvider().deallocateBuffer(bufferId);
+        }
+        bufferId = INIT_VALUE;
+        bufferSize = INIT_VALUE;
+        return releasedSize;
+    }
+
     @Override
     public long deallocate() {
         return deviceContext.getBufferProvider().deallocate(access);
@@ -76,6 +76,15 @@ public class OCLMultiDimArrayWrapper<T, E> extends OCLArrayWrapper<T> {
         allocateElements((T) value, batchSize, access);
     }
 
+    @Override
+    public long release() {
+        long releasedSize = tableWrapper.release();
+        for (OCLArrayWrapper<E> wrapper : wrappers) {
+            releasedSize += wrapper.release();
+        }
+        return releasedSize;
+    }
+
     private void allocateElements(T values, long batchSize, Access access) {
         final E[] elements = innerCast(values);
         try {
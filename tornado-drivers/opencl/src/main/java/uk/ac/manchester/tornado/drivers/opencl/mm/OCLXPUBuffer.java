@@ -120,31 +120,31 @@ public class OCLXPUBuffer implements XPUBuffer {
                 }
             } else if (type == FloatArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((FloatArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((FloatArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (type == ByteArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((ByteArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((ByteArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (type == DoubleArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((DoubleArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((DoubleArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (type == IntArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((IntArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((IntArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (type == ShortArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((ShortArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((ShortArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (type == LongArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((LongArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((LongArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (type == HalfFloatArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long size = ((HalfFloatArray) objectFromField).getSegmentWithHeader().byteSize();
+                long size = ((HalfFloatArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new OCLMemorySegmentWrapper(size, device, 0, access);
             } else if (object.getClass().getAnnotation(Vector.class) != null) {
                 wrappedField = new OCLVectorWrapper(device, object, 0, access);
@@ -186,6 +186,18 @@ public class OCLXPUBuffer implements XPUBuffer {
         bufferId = -1;
     }
 
+    @Override
+    public long release() throws TornadoMemoryException {
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(bufferId);
+        bufferId = -1;
+        for (FieldBuffer buffer : wrappedFields) {
+            if (buffer != null) {
+                releasedSize += buffer.release();
+            }
+        }
+        return releasedSize;
+    }
+
     private Field getField(Class<?> type, String name) {
         Field result = null;
         try {
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.mm;
+
+import java.lang.foreign.MemorySegment;
+import java.util.HashSet;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.drivers.opencl.OCLContext;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.drivers.opencl.OCLErrorCode;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
+import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLBufferProvider;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Zero-copy mode for devices that share the physical memory with the host, such
+ * as CPU OpenCL runtimes and integrated GPUs (enabled with
+ * {@code -Dtornado.opencl.zerocopy=True}). Instead of allocating a device buffer
+ * and copying the data in and out, the buffer of a native array is created with
+ * {@code CL_MEM_USE_HOST_PTR} over its off-heap {@link MemorySegment}, so the
+ * kernels access the host memory directly.
+ *
+ * <p>
+ * The data transfers of the TornadoVM bytecodes are still issued: a
+ * {@code clEnqueueWriteBuffer} or {@code clEnqueueReadBuffer} whose host pointer
+ * is the one used to create the buffer is the synchronization point that the
+ * OpenCL specification requires for {@code CL_MEM_USE_HOST_PTR} buffers, and it
+ * does not copy any data in these devices.
+ * </p>
+ *
+ * <p>
+ * Only segments aligned to the device base address alignment
+ * (CL_DEVICE_MEM_BASE_ADDR_ALIGN) use this mode, since the OpenCL drivers fall
+ * back to a hidden copy for unaligned host pointers. The rest of the arrays are
+ * allocated as regular device buffers.
+ * </p>
+ */
+public class OCLZeroCopyBuffers {
+
+    private final OCLDeviceContext deviceContext;
+    private final HashSet<Long> hostBuffers;
+    private final TornadoLogger logger;
+    private final boolean enabled;
+
+    public OCLZeroCopyBuffers(OCLDeviceContext deviceContext) {
+        this.deviceContext = deviceContext;
+        this.hostBuffers = new HashSet<>();
+        this.logger = new TornadoLogger(this.getClass());
+        this.enabled = TornadoOptions.OPENCL_ZERO_COPY && sharesHostMemory(deviceContext);
+    }
+
+    private static boolean sharesHostMemory(OCLDeviceContext deviceContext) {
+        return deviceContext.getDevice().getDeviceType() == OCLDeviceType.CL_DEVICE_TYPE_CPU || deviceContext.getDevice().hasDeviceUnifiedMemory();
+    }
+
+    /**
+     * Checks if the buffer of a segment can be placed in host memory.
+     *
+     * @param segment
+     *     {@link MemorySegment} of the native array, including the header.
+     * @return True if zero-copy is enabled for the device and the segment is
+     *     suitably aligned.
+     */
+    public boolean isZeroCopyEnabled(MemorySegment segment) {
+        if (!enabled || !segment.isNative()) {
+            return false;
+        }
+        long alignment = Math.max(1, deviceContext.getDevice().getDeviceMemoryBaseAlignment() / 8);
+        return segment.address() % alignment == 0;
+    }
+
+    /**
+     * Creates a buffer that uses the memory of the segment as its storage.
+     *
+     * @param segment
+     *     {@link MemorySegment} of the native array, including the header.
+     * @param access
+     *     Access type of the buffer.
+     * @return An OpenCL buffer, or -1 if it could not be created. In this case,
+     *     the caller should allocate a regular buffer.
+     */
+    public synchronized long allocate(MemorySegment segment, Access access) {
+        long flags = OCLBufferProvider.getOCLMemFlagForAccess(access) | OCLMemFlags.CL_MEM_USE_HOST_PTR;
+        OCLContext.OCLBufferResult result = deviceContext.getPlatformContext().createBuffer(flags, segment.byteSize(), segment.address());
+        if (result == null || result.getResult() != OCLErrorCode.CL_SUCCESS) {
+            return -1;
+        }
+        hostBuffers.add(result.getBuffer());
+        logger.debug("Zero-copy buffer 0x%x of %d bytes over host address 0x%x", result.getBuffer(), segment.byteSize(), segment.address());
+        return result.getBuffer();
+    }
+
+    /**
+     * Releases a zero-copy buffer. The host memory is not affected.
+     *
+     * @param buffer
+     *     OpenCL buffer to release.
+     * @return true if the buffer was a zero-copy buffer. False otherwise, and in
+     *     this case the caller should release it through the buffer provider.
+     */
+    public synchronized boolean release(long buffer) {
+        if (!hostBuffers.remove(buffer)) {
+            return false;
+        }
+        deviceContext.getPlatformContext().releaseBuffer(buffer);
+        return true;
+    }
+}
@@ -47,7 +47,7 @@ public class OCLBufferProvider extends TornadoBufferProvider {
         ((OCLDeviceContext) deviceContext).getMemoryManager().releaseBuffer(buffer);
     }
 
-    private static long getOCLMemFlagForAccess(Access access) {
+    public static long getOCLMemFlagForAccess(Access access) {
         switch (access) {
             case READ_ONLY:
                 return OCLMemFlags.CL_MEM_READ_ONLY;
@@ -89,6 +89,7 @@ import uk.ac.manchester.tornado.drivers.opencl.mm.OCLVectorWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLXPUBuffer;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -261,6 +262,22 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         final Access[] taskAccess = taskMeta.getArgumentsAccess();
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        // Return the code from the persistent kernel cache
+        final String kernelCacheKey = getKernelCacheKey(deviceContext, executable, sketch);
+        if (kernelCacheKey != null) {
+            PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(kernelCacheKey);
+            if (cachedKernel != null) {
+                taskMeta.setCompiledGraph(resolvedMethod);
+                cachedKernel.restoreDomain(taskMeta);
+                TornadoProfiler profiler = task.getProfiler();
+                profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                OCLInstalledCode installedCode = deviceContext.installCode(executionPlanId, taskMeta, task.getId(), resolvedMethod.getName(), cachedKernel.code());
+                profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                return installedCode;
+            }
+        }
+
         try {
             OCLProviders providers = (OCLProviders) getBackend().getProviders();
             TornadoProfiler profiler = task.getProfiler();
@@ -298,6 +315,10 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
 
+            if (kernelCacheKey != null && !usesAtomics(resolvedMethod, methods)) {
+                PersistentKernelCache.store(kernelCacheKey, result.getTargetCode(), taskMeta);
+            }
+
             return installedCode;
         } catch (Exception e) {
             logger.fatal("Unable to compile %s for device %s\n", task.getId(), getDeviceName());
@@ -310,6 +331,29 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    private String getKernelCacheKey(OCLDeviceContextInterface deviceContext, CompilableTask task, Sketch sketch) {
+        if (!PersistentKernelCache.isEnabled() || OCLBackend.isDeviceAnFPGAAccelerator(deviceContext)) {
+            return null;
+        }
+        return PersistentKernelCache.computeKey(this, task, sketch);
+    }
+
+    /**
+     * Kernels with atomics are not stored in the persistent kernel cache, since
+     * the compiler registers the atomics of each method on every run.
+     */
+    private boolean usesAtomics(ResolvedJavaMethod resolvedMethod, ResolvedJavaMethod[] methods) {
+        if (TornadoAtomicIntegerNode.globalAtomics.containsKey(resolvedMethod) || TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(resolvedMethod)) {
+            return true;
+        }
+        for (ResolvedJavaMethod method : methods) {
+            if (TornadoAtomicIntegerNode.globalAtomics.containsKey(method) || TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private TornadoInstalledCode compilePreBuiltTask(long executionPlanId, SchedulableTask task) {
         final OCLDeviceContextInterface deviceContext = getDeviceContext();
         final PrebuiltTask executable = (PrebuiltTask) task;
@@ -596,8 +640,9 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         final XPUBuffer buffer;
         TornadoInternalError.guarantee(deviceObjectState.isAtomicRegionPresent() || !deviceObjectState.hasObjectBuffer(), "A device memory leak might be occurring.");
         buffer = createDeviceBuffer(object.getClass(), object, (OCLDeviceContext) getDeviceContext(), batchSize, access);
-        deviceObjectState.setXPUBuffer(buffer);
         buffer.allocate(object, batchSize, access);
+        // Only set the buffer once it is allocated, so a failed allocation can be retried
+        deviceObjectState.setXPUBuffer(buffer);
         return buffer;
     }
 
@@ -27,6 +27,7 @@ import java.util.Arrays;
 import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.OCLGridInfo;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
@@ -66,18 +67,19 @@ public abstract class OCLKernelScheduler {
 
     private void updateProfiler(long executionPlanId, final int taskEvent, final TaskDataContext meta) {
         if (TornadoOptions.isProfilerEnabled()) {
+            TornadoProfiler profiler = meta.getProfiler();
+            String taskId = meta.getId();
             Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, taskEvent);
-            tornadoKernelEvent.waitForEvents(executionPlanId);
-            long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
-            // Register globalTime
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + tornadoKernelEvent.getElapsedTime());
-            // Register the time for the task
-            meta.getProfiler().setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), tornadoKernelEvent.getElapsedTime());
-            // Register the dispatch time of the kernel
-            long dispatchValue = meta.getProfiler().getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
-            dispatchValue += tornadoKernelEvent.getDriverDispatchTime();
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
-            meta.getProfiler().setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, meta.getId(), deviceContext.getPowerUsage());
+            // The timers are read when the execution of the task-graph finishes
+            profiler.deferEvent(executionPlanId, tornadoKernelEvent, kernelEvent -> {
+                // Register globalTime
+                profiler.sum(ProfilerType.TOTAL_KERNEL_TIME, kernelEvent.getElapsedTime());
+                // Register the time for the task
+                profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, taskId, kernelEvent.getElapsedTime());
+                // Register the dispatch time of the kernel
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, kernelEvent.getDriverDispatchTime());
+            });
+            profiler.setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, taskId, deviceContext.getPowerUsage());
         }
     }
 
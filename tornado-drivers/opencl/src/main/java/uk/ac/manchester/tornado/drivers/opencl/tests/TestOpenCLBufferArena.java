@@ -0,0 +1,146 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.drivers.opencl.OpenCL;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLBufferArena;
+
+/**
+ * Checks that the OpenCL buffer arena places several arrays as non-overlapping
+ * sub-buffers at aligned offsets, and that released sub-buffers return their
+ * region to the arena.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLBufferArena
+ * </code>
+ */
+public class TestOpenCLBufferArena {
+
+    private static final int[] SIZES_IN_BYTES = { 4, 100, 1024, 4000, 64 * 1024 };
+
+    private record Placement(long buffer, long offset, int sizeInBytes, Access access) {
+    }
+
+    public static void main(String[] args) {
+        System.out.print("Running Native: uk.ac.manchester.tornado.drivers.opencl.tests.TestOpenCLBufferArena");
+        boolean correct = new TestOpenCLBufferArena().test();
+        if (!correct) {
+            System.out.println(" ................ [FAIL]");
+        } else {
+            System.out.println(" ................ [PASS]");
+        }
+    }
+
+    private static boolean overlaps(Placement a, Placement b) {
+        return a.access() == b.access() && a.offset() < b.offset() + b.sizeInBytes() && b.offset() < a.offset() + a.sizeInBytes();
+    }
+
+    private static List<Placement> place(OCLBufferArena arena, Access access) {
+        List<Placement> placements = new ArrayList<>();
+        for (int size : SIZES_IN_BYTES) {
+            long buffer = arena.allocate(size, access);
+            if (buffer == -1) {
+                return null;
+            }
+            placements.add(new Placement(buffer, arena.getOffset(buffer), size, access));
+        }
+        return placements;
+    }
+
+    public boolean test() {
+        OCLDeviceContext deviceContext = (OCLDeviceContext) OpenCL.defaultDevice().getDeviceContext();
+        OCLBufferArena arena = new OCLBufferArena(deviceContext);
+        long alignment = Math.max(1, deviceContext.getDevice().getDeviceMemoryBaseAlignment() / 8);
+        long executionPlanId = 0;
+
+        List<Placement> placements = new ArrayList<>();
+        for (Access access : new Access[] { Access.READ_WRITE, Access.READ_ONLY }) {
+            List<Placement> placed = place(arena, access);
+            if (placed == null) {
+                return false;
+            }
+            placements.addAll(placed);
+        }
+
+        // 1. Every array is a distinct sub-buffer at an aligned offset, and the
+        // regions of the same arena do not overlap
+        for (int i = 0; i < placements.size(); i++) {
+            Placement placement = placements.get(i);
+            if (placement.offset() < 0 || placement.offset() % alignment != 0) {
+                return false;
+            }
+            for (int j = i + 1; j < placements.size(); j++) {
+                if (placement.buffer() == placements.get(j).buffer() || overlaps(placement, placements.get(j))) {
+                    return false;
+                }
+            }
+        }
+
+        // 2. Data written through one sub-buffer is not visible through the others
+        for (int i = 0; i < placements.size(); i++) {
+            Placement placement = placements.get(i);
+            int[] data = new int[placement.sizeInBytes() / Integer.BYTES];
+            Arrays.fill(data, i + 1);
+            deviceContext.writeBuffer(executionPlanId, placement.buffer(), 0, (long) data.length * Integer.BYTES, data, 0, null);
+        }
+        for (int i = 0; i < placements.size(); i++) {
+            Placement placement = placements.get(i);
+            int[] data = new int[placement.sizeInBytes() / Integer.BYTES];
+            deviceContext.readBuffer(executionPlanId, placement.buffer(), 0, (long) data.length * Integer.BYTES, data, 0, null);
+            for (int value : data) {
+                if (value != i + 1) {
+                    return false;
+                }
+            }
+        }
+
+        // 3. Releasing every sub-buffer returns the arenas to the buffer provider,
+        // and the same regions can be placed again
+        for (Placement placement : placements) {
+            if (!arena.release(placement.buffer())) {
+                return false;
+            }
+        }
+        if (!arena.isEmpty() || arena.release(placements.getFirst().buffer())) {
+            return false;
+        }
+        List<Placement> placedAgain = place(arena, Access.READ_WRITE);
+        if (placedAgain == null || placedAgain.getFirst().offset() != placements.getFirst().offset()) {
+            return false;
+        }
+        for (Placement placement : placedAgain) {
+            arena.release(placement.buffer());
+        }
+        return arena.isEmpty();
+    }
+}
@@ -31,6 +31,7 @@ import java.nio.ByteOrder;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContextInterface;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDevice;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class VirtualOCLDevice implements OCLTargetDevice {
 
@@ -179,6 +180,7 @@ public class VirtualOCLDevice implements OCLTargetDevice {
         return deviceAddressBits;
     }
 
+    @Override
     public boolean hasDeviceUnifiedMemory() {
         return false;
     }
@@ -212,6 +214,11 @@ public class VirtualOCLDevice implements OCLTargetDevice {
         return getDeviceAddressBits() >> 3;
     }
 
+    @Override
+    public int getDeviceMemoryBaseAlignment() {
+        return TornadoOptions.OPENCL_ARRAY_ALIGNMENT * 8;
+    }
+
     public ByteOrder getByteOrder() {
         return isLittleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
     }
@@ -336,32 +336,29 @@ public class PTXDeviceContext implements TornadoDeviceContext {
         if (TornadoOptions.isProfilerEnabled()) {
             TornadoProfiler profiler = meta.getProfiler();
             Event event = resolveEvent(executionPlanId, kernelContextWriteEventId);
-            event.waitForEvents(executionPlanId);
-            long copyInTimer = meta.getProfiler().getTimer(ProfilerType.COPY_IN_TIME);
-            copyInTimer += event.getElapsedTime();
-            profiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
+            profiler.deferEvent(executionPlanId, event, writeEvent -> {
+                profiler.sum(ProfilerType.COPY_IN_TIME, writeEvent.getElapsedTime());
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, writeEvent.getDriverDispatchTime());
+            });
             profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, meta.getId(), callWrapper.getSize());
-
-            long dispatchValue = profiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            profiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
         }
     }
 
     private void updateProfiler(long executionPlanId, final int taskEvent, final TaskDataContext meta) {
         if (TornadoOptions.isProfilerEnabled()) {
+            TornadoProfiler profiler = meta.getProfiler();
+            String taskId = meta.getId();
             Event tornadoKernelEvent = resolveEvent(executionPlanId, taskEvent);
-            tornadoKernelEvent.waitForEvents(executionPlanId);
-            long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
-            // Register globalTime
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + tornadoKernelEvent.getElapsedTime());
-            // Register the time for the task
-            meta.getProfiler().setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), tornadoKernelEvent.getElapsedTime());
-            // Register the dispatch time of the kernel
-            long dispatchValue = meta.getProfiler().getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
-            dispatchValue += tornadoKernelEvent.getDriverDispatchTime();
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
-            meta.getProfiler().setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, meta.getId(), getPowerUsage());
+            // The timers are read when the execution of the task-graph finishes
+            profiler.deferEvent(executionPlanId, tornadoKernelEvent, kernelEvent -> {
+                // Register globalTime
+                profiler.sum(ProfilerType.TOTAL_KERNEL_TIME, kernelEvent.getElapsedTime());
+                // Register the time for the task
+                profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, taskId, kernelEvent.getElapsedTime());
+                // Register the dispatch time of the kernel
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, kernelEvent.getDriverDispatchTime());
+            });
+            profiler.setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, taskId, getPowerUsage());
         }
     }
 
@@ -579,10 +576,8 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     }
 
     private PTXCodeCache getPTXCodeCache(long executionPlanId) {
-        if (!codeCache.containsKey(executionPlanId)) {
-            codeCache.put(executionPlanId, new PTXCodeCache(this));
-        }
-        return codeCache.get(executionPlanId);
+        // Tasks of a precompiled execution plan are installed from several threads
+        return codeCache.computeIfAbsent(executionPlanId, id -> new PTXCodeCache(this));
     }
 
     private PTXStream getStreamIfNeeded(long executionPlanId) {
@@ -46,6 +46,8 @@ public class PTXEvent implements Event {
     private final String description;
     private final String name;
     private boolean isCompleted;
+    private PTXEventPool eventPool;
+    private int localId;
 
     public PTXEvent(byte[][] bytes, EventDescriptor descriptorId) {
         eventWrapper = bytes;
@@ -54,6 +56,12 @@ public class PTXEvent implements Event {
         isCompleted = false;
     }
 
+    PTXEvent(byte[][] bytes, EventDescriptor descriptorId, PTXEventPool eventPool, int localId) {
+        this(bytes, descriptorId);
+        this.eventPool = eventPool;
+        this.localId = localId;
+    }
+
     private native static long cuEventDestroy(byte[] eventWrapper);
 
     private native static void tornadoCUDAEventsSynchronize(byte[][] wrappers);
@@ -158,6 +166,18 @@ public class PTXEvent implements Event {
         waitForEvents(0);
     }
 
+    @Override
+    public boolean retain() {
+        return eventPool != null && eventPool.retainEvent(localId, this);
+    }
+
+    @Override
+    public void releaseRetained() {
+        if (eventPool != null) {
+            eventPool.releaseEvent(localId);
+        }
+    }
+
     public void destroy() {
         cuEventDestroy(eventWrapper[0]);
         cuEventDestroy(eventWrapper[1]);
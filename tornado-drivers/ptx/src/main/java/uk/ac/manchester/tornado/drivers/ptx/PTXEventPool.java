@@ -69,7 +69,7 @@ public class PTXEventPool {
             events[currentEvent].destroy();
             events[currentEvent] = null;
         }
-        events[currentEvent] = new PTXEvent(eventWrapper, descriptorId);
+        events[currentEvent] = new PTXEvent(eventWrapper, descriptorId, this, currentEvent);
 
         findNextEventSlot();
         return currentEvent;
@@ -92,13 +92,29 @@ public class PTXEventPool {
             }
         }
         Arrays.fill(events, null);
+        retain.clear();
         eventIndex = 0;
     }
 
-    private void releaseEvent(int localEventID) {
+    void releaseEvent(int localEventID) {
         retain.clear(localEventID);
     }
 
+    /**
+     * Retains the slot of an event, so that the CUDA events are not destroyed when
+     * new events are registered. At most half of the pool can be retained, leaving
+     * room for the events of the commands in flight.
+     *
+     * @return true if the slot still holds the event and it has been retained.
+     */
+    boolean retainEvent(int localEventID, PTXEvent event) {
+        if (events[localEventID] != event || retain.cardinality() >= eventPoolSize / 2) {
+            return false;
+        }
+        retain.set(localEventID);
+        return true;
+    }
+
     private void retainEvent(int localEventID) {
         retain.set(localEventID);
     }
@@ -55,6 +55,10 @@ public class FieldBuffer {
         objectBuffer.markAsFreeBuffer();
     }
 
+    public long release() {
+        return objectBuffer.release();
+    }
+
     public int enqueueRead(long executionPlanId, final Object ref, final int[] events, boolean useDeps) {
         if (DEBUG) {
             logger.trace("fieldBuffer: enqueueRead* - field=%s, parent=0x%x, child=0x%x", field, ref.hashCode(), getFieldValue(ref).hashCode());
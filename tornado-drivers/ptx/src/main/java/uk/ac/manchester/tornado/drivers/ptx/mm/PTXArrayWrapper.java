@@ -234,6 +234,15 @@ public abstract class PTXArrayWrapper<T> implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() {
+        TornadoInternalError.guarantee(buffer != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(buffer);
+        buffer = INIT_VALUE;
+        bufferSize = INIT_VALUE;
+        return releasedSize;
+    }
+
     @Override
     public long deallocate() {
         return deviceContext.getBufferProvider().deallocate(access);
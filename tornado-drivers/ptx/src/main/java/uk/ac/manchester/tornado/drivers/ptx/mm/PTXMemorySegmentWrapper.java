@@ -97,7 +97,7 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         read(executionPlanId, reference, 0, 0, null, false);
     }
 
-    private MemorySegment getSegmentWithHeader(final Object reference) {
+    private static MemorySegment getSegmentWithHeader(final Object reference) {
         return switch (reference) {
             case TornadoNativeArray tornadoNativeArray -> tornadoNativeArray.getSegmentWithHeader();
             case TornadoCollectionInterface<?> tornadoCollectionInterface -> tornadoCollectionInterface.getSegmentWithHeader();
@@ -108,21 +108,52 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * Returns the number of bytes of the header that a copy from the host offset would access
+     * when the header is detached from the elements (e.g., arrays mapped from a file). These
+     * bytes are not part of the host segment, so they are copied from the header segment or skipped.
+     */
+    private static long getDetachedHeaderBytes(final Object reference, long hostOffset) {
+        if (reference instanceof TornadoNativeArray nativeArray && nativeArray.isHeaderDetached()) {
+            return Math.max(0, TornadoNativeArray.ARRAY_HEADER - hostOffset);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the host address that corresponds to the device offset 0. For arrays with a detached
+     * header, it is computed as if the header preceded the elements, but the header bytes are never
+     * accessed through it.
+     */
+    private static long getHostAddress(final Object reference, MemorySegment segment) {
+        return segment.address() - getDetachedHeaderBytes(reference, 0);
+    }
+
+    private static MemorySegment getWritableSegment(final Object reference) {
+        MemorySegment segment = getSegmentWithHeader(reference);
+        if (segment.isReadOnly()) {
+            throw new TornadoMemoryException("Cannot copy the device buffer into a read-only segment: " + reference.getClass());
+        }
+        return segment;
+    }
+
     @Override
 
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
-        MemorySegment segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, getWritableSegment(reference));
 
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (partialReadSize != 0) {
             // Partial Copy Out due to a copy under demand copy by the user
             // in this case the host offset is equal to the device offset
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + hostOffset + skip, partialReadSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + skip, numBytes - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes, hostAddress, hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
                     ? events
                     : null);
         }
@@ -135,7 +166,11 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment = getSegmentWithHeader(reference);
 
         if (batchSize <= 0) {
-            deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), 0, null);
+            final long skip = getDetachedHeaderBytes(reference, 0);
+            if (skip > 0) {
+                deviceContext.writeBuffer(executionPlanId, toBuffer(), skip, ((TornadoNativeArray) reference).getHeaderSegment().address(), 0, null);
+            }
+            deviceContext.writeBuffer(executionPlanId, toBuffer() + skip, bufferSize - skip, getHostAddress(reference, segment), skip, null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] Batch processing for the writeBuffer operation");
         }
@@ -143,13 +178,16 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
 
     @Override
     public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] events, boolean useDeps) {
-        MemorySegment segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, getWritableSegment(reference));
 
         final int returnEvent;
         if (batchSize <= 0) {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + skip, bufferSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset,
+            // Copy out of a batch. The buffer only holds the batch, after the header
+            final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes, hostAddress, hostOffset + TornadoNativeArray.ARRAY_HEADER,
                     (useDeps) ? events : null);
         }
         return useDeps ? returnEvent : -1;
@@ -160,14 +198,21 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         List<Integer> returnEvents = new ArrayList<>();
 
         MemorySegment segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, segment);
 
         int internalEvent;
         if (batchSize <= 0) {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            if (skip > 0) {
+                internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), skip, ((TornadoNativeArray) reference).getHeaderSegment().address(), hostOffset, (useDeps) ? events : null);
+                returnEvents.add(internalEvent);
+            }
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer() + skip, bufferSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, segment.address(), 0, (useDeps) ? events : null);
+            MemorySegment header = reference instanceof TornadoNativeArray nativeArray ? nativeArray.getHeaderSegment() : segment;
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, header.address(), 0, (useDeps) ? events : null);
             returnEvents.add(internalEvent);
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER,
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize, hostAddress, hostOffset + TornadoNativeArray.ARRAY_HEADER,
                     (useDeps) ? events : null);
         }
         returnEvents.add(internalEvent);
@@ -179,7 +224,7 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment = getSegmentWithHeader(reference);
 
         if (batchSize <= 0 && segment != null) {
-            bufferSize = segment.byteSize();
+            bufferSize = segment.byteSize() + getDetachedHeaderBytes(reference, 0);
             bufferId = deviceContext.getBufferProvider().getOrAllocateBufferWithSize(bufferSize, access);
         } else {
             bufferSize = batchSize;
@@ -207,6 +252,15 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() {
+        TornadoInternalError.guarantee(bufferId != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(bufferId);
+        bufferId = INIT_VALUE;
+        bufferSize = INIT_VALUE;
+        return releasedSize;
+    }
+
     @Override
     public long deallocate() {
         return deviceContext.getBufferProvider().deallocate(access);
@@ -113,25 +113,25 @@ public class PTXObjectWrapper implements XPUBuffer {
                 }
             } else if (type == FloatArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((FloatArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((FloatArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (type == ByteArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((ByteArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((ByteArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (type == DoubleArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((DoubleArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((DoubleArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (type == IntArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((IntArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((IntArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (type == ShortArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((ShortArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((ShortArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (type == LongArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((LongArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((LongArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (type == HalfFloatArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                wrappedField = new PTXMemorySegmentWrapper(device, ((HalfFloatArray) objectFromField).getSegmentWithHeader().byteSize(), 0, access);
+                wrappedField = new PTXMemorySegmentWrapper(device, ((HalfFloatArray) objectFromField).getNumBytesOfSegmentWithHeader(), 0, access);
             } else if (object.getClass().getAnnotation(Vector.class) != null) {
                 wrappedField = new PTXVectorWrapper(device, TornadoUtils.getObjectFromField(reflectedField, object), 0, access);
             } else if (field.getJavaKind().isObject()) {
@@ -184,6 +184,18 @@ public class PTXObjectWrapper implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() throws TornadoMemoryException {
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(address);
+        address = -1;
+        for (FieldBuffer buffer : wrappedFields) {
+            if (buffer != null) {
+                releasedSize += buffer.release();
+            }
+        }
+        return releasedSize;
+    }
+
     private Field getField(Class<?> type, String name) {
         Field result = null;
         try {
@@ -122,6 +122,15 @@ public class PTXVectorWrapper implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() {
+        TornadoInternalError.guarantee(buffer != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(buffer);
+        buffer = INIT_VALUE;
+        bufferSize = INIT_VALUE;
+        return releasedSize;
+    }
+
     @Override
     public long deallocate() {
         return deviceContext.getBufferProvider().deallocate(access);
@@ -81,6 +81,7 @@ import uk.ac.manchester.tornado.drivers.ptx.mm.PTXShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -177,12 +178,24 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
 
         try {
             PTXCompilationResult result;
+            String kernelCacheKey = null;
             if (!deviceContext.isCached(executionPlanId, resolvedMethod.getName(), executable)) {
-                PTXProviders providers = (PTXProviders) getBackend().getProviders();
-                profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
-                result = PTXCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
-                profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
-                profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
+                kernelCacheKey = PersistentKernelCache.isEnabled() ? PersistentKernelCache.computeKey(this, executable, sketch) : null;
+                PersistentKernelCache.CachedKernel cachedKernel = (kernelCacheKey != null) ? PersistentKernelCache.load(kernelCacheKey) : null;
+                if (cachedKernel != null) {
+                    // The cached code already includes the PTX header
+                    taskMeta.setCompiledGraph(resolvedMethod);
+                    cachedKernel.restoreDomain(taskMeta);
+                    result = new PTXCompilationResult(buildKernelName(resolvedMethod.getName(), executable), taskMeta);
+                    result.setTargetCode(cachedKernel.code(), cachedKernel.code().length);
+                    kernelCacheKey = null;
+                } else {
+                    PTXProviders providers = (PTXProviders) getBackend().getProviders();
+                    profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+                    result = PTXCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
+                    profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+                    profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
+                }
             } else {
                 result = new PTXCompilationResult(buildKernelName(resolvedMethod.getName(), executable), taskMeta);
             }
@@ -191,6 +204,11 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
             TornadoInstalledCode installedCode = deviceContext.installCode(executionPlanId, result, resolvedMethod.getName());
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+
+            // Store the kernels compiled in this run once the driver accepted them
+            if (kernelCacheKey != null) {
+                PersistentKernelCache.store(kernelCacheKey, result.getTargetCode(), taskMeta);
+            }
             return installedCode;
         } catch (Exception e) {
             if (TornadoOptions.DEBUG) {
@@ -308,8 +326,9 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         if (!state.hasObjectBuffer() || !state.isLockedBuffer()) {
             TornadoInternalError.guarantee(state.isAtomicRegionPresent() || !state.hasObjectBuffer(), "A device memory leak might be occurring.");
             buffer = createDeviceBuffer(object.getClass(), object, batchSize, access);
-            state.setXPUBuffer(buffer);
             buffer.allocate(object, batchSize, access);
+            // Only set the buffer once it is allocated, so a failed allocation can be retried
+            state.setXPUBuffer(buffer);
         } else {
             buffer = state.getXPUBuffer();
             if (batchSize != 0) {
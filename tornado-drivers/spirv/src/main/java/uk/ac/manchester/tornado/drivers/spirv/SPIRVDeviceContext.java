@@ -189,16 +189,14 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
     }
 
     private SPIRVCodeCache getSPIRVCodeCache(long executionPlanId) {
-        if (!codeCache.containsKey(executionPlanId)) {
-            SPIRVCodeCache spirvCodeCache;
+        // Tasks of a precompiled execution plan are installed from several threads
+        return codeCache.computeIfAbsent(executionPlanId, id -> {
             if (this instanceof SPIRVLevelZeroDeviceContext) {
-                spirvCodeCache = new SPIRVLevelZeroCodeCache(this);
+                return new SPIRVLevelZeroCodeCache(this);
             } else {
-                spirvCodeCache = new SPIRVOCLCodeCache(this);
+                return new SPIRVOCLCodeCache(this);
             }
-            codeCache.put(executionPlanId, spirvCodeCache);
-        }
-        return codeCache.get(executionPlanId);
+        });
     }
 
     public int readBuffer(long executionPlanId, long bufferId, long offset, long bytes, byte[] value, long hostOffset, int[] waitEvents) {
@@ -478,7 +476,7 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
             SPIRVOCLContext context = (SPIRVOCLContext) this.getSpirvContext();
             OCLCommandQueue commandQueue = context.getCommandQueue(executionPlanId, this.getDeviceIndex());
             OCLEventPool eventPool = context.getOCLEventPool(executionPlanId);
-            return new OCLEvent(eventPool.getDescriptor(eventId).getNameDescription(), commandQueue, eventId, eventPool.getOCLEvent(eventId));
+            return new OCLEvent(eventPool.getDescriptor(eventId).getNameDescription(), commandQueue, eventId, eventPool.getOCLEvent(eventId), eventPool);
         } else {
             throw new TornadoRuntimeException("[Error] SPIR-V Device Context Class not implemented yet.");
         }
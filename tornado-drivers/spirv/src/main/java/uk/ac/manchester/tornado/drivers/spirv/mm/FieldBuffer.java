@@ -96,6 +96,10 @@ public class FieldBuffer {
         return objectBuffer.size();
     }
 
+    public long release() {
+        return objectBuffer.release();
+    }
+
     void setBuffer(XPUBuffer.XPUBufferWrapper bufferWrapper) {
         objectBuffer.setBuffer(bufferWrapper);
     }
@@ -99,7 +99,7 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         read(executionPlanId, reference, 0, 0, null, false);
     }
 
-    private MemorySegment getSegmentWithHeader(final Object reference) {
+    private static MemorySegment getSegmentWithHeader(final Object reference) {
         return switch (reference) {
             case TornadoNativeArray tornadoNativeArray -> tornadoNativeArray.getSegmentWithHeader();
             case TornadoCollectionInterface<?> tornadoCollectionInterface -> tornadoCollectionInterface.getSegmentWithHeader();
@@ -110,22 +110,53 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * Returns the number of bytes of the header that a copy from the host offset would access
+     * when the header is detached from the elements (e.g., arrays mapped from a file). These
+     * bytes are not part of the host segment, so they are copied from the header segment or skipped.
+     */
+    private static long getDetachedHeaderBytes(final Object reference, long hostOffset) {
+        if (reference instanceof TornadoNativeArray nativeArray && nativeArray.isHeaderDetached()) {
+            return Math.max(0, TornadoNativeArray.ARRAY_HEADER - hostOffset);
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the host address that corresponds to the device offset 0. For arrays with a detached
+     * header, it is computed as if the header preceded the elements, but the header bytes are never
+     * accessed through it.
+     */
+    private static long getHostAddress(final Object reference, MemorySegment segment) {
+        return segment.address() - getDetachedHeaderBytes(reference, 0);
+    }
+
+    private static MemorySegment getWritableSegment(final Object reference) {
+        MemorySegment segment = getSegmentWithHeader(reference);
+        if (segment.isReadOnly()) {
+            throw new TornadoMemoryException("Cannot copy the device buffer into a read-only segment: " + reference.getClass());
+        }
+        return segment;
+    }
+
     @Override
     public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] waitEvents, boolean useDeps) {
-        MemorySegment segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, getWritableSegment(reference));
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
 
         if (partialReadSize != 0) {
             // Partial Copy Out due to a copy under demand copy by the user
             // in this case the host offset is equal to the device offset
-            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, waitEvents);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset + skip, partialReadSize - skip, hostAddress, hostOffset + skip, waitEvents);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
-            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + skip, numBytes - skip, hostAddress, hostOffset + skip, waitEvents);
         } else {
             // Full copy out (default)
-            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, numBytes, segment.address(),
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, numBytes, hostAddress,
                     hostOffset + TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, waitEvents);
         }
         return returnEvent;
@@ -135,7 +166,11 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
     public void write(long executionPlanId, Object reference) {
         MemorySegment segment = getSegmentWithHeader(reference);
         if (batchSize <= 0) {
-            spirvDeviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), 0, null);
+            final long skip = getDetachedHeaderBytes(reference, 0);
+            if (skip > 0) {
+                spirvDeviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, skip, ((TornadoNativeArray) reference).getHeaderSegment().address(), 0, null);
+            }
+            spirvDeviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset + skip, bufferSize - skip, getHostAddress(reference, segment), skip, null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for writeBuffer operation");
         }
@@ -143,13 +178,16 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
 
     @Override
     public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] waitEvents, boolean useDeps) {
-        MemorySegment segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, getWritableSegment(reference));
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (batchSize <= 0) {
-            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + skip, numBytes - skip, hostAddress, hostOffset + skip, waitEvents);
         } else {
-            throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
+            // Copy out of a batch, used by pipelined batch processing
+            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, numBytes, hostAddress,
+                    hostOffset + TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, waitEvents);
         }
         return returnEvent;
     }
@@ -158,13 +196,21 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
     public List<Integer> enqueueWrite(long executionPlanId, Object reference, long batchSize, long hostOffset, int[] events, boolean useDeps) {
         List<Integer> returnEvents = new ArrayList<>();
         MemorySegment segment = getSegmentWithHeader(reference);
+        final long hostAddress = getHostAddress(reference, segment);
         int internalEvent;
         if (batchSize <= 0) {
-            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long skip = getDetachedHeaderBytes(reference, hostOffset);
+            if (skip > 0) {
+                internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, skip, ((TornadoNativeArray) reference).getHeaderSegment().address(), hostOffset,
+                        (useDeps) ? events : null);
+                returnEvents.add(internalEvent);
+            }
+            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + skip, bufferSize - skip, hostAddress, hostOffset + skip, (useDeps) ? events : null);
         } else {
-            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, segment.address(), 0, (useDeps) ? events : null);
+            MemorySegment header = reference instanceof TornadoNativeArray nativeArray ? nativeArray.getHeaderSegment() : segment;
+            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, header.address(), 0, (useDeps) ? events : null);
             returnEvents.add(internalEvent);
-            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize, segment.address(),
+            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize, hostAddress,
                     hostOffset + TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, (useDeps) ? events : null);
 
         }
@@ -176,7 +222,7 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
     public void allocate(Object reference, long batchSize, Access access) throws TornadoOutOfMemoryException, TornadoMemoryException {
         MemorySegment memorySegment = getSegmentWithHeader(reference);
         if (batchSize <= 0 && memorySegment != null) {
-            bufferSize = memorySegment.byteSize();
+            bufferSize = memorySegment.byteSize() + getDetachedHeaderBytes(reference, 0);
             bufferId = spirvDeviceContext.getBufferProvider().getOrAllocateBufferWithSize(bufferSize, access);
         } else {
             bufferSize = batchSize;
@@ -203,6 +249,15 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         }
     }
 
+    @Override
+    public long release() {
+        TornadoInternalError.guarantee(bufferId != INIT_VALUE, "Fatal error: trying to deallocate an invalid buffer");
+        long releasedSize = spirvDeviceContext.getBufferProvider().deallocateBuffer(bufferId);
+        bufferId = INIT_VALUE;
+        bufferSize = INIT_VALUE;
+        return releasedSize;
+    }
+
     @Override
     public long size() {
         return bufferSize;
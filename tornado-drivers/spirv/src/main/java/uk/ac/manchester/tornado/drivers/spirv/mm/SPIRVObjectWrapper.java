@@ -120,35 +120,35 @@ public class SPIRVObjectWrapper implements XPUBuffer {
                 }
             } else if (type == FloatArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((FloatArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((FloatArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == IntArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((IntArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((IntArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == ByteArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((ByteArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((ByteArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == DoubleArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((DoubleArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((DoubleArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == ShortArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((ShortArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((ShortArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == CharArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((CharArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((CharArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == LongArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((LongArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((LongArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (type == HalfFloatArray.class) {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
-                long sizeInBytes = ((HalfFloatArray) objectFromField).getSegmentWithHeader().byteSize();
+                long sizeInBytes = ((HalfFloatArray) objectFromField).getNumBytesOfSegmentWithHeader();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0, access);
             } else if (object.getClass().getAnnotation(Vector.class) != null) {
                 wrappedField = new SPIRVVectorWrapper(deviceContext, object, 0, access);
@@ -190,6 +190,18 @@ public class SPIRVObjectWrapper implements XPUBuffer {
         bufferId = -1;
     }
 
+    @Override
+    public long release() throws TornadoMemoryException {
+        long releasedSize = deviceContext.getBufferProvider().deallocateBuffer(bufferId);
+        bufferId = -1;
+        for (FieldBuffer buffer : wrappedFields) {
+            if (buffer != null) {
+                releasedSize += buffer.release();
+            }
+        }
+        return releasedSize;
+    }
+
     private Field getField(Class<?> type, String name) {
         Field result = null;
         try {
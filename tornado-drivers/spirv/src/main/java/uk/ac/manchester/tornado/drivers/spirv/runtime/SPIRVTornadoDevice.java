@@ -71,6 +71,7 @@ import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -167,6 +168,22 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
 
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        // Return the code from the persistent kernel cache
+        final String kernelCacheKey = PersistentKernelCache.isEnabled() ? PersistentKernelCache.computeKey(this, task, sketch) : null;
+        if (kernelCacheKey != null) {
+            PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(kernelCacheKey);
+            if (cachedKernel != null) {
+                taskMeta.setCompiledGraph(resolvedMethod);
+                cachedKernel.restoreDomain(taskMeta);
+                profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                String kernelName = SPIRVCompiler.buildKernelName(resolvedMethod.getName());
+                TornadoInstalledCode installedCode = deviceContext.installBinary(executionPlanId, taskMeta, task.getId(), kernelName, cachedKernel.code());
+                profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                return installedCode;
+            }
+        }
+
         try {
             SPIRVCompilationResult result;
             // Compile the code and insert the SPIR-V binary into the code cache
@@ -180,6 +197,10 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
             TornadoInstalledCode installedCode = deviceContext.installBinary(executionPlanId, result);
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+
+            if (kernelCacheKey != null) {
+                PersistentKernelCache.store(kernelCacheKey, result.getSPIRVBinary(), taskMeta);
+            }
             return installedCode;
         } catch (Exception e) {
             TornadoLogger logger = new TornadoLogger(this.getClass());
@@ -330,8 +351,9 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         final XPUBuffer buffer;
         TornadoInternalError.guarantee(state.isAtomicRegionPresent() || !state.hasObjectBuffer(), "A device memory leak might be occurring.");
         buffer = createDeviceBuffer(object.getClass(), object, getDeviceContext(), batchSize, access);
-        state.setXPUBuffer(buffer);
         buffer.allocate(object, batchSize, access);
+        // Only set the buffer once it is allocated, so a failed allocation can be retried
+        state.setXPUBuffer(buffer);
         return buffer;
     }
 
@@ -1,6 +1,6 @@
 import uk.ac.manchester.tornado.runtime.TornadoBackendProvider;
 
-open module tornado.runtime{requires java.logging;requires jdk.unsupported;requires org.graalvm.collections;
+open module tornado.runtime{requires java.logging;requires jdk.httpserver;requires jdk.unsupported;requires org.graalvm.collections;
 
 requires transitive jdk.internal.vm.ci;requires transitive jdk.internal.vm.compiler;requires transitive tornado.api;requires commons.math3;
 
@@ -31,6 +31,8 @@ import java.util.List;
 import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -74,6 +76,11 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
         }
     };
     private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(TornadoOptions.TORNADO_SKETCHER_THREADS, executorThreadFactory);
+    private static final ForkJoinPool COMPILER_POOL = new ForkJoinPool(Math.max(1, TornadoOptions.TORNADO_COMPILER_THREADS), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("TornadoCompilerThread - " + thread.getPoolIndex());
+        return thread;
+    }, null, false);
     private static final TornadoCoreRuntime runtime = new TornadoCoreRuntime();
     private static final JVMMapping JVM = new JVMMapping();
     private static final int DEFAULT_DRIVER = 0;
@@ -120,6 +127,15 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
         return EXECUTOR;
     }
 
+    /**
+     * Pool that compiles the tasks of precompiled execution plans. It is separate
+     * from {@link #getTornadoExecutor()}, since a compilation waits for the
+     * sketches that are built in that executor.
+     */
+    public static ForkJoinPool getTornadoCompilerPool() {
+        return COMPILER_POOL;
+    }
+
     public static JVMCIBackend getVMBackend() {
         return runtime.vmBackend;
     }
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -205,6 +206,11 @@ public class TornadoVM {
         executeActionOnInterpreters(TornadoVMInterpreter::warmup);
     }
 
+    public CompletableFuture<Void> precompile() {
+        ExecutorService compilerPool = TornadoCoreRuntime.getTornadoCompilerPool();
+        return CompletableFuture.allOf(Arrays.stream(tornadoVMInterpreters).map(interpreter -> interpreter.precompile(compilerPool)).toArray(CompletableFuture[]::new));
+    }
+
     public void setGridScheduler(GridScheduler gridScheduler) {
         Arrays.stream(tornadoVMInterpreters).forEach(interpreter -> interpreter.setGridScheduler(gridScheduler));
     }
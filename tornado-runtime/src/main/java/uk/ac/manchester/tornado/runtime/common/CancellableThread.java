@@ -0,0 +1,49 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.common;
+
+/**
+ * Thread whose executions can be cancelled cooperatively by interrupting it.
+ * The TornadoVM interpreter and the sequential runner of the dynamic
+ * reconfiguration check for cancellation between bytecodes and tasks, so an
+ * execution that is no longer needed (e.g., a device that lost a race) stops
+ * launching work. Interrupting any other thread does not affect the executions
+ * it runs.
+ */
+public class CancellableThread extends Thread {
+
+    public CancellableThread(Runnable runnable) {
+        super(runnable);
+        setDaemon(true);
+    }
+
+    /**
+     * @return true if the current thread is a {@link CancellableThread} that has
+     *     been interrupted.
+     */
+    public static boolean isCurrentThreadCancelled() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof CancellableThread && thread.isInterrupted();
+    }
+}
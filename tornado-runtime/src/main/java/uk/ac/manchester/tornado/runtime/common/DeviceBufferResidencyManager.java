@@ -0,0 +1,233 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.common;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+
+/**
+ * Residency manager for the device buffers that are kept on a device across
+ * executions (locked buffers). It is enabled with
+ * {@code -Dtornado.device.buffer.eviction=True}.
+ *
+ * <p>
+ * The TornadoVM interpreter records every use of a locked buffer. When an
+ * allocation fails with a {@link uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException},
+ * the interpreter asks the residency manager to evict the least-recently-used
+ * buffer that does not belong to an execution plan that is currently running.
+ * If there is none, the running execution plan can evict its own buffers that
+ * the rest of its bytecodes do not use. {@link Access#READ_ONLY} buffers are
+ * evicted first, since the host already has their contents. Buffers that may
+ * have been written by a kernel (dirty) are copied back to the host before
+ * being released.
+ * </p>
+ *
+ * <p>
+ * The buffers of a single {@code ALLOC} bytecode are all needed at the same
+ * time, so an allocation that does not fit in the device memory on its own
+ * still fails with an out-of-memory error.
+ * </p>
+ *
+ * <p>
+ * An evicted buffer has no device buffer and no contents, and its lock flag is
+ * cleared, so host syncs skip it (the host already has its latest contents).
+ * The state is marked as evicted: the next {@code ALLOC} bytecode of its
+ * execution plan locks it again and allocates a new buffer, and the next
+ * {@code TRANSFER_HOST_TO_DEVICE_ONCE} uploads the data again.
+ * </p>
+ */
+public final class DeviceBufferResidencyManager {
+
+    private static final ConcurrentHashMap<TornadoXPUDevice, DeviceBufferResidencyManager> managers = new ConcurrentHashMap<>();
+
+    private final TornadoXPUDevice device;
+    private final LinkedHashMap<XPUDeviceBufferState, ResidentBuffer> residentBuffers;
+    private final HashMap<Long, Integer> runningExecutionPlans;
+    private final TornadoLogger logger;
+
+    private DeviceBufferResidencyManager(TornadoXPUDevice device) {
+        this.device = device;
+        // Access order: the first entry is the least-recently-used buffer
+        this.residentBuffers = new LinkedHashMap<>(16, 0.75f, true);
+        this.runningExecutionPlans = new HashMap<>();
+        this.logger = new TornadoLogger(this.getClass());
+    }
+
+    public static boolean isEnabled() {
+        return TornadoOptions.DEVICE_BUFFER_EVICTION;
+    }
+
+    public static DeviceBufferResidencyManager getInstance(TornadoXPUDevice device) {
+        return managers.computeIfAbsent(device, DeviceBufferResidencyManager::new);
+    }
+
+    /**
+     * Marks an execution plan as running. Its buffers are not evicted until
+     * {@link #endExecution(long)} is called.
+     */
+    public synchronized void beginExecution(long executionPlanId) {
+        runningExecutionPlans.merge(executionPlanId, 1, Integer::sum);
+    }
+
+    public synchronized void endExecution(long executionPlanId) {
+        runningExecutionPlans.computeIfPresent(executionPlanId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Records the use of a device buffer. Only locked buffers are tracked, since
+     * the rest are released at the end of each execution.
+     *
+     * @param state
+     *     {@link XPUDeviceBufferState} of the object.
+     * @param object
+     *     Host object.
+     * @param access
+     *     Access type of the object. If the access is not
+     *     {@link Access#READ_ONLY}, the buffer is considered dirty until it is
+     *     copied back to the host.
+     * @param executionPlanId
+     *     Execution plan that owns the buffer.
+     */
+    public synchronized void recordUse(XPUDeviceBufferState state, Object object, Access access, long executionPlanId) {
+        if (!state.isLockedBuffer() || !state.hasObjectBuffer() || state.isAtomicRegionPresent()) {
+            return;
+        }
+        ResidentBuffer residentBuffer = residentBuffers.get(state);
+        if (residentBuffer == null) {
+            residentBuffer = new ResidentBuffer(object, access, executionPlanId);
+            residentBuffers.put(state, residentBuffer);
+        }
+        residentBuffer.dirty |= access != Access.READ_ONLY;
+    }
+
+    /**
+     * Records that the host has the latest contents of the buffer.
+     */
+    public synchronized void markClean(XPUDeviceBufferState state) {
+        ResidentBuffer residentBuffer = residentBuffers.get(state);
+        if (residentBuffer != null) {
+            residentBuffer.dirty = false;
+        }
+    }
+
+    public synchronized void remove(XPUDeviceBufferState state) {
+        residentBuffers.remove(state);
+    }
+
+    /**
+     * Evicts the least-recently-used buffer that is not in use by a running
+     * execution plan. Clean buffers are evicted before dirty ones.
+     *
+     * @return Size in bytes of the evicted buffer, or 0 if no buffer can be
+     *     evicted.
+     */
+    public synchronized long evictLeastRecentlyUsed() {
+        return evictFirst((state, residentBuffer) -> !runningExecutionPlans.containsKey(residentBuffer.executionPlanId));
+    }
+
+    /**
+     * Evicts the least-recently-used buffer of a running execution plan that
+     * its pending bytecodes do not use. Clean buffers are evicted before dirty
+     * ones. The caller must wait for the commands that used the buffer before.
+     * Nothing is evicted if the execution plan is running in several threads,
+     * since the other executions may still use its buffers.
+     *
+     * @param executionPlanId
+     *     Running execution plan.
+     * @param pendingStates
+     *     States of the objects used by the pending bytecodes of the
+     *     execution plan.
+     * @return Size in bytes of the evicted buffer, or 0 if no buffer can be
+     *     evicted.
+     */
+    public synchronized long evictUnusedBuffer(long executionPlanId, Set<XPUDeviceBufferState> pendingStates) {
+        if (runningExecutionPlans.getOrDefault(executionPlanId, 0) > 1) {
+            return 0;
+        }
+        return evictFirst((state, residentBuffer) -> residentBuffer.executionPlanId == executionPlanId && !pendingStates.contains(state));
+    }
+
+    private long evictFirst(BiPredicate<XPUDeviceBufferState, ResidentBuffer> isCandidate) {
+        Map.Entry<XPUDeviceBufferState, ResidentBuffer> victim = null;
+        Iterator<Map.Entry<XPUDeviceBufferState, ResidentBuffer>> iterator = residentBuffers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<XPUDeviceBufferState, ResidentBuffer> entry = iterator.next();
+            XPUDeviceBufferState state = entry.getKey();
+            if (!state.isLockedBuffer() || !state.hasObjectBuffer()) {
+                // The buffer was released by its execution plan
+                iterator.remove();
+                continue;
+            }
+            if (!isCandidate.test(state, entry.getValue())) {
+                continue;
+            }
+            if (!entry.getValue().dirty) {
+                victim = entry;
+                break;
+            }
+            if (victim == null) {
+                victim = entry;
+            }
+        }
+        if (victim == null) {
+            return 0;
+        }
+        residentBuffers.remove(victim.getKey());
+        return evict(victim.getKey(), victim.getValue());
+    }
+
+    private long evict(XPUDeviceBufferState state, ResidentBuffer residentBuffer) {
+        if (residentBuffer.dirty) {
+            device.streamOutBlocking(residentBuffer.executionPlanId, residentBuffer.object, 0, state, null);
+        }
+        XPUBuffer buffer = state.getXPUBuffer();
+        long size = buffer.size();
+        // Release the native memory of the victim only, so it can be used by any access type
+        buffer.release();
+        state.markEvicted();
+        logger.debug("Evicted %s buffer of %d bytes (plan %d, write-back=%b) from %s", residentBuffer.access, size, residentBuffer.executionPlanId, residentBuffer.dirty, device);
+        return size;
+    }
+
+    private static final class ResidentBuffer {
+        private final Object object;
+        private final Access access;
+        private final long executionPlanId;
+        private boolean dirty;
+
+        private ResidentBuffer(Object object, Access access, long executionPlanId) {
+            this.object = object;
+            this.access = access;
+            this.executionPlanId = executionPlanId;
+        }
+    }
+}
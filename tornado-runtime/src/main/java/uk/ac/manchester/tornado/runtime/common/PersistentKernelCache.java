@@ -0,0 +1,476 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.graalvm.compiler.core.common.type.AbstractObjectStamp;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.graal.nodes.AtomicAccessNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.WriteAtomicNode;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * Content-addressed cache of generated kernels that persists across runs of
+ * the JVM. It is enabled with {@code -Dtornado.kernel.cache.dir=<path>}.
+ *
+ * <p>
+ * The key of a kernel is a SHA-256 digest of everything that the TornadoVM JIT
+ * compiler reads when it generates the code for a task:
+ * <ul>
+ * <li>The class files of the task method, the inlined methods and the methods
+ * it calls, read through the class loader of the task.</li>
+ * <li>The backend, platform and device, and the TornadoVM and JVM builds.</li>
+ * <li>The compiler flags and the {@code tornado.*} options.</li>
+ * <li>The types of the arguments, and the values that the compiler
+ * specialises into the kernel: scalar arguments, sizes of arrays, batch and
+ * grid-scheduler settings.</li>
+ * </ul>
+ * The cache stores the code that each backend installs (OpenCL C, PTX or
+ * SPIR-V) and the parallel domain that the compiler attached to the task. The
+ * Graal sketches are still built on each run, since they are graphs that hold
+ * references to the live JVM.
+ * </p>
+ *
+ * <p>
+ * Tasks that receive other objects are not cached, since the compiler also
+ * folds the fields of these objects into the kernel and the cache does not read
+ * the fields of user objects. Tasks that use atomics are not cached either, on
+ * any backend, since the compiler registers the atomics of each kernel on every
+ * run.
+ * </p>
+ */
+public final class PersistentKernelCache {
+
+    private static final int MAGIC = 0x544b4331;
+    private static final int NO_DOMAIN = -1;
+    private static final String FILE_EXTENSION = ".kernel";
+
+    private static final TornadoLogger logger = new TornadoLogger(PersistentKernelCache.class);
+    private static final Map<ClassLoader, ConcurrentHashMap<String, Optional<byte[]>>> classFileDigests = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ConcurrentHashMap<Class<?>, String> buildIdentities = new ConcurrentHashMap<>();
+
+    private PersistentKernelCache() {
+    }
+
+    public static boolean isEnabled() {
+        return !TornadoOptions.KERNEL_CACHE_DIRECTORY.isEmpty();
+    }
+
+    /**
+     * Computes the key of the code generated for a task on a device.
+     *
+     * @param device
+     *     Device that runs the task.
+     * @param task
+     *     {@link CompilableTask} to compile.
+     * @param sketch
+     *     {@link Sketch} of the task method.
+     * @return The key, or null if the kernel of the task cannot be cached.
+     */
+    public static String computeKey(TornadoXPUDevice device, CompilableTask task, Sketch sketch) {
+        MessageDigest digest = newDigest();
+        KeyBuilder key = new KeyBuilder(digest);
+
+        TaskDataContext meta = task.meta();
+        key.add("format", MAGIC);
+        key.add("backend", device.getTornadoVMBackend().name());
+        key.add("platform", device.getPlatformName());
+        key.add("device", device.getDeviceName());
+        key.add("description", device.getDescription());
+        key.add("jvm", System.getProperty("java.vm.version"));
+        key.add("runtime", getBuildIdentity(PersistentKernelCache.class));
+        key.add("driver", getBuildIdentity(device.getClass()));
+        key.add("flags", meta.getCompilerFlags(device.getTornadoVMBackend()));
+        System.getProperties().stringPropertyNames().stream().filter(name -> name.startsWith("tornado.")).sorted().forEach(name -> key.add(name, System.getProperty(name)));
+
+        ClassLoader classLoader = task.getMethod().getDeclaringClass().getClassLoader();
+        if (!addMethods(key, (StructuredGraph) sketch.getGraph(), meta, classLoader)) {
+            return null;
+        }
+
+        key.add("numThreads", meta.getNumThreads());
+        key.add("batchThreads", task.getBatchThreads());
+        key.add("batchNumber", task.getBatchNumber());
+        key.add("batchSize", task.getBatchSize());
+        key.add("gridScheduler", meta.isGridSchedulerEnabled());
+        for (Object argument : task.getArguments()) {
+            if (!addArgument(key, argument)) {
+                logger.debug("Kernel cache: the arguments of task %s cannot be hashed", task.getId());
+                return null;
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Loads a kernel from the cache.
+     *
+     * @param key
+     *     Key returned by {@link #computeKey}.
+     * @return The {@link CachedKernel}, or null if the cache does not contain the
+     *     kernel.
+     */
+    public static CachedKernel load(String key) {
+        return load(Paths.get(TornadoOptions.KERNEL_CACHE_DIRECTORY), key);
+    }
+
+    /**
+     * Loads a kernel from a cache directory.
+     *
+     * @param cacheDirectory
+     *     Directory of the cache.
+     * @param key
+     *     Key returned by {@link #computeKey}.
+     * @return The {@link CachedKernel}, or null if the cache does not contain the
+     *     kernel.
+     */
+    public static CachedKernel load(Path cacheDirectory, String key) {
+        Path path = getPath(cacheDirectory, key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(path))) {
+            if (input.readInt() != MAGIC) {
+                return null;
+            }
+            DomainTree domain = null;
+            int depth = input.readInt();
+            if (depth != NO_DOMAIN) {
+                domain = new DomainTree(depth);
+                for (int i = 0; i < depth; i++) {
+                    domain.set(i, new IntDomain(input.readInt(), input.readInt(), input.readInt()));
+                }
+            }
+            byte[] code = new byte[input.readInt()];
+            input.readFully(code);
+            logger.debug("Kernel cache: hit %s", path);
+            return new CachedKernel(code, domain);
+        } catch (IOException e) {
+            logger.warn("Kernel cache: unable to read %s: %s", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the code generated for a task. The file is written under a temporary
+     * name and then renamed, so concurrent JVMs never read a partial kernel.
+     *
+     * @param key
+     *     Key returned by {@link #computeKey}.
+     * @param code
+     *     Code that the backend installs.
+     * @param meta
+     *     {@link TaskDataContext} of the compiled task, to store its parallel
+     *     domain.
+     */
+    public static void store(String key, byte[] code, TaskDataContext meta) {
+        store(Paths.get(TornadoOptions.KERNEL_CACHE_DIRECTORY), key, code, meta.getDomain());
+    }
+
+    /**
+     * Stores the code generated for a task in a cache directory.
+     *
+     * @param cacheDirectory
+     *     Directory of the cache.
+     * @param key
+     *     Key returned by {@link #computeKey}.
+     * @param code
+     *     Code that the backend installs.
+     * @param domain
+     *     Parallel domain of the task, or null if the compiler did not find one.
+     *     Kernels with domains other than {@link IntDomain} are not stored.
+     */
+    public static void store(Path cacheDirectory, String key, byte[] code, DomainTree domain) {
+        if (domain != null) {
+            for (int i = 0; i < domain.getDepth(); i++) {
+                if (!(domain.get(i) instanceof IntDomain)) {
+                    return;
+                }
+            }
+        }
+
+        Path path = getPath(cacheDirectory, key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), key, ".tmp");
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temporary))) {
+                output.writeInt(MAGIC);
+                if (domain == null) {
+                    output.writeInt(NO_DOMAIN);
+                } else {
+                    output.writeInt(domain.getDepth());
+                    for (int i = 0; i < domain.getDepth(); i++) {
+                        IntDomain intDomain = (IntDomain) domain.get(i);
+                        output.writeInt(intDomain.getOffset());
+                        output.writeInt(intDomain.getStep());
+                        output.writeInt(intDomain.cardinality());
+                    }
+                }
+                output.writeInt(code.length);
+                output.write(code);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Kernel cache: stored %s", path);
+        } catch (IOException e) {
+            logger.warn("Kernel cache: unable to write %s: %s", path, e.getMessage());
+        }
+    }
+
+    private static Path getPath(Path cacheDirectory, String key) {
+        // Two-level layout to keep directories small
+        return cacheDirectory.resolve(key.substring(0, 2)).resolve(key + FILE_EXTENSION);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the class files of the methods compiled for the task: the root method
+     * with its inlined methods, and the methods called from the kernel that are
+     * compiled from their own sketches.
+     */
+    private static boolean addMethods(KeyBuilder key, StructuredGraph rootGraph, TaskDataContext meta, ClassLoader classLoader) {
+        TreeMap<String, ResolvedJavaMethod> methods = new TreeMap<>();
+        TreeSet<String> visited = new TreeSet<>();
+        ArrayDeque<StructuredGraph> graphs = new ArrayDeque<>();
+        graphs.push(rootGraph);
+        while (!graphs.isEmpty()) {
+            StructuredGraph graph = graphs.pop();
+            if (usesAtomics(graph)) {
+                logger.debug("Kernel cache: %s uses atomics", graph.method().format("%H.%n"));
+                return false;
+            }
+            methods.put(graph.method().format("%H.%n(%P)%R"), graph.method());
+            for (ResolvedJavaMethod inlined : graph.getMethods()) {
+                methods.put(inlined.format("%H.%n(%P)%R"), inlined);
+            }
+            for (Invoke invoke : graph.getInvokes()) {
+                ResolvedJavaMethod callee = invoke.callTarget().targetMethod();
+                if (callee != null && visited.add(callee.format("%H.%n(%P)%R"))) {
+                    graphs.push((StructuredGraph) TornadoSketcher.lookup(callee, meta.getBackendIndex(), meta.getDeviceIndex()).getGraph());
+                }
+            }
+        }
+        for (Map.Entry<String, ResolvedJavaMethod> entry : methods.entrySet()) {
+            byte[] classDigest = getClassFileDigest(classLoader, entry.getValue().getDeclaringClass().getName());
+            if (classDigest == null) {
+                logger.debug("Kernel cache: class file not found for %s", entry.getKey());
+                return false;
+            }
+            key.add("method", entry.getKey());
+            key.add(classDigest);
+        }
+        return true;
+    }
+
+    private static boolean usesAtomics(StructuredGraph graph) {
+        for (ResolvedJavaMethod inlined : graph.getMethods()) {
+            if (isAtomicType(inlined.getDeclaringClass())) {
+                return true;
+            }
+        }
+        for (Node node : graph.getNodes()) {
+            if (node instanceof AtomicAccessNode || node instanceof WriteAtomicNode || node instanceof StoreAtomicIndexedNode) {
+                return true;
+            }
+            if (node instanceof ValueNode value && value.stamp(NodeView.DEFAULT) instanceof AbstractObjectStamp stamp && isAtomicType(stamp.type())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAtomicType(ResolvedJavaType type) {
+        return type != null && type.toJavaName().startsWith("java.util.concurrent.atomic.");
+    }
+
+    /**
+     * Computes the digest of a class file, read through the class loader of the
+     * task, so classes defined by application or plugin class loaders are found
+     * and two versions of the same class in different loaders do not share a
+     * key.
+     *
+     * @param classLoader
+     *     Class loader of the task, or null for the bootstrap class loader.
+     * @param typeName
+     *     Name of the class in the descriptor format: {@code Lpackage/Class;}.
+     * @return The digest, or null if the class file cannot be read.
+     */
+    public static byte[] getClassFileDigest(ClassLoader classLoader, String typeName) {
+        ClassLoader loader = (classLoader != null) ? classLoader : ClassLoader.getSystemClassLoader();
+        String resource = typeName.substring(1, typeName.length() - 1) + ".class";
+        ConcurrentHashMap<String, Optional<byte[]>> digests = classFileDigests.computeIfAbsent(loader, l -> new ConcurrentHashMap<>());
+        return digests.computeIfAbsent(resource, name -> {
+            try (InputStream input = loader.getResourceAsStream(name)) {
+                if (input == null) {
+                    return Optional.empty();
+                }
+                return Optional.of(newDigest().digest(input.readAllBytes()));
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Identifies the build of the jar file that contains a class by its location,
+     * size and modification time.
+     */
+    private static String getBuildIdentity(Class<?> klass) {
+        return buildIdentities.computeIfAbsent(klass, k -> {
+            CodeSource codeSource = k.getProtectionDomain().getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                return "unknown";
+            }
+            try {
+                Path location = Paths.get(codeSource.getLocation().toURI());
+                return location + ":" + Files.size(location) + ":" + Files.getLastModifiedTime(location).toMillis();
+            } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                return codeSource.getLocation().toString();
+            }
+        });
+    }
+
+    /**
+     * Adds the type of an argument and the values that the compiler specialises
+     * into the kernel for it: scalar values and array sizes.
+     *
+     * @return false if the kernel of the task cannot be cached.
+     */
+    private static boolean addArgument(KeyBuilder key, Object value) {
+        if (value == null) {
+            key.add("null");
+            return true;
+        }
+        Class<?> klass = value.getClass();
+        key.add(klass.getName());
+        if (RuntimeUtilities.isBoxedPrimitiveClass(klass)) {
+            key.add(value.toString());
+            return true;
+        } else if (value instanceof HalfFloat halfFloat) {
+            key.add(Float.toString(halfFloat.getFloat32()));
+            return true;
+        } else if (klass.isArray()) {
+            key.add("length", Array.getLength(value));
+            return true;
+        } else if (value instanceof TornadoNativeArray nativeArray) {
+            key.add("length", nativeArray.getSize());
+            return true;
+        }
+        // The thread indices of a kernel context are not specialised
+        return value instanceof KernelContext;
+    }
+
+    /**
+     * A kernel loaded from the cache.
+     *
+     * @param code
+     *     Code to install in the backend.
+     * @param domain
+     *     Parallel domain of the task, or null if the compiler did not find one.
+     */
+    public record CachedKernel(byte[] code, DomainTree domain) {
+
+        /**
+         * Sets the parallel domain on the task, as the shape analysis of the
+         * compiler would do.
+         */
+        public void restoreDomain(TaskDataContext meta) {
+            if (domain != null && meta.getDomain() == null) {
+                meta.setDomain(domain);
+            }
+        }
+    }
+
+    private record KeyBuilder(MessageDigest digest) {
+
+        void add(String name, Object value) {
+            add(name);
+            add(String.valueOf(value));
+        }
+
+        void add(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            add(bytes);
+        }
+
+        void add(byte[] bytes) {
+            // Length-prefixed, so consecutive values cannot collide
+            digest.update((byte) (bytes.length >>> 24));
+            digest.update((byte) (bytes.length >>> 16));
+            digest.update((byte) (bytes.length >>> 8));
+            digest.update((byte) bytes.length);
+            digest.update(bytes);
+        }
+    }
+}
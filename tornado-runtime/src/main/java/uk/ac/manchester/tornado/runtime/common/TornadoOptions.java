@@ -102,6 +102,25 @@ public class TornadoOptions {
      * Option to set the device maximum memory usage. It is set to 1GB by default.
      */
     public static final long DEVICE_AVAILABLE_MEMORY = RuntimeUtilities.parseSize(System.getProperty("tornado.device.memory", "1GB"));
+    /**
+     * Number of lock stripes per access type used by the device buffer providers.
+     * Threads are mapped to a stripe, so concurrent execution plans can allocate
+     * and recycle device buffers without contending on a single lock. It is
+     * rounded up to a power of two. It is set to 8 by default.
+     */
+    public static final int DEVICE_BUFFER_POOL_STRIPES = getIntValue("tornado.device.buffer.stripes", "8");
+    /**
+     * Enables the eviction of least-recently-used device buffers kept across
+     * executions when a device runs out of memory. Evicted buffers are uploaded
+     * again on their next use. Default is False.
+     */
+    public static final boolean DEVICE_BUFFER_EVICTION = getBooleanValue("tornado.device.buffer.eviction", FALSE);
+    /**
+     * Sets the number of batches in flight for pipelined batch processing. Each
+     * batch in flight uses its own set of device buffers. Default is 2
+     * (double-buffering).
+     */
+    public static final int BATCH_PIPELINE_DEPTH = getIntValue("tornado.batch.pipeline.depth", "2");
     /**
      * Option to enable exceptions for the OpenCL generated code. This is
      * experimental.
@@ -117,6 +136,14 @@ public class TornadoOptions {
      * reductions.
      */
     public static final boolean EXPERIMENTAL_REDUCE = getBooleanValue("tornado.experimental.reduce", TRUE);
+    /**
+     * Maximum number of partial results of a reduction that are combined by a
+     * single device thread. When the parallel reduction produces more partial
+     * results, they are combined on the device by parallel passes that reduce
+     * blocks of this size. Values lower than 2 disable the parallel passes.
+     * Default is 256.
+     */
+    public static final int REDUCE_STAGE_SIZE = getIntValue("tornado.reduce.stage.size", "256");
     /**
      * Temporal option for disabling null checks for Apache-Flink.
      */
@@ -149,6 +176,13 @@ public class TornadoOptions {
      * Prints the generated code by the TornadoVM compiler. Default is False.
      */
     public static final String PRINT_SOURCE_DIRECTORY = getProperty("tornado.print.kernel.dir", "");
+    /**
+     * Directory of the persistent kernel cache. When it is set, the code
+     * generated for each task is stored on disk and reused by later runs of the
+     * JVM with the same method, device, compiler flags and specialisation
+     * constants. Disabled by default.
+     */
+    public static final String KERNEL_CACHE_DIRECTORY = getProperty("tornado.kernel.cache.dir", "");
     /**
      * Once the internal buffers storing events are full, it will start to circulate
      * old events and overwrite them with new ones. Default is True.
@@ -162,6 +196,31 @@ public class TornadoOptions {
      * Sets the array memory alignment for OpenCL devices. Default is 128 bytes.
      */
     public static final int OPENCL_ARRAY_ALIGNMENT = Integer.parseInt(getProperty("tornado.opencl.array.align", "128"));
+    /**
+     * Enables the arena mode for the OpenCL backend. Small arrays are placed as
+     * sub-buffers of one large device buffer per access type, instead of
+     * allocating a buffer each. This reduces the number of device allocations,
+     * but each array is still passed as its own kernel argument. Default is
+     * False.
+     */
+    public static final boolean OPENCL_BUFFER_ARENA = getBooleanValue("tornado.opencl.arena", FALSE);
+    /**
+     * Size of each OpenCL buffer arena. It is rounded up to a power of two.
+     * Default is 64MB.
+     */
+    public static final long OPENCL_BUFFER_ARENA_SIZE = RuntimeUtilities.parseSize(getProperty("tornado.opencl.arena.size", "64MB"));
+    /**
+     * Arrays up to this size (in bytes, including the array header) are placed in
+     * the OpenCL buffer arena. Default is 64KB.
+     */
+    public static final long OPENCL_BUFFER_ARENA_THRESHOLD = RuntimeUtilities.parseSize(getProperty("tornado.opencl.arena.threshold", "64KB"));
+    /**
+     * Enables zero-copy buffers for OpenCL devices that share the memory with the
+     * host (CPU devices and integrated GPUs). The device buffers of aligned native
+     * arrays are created with CL_MEM_USE_HOST_PTR over the host memory. Default is
+     * False.
+     */
+    public static final boolean OPENCL_ZERO_COPY = getBooleanValue("tornado.opencl.zerocopy", FALSE);
     /**
      * Sets the array memory alignment for SPIRV devices. Default is 128 bytes.
      */
@@ -179,6 +238,17 @@ public class TornadoOptions {
      * Option to redirect profiler output.
      */
     public static final String PROFILER_DIRECTORY = getProperty("tornado.profiler.dump.dir", "");
+    /**
+     * File in which the latency histograms of all the task-graphs are written in
+     * the Prometheus text format when the JVM exits. Disabled by default.
+     */
+    public static final String PROFILER_HISTOGRAMS_FILE = getProperty("tornado.profiler.histograms.file", "");
+    /**
+     * Local port on which the latency histograms of all the task-graphs are
+     * served in the Prometheus text format (under /metrics). Disabled by default
+     * (-1).
+     */
+    public static final int PROFILER_HISTOGRAMS_PORT = getIntValue("tornado.profiler.histograms.port", "-1");
     /**
      * Dump the Control-Flow-Graph with IGV for the compiled-graph after the last
      * phase in the Low-Tier.
@@ -204,6 +274,11 @@ public class TornadoOptions {
      * Sets the number of threads for the Tornado Sketcher. Default is 4.
      */
     public static final int TORNADO_SKETCHER_THREADS = Integer.parseInt(getProperty("tornado.sketcher.threads", "4"));
+    /**
+     * Sets the number of threads that compile tasks in parallel when an execution
+     * plan is precompiled. Default is 4.
+     */
+    public static final int TORNADO_COMPILER_THREADS = getIntValue("tornado.compiler.threads", "4");
     /**
      * It enables automatic discovery and parallelization of loops. Please note that
      * this option is experimental and may cause issues if enabled.
@@ -389,6 +464,55 @@ public class TornadoOptions {
      */
     public static final int EVENT_WINDOW = getIntValue("tornado.eventpool.size", "1024");
 
+    /**
+     * Collect the profiling information of the device events at the end of the
+     * execution of a task-graph, instead of waiting for each event after it is
+     * enqueued. True by default.
+     */
+    public static final boolean PROFILER_DEFERRED_EVENTS = getBooleanValue("tornado.profiler.deferred", TRUE);
+
+    /**
+     * File in which the dynamic reconfiguration keeps the execution times of
+     * each device across runs, to select the device without racing all the
+     * devices. By default, the times are only kept in memory.
+     */
+    public static final String DR_MODEL_FILE = getProperty("tornado.dr.model.file", "");
+
+    /**
+     * Number of observations per device required by the dynamic reconfiguration
+     * to select a device with its cost model. Default is 3.
+     */
+    public static final int DR_MODEL_MIN_OBSERVATIONS = getIntValue("tornado.dr.model.minObservations", "3");
+
+    /**
+     * Factor by which the data size of a task-graph can be out of the range of
+     * sizes observed for a device for the cost model of the dynamic
+     * reconfiguration to be used. Out of this range, the devices are raced
+     * again. Default is 2.
+     */
+    public static final int DR_MODEL_EXTRAPOLATION = getIntValue("tornado.dr.model.extrapolation", "2");
+
+    /**
+     * Number of executions with a selected device after which the dynamic
+     * reconfiguration races the devices again, so the cost model keeps
+     * recording observations. Default is 50. Set it to 0 to disable it.
+     */
+    public static final int DR_MODEL_EXPLORATION_INTERVAL = getIntValue("tornado.dr.model.explorationInterval", "50");
+
+    /**
+     * Number of chunks in which the iteration space is divided when a task-graph
+     * is co-executed across several devices. The slice of each device is a whole
+     * number of chunks. Default is 64.
+     */
+    public static final int COEXECUTION_GRANULARITY = getIntValue("tornado.coexecution.granularity", "64");
+
+    /**
+     * Minimum predicted speedup, in percentage, to resize the slices of an
+     * adaptive co-execution. Resizing a slice recompiles the kernels of its
+     * device. Default is 10.
+     */
+    public static final int COEXECUTION_RESPLIT_THRESHOLD = getIntValue("tornado.coexecution.resplitThreshold", "10");
+
     /**
      * Enable BIFS Math operations. Disabled by default.
      */
@@ -399,6 +523,11 @@ public class TornadoOptions {
      */
     public static final boolean VM_USE_DEPS = getBooleanValue("tornado.vm.deps", FALSE);
 
+    /**
+     * Enable the peephole optimizer over the TornadoVM bytecodes. Disabled by default.
+     */
+    public static final boolean VM_BYTECODE_OPTIMIZER = getBooleanValue("tornado.vm.bytecode.optimizer", FALSE);
+
     /**
      * Enable OpenCL Profiling. Enabled by default.
      */
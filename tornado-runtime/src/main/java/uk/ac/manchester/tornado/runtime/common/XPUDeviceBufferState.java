@@ -35,6 +35,7 @@ public class XPUDeviceBufferState implements DeviceBufferState {
 
     private boolean bufferHasContent;
     private boolean lockBuffer;
+    private boolean evicted;
     private long partialSize;
 
     @Override
@@ -64,6 +65,22 @@ public class XPUDeviceBufferState implements DeviceBufferState {
 
     public void setLockBuffer(boolean lockBuffer) {
         this.lockBuffer = lockBuffer;
+        this.evicted = false;
+    }
+
+    /**
+     * Marks a locked buffer as evicted: it has no device buffer and no contents,
+     * and it is not locked until it is allocated again.
+     */
+    public void markEvicted() {
+        xpuBuffer = null;
+        bufferHasContent = false;
+        lockBuffer = false;
+        evicted = true;
+    }
+
+    public boolean isEvicted() {
+        return evicted;
     }
 
     @Override
@@ -82,6 +82,8 @@ public class TornadoExecutionContext {
     private TornadoXPUDevice[] taskToDeviceMapTable;
     private int nextTask;
     private long batchSize;
+    private long batchOffset;
+    private boolean isBatchPipelined;
     private long executionPlanMemoryLimit;
     private Set<TornadoXPUDevice> lastDevices;
     private boolean redeployOnDevice;
@@ -108,6 +110,7 @@ public class TornadoExecutionContext {
         Arrays.fill(taskToDeviceMapTable, null);
         nextTask = 0;
         batchSize = INIT_VALUE;
+        batchOffset = INIT_VALUE;
         executionPlanMemoryLimit = INIT_VALUE;
         lastDevices = new HashSet<>();
         currentDeviceMemoryUsage = 0;
@@ -152,6 +155,33 @@ public class TornadoExecutionContext {
         this.batchSize = size;
     }
 
+    /**
+     * @return The offset, in bytes, of the only batch to run, or
+     *     {@link #INIT_VALUE} if the whole iteration space is processed.
+     */
+    public long getBatchOffset() {
+        return batchOffset;
+    }
+
+    /**
+     * Restricts the execution to a single batch (a slice of the iteration space)
+     * that starts at the given offset. The size of the slice is the batch size.
+     *
+     * @param offset
+     *     Offset in bytes.
+     */
+    public void setBatchOffset(long offset) {
+        this.batchOffset = offset;
+    }
+
+    public boolean isBatchPipelined() {
+        return isBatchPipelined;
+    }
+
+    public void setBatchPipelined(boolean isBatchPipelined) {
+        this.isBatchPipelined = isBatchPipelined;
+    }
+
     public long getExecutionPlanMemoryLimit() {
         return executionPlanMemoryLimit;
     }
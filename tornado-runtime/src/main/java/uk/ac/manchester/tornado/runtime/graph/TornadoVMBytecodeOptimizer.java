@@ -0,0 +1,310 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Peephole optimizer over the TornadoVM bytecodes of one context. It runs after
+ * the {@link TornadoVMGraphCompiler} has emitted the {@code END} bytecode, and
+ * it applies the following rewrites:
+ *
+ * <ul>
+ * <li>A {@code DEALLOC} followed by an {@code ALLOC} of the same object with the
+ * same batch size (e.g., between two batches) is removed, and the object is
+ * dropped from the {@code ALLOC}. The device buffer is kept across batches
+ * instead of being released and allocated again. This rewrite is skipped for
+ * pipelined batches, since the interpreter starts a new slot of buffers at the
+ * {@code ALLOC} of each batch.</li>
+ * <li>A {@code BARRIER} right after another {@code BARRIER} is removed, since no
+ * work was enqueued between them.</li>
+ * <li>A host-to-device transfer that repeats an earlier transfer of the same
+ * object and region, with no kernel launch in between, is removed.</li>
+ * <li>If the context runs on a single in-order queue, {@code ADD_DEPENDENCY}
+ * bytecodes are removed, since the queue already orders all commands.</li>
+ * </ul>
+ *
+ * <p>
+ * The pass is disabled by default. It is enabled with
+ * {@link uk.ac.manchester.tornado.runtime.common.TornadoOptions#VM_BYTECODE_OPTIMIZER}.
+ * </p>
+ */
+public final class TornadoVMBytecodeOptimizer {
+
+    private static final int NO_OBJECT = -1;
+
+    private TornadoVMBytecodeOptimizer() {
+    }
+
+    /**
+     * Optimizes the bytecodes of one context.
+     *
+     * @param code
+     *     Bytecodes as emitted by the {@link TornadoVMBytecodeBuilder}.
+     * @param size
+     *     Number of valid bytes in {@code code}.
+     * @param isSingleContext
+     *     True if all bytecodes run on a single device.
+     * @param isOutOfOrder
+     *     True if the device runs the commands on an out-of-order queue.
+     *     Dependencies are only removed for in-order queues.
+     * @param isBatchPipelined
+     *     True if the batches are pipelined. The allocations of each batch
+     *     are kept.
+     * @return The optimized bytecodes. The array is sized to fit exactly.
+     */
+    public static byte[] optimize(byte[] code, int size, boolean isSingleContext, boolean isOutOfOrder, boolean isBatchPipelined) {
+        ByteBuffer buffer = ByteBuffer.wrap(code, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        int headerSize = skipHeader(buffer);
+        List<Instruction> instructions = decode(buffer);
+
+        if (!isBatchPipelined) {
+            hoistAllocations(instructions);
+        }
+        removeRedundantBarriers(instructions);
+        removeRepeatedTransfers(instructions);
+        // Dependencies are only needed across devices or for out-of-order queues
+        if (isSingleContext && !isOutOfOrder) {
+            instructions.removeIf(instruction -> instruction.op == TornadoVMBytecodes.ADD_DEPENDENCY.value());
+        }
+
+        return encode(code, headerSize, instructions);
+    }
+
+    /**
+     * Returns a human-readable listing of the bytecodes after {@code BEGIN}.
+     */
+    public static String disassemble(byte[] code, int size) {
+        ByteBuffer buffer = ByteBuffer.wrap(code, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        skipHeader(buffer);
+        StringBuilder sb = new StringBuilder();
+        for (Instruction instruction : decode(buffer)) {
+            sb.append(instruction).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static int skipHeader(ByteBuffer buffer) {
+        byte op = buffer.get();
+        if (op != TornadoVMBytecodes.INIT.value()) {
+            throw new TornadoRuntimeException("[ERROR] Invalid TornadoVM bytecode header: " + op);
+        }
+        buffer.getInt();
+        buffer.getInt();
+        buffer.getInt();
+        op = buffer.get();
+        while (op == TornadoVMBytecodes.CONTEXT.value()) {
+            buffer.getInt();
+            op = buffer.get();
+        }
+        if (op != TornadoVMBytecodes.BEGIN.value()) {
+            throw new TornadoRuntimeException("[ERROR] Invalid TornadoVM bytecode header: " + op);
+        }
+        return buffer.position();
+    }
+
+    private static List<Instruction> decode(ByteBuffer buffer) {
+        List<Instruction> instructions = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            final int start = buffer.position();
+            final byte op = buffer.get();
+            Instruction instruction = new Instruction(op, start);
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                instruction.size = buffer.getLong();
+                instruction.objects = new int[buffer.getInt()];
+                for (int i = 0; i < instruction.objects.length; i++) {
+                    instruction.objects[i] = buffer.getInt();
+                }
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                instruction.object = buffer.getInt();
+            } else if (isTransfer(op)) {
+                instruction.object = buffer.getInt();
+                instruction.eventList = buffer.getInt();
+                instruction.offset = buffer.getLong();
+                instruction.size = buffer.getLong();
+            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
+                buffer.getInt();
+                instruction.object = buffer.getInt(); // task index
+                final int numArgs = buffer.getInt();
+                instruction.eventList = buffer.getInt();
+                instruction.offset = buffer.getLong();
+                instruction.size = buffer.getLong();
+                buffer.position(buffer.position() + numArgs * (Byte.BYTES + Integer.BYTES));
+            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value() || op == TornadoVMBytecodes.BARRIER.value()) {
+                instruction.eventList = buffer.getInt();
+            } else if (op != TornadoVMBytecodes.END.value()) {
+                throw new TornadoRuntimeException("[ERROR] TornadoVM Bytecode not recognized: " + op);
+            }
+            instruction.length = buffer.position() - start;
+            instructions.add(instruction);
+            if (op == TornadoVMBytecodes.END.value()) {
+                break;
+            }
+        }
+        return instructions;
+    }
+
+    private static boolean isTransfer(byte op) {
+        return op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value() //
+                || op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value() //
+                || op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value() //
+                || op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value();
+    }
+
+    private static boolean isHostToDeviceTransfer(byte op) {
+        return op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value() || op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value();
+    }
+
+    private static void hoistAllocations(List<Instruction> instructions) {
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction deAlloc = instructions.get(i);
+            if (deAlloc.op != TornadoVMBytecodes.DEALLOC.value()) {
+                continue;
+            }
+            Instruction previousAlloc = findAllocation(instructions, deAlloc.object, i - 1, -1);
+            Instruction nextAlloc = findAllocation(instructions, deAlloc.object, i + 1, 1);
+            if (previousAlloc != null && nextAlloc != null && previousAlloc.size == nextAlloc.size) {
+                nextAlloc.objects = Arrays.stream(nextAlloc.objects).filter(object -> object != deAlloc.object).toArray();
+                instructions.remove(i--);
+            }
+        }
+        instructions.removeIf(instruction -> instruction.op == TornadoVMBytecodes.ALLOC.value() && instruction.objects.length == 0);
+    }
+
+    /**
+     * Looks for the closest {@code ALLOC} of an object in the given direction.
+     * Going forward, only {@code DEALLOC} and {@code ADD_DEPENDENCY} bytecodes
+     * can be crossed, so the object is not used while it has no buffer.
+     */
+    private static Instruction findAllocation(List<Instruction> instructions, int object, int from, int step) {
+        for (int i = from; i >= 0 && i < instructions.size(); i += step) {
+            Instruction instruction = instructions.get(i);
+            if (instruction.op == TornadoVMBytecodes.ALLOC.value()) {
+                if (Arrays.stream(instruction.objects).anyMatch(value -> value == object)) {
+                    return instruction;
+                }
+                if (step > 0) {
+                    return null;
+                }
+            } else if (step > 0 && instruction.op != TornadoVMBytecodes.DEALLOC.value() && instruction.op != TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static void removeRedundantBarriers(List<Instruction> instructions) {
+        for (int i = 1; i < instructions.size(); i++) {
+            if (instructions.get(i).op == TornadoVMBytecodes.BARRIER.value() && instructions.get(i - 1).op == TornadoVMBytecodes.BARRIER.value()) {
+                instructions.remove(i--);
+            }
+        }
+    }
+
+    private static void removeRepeatedTransfers(List<Instruction> instructions) {
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction transfer = instructions.get(i);
+            if (!isHostToDeviceTransfer(transfer.op)) {
+                continue;
+            }
+            for (int j = i + 1; j < instructions.size(); j++) {
+                Instruction next = instructions.get(j);
+                if (!isHostToDeviceTransfer(next.op) && next.op != TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
+                    break;
+                }
+                if (next.op == transfer.op && next.object == transfer.object && next.offset == transfer.offset && next.size == transfer.size && next.eventList == transfer.eventList) {
+                    instructions.remove(j--);
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(byte[] code, int headerSize, List<Instruction> instructions) {
+        int size = headerSize;
+        for (Instruction instruction : instructions) {
+            size += instruction.encodedLength();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(code, 0, headerSize);
+        for (Instruction instruction : instructions) {
+            if (instruction.op == TornadoVMBytecodes.ALLOC.value()) {
+                buffer.put(instruction.op);
+                buffer.putLong(instruction.size);
+                buffer.putInt(instruction.objects.length);
+                for (int object : instruction.objects) {
+                    buffer.putInt(object);
+                }
+            } else {
+                buffer.put(code, instruction.position, instruction.length);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static final class Instruction {
+        private final byte op;
+        private final int position;
+        private int length;
+        private int object = NO_OBJECT;
+        private int eventList = -1;
+        private long offset;
+        private long size;
+        private int[] objects;
+
+        private Instruction(byte op, int position) {
+            this.op = op;
+            this.position = position;
+        }
+
+        private int encodedLength() {
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                return Byte.BYTES + Long.BYTES + Integer.BYTES + objects.length * Integer.BYTES;
+            }
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            String name = Arrays.stream(TornadoVMBytecodes.values()).filter(bytecode -> bytecode.value() == op).map(Enum::name).findFirst().orElse("0x" + Integer.toHexString(op));
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                return String.format("%s objects=%s, size=%d", name, Arrays.toString(objects), size);
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                return String.format("%s object=%d", name, object);
+            } else if (isTransfer(op)) {
+                return String.format("%s object=%d, offset=%d, size=%d [event list=%d]", name, object, offset, size, eventList);
+            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
+                return String.format("%s task=%d, offset=%d, size=%d [event list=%d]", name, object, offset, size, eventList);
+            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value() || op == TornadoVMBytecodes.BARRIER.value()) {
+                return String.format("%s event list=%d", name, eventList);
+            }
+            return name;
+        }
+    }
+}
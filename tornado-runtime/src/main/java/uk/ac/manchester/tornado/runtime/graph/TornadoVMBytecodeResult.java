@@ -40,6 +40,8 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 public class TornadoVMBytecodeResult {
     private final byte[] bytecode;
     private final ByteBuffer buffer;
+    private String listingBeforeOptimization;
+    private String listingAfterOptimization;
 
     /**
      * Constructs a new TornadoVMBytecodeResult object with the given bytecode and
@@ -56,6 +58,40 @@ public class TornadoVMBytecodeResult {
         TornadoInternalError.guarantee(buffer.get() == TornadoVMBytecodes.INIT.value(), "invalid code");
     }
 
+    /**
+     * Sets the listings of the bytecodes before and after the
+     * {@link TornadoVMBytecodeOptimizer}, to be printed with the bytecodes.
+     *
+     * @param before
+     *            the listing before the optimizer
+     * @param after
+     *            the listing after the optimizer
+     */
+    void setOptimizerListing(String before, String after) {
+        this.listingBeforeOptimization = before;
+        this.listingAfterOptimization = after;
+    }
+
+    /**
+     * Returns the listing of the bytecodes before the optimizer, or null if
+     * the optimizer did not run or the bytecodes are not printed.
+     *
+     * @return the listing before the optimizer
+     */
+    public String getListingBeforeOptimization() {
+        return listingBeforeOptimization;
+    }
+
+    /**
+     * Returns the listing of the bytecodes after the optimizer, or null if
+     * the optimizer did not run or the bytecodes are not printed.
+     *
+     * @return the listing after the optimizer
+     */
+    public String getListingAfterOptimization() {
+        return listingAfterOptimization;
+    }
+
     /**
      * Returns the bytecode as a byte array.
      *
@@ -73,6 +73,10 @@ public class TornadoVMGraphCompiler {
             // Generate bytecodes with no batches
             if (executionContext.getBatchSize() == TornadoExecutionContext.INIT_VALUE) {
                 scheduleAndEmitTornadoVMBytecodes(tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph, 0, 0, 0, i, executionContext);
+            } else if (executionContext.getBatchOffset() != TornadoExecutionContext.INIT_VALUE) {
+                // Generate bytecodes for a single slice of the iteration space.
+                // This is used when the task-graph is co-executed across devices
+                scheduleSliceBytecodes(executionContext, tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph);
             } else {
                 // Generate bytecodes for batch processing.
                 // It splits the iteration space and the input arrays into batches
@@ -89,7 +93,11 @@ public class TornadoVMGraphCompiler {
             // Generate END bytecode
             tornadoVMBytecodeBuilder.end();
 
-            tornadoVMBytecodeResults[i] = new TornadoVMBytecodeResult(tornadoVMBytecodeBuilder.getCode(), tornadoVMBytecodeBuilder.getCodeSize());
+            if (TornadoOptions.VM_BYTECODE_OPTIMIZER) {
+                tornadoVMBytecodeResults[i] = optimizeBytecodes(tornadoVMBytecodeBuilder, isSingleContextCompilation, executionContext.isBatchPipelined());
+            } else {
+                tornadoVMBytecodeResults[i] = new TornadoVMBytecodeResult(tornadoVMBytecodeBuilder.getCode(), tornadoVMBytecodeBuilder.getCodeSize());
+            }
 
         }
 
@@ -100,6 +108,18 @@ public class TornadoVMGraphCompiler {
         return tornadoVMBytecodeResults;
     }
 
+    private static TornadoVMBytecodeResult optimizeBytecodes(TornadoVMBytecodeBuilder tornadoVMBytecodeBuilder, boolean isSingleContextCompilation, boolean isBatchPipelined) {
+        final byte[] code = tornadoVMBytecodeBuilder.getCode();
+        final int codeSize = tornadoVMBytecodeBuilder.getCodeSize();
+        final byte[] optimizedCode = TornadoVMBytecodeOptimizer.optimize(code, codeSize, isSingleContextCompilation, TornadoOptions.ENABLE_OOO_EXECUTION, isBatchPipelined);
+        TornadoVMBytecodeResult result = new TornadoVMBytecodeResult(optimizedCode, optimizedCode.length);
+        if (TornadoOptions.PRINT_BYTECODES) {
+            // Printed by the interpreter with the bytecodes of the first execution
+            result.setOptimizerListing(TornadoVMBytecodeOptimizer.disassemble(code, codeSize), TornadoVMBytecodeOptimizer.disassemble(optimizedCode, optimizedCode.length));
+        }
+        return result;
+    }
+
     private static boolean shouldGenerateSingleBytecode(TornadoExecutionContext executionContext) {
         boolean isSingleDeviceExecution = executionContext.getValidContextSize() == 1;
         boolean isBatchEnabled = executionContext.getBatchSize() != -1;
@@ -133,6 +153,14 @@ public class TornadoVMGraphCompiler {
         }
     }
 
+    private static void scheduleSliceBytecodes(TornadoExecutionContext executionContext, TornadoVMBytecodeBuilder tornadoVMBytecodeBuilder, TornadoGraph graph,
+            IntermediateTornadoGraph intermediateTornadoGraph) {
+        final long sliceSize = executionContext.getBatchSize();
+        BatchConfiguration batchConfiguration = BatchConfiguration.computeChunkSizes(executionContext, sliceSize);
+        long numberOfThreads = sliceSize / batchConfiguration.getNumBytesType();
+        scheduleAndEmitTornadoVMBytecodes(tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph, executionContext.getBatchOffset(), sliceSize, numberOfThreads, 1, executionContext);
+    }
+
     private static void synchronizeOperationLastByteCode(TornadoVMBytecodeBuilder result, int numDepLists) {
         final byte[] code = result.getCode();
         int position = result.getLastCopyOutPosition();
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+
+/**
+ * A TornadoVM bytecode with its operands already decoded. The
+ * {@link TornadoVMInterpreter} decodes the bytecode stream once, when it is
+ * created, and each execution dispatches over the resulting array of
+ * instructions. Thus, repeated executions of an execution plan do not parse the
+ * bytecode buffer again.
+ */
+sealed interface TornadoVMInstruction {
+
+    /**
+     * Decodes the bytecodes from the current position of the buffer until the
+     * {@code END} bytecode.
+     *
+     * @param bytecodeResult
+     *     {@link TornadoVMBytecodeResult} positioned after the {@code BEGIN}
+     *     bytecode.
+     * @return An array with the decoded instructions, including {@code END}.
+     */
+    static TornadoVMInstruction[] decode(TornadoVMBytecodeResult bytecodeResult) {
+        List<TornadoVMInstruction> instructions = new ArrayList<>();
+        while (bytecodeResult.hasRemaining()) {
+            final byte op = bytecodeResult.get();
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                final long sizeBatch = bytecodeResult.getLong();
+                final int argSize = bytecodeResult.getInt();
+                final int[] args = new int[argSize];
+                for (int i = 0; i < argSize; i++) {
+                    args[i] = bytecodeResult.getInt();
+                }
+                instructions.add(new Alloc(sizeBatch, args, new Object[argSize], new Access[argSize], new XPUDeviceBufferState[argSize]));
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                instructions.add(new DeAlloc(bytecodeResult.getInt()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
+                instructions.add(new TransferHostToDeviceOnce(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
+                instructions.add(new TransferHostToDeviceAlways(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
+                instructions.add(new TransferDeviceToHost(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
+                instructions.add(new TransferDeviceToHostBlocking(bytecodeResult.getInt(), bytecodeResult.getInt(), bytecodeResult.getLong(), bytecodeResult.getLong()));
+            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
+                final int callWrapperIndex = bytecodeResult.getInt();
+                final int taskIndex = bytecodeResult.getInt();
+                final int numArgs = bytecodeResult.getInt();
+                final int eventList = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long batchThreads = bytecodeResult.getLong();
+                final byte[] argTypes = new byte[numArgs];
+                final int[] argIndexes = new int[numArgs];
+                for (int i = 0; i < numArgs; i++) {
+                    argTypes[i] = bytecodeResult.get();
+                    argIndexes[i] = bytecodeResult.getInt();
+                }
+                instructions.add(new Launch(callWrapperIndex, taskIndex, numArgs, eventList, offset, batchThreads, argTypes, argIndexes));
+            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
+                instructions.add(new AddDependency(bytecodeResult.getInt()));
+            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
+                instructions.add(new Barrier(bytecodeResult.getInt()));
+            } else if (op == TornadoVMBytecodes.END.value()) {
+                instructions.add(new End());
+                break;
+            } else {
+                throw new TornadoRuntimeException("[ERROR] TornadoVM Bytecode not recognized: " + op);
+            }
+        }
+        return instructions.toArray(new TornadoVMInstruction[0]);
+    }
+
+    /**
+     * The arrays {@code objects}, {@code accesses} and {@code states} are
+     * scratch space filled on each execution, so the allocation does not create
+     * new arrays.
+     */
+    record Alloc(long sizeBatch, int[] args, Object[] objects, Access[] accesses, XPUDeviceBufferState[] states) implements TornadoVMInstruction {
+    }
+
+    record DeAlloc(int objectIndex) implements TornadoVMInstruction {
+    }
+
+    record TransferHostToDeviceOnce(int objectIndex, int eventList, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    record TransferHostToDeviceAlways(int objectIndex, int eventList, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    record TransferDeviceToHost(int objectIndex, int eventList, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    record TransferDeviceToHostBlocking(int objectIndex, int eventList, long offset, long sizeBatch) implements TornadoVMInstruction {
+    }
+
+    record Launch(int callWrapperIndex, int taskIndex, int numArgs, int eventList, long offset, long batchThreads, byte[] argTypes, int[] argIndexes) implements TornadoVMInstruction {
+    }
+
+    record AddDependency(int eventList) implements TornadoVMInstruction {
+    }
+
+    record Barrier(int eventList) implements TornadoVMInstruction {
+    }
+
+    record End() implements TornadoVMInstruction {
+    }
+}
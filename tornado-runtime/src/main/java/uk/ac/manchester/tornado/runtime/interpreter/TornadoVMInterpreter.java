@@ -27,10 +27,16 @@ import static uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus.COMPLETE
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VIRTUAL_DEVICE_ENABLED;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VM_USE_DEPS;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import uk.ac.manchester.tornado.api.GridScheduler;
@@ -43,15 +49,19 @@ import uk.ac.manchester.tornado.api.common.TornadoEvents;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoDeviceFP64NotSupported;
+import uk.ac.manchester.tornado.api.exceptions.TornadoDynamicReconfigurationException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoFailureException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.runtime.TaskContextInterface;
 import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.common.CancellableThread;
+import uk.ac.manchester.tornado.runtime.common.DeviceBufferResidencyManager;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -61,6 +71,16 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.AddDependency;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.Alloc;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.Barrier;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.DeAlloc;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.End;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.Launch;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.TransferDeviceToHost;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.TransferDeviceToHostBlocking;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.TransferHostToDeviceAlways;
+import uk.ac.manchester.tornado.runtime.interpreter.TornadoVMInstruction.TransferHostToDeviceOnce;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.DataObjectState;
@@ -84,6 +104,8 @@ public class TornadoVMInterpreter {
     private final List<Object> objects;
 
     private final DataObjectState[] dataObjectStates;
+    private final XPUDeviceBufferState[] deviceBufferStates;
+    private final Access[] dataObjectAccesses;
     private final KernelStackFrame[] kernelStackFrame;
     private final int[][] events;
     private final int[] eventsIndexes;
@@ -96,13 +118,26 @@ public class TornadoVMInterpreter {
 
     private TornadoProfiler timeProfiler;
     private final TornadoExecutionContext graphExecutionContext;
-    private final TornadoVMBytecodeResult bytecodeResult;
+    private final TornadoVMInstruction[] instructions;
+    private final HashMap<Integer, Integer> threadDeploy;
     private double totalTime;
     private long invocations;
+    private int currentInstruction;
+    private final TornadoVMBytecodeResult bytecodeResult;
     private boolean finishedWarmup;
 
     private GridScheduler gridScheduler;
 
+    private final DeviceBufferResidencyManager residencyManager;
+
+    /**
+     * Slots of device buffers for pipelined batch processing. They are created on
+     * the first pipelined execution.
+     */
+    private PipelinedBatchSlot[] batchSlots;
+    private PipelinedBatchSlot currentBatchSlot;
+    private int pipelinedBatches;
+
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
     /**
@@ -120,10 +155,11 @@ public class TornadoVMInterpreter {
     public TornadoVMInterpreter(TornadoExecutionContext graphExecutionContext, TornadoVMBytecodeResult bytecodeResult, TornadoProfiler timeProfiler, TornadoXPUDevice device) {
         this.graphExecutionContext = graphExecutionContext;
         this.timeProfiler = timeProfiler;
-        this.bytecodeResult = bytecodeResult;
 
         assert device != null;
         this.interpreterDevice = device;
+        this.bytecodeResult = bytecodeResult;
+        this.residencyManager = DeviceBufferResidencyManager.isEnabled() ? DeviceBufferResidencyManager.getInstance(device) : null;
 
         useDependencies = VM_USE_DEPS;
         totalTime = 0;
@@ -131,10 +167,10 @@ public class TornadoVMInterpreter {
 
         logger.debug("init an instance of a TornadoVM interpreter...");
 
-        this.bytecodeResult.getLong(); // Skips bytes not needed
+        bytecodeResult.getLong(); // Skips bytes not needed
 
         kernelStackFrame = graphExecutionContext.getKernelStackFrame();
-        events = new int[this.bytecodeResult.getInt()][MAX_EVENTS];
+        events = new int[bytecodeResult.getInt()][MAX_EVENTS];
         eventsIndexes = new int[events.length];
 
         localTaskList = graphExecutionContext.getTasksForDevice(interpreterDevice.getDeviceContext());
@@ -151,16 +187,20 @@ public class TornadoVMInterpreter {
         objectAccesses = graphExecutionContext.getObjectsAccesses();
         objects = graphExecutionContext.getObjects();
         dataObjectStates = new DataObjectState[objects.size()];
+        deviceBufferStates = new XPUDeviceBufferState[objects.size()];
+        dataObjectAccesses = new Access[objects.size()];
         fetchGlobalStates();
 
-        rewindBufferToBegin();
+        rewindBufferToBegin(bytecodeResult);
 
         constants = graphExecutionContext.getConstants();
         taskExecutionContexts = graphExecutionContext.getTasks();
 
-        logger.debug("interpreter for device %s is ready to go", device.toString());
+        // The bytecodes are decoded once. Each execution dispatches over the decoded instructions.
+        instructions = TornadoVMInstruction.decode(bytecodeResult);
+        threadDeploy = new HashMap<>();
 
-        this.bytecodeResult.mark();
+        logger.debug("interpreter for device %s is ready to go", device.toString());
     }
 
     public void setTimeProfiler(TornadoProfiler tornadoProfiler) {
@@ -173,10 +213,12 @@ public class TornadoVMInterpreter {
             final Access access = objectAccesses.get(object);
             TornadoInternalError.guarantee(object != null, "null object found in TornadoVM");
             dataObjectStates[i] = graphExecutionContext.getLocalStateObject(object, access).getDataObjectState();
+            deviceBufferStates[i] = dataObjectStates[i].getDeviceBufferState(interpreterDevice);
+            dataObjectAccesses[i] = access;
         }
     }
 
-    private void rewindBufferToBegin() {
+    private void rewindBufferToBegin(TornadoVMBytecodeResult bytecodeResult) {
         byte op = bytecodeResult.get();
         while (op != TornadoVMBytecodes.BEGIN.value()) {
             TornadoInternalError.guarantee(op == TornadoVMBytecodes.CONTEXT.value(), "invalid code: 0x%x", op);
@@ -241,11 +283,72 @@ public class TornadoVMInterpreter {
         finishedWarmup = true;
     }
 
+    /**
+     * Compiles the tasks of the interpreter ahead of the first execution, as
+     * {@link #warmup()} does, but the first launch of each task is compiled in
+     * the given pool. Thus, the tasks are compiled in parallel. The remaining
+     * launches of a task (e.g. the last batch) are processed in order once all
+     * tasks have been compiled.
+     *
+     * @param compilerPool
+     *     {@link ExecutorService} that runs the compilations.
+     * @return A {@link CompletableFuture} that completes when all tasks are
+     *     installed on the device.
+     */
+    public CompletableFuture<Void> precompile(ExecutorService compilerPool) {
+        if (interpreterDevice.getDeviceContext().isPlatformFPGA()) {
+            // FPGA kernels are built from a single source, in task order
+            warmup();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final boolean[] firstLaunch = new boolean[instructions.length];
+        final BitSet preparedTasks = new BitSet();
+        final List<CompletableFuture<Void>> compilations = new ArrayList<>();
+        for (int i = 0; i < instructions.length; i++) {
+            if (instructions[i] instanceof Launch launch && !preparedTasks.get(launch.taskIndex())) {
+                preparedTasks.set(launch.taskIndex());
+                firstLaunch[i] = true;
+                resolveCallWrapperForLaunch(launch.callWrapperIndex(), launch.numArgs());
+                final SchedulableTask task = prepareTaskForCompilation(launch.taskIndex(), launch.batchThreads());
+                if (shouldCompile(installedCodes[globalToLocalTaskIndex(launch.taskIndex())])) {
+                    compilations.add(CompletableFuture.runAsync(() -> {
+                        interpreterDevice.enableThreadSharing();
+                        installTask(task, launch.taskIndex(), launch.batchThreads());
+                    }, compilerPool));
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(compilations.toArray(new CompletableFuture[0])).thenRun(() -> {
+            interpreterDevice.enableThreadSharing();
+            for (int i = 0; i < instructions.length; i++) {
+                if (instructions[i] instanceof Launch launch && !firstLaunch[i]) {
+                    compileTaskFromBytecodeToBinary(launch.callWrapperIndex(), launch.numArgs(), launch.taskIndex(), launch.batchThreads());
+                }
+            }
+            finishedWarmup = true;
+        });
+    }
+
     private boolean isMemoryLimitEnabled() {
         return graphExecutionContext.isMemoryLimited();
     }
 
     private Event execute(boolean isWarmup) {
+        if (residencyManager == null) {
+            return executeBytecodes(isWarmup);
+        }
+        // Buffers of a running execution plan must not be evicted
+        residencyManager.beginExecution(graphExecutionContext.getExecutionPlanId());
+        try {
+            return executeBytecodes(isWarmup);
+        } finally {
+            residencyManager.endExecution(graphExecutionContext.getExecutionPlanId());
+        }
+    }
+
+    private Event executeBytecodes(boolean isWarmup) {
         isWarmup = isWarmup || VIRTUAL_DEVICE_ENABLED;
         interpreterDevice.enableThreadSharing();
 
@@ -256,109 +359,77 @@ public class TornadoVMInterpreter {
         final long t0 = System.nanoTime();
         int lastEvent = -1;
         initWaitEventList();
+        final boolean isBatchPipelined = !isWarmup && isBatchPipelined();
+        currentBatchSlot = null;
+        pipelinedBatches = 0;
 
         StringBuilder tornadoVMBytecodeList = null;
         if (TornadoOptions.PRINT_BYTECODES) {
             tornadoVMBytecodeList = new StringBuilder();
             tornadoVMBytecodeList.append(InterpreterUtilities.debugHighLightHelper("Interpreter instance running bytecodes for: ")).append(interpreterDevice).append(InterpreterUtilities
                     .debugHighLightHelper(" Running in thread: ")).append(Thread.currentThread().getName()).append("\n");
+            if (invocations == 0 && bytecodeResult.getListingBeforeOptimization() != null) {
+                tornadoVMBytecodeList.append(InterpreterUtilities.debugHighLightHelper("Bytecodes before optimization:")).append("\n").append(bytecodeResult.getListingBeforeOptimization());
+                tornadoVMBytecodeList.append(InterpreterUtilities.debugHighLightHelper("Bytecodes after optimization:")).append("\n").append(bytecodeResult.getListingAfterOptimization());
+            }
         }
 
-        while (bytecodeResult.hasRemaining()) {
-            final byte op = bytecodeResult.get();
-            if (op == TornadoVMBytecodes.ALLOC.value()) {
-                final long sizeBatch = bytecodeResult.getLong();
-                final int argSize = bytecodeResult.getInt();
-                final int[] args = new int[argSize];
-                for (int i = 0; i < argSize; i++) {
-                    args[i] = bytecodeResult.getInt();
-                }
-                if (isWarmup) {
-                    continue;
-                }
-                lastEvent = executeAlloc(tornadoVMBytecodeList, args, sizeBatch);
-            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                if (isWarmup) {
-                    continue;
-                }
-                lastEvent = executeDeAlloc(tornadoVMBytecodeList, objectIndex);
-            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
-                }
-                transferHostToDeviceOnce(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
-                }
-                transferHostToDeviceAlways(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
-                }
-                lastEvent = transferDeviceToHost(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
-                }
-                transferDeviceToHostBlocking(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
-                final int callWrapperIndex = bytecodeResult.getInt();
-                final int taskIndex = bytecodeResult.getInt();
-                final int numArgs = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long batchThreads = bytecodeResult.getLong();
-                XPUExecutionFrame info = compileTaskFromBytecodeToBinary(callWrapperIndex, numArgs, eventList, taskIndex, batchThreads);
-                if (isWarmup) {
-                    popArgumentsFromCall(numArgs);
-                    continue;
+        for (currentInstruction = 0; currentInstruction < instructions.length; currentInstruction++) {
+            final TornadoVMInstruction instruction = instructions[currentInstruction];
+            if (CancellableThread.isCurrentThreadCancelled()) {
+                // Stop launching work for an execution that is no longer needed
+                throw new TornadoDynamicReconfigurationException("The execution of " + interpreterDevice + " has been cancelled");
+            }
+            if (isWarmup && !(instruction instanceof Launch)) {
+                // Only the kernels are compiled during warmup
+                continue;
+            }
+            switch (instruction) {
+                case Alloc alloc -> {
+                    if (isBatchPipelined) {
+                        // Each batch allocates its buffers once, so an ALLOC starts a new batch
+                        beginPipelinedBatch(tornadoVMBytecodeList);
+                    }
+                    lastEvent = executeAlloc(tornadoVMBytecodeList, alloc);
                 }
-                lastEvent = executeLaunch(tornadoVMBytecodeList, numArgs, eventList, taskIndex, batchThreads, offset, info);
-            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
-                final int eventList = bytecodeResult.getInt();
-                if (isWarmup) {
-                    continue;
+                case DeAlloc deAlloc -> {
+                    if (isBatchPipelined) {
+                        // The batch may still be running on the device
+                        currentBatchSlot.pendingDeallocations.add(deAlloc.objectIndex());
+                        lastEvent = -1;
+                    } else {
+                        lastEvent = executeDeAlloc(tornadoVMBytecodeList, deAlloc.objectIndex());
+                    }
                 }
-                executeDependency(tornadoVMBytecodeList, lastEvent, eventList);
-            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
-                final int eventList = bytecodeResult.getInt();
-                final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
+                case TransferHostToDeviceOnce transfer -> transferHostToDeviceOnce(tornadoVMBytecodeList, transfer.objectIndex(), transfer.offset(), transfer.eventList(), transfer.sizeBatch(),
+                        resolveWaitList(transfer.eventList()));
+                case TransferHostToDeviceAlways transfer -> transferHostToDeviceAlways(tornadoVMBytecodeList, transfer.objectIndex(), transfer.offset(), transfer.eventList(), transfer.sizeBatch(),
+                        resolveWaitList(transfer.eventList()));
+                case TransferDeviceToHost transfer -> lastEvent = transferDeviceToHost(tornadoVMBytecodeList, transfer.objectIndex(), transfer.offset(), transfer.eventList(), transfer.sizeBatch(),
+                        useDependencies ? events[transfer.eventList()] : null);
+                case TransferDeviceToHostBlocking transfer -> transferDeviceToHostBlocking(tornadoVMBytecodeList, transfer.objectIndex(), transfer.offset(), transfer.eventList(), transfer
+                        .sizeBatch(), useDependencies ? events[transfer.eventList()] : null);
+                case Launch launch -> {
+                    KernelStackFrame stackFrame = compileTaskFromBytecodeToBinary(launch.callWrapperIndex(), launch.numArgs(), launch.taskIndex(), launch.batchThreads());
+                    if (!isWarmup) {
+                        lastEvent = executeLaunch(tornadoVMBytecodeList, launch, stackFrame);
+                    }
                 }
-                lastEvent = executeBarrier(tornadoVMBytecodeList, eventList, waitList);
-            } else if (op == TornadoVMBytecodes.END.value()) {
-                if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
-                    tornadoVMBytecodeList.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                case AddDependency dependency -> executeDependency(tornadoVMBytecodeList, lastEvent, dependency.eventList());
+                case Barrier barrier -> lastEvent = executeBarrier(tornadoVMBytecodeList, barrier.eventList(), resolveWaitList(barrier.eventList()));
+                case End end -> {
+                    // END is always the last decoded instruction
+                    if (TornadoOptions.PRINT_BYTECODES) {
+                        tornadoVMBytecodeList.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                    }
                 }
-                break;
-            } else {
-                throwErrorInterpreter(op);
             }
         }
 
+        if (isBatchPipelined) {
+            endPipelinedBatches(tornadoVMBytecodeList);
+        }
+
         Event barrier = EMPTY_EVENT;
         if (!isWarmup) {
             if (useDependencies) {
@@ -382,8 +453,6 @@ public class TornadoVMInterpreter {
             logger.debug("bc: complete elapsed=%.9f s (%d iterations, %.9f s mean)", elapsed, invocations, (totalTime / invocations));
         }
 
-        bytecodeResult.reset();
-
         if (TornadoOptions.PRINT_BYTECODES) {
             System.out.println(tornadoVMBytecodeList);
         }
@@ -391,20 +460,77 @@ public class TornadoVMInterpreter {
         return barrier;
     }
 
+    /**
+     * Batches are pipelined if the execution plan enables it, and the device
+     * executes commands in order. The order of the command queue guarantees that
+     * a slot of buffers is reused only after the copies of its previous batch
+     * finish.
+     */
+    private boolean isBatchPipelined() {
+        return graphExecutionContext.isBatchPipelined() && graphExecutionContext.getBatchSize() != TornadoExecutionContext.INIT_VALUE && !TornadoOptions.ENABLE_OOO_EXECUTION;
+    }
+
+    private void beginPipelinedBatch(StringBuilder tornadoVMBytecodeList) {
+        if (batchSlots == null) {
+            batchSlots = new PipelinedBatchSlot[Math.max(1, TornadoOptions.BATCH_PIPELINE_DEPTH)];
+            // The first slot uses the buffer states of the execution context
+            batchSlots[0] = new PipelinedBatchSlot(deviceBufferStates);
+            for (int i = 1; i < batchSlots.length; i++) {
+                XPUDeviceBufferState[] states = new XPUDeviceBufferState[deviceBufferStates.length];
+                for (int j = 0; j < states.length; j++) {
+                    states[j] = new XPUDeviceBufferState();
+                }
+                batchSlots[i] = new PipelinedBatchSlot(states);
+            }
+        }
+        currentBatchSlot = batchSlots[pipelinedBatches % batchSlots.length];
+        pipelinedBatches++;
+        // Release the buffers of the batch that used this slot before. Commands
+        // for the new batch are enqueued after that batch's copies.
+        releasePipelinedBatchSlot(tornadoVMBytecodeList, currentBatchSlot);
+    }
+
+    private void endPipelinedBatches(StringBuilder tornadoVMBytecodeList) {
+        // Copies back to the host are not blocking, so wait for all the batches
+        interpreterDevice.sync(graphExecutionContext.getExecutionPlanId());
+        for (PipelinedBatchSlot slot : batchSlots) {
+            releasePipelinedBatchSlot(tornadoVMBytecodeList, slot);
+        }
+        currentBatchSlot = null;
+    }
+
+    private void releasePipelinedBatchSlot(StringBuilder tornadoVMBytecodeList, PipelinedBatchSlot slot) {
+        currentBatchSlot = slot;
+        for (int objectIndex : slot.pendingDeallocations) {
+            executeDeAlloc(tornadoVMBytecodeList, objectIndex);
+        }
+        slot.pendingDeallocations.clear();
+    }
+
     private void initWaitEventList() {
         for (int[] waitList : events) {
             Arrays.fill(waitList, -1);
         }
     }
 
-    private int executeAlloc(StringBuilder tornadoVMBytecodeList, int[] args, long sizeBatch) {
-        Object[] objects = new Object[args.length];
-        Access[] accesses = new Access[args.length];
-        XPUDeviceBufferState[] objectStates = new XPUDeviceBufferState[args.length];
+    private int[] resolveWaitList(int eventList) {
+        return (useDependencies && eventList != -1) ? events[eventList] : null;
+    }
+
+    private int executeAlloc(StringBuilder tornadoVMBytecodeList, Alloc alloc) {
+        final int[] args = alloc.args();
+        final long sizeBatch = alloc.sizeBatch();
+        final Object[] objects = alloc.objects();
+        final Access[] accesses = alloc.accesses();
+        final XPUDeviceBufferState[] objectStates = alloc.states();
         for (int i = 0; i < objects.length; i++) {
             objects[i] = this.objects.get(args[i]);
             objectStates[i] = resolveObjectState(args[i]);
-            accesses[i] = this.objectAccesses.get(objects[i]);
+            accesses[i] = dataObjectAccesses[args[i]];
+            if (objectStates[i].isEvicted()) {
+                // Evicted by the residency manager: lock it again with a new buffer
+                objectStates[i].setLockBuffer(true);
+            }
 
             if (TornadoOptions.PRINT_BYTECODES) {
                 String verbose = String.format("bc: %s%s on %s, size=%d", InterpreterUtilities.debugHighLightBC("ALLOC"), objects[i], InterpreterUtilities.debugDeviceBC(interpreterDevice), sizeBatch);
@@ -412,7 +538,21 @@ public class TornadoVMInterpreter {
             }
         }
 
-        long allocationsTotalSize = interpreterDevice.allocateObjects(objects, sizeBatch, objectStates, accesses);
+        long allocationsTotalSize;
+        try {
+            allocationsTotalSize = interpreterDevice.allocateObjects(objects, sizeBatch, objectStates, accesses);
+        } catch (TornadoOutOfMemoryException e) {
+            if (residencyManager == null) {
+                throw e;
+            }
+            allocationsTotalSize = allocateObjectsWithEviction(objects, sizeBatch, objectStates, accesses, e);
+        }
+
+        if (residencyManager != null) {
+            for (int i = 0; i < objects.length; i++) {
+                residencyManager.recordUse(objectStates[i], objects[i], accesses[i], graphExecutionContext.getExecutionPlanId());
+            }
+        }
 
         graphExecutionContext.setCurrentDeviceMemoryUsage(allocationsTotalSize);
 
@@ -426,6 +566,72 @@ public class TornadoVMInterpreter {
         return -1;
     }
 
+    /**
+     * Evicts least-recently-used device buffers until all objects are
+     * allocated: first the buffers of other execution plans, and then the
+     * buffers of this execution plan that the pending bytecodes do not use.
+     *
+     * @throws TornadoOutOfMemoryException
+     *     if there are no buffers left to evict.
+     */
+    private long allocateObjectsWithEviction(Object[] objects, long sizeBatch, XPUDeviceBufferState[] objectStates, Access[] accesses, TornadoOutOfMemoryException outOfMemoryException) {
+        while (true) {
+            long evictedSize = residencyManager.evictLeastRecentlyUsed();
+            if (evictedSize == 0) {
+                evictedSize = evictUnusedBuffer(objectStates);
+            }
+            if (evictedSize == 0) {
+                throw outOfMemoryException;
+            }
+            logger.debug("Evicted %d bytes from %s to allocate the buffers of plan %d", evictedSize, interpreterDevice, graphExecutionContext.getExecutionPlanId());
+            try {
+                long allocationsTotalSize = 0;
+                for (int i = 0; i < objects.length; i++) {
+                    if (objectStates[i].hasObjectBuffer() && !objectStates[i].isLockedBuffer()) {
+                        // Allocated before the failure
+                        allocationsTotalSize += objectStates[i].getXPUBuffer().size();
+                    } else {
+                        allocationsTotalSize += interpreterDevice.allocate(objects[i], sizeBatch, objectStates[i], accesses[i]);
+                    }
+                }
+                return allocationsTotalSize;
+            } catch (TornadoOutOfMemoryException e) {
+                outOfMemoryException = e;
+            }
+        }
+    }
+
+    /**
+     * Evicts a buffer of this execution plan that is not used by the current
+     * {@code ALLOC} or by the bytecodes after it.
+     */
+    private long evictUnusedBuffer(XPUDeviceBufferState[] allocatedStates) {
+        Set<XPUDeviceBufferState> pendingStates = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(pendingStates, allocatedStates);
+        for (int i = currentInstruction + 1; i < instructions.length; i++) {
+            switch (instructions[i]) {
+                case Alloc alloc -> Arrays.stream(alloc.args()).forEach(index -> pendingStates.add(resolveObjectState(index)));
+                case TransferHostToDeviceOnce transfer -> pendingStates.add(resolveObjectState(transfer.objectIndex()));
+                case TransferHostToDeviceAlways transfer -> pendingStates.add(resolveObjectState(transfer.objectIndex()));
+                case TransferDeviceToHost transfer -> pendingStates.add(resolveObjectState(transfer.objectIndex()));
+                case TransferDeviceToHostBlocking transfer -> pendingStates.add(resolveObjectState(transfer.objectIndex()));
+                case Launch launch -> {
+                    for (int arg = 0; arg < launch.numArgs(); arg++) {
+                        if (launch.argTypes()[arg] == TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()) {
+                            pendingStates.add(resolveObjectState(launch.argIndexes()[arg]));
+                        }
+                    }
+                }
+                default -> {
+                    // No buffers used
+                }
+            }
+        }
+        // The commands enqueued so far may still use the buffer
+        interpreterDevice.sync(graphExecutionContext.getExecutionPlanId());
+        return residencyManager.evictUnusedBuffer(graphExecutionContext.getExecutionPlanId(), pendingStates);
+    }
+
     private int executeDeAlloc(StringBuilder tornadoVMBytecodeList, final int objectIndex) {
         Object object = objects.get(objectIndex);
 
@@ -465,19 +671,7 @@ public class TornadoVMInterpreter {
         }
 
         if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
-            for (Integer e : allEvents) {
-                Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-                long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                copyInTimer += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
-
-                timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-                long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-                dispatchValue += event.getDriverDispatchTime();
-                timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
-            }
+            deferProfilerCopyIn(allEvents, objectState.getXPUBuffer().size());
         }
     }
 
@@ -498,19 +692,7 @@ public class TornadoVMInterpreter {
         resetEventIndexes(eventList);
 
         if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
-            for (Integer e : allEvents) {
-                Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-                long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                copyInTimer += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
-
-                timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-                long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-                dispatchValue += event.getDriverDispatchTime();
-                timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
-            }
+            deferProfilerCopyIn(allEvents, objectState.getXPUBuffer().size());
         }
     }
 
@@ -529,22 +711,21 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
-        int readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        int readEvent;
+        if (currentBatchSlot != null) {
+            // Pipelined batches: the next batch is enqueued while this copy is running
+            readEvent = interpreterDevice.streamOut(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        } else {
+            readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        }
+        if (residencyManager != null) {
+            residencyManager.markClean(objectState);
+        }
 
         resetEventIndexes(eventList);
 
         if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
-            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
-            event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-            long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
-            value += event.getElapsedTime();
-            timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
-
-            timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-            long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            deferProfilerCopyOut(readEvent, objectState.getXPUBuffer().size());
         }
         return readEvent;
     }
@@ -567,23 +748,43 @@ public class TornadoVMInterpreter {
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
 
         final int readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        if (residencyManager != null) {
+            residencyManager.markClean(objectState);
+        }
 
         if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
-            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
-            event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-            long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
-            value += event.getElapsedTime();
-            timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
-
-            timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
-
-            long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            deferProfilerCopyOut(readEvent, objectState.getXPUBuffer().size());
         }
         resetEventIndexes(eventList);
     }
 
+    /**
+     * Registers the events of a host-to-device copy in the profiler. The timers
+     * are read when the execution of the task-graph finishes, so the
+     * interpreter does not wait for the copies.
+     */
+    private void deferProfilerCopyIn(List<Integer> allEvents, long size) {
+        final TornadoProfiler profiler = timeProfiler;
+        for (Integer e : allEvents) {
+            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
+            profiler.deferEvent(graphExecutionContext.getExecutionPlanId(), event, completed -> {
+                profiler.sum(ProfilerType.COPY_IN_TIME, completed.getElapsedTime());
+                profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, size);
+                profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, completed.getDriverDispatchTime());
+            });
+        }
+    }
+
+    private void deferProfilerCopyOut(int readEvent, long size) {
+        final TornadoProfiler profiler = timeProfiler;
+        Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
+        profiler.deferEvent(graphExecutionContext.getExecutionPlanId(), event, completed -> {
+            profiler.sum(ProfilerType.COPY_OUT_TIME, completed.getElapsedTime());
+            profiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, size);
+            profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, completed.getDriverDispatchTime());
+        });
+    }
+
     private boolean isRecompilationNeededForLastBatch(int taskIndex, SchedulableTask task, long batchThreads) {
         return (!shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)]) && task.getBatchThreads() != 0 && task.getBatchThreads() != batchThreads);
     }
@@ -615,17 +816,26 @@ public class TornadoVMInterpreter {
         meta.setCompilerFlags(TornadoVMBackendType.SPIRV, graphExecutionContext.meta().getCompilerFlags(TornadoVMBackendType.SPIRV));
     }
 
-    private XPUExecutionFrame compileTaskFromBytecodeToBinary(final int callWrapperIndex, final int numArgs, final int eventList, final int taskIndex, final long batchThreads) {
+    private KernelStackFrame compileTaskFromBytecodeToBinary(final int callWrapperIndex, final int numArgs, final int taskIndex, final long batchThreads) {
+        final KernelStackFrame callWrapper = resolveCallWrapperForLaunch(callWrapperIndex, numArgs);
+        final SchedulableTask task = prepareTaskForCompilation(taskIndex, batchThreads);
+        if (shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)])) {
+            installTask(task, taskIndex, batchThreads);
+        }
+        return callWrapper;
+    }
 
+    private KernelStackFrame resolveCallWrapperForLaunch(final int callWrapperIndex, final int numArgs) {
         if (interpreterDevice.getDeviceContext().wasReset() && finishedWarmup) {
             throw new TornadoFailureException("[ERROR] reset() was called after warmup() on device: " + interpreterDevice + "!");
         }
 
         boolean redeployOnDevice = graphExecutionContext.redeployOnDevice();
 
-        final KernelStackFrame callWrapper = resolveCallWrapper(callWrapperIndex, numArgs, kernelStackFrame, interpreterDevice, redeployOnDevice);
+        return resolveCallWrapper(callWrapperIndex, numArgs, kernelStackFrame, interpreterDevice, redeployOnDevice);
+    }
 
-        final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
+    private SchedulableTask prepareTaskForCompilation(final int taskIndex, final long batchThreads) {
         final SchedulableTask task = taskExecutionContexts.get(taskIndex);
         int currentBatch = task.getBatchNumber();
         TaskContextInterface meta = task.meta();
@@ -655,50 +865,48 @@ public class TornadoVMInterpreter {
             timeProfiler.registerDeviceID(task.getId(), task.meta().getBackendIndex() + ":" + task.meta().getDeviceIndex());
             timeProfiler.registerDeviceName(task.getId(), task.getDevice().getPhysicalDevice().getDeviceName());
         }
+        return task;
+    }
 
-        if (shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)])) {
-            task.setDevice(interpreterDevice);
-            try {
-                task.attachProfiler(timeProfiler);
-                if (taskIndex == (taskExecutionContexts.size() - 1)) {
-                    // If it is the last task within the task-schedule or doUpdate is true -> we
-                    // force compilation. This is useful when compiling code for Xilinx/Altera
-                    // FPGAs, that has to be a single source.
-                    task.forceCompilation();
-                }
-
-                installedCodes[globalToLocalTaskIndex(taskIndex)] = interpreterDevice.installCode(graphExecutionContext.getExecutionPlanId(), task);
-                profilerUpdateForPreCompiledTask(task);
-                // After the compilation has been completed, increment
-                // the batch number of the task and update it.
-                if (indexInWrite && batchThreads != 0) {
-                    task.setBatchNumber(++currentBatch);
-                }
-            } catch (TornadoBailoutRuntimeException e) {
-                throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
-                        .getStackTrace()), e);
-            } catch (TornadoDeviceFP64NotSupported e) {
-                throw e;
-            } catch (InternalError e) {
-                throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
+    private void installTask(final SchedulableTask task, final int taskIndex, final long batchThreads) {
+        int currentBatch = task.getBatchNumber();
+        boolean indexInWrite = interpreterDevice.loopIndexInWrite(task);
+        task.setDevice(interpreterDevice);
+        try {
+            task.attachProfiler(timeProfiler);
+            if (taskIndex == (taskExecutionContexts.size() - 1)) {
+                // If it is the last task within the task-schedule or doUpdate is true -> we
+                // force compilation. This is useful when compiling code for Xilinx/Altera
+                // FPGAs, that has to be a single source.
+                task.forceCompilation();
             }
-        }
-        return new XPUExecutionFrame(callWrapper, waitList);
-    }
 
-    private void popArgumentsFromCall(int numArgs) {
-        for (int i = 0; i < numArgs; i++) {
-            bytecodeResult.get();
-            bytecodeResult.getInt();
+            installedCodes[globalToLocalTaskIndex(taskIndex)] = interpreterDevice.installCode(graphExecutionContext.getExecutionPlanId(), task);
+            profilerUpdateForPreCompiledTask(task);
+            // After the compilation has been completed, increment
+            // the batch number of the task and update it.
+            if (indexInWrite && batchThreads != 0) {
+                task.setBatchNumber(++currentBatch);
+            }
+        } catch (TornadoBailoutRuntimeException e) {
+            throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
+                    .getStackTrace()), e);
+        } catch (TornadoDeviceFP64NotSupported e) {
+            throw e;
+        } catch (InternalError e) {
+            throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
         }
     }
 
-    private int executeLaunch(StringBuilder tornadoVMBytecodeList, final int numArgs, final int eventList, final int taskIndex, final long batchThreads, final long offset,
-            XPUExecutionFrame executionFrame) {
+    private int executeLaunch(StringBuilder tornadoVMBytecodeList, Launch launch, KernelStackFrame stackFrame) {
+        final int numArgs = launch.numArgs();
+        final int eventList = launch.eventList();
+        final int taskIndex = launch.taskIndex();
+        final long batchThreads = launch.batchThreads();
+        final long offset = launch.offset();
 
         final SchedulableTask task = taskExecutionContexts.get(taskIndex);
-        KernelStackFrame stackFrame = executionFrame.stackFrame;
-        int[] waitList = executionFrame.waitList;
+        final int[] waitList = resolveWaitList(eventList);
 
         if (installedCodes[globalToLocalTaskIndex(taskIndex)] == null) {
             // After warming-up, it is possible to get a null pointer in the task-cache due
@@ -716,7 +924,7 @@ public class TornadoVMInterpreter {
 
         atomicsArray = (task instanceof PrebuiltTask prebuiltTask) ? prebuiltTask.getAtomics() : interpreterDevice.checkAtomicsForTask(task);
 
-        HashMap<Integer, Integer> threadDeploy = new HashMap<>();
+        threadDeploy.clear();
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
             WorkerGrid workerGrid = gridScheduler.get(task.getId());
             long[] global = workerGrid.getGlobalWork();
@@ -731,8 +939,8 @@ public class TornadoVMInterpreter {
         XPUBuffer bufferAtomics = null;
 
         for (int i = 0; i < numArgs; i++) {
-            final byte argType = bytecodeResult.get();
-            final int argIndex = bytecodeResult.getInt();
+            final byte argType = launch.argTypes()[i];
+            final int argIndex = launch.argIndexes()[i];
 
             if (argType == TornadoVMBytecodes.PUSH_CONSTANT_ARGUMENT.value()) {
                 // Add a constant argument
@@ -745,8 +953,7 @@ public class TornadoVMInterpreter {
                     continue;
                 }
 
-                final DataObjectState globalState = resolveGlobalObjectState(argIndex);
-                final XPUDeviceBufferState objectState = globalState.getDeviceBufferState(interpreterDevice);
+                final XPUDeviceBufferState objectState = resolveObjectState(argIndex);
 
                 if (!isObjectInAtomicRegion(objectState, interpreterDevice, task)) {
                     // Add a reference (arrays, vector types, panama regions)
@@ -763,12 +970,10 @@ public class TornadoVMInterpreter {
             bufferAtomics = interpreterDevice.createOrReuseAtomicsBuffer(atomicsArray, Access.READ_WRITE);
             List<Integer> allEvents = bufferAtomics.enqueueWrite(graphExecutionContext.getExecutionPlanId(), null, 0, 0, null, false);
             if (TornadoOptions.isProfilerEnabled()) {
+                final TornadoProfiler profiler = timeProfiler;
                 for (Integer e : allEvents) {
                     Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                    event.waitForEvents(graphExecutionContext.getExecutionPlanId());
-                    long value = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                    value += event.getElapsedTime();
-                    timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, value);
+                    profiler.deferEvent(graphExecutionContext.getExecutionPlanId(), event, completed -> profiler.sum(ProfilerType.COPY_IN_TIME, completed.getElapsedTime()));
                 }
             }
             if (TornadoOptions.PRINT_BYTECODES) {
@@ -834,15 +1039,8 @@ public class TornadoVMInterpreter {
         return lastEvent;
     }
 
-    private void throwErrorInterpreter(byte op) {
-        if (graphExecutionContext.meta().isDebug()) {
-            logger.debug("bc: invalid op 0x%x(%d)", op, op);
-        }
-        throw new TornadoRuntimeException("[ERROR] TornadoVM Bytecode not recognized");
-    }
-
     private XPUDeviceBufferState resolveObjectState(int index) {
-        return dataObjectStates[index].getDeviceBufferState(interpreterDevice);
+        return (currentBatchSlot != null) ? currentBatchSlot.states[index] : deviceBufferStates[index];
     }
 
     private boolean isObjectKernelContext(Object object) {
@@ -883,7 +1081,8 @@ public class TornadoVMInterpreter {
      *     the local task list.
      */
     private int globalToLocalTaskIndex(int taskIndex) {
-        return localTaskList.indexOf(taskExecutionContexts.get(taskIndex)) == -1 ? 0 : localTaskList.indexOf(taskExecutionContexts.get(taskIndex));
+        int localTaskIndex = localTaskList.indexOf(taskExecutionContexts.get(taskIndex));
+        return localTaskIndex == -1 ? 0 : localTaskIndex;
     }
 
     private void profilerUpdateForPreCompiledTask(SchedulableTask task) {
@@ -893,10 +1092,6 @@ public class TornadoVMInterpreter {
         }
     }
 
-    private DataObjectState resolveGlobalObjectState(int index) {
-        return dataObjectStates[index];
-    }
-
     private boolean isObjectInAtomicRegion(XPUDeviceBufferState objectState, TornadoXPUDevice device, SchedulableTask task) {
         return objectState.isAtomicRegionPresent() && device.checkAtomicsParametersForTask(task);
     }
@@ -913,16 +1108,6 @@ public class TornadoVMInterpreter {
         Arrays.fill(installedCodes, null);
     }
 
-    private static class XPUExecutionFrame {
-        private KernelStackFrame stackFrame;
-        private int[] waitList;
-
-        XPUExecutionFrame(KernelStackFrame callWrapper, int[] waitList) {
-            this.stackFrame = callWrapper;
-            this.waitList = waitList;
-        }
-    }
-
     private static class DebugInterpreter {
         static void logTransferToDeviceOnce(List<Integer> allEvents, Object object, TornadoXPUDevice deviceForInterpreter, long sizeBatch, long offset, final int eventList,
                 StringBuilder tornadoVMBytecodeList) {
@@ -955,4 +1140,17 @@ public class TornadoVMInterpreter {
         }
     }
 
+    /**
+     * Device buffer states of one batch in flight, and the objects whose buffers
+     * are released when the slot is reused.
+     */
+    private static final class PipelinedBatchSlot {
+        private final XPUDeviceBufferState[] states;
+        private final List<Integer> pendingDeallocations;
+
+        private PipelinedBatchSlot(XPUDeviceBufferState[] states) {
+            this.states = states;
+            this.pendingDeallocations = new ArrayList<>();
+        }
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Exports the latency histograms of all the task-graphs in the Prometheus text
+ * format, to a file when the JVM exits
+ * ({@code -Dtornado.profiler.histograms.file=FILE}) and/or through a local HTTP
+ * endpoint ({@code -Dtornado.profiler.histograms.port=PORT}, under
+ * {@code /metrics}). Each task-graph is exported with the id of its execution
+ * plan as the {@code plan} label.
+ */
+public final class LatencyHistogramExporter {
+
+    private static final boolean ENABLED = !TornadoOptions.PROFILER_HISTOGRAMS_FILE.isEmpty() || TornadoOptions.PROFILER_HISTOGRAMS_PORT >= 0;
+
+    /**
+     * Histograms of the task-graphs, with the id of their execution plan. The
+     * task-graphs that are no longer reachable are removed.
+     */
+    private static final Map<LatencyHistograms, Long> REGISTERED_HISTOGRAMS = new WeakHashMap<>();
+
+    private static boolean started;
+
+    private LatencyHistogramExporter() {
+    }
+
+    /**
+     * Registers the histograms of a task-graph for the export, if it is enabled.
+     *
+     * @param histograms
+     *     {@link LatencyHistograms} of the task-graph.
+     * @param executionPlanId
+     *     Id of the execution plan of the task-graph.
+     */
+    public static synchronized void register(LatencyHistograms histograms, long executionPlanId) {
+        if (!ENABLED) {
+            return;
+        }
+        REGISTERED_HISTOGRAMS.put(histograms, executionPlanId);
+        if (!started) {
+            started = true;
+            start();
+        }
+    }
+
+    private static void start() {
+        TornadoLogger logger = new TornadoLogger(LatencyHistogramExporter.class);
+        if (!TornadoOptions.PROFILER_HISTOGRAMS_FILE.isEmpty()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.writeString(Path.of(TornadoOptions.PROFILER_HISTOGRAMS_FILE), toPrometheusText());
+                } catch (IOException e) {
+                    logger.warn("Unable to write the latency histograms to %s: %s", TornadoOptions.PROFILER_HISTOGRAMS_FILE, e.getMessage());
+                }
+            }));
+        }
+        if (TornadoOptions.PROFILER_HISTOGRAMS_PORT >= 0) {
+            try {
+                HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), TornadoOptions.PROFILER_HISTOGRAMS_PORT), 0);
+                server.createContext("/metrics", LatencyHistogramExporter::handle);
+                server.setExecutor(null);
+                // The dispatcher thread of the server inherits the daemon status of the thread
+                // that starts it, so the endpoint does not keep the JVM alive
+                Thread starter = new Thread(server::start);
+                starter.setDaemon(true);
+                starter.start();
+                starter.join();
+            } catch (IOException | InterruptedException e) {
+                logger.warn("Unable to serve the latency histograms on port %d: %s", TornadoOptions.PROFILER_HISTOGRAMS_PORT, e.getMessage());
+            }
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        byte[] response = toPrometheusText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+
+    static String toPrometheusText() {
+        List<Map.Entry<LatencyHistograms, Long>> entries;
+        synchronized (LatencyHistogramExporter.class) {
+            entries = new ArrayList<>(REGISTERED_HISTOGRAMS.entrySet());
+        }
+        StringBuilder builder = new StringBuilder();
+        LatencyHistograms.appendPrometheusHeader(builder);
+        for (Map.Entry<LatencyHistograms, Long> entry : entries) {
+            entry.getKey().appendPrometheusSamples(builder, "plan=\"" + entry.getValue() + "\"");
+        }
+        return builder.toString();
+    }
+}
@@ -23,14 +23,27 @@
  */
 package uk.ac.manchester.tornado.runtime.profiler;
 
-import java.util.HashMap;
-import java.util.Set;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
+/**
+ * Profiler of a task-graph. The metrics are stored in primitive tables indexed
+ * by {@link ProfilerType#ordinal()}, with one table for the task-graph and one
+ * for each task, so recording a metric does not allocate or take a lock. The
+ * JSON output is built only when it is requested.
+ */
 public class TimeProfiler implements TornadoProfiler {
 
     /**
@@ -40,161 +53,199 @@ public class TimeProfiler implements TornadoProfiler {
      */
     public static String NO_TASK_NAME = "noTask";
 
-    private HashMap<ProfilerType, Long> profilerTime;
-    private HashMap<String, HashMap<ProfilerType, Long>> taskTimers;
-    private HashMap<String, HashMap<ProfilerType, String>> taskPowerMetrics;
-    private HashMap<String, HashMap<ProfilerType, Long>> taskSizeMetrics;
-    private HashMap<String, HashMap<ProfilerType, String>> taskDeviceIdentifiers;
-    private HashMap<String, HashMap<ProfilerType, String>> taskMethodNames;
+    /**
+     * Maximum number of deferred events before they are resolved. The deferred
+     * events are retained in the event pools of the devices, so their slots are
+     * not reused until they are read. The pools also bound the number of retained
+     * events: when a pool is full, the event is read straight away.
+     */
+    private static final int MAX_DEFERRED_EVENTS = Math.max(1, TornadoOptions.EVENT_WINDOW / 2);
+
+    private static final ProfilerType[] PROFILER_TYPES = ProfilerType.values();
+
+    static {
+        // The metric tables keep one bit per profiler type in a long
+        if (PROFILER_TYPES.length > Long.SIZE) {
+            throw new IllegalStateException("The TimeProfiler supports up to " + Long.SIZE + " profiler types, but there are " + PROFILER_TYPES.length);
+        }
+    }
+
+    private record DeferredEvent(long executionPlanId, Event event, Consumer<Event> update) {
+    }
+
+    /**
+     * Table of values indexed by the ordinal of the {@link ProfilerType}. A bit
+     * mask records which values have been set, since only those are reported.
+     * Each update is atomic, so tasks and threads can record metrics
+     * concurrently.
+     */
+    private static final class MetricTable {
+        private final AtomicLongArray values = new AtomicLongArray(PROFILER_TYPES.length);
+        private final AtomicLong setMask = new AtomicLong();
+
+        private void markAsSet(ProfilerType type) {
+            long bit = 1L << type.ordinal();
+            if ((setMask.get() & bit) == 0) {
+                setMask.getAndAccumulate(bit, (mask, b) -> mask | b);
+            }
+        }
+
+        void set(ProfilerType type, long value) {
+            values.set(type.ordinal(), value);
+            markAsSet(type);
+        }
+
+        void add(ProfilerType type, long value) {
+            values.addAndGet(type.ordinal(), value);
+            markAsSet(type);
+        }
+
+        boolean isSet(ProfilerType type) {
+            return (setMask.get() & (1L << type.ordinal())) != 0;
+        }
+
+        boolean isEmpty() {
+            return setMask.get() == 0;
+        }
+
+        long get(ProfilerType type) {
+            return isSet(type) ? values.get(type.ordinal()) : 0;
+        }
+
+        void clear() {
+            setMask.set(0);
+            for (int i = 0; i < values.length(); i++) {
+                values.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Metrics of a task. The labels (method, device, backend and power usage)
+     * are kept across executions, while the timers and sizes are cleaned.
+     */
+    private static final class TaskMetrics {
+        private final MetricTable timers = new MetricTable();
+        private final MetricTable sizes = new MetricTable();
+        private final AtomicReferenceArray<String> labels = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+    }
 
-    private HashMap<String, HashMap<ProfilerType, String>> taskBackends;
+    private final MetricTable profilerTime;
+    private final Map<String, TaskMetrics> tasks;
 
     private StringBuilder indent;
 
+    private final List<DeferredEvent> deferredEvents;
+
     public TimeProfiler() {
-        profilerTime = new HashMap<>();
-        taskTimers = new HashMap<>();
-        taskPowerMetrics = new HashMap<>();
-        taskDeviceIdentifiers = new HashMap<>();
-        taskMethodNames = new HashMap<>();
-        taskSizeMetrics = new HashMap<>();
-        taskBackends = new HashMap<>();
+        profilerTime = new MetricTable();
+        tasks = new ConcurrentHashMap<>();
         indent = new StringBuilder("");
+        deferredEvents = new ArrayList<>();
     }
 
-    @Override
-    public synchronized void addValueToMetric(ProfilerType type, String taskName, long value) {
-        if (!taskSizeMetrics.containsKey(taskName)) {
-            taskSizeMetrics.put(taskName, new HashMap<>());
+    private TaskMetrics getTask(String taskName) {
+        TaskMetrics task = tasks.get(taskName);
+        if (task == null) {
+            task = tasks.computeIfAbsent(taskName, name -> new TaskMetrics());
         }
-        HashMap<ProfilerType, Long> profilerType = taskSizeMetrics.get(taskName);
-        profilerType.put(type, profilerType.get(type) != null ? profilerType.get(type) + value : value);
-        taskSizeMetrics.put(taskName, profilerType);
+        return task;
     }
 
     @Override
-    public synchronized void start(ProfilerType type) {
-        long start = System.nanoTime();
-        profilerTime.put(type, start);
+    public void addValueToMetric(ProfilerType type, String taskName, long value) {
+        getTask(taskName).sizes.add(type, value);
     }
 
     @Override
-    public synchronized void start(ProfilerType type, String taskName) {
-        long start = System.nanoTime();
-        if (!taskTimers.containsKey(taskName)) {
-            taskTimers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, Long> profilerType = taskTimers.get(taskName);
-        profilerType.put(type, start);
-        taskTimers.put(taskName, profilerType);
+    public void start(ProfilerType type) {
+        profilerTime.set(type, System.nanoTime());
     }
 
     @Override
-    public synchronized void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
-        if (!taskMethodNames.containsKey(taskName)) {
-            taskMethodNames.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskMethodNames.get(taskName);
-        profilerType.put(type, methodName);
-        taskMethodNames.put(methodName, profilerType);
+    public void start(ProfilerType type, String taskName) {
+        getTask(taskName).timers.set(type, System.nanoTime());
     }
 
     @Override
-    public synchronized void registerDeviceName(String taskName, String deviceInfo) {
-        if (!taskDeviceIdentifiers.containsKey(taskName)) {
-            taskDeviceIdentifiers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskDeviceIdentifiers.get(taskName);
-        profilerType.put(ProfilerType.DEVICE, deviceInfo);
-        taskDeviceIdentifiers.put(taskName, profilerType);
+    public void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
+        getTask(taskName).labels.set(type.ordinal(), methodName);
     }
 
     @Override
-    public synchronized void registerBackend(String taskName, String backend) {
-        if (!taskBackends.containsKey(taskName)) {
-            taskBackends.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskBackends.get(taskName);
+    public void registerDeviceName(String taskName, String deviceInfo) {
+        getTask(taskName).labels.set(ProfilerType.DEVICE.ordinal(), deviceInfo);
+    }
 
-        profilerType.put(ProfilerType.BACKEND, backend);
-        taskBackends.put(taskName, profilerType);
+    @Override
+    public void registerBackend(String taskName, String backend) {
+        getTask(taskName).labels.set(ProfilerType.BACKEND.ordinal(), backend);
     }
 
     @Override
-    public synchronized void registerDeviceID(String taskName, String deviceID) {
-        if (!taskDeviceIdentifiers.containsKey(taskName)) {
-            taskDeviceIdentifiers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskDeviceIdentifiers.get(taskName);
-        profilerType.put(ProfilerType.DEVICE_ID, deviceID);
-        taskDeviceIdentifiers.put(taskName, profilerType);
+    public void registerDeviceID(String taskName, String deviceID) {
+        getTask(taskName).labels.set(ProfilerType.DEVICE_ID.ordinal(), deviceID);
     }
 
     @Override
-    public synchronized void stop(ProfilerType type) {
+    public void stop(ProfilerType type) {
         long end = System.nanoTime();
-        long start = profilerTime.get(type);
-        long total = end - start;
-        profilerTime.put(type, total);
+        profilerTime.set(type, end - profilerTime.get(type));
     }
 
     @Override
-    public synchronized void stop(ProfilerType type, String taskName) {
+    public void stop(ProfilerType type, String taskName) {
         long end = System.nanoTime();
-        HashMap<ProfilerType, Long> profiledType = taskTimers.get(taskName);
-        long start = profiledType.get(type);
-        long total = end - start;
-        profiledType.put(type, total);
-        taskTimers.put(taskName, profiledType);
+        MetricTable timers = getTask(taskName).timers;
+        timers.set(type, end - timers.get(type));
     }
 
     @Override
     public long getTimer(ProfilerType type) {
-        if (!profilerTime.containsKey(type)) {
-            return 0;
-        }
         return profilerTime.get(type);
     }
 
     @Override
     public long getSize(ProfilerType type) {
         // for all tasks in the task graph, accumulate the size
-        Set<String> strings = taskSizeMetrics.keySet();
         long size = 0;
-        for (String s : taskSizeMetrics.keySet()) {
-            HashMap<ProfilerType, Long> copySizes = taskSizeMetrics.get(s);
-            if (copySizes.containsKey(type)) {
-                size += copySizes.get(type);
-            }
+        for (TaskMetrics task : tasks.values()) {
+            size += task.sizes.get(type);
         }
         return size;
     }
 
     @Override
     public long getTaskTimer(ProfilerType type, String taskName) {
-        if (!taskTimers.containsKey(taskName)) {
-            return 0;
-        }
-        if (!taskTimers.get(taskName).containsKey(type)) {
-            return 0;
-        }
-        return taskTimers.get(taskName).get(type);
+        TaskMetrics task = tasks.get(taskName);
+        return task == null ? 0 : task.timers.get(type);
     }
 
     @Override
-    public synchronized void setTimer(ProfilerType type, long time) {
-        profilerTime.put(type, time);
+    public void setTimer(ProfilerType type, long time) {
+        profilerTime.set(type, time);
     }
 
     @Override
     public synchronized void dump() {
-        for (ProfilerType p : profilerTime.keySet()) {
-            System.out.println("[PROFILER] " + p.getDescription() + ": " + profilerTime.get(p));
+        for (ProfilerType p : PROFILER_TYPES) {
+            if (profilerTime.isSet(p)) {
+                System.out.println("[PROFILER] " + p.getDescription() + ": " + profilerTime.get(p));
+            }
         }
 
-        for (String p : taskTimers.keySet()) {
-            System.out.println("[PROFILER-TASK] " + p + ": " + taskTimers.get(p));
-
+        for (Map.Entry<String, TaskMetrics> task : tasks.entrySet()) {
+            MetricTable timers = task.getValue().timers;
+            if (timers.isEmpty()) {
+                continue;
+            }
+            StringBuilder values = new StringBuilder();
+            for (ProfilerType p : PROFILER_TYPES) {
+                if (timers.isSet(p)) {
+                    values.append(values.isEmpty() ? "" : ", ").append(p).append("=").append(timers.get(p));
+                }
+            }
+            System.out.println("[PROFILER-TASK] " + task.getKey() + ": {" + values + "}");
         }
     }
 
@@ -214,48 +265,52 @@ public class TimeProfiler implements TornadoProfiler {
         json.append("\n");
     }
 
+    private void appendValues(StringBuilder json, MetricTable table) {
+        for (ProfilerType p : PROFILER_TYPES) {
+            if (table.isSet(p)) {
+                json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + table.get(p) + "\",\n");
+            }
+        }
+    }
+
     @Override
-    public String createJson(StringBuilder json, String sectionName) {
+    public synchronized String createJson(StringBuilder json, String sectionName) {
         json.append("{\n");
         increaseIndent();
         json.append(indent.toString() + "\"" + sectionName + "\": " + "{\n");
         increaseIndent();
-        for (ProfilerType p : profilerTime.keySet()) {
-            json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + profilerTime.get(p) + "\",\n");
+        appendValues(json, profilerTime);
+        TaskMetrics noTask = tasks.get(NO_TASK_NAME);
+        if (noTask != null) {
+            appendValues(json, noTask.sizes);
         }
-        if (taskSizeMetrics.containsKey(NO_TASK_NAME)) {
-            HashMap<ProfilerType, Long> noTaskValues = taskSizeMetrics.get(NO_TASK_NAME);
-            for (ProfilerType p : noTaskValues.keySet()) {
-                json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + noTaskValues.get(p) + "\",\n");
+
+        List<Map.Entry<String, TaskMetrics>> profiledTasks = new ArrayList<>();
+        for (Map.Entry<String, TaskMetrics> task : tasks.entrySet()) {
+            if (!task.getValue().timers.isEmpty()) {
+                profiledTasks.add(task);
             }
         }
-
-        final int size = taskTimers.keySet().size();
+        final int size = profiledTasks.size();
         int counter = 0;
-        for (String p : taskTimers.keySet()) {
-            json.append(indent.toString() + "\"" + p + "\"" + ": {\n");
+        for (Map.Entry<String, TaskMetrics> entry : profiledTasks) {
+            TaskMetrics task = entry.getValue();
+            json.append(indent.toString() + "\"" + entry.getKey() + "\"" + ": {\n");
             increaseIndent();
             counter++;
             if (TornadoOptions.LOG_IP) {
                 json.append(indent.toString() + "\"" + "IP" + "\"" + ": " + "\"" + RuntimeUtilities.getTornadoInstanceIP() + "\",\n");
             }
-            json.append(indent.toString() + "\"" + ProfilerType.BACKEND + "\"" + ": " + "\"" + taskBackends.get(p).get(ProfilerType.BACKEND) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.METHOD + "\"" + ": " + "\"" + taskMethodNames.get(p).get(ProfilerType.METHOD) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.DEVICE_ID + "\"" + ": " + "\"" + taskDeviceIdentifiers.get(p).get(ProfilerType.DEVICE_ID) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.DEVICE + "\"" + ": " + "\"" + taskDeviceIdentifiers.get(p).get(ProfilerType.DEVICE) + "\",\n");
-            if (taskSizeMetrics.containsKey(p)) {
-                for (ProfilerType p1 : taskSizeMetrics.get(p).keySet()) {
-                    json.append(indent.toString() + "\"" + p1 + "\"" + ": " + "\"" + taskSizeMetrics.get(p).get(p1) + "\",\n");
-                }
-            }
-            if (taskPowerMetrics.containsKey(p)) {
-                for (ProfilerType p1 : taskPowerMetrics.get(p).keySet()) {
-                    json.append(indent.toString() + "\"" + p1 + "\"" + ": " + "\"" + taskPowerMetrics.get(p).get(p1) + "\",\n");
-                }
-            }
-            for (ProfilerType p2 : taskTimers.get(p).keySet()) {
-                json.append(indent.toString() + "\"" + p2 + "\"" + ": " + "\"" + taskTimers.get(p).get(p2) + "\",\n");
+            json.append(indent.toString() + "\"" + ProfilerType.BACKEND + "\"" + ": " + "\"" + task.labels.get(ProfilerType.BACKEND.ordinal()) + "\",\n");
+            json.append(indent.toString() + "\"" + ProfilerType.METHOD + "\"" + ": " + "\"" + task.labels.get(ProfilerType.METHOD.ordinal()) + "\",\n");
+            json.append(indent.toString() + "\"" + ProfilerType.DEVICE_ID + "\"" + ": " + "\"" + task.labels.get(ProfilerType.DEVICE_ID.ordinal()) + "\",\n");
+            json.append(indent.toString() + "\"" + ProfilerType.DEVICE + "\"" + ": " + "\"" + task.labels.get(ProfilerType.DEVICE.ordinal()) + "\",\n");
+            appendValues(json, task.sizes);
+            String power = task.labels.get(ProfilerType.POWER_USAGE_mW.ordinal());
+            if (power != null) {
+                json.append(indent.toString() + "\"" + ProfilerType.POWER_USAGE_mW + "\"" + ": " + "\"" + power + "\",\n");
             }
+            appendValues(json, task.timers);
             json.delete(json.length() - 2, json.length() - 1); // remove last comma
             decreaseIndent();
             closeScope(json);
@@ -281,36 +336,89 @@ public class TimeProfiler implements TornadoProfiler {
 
     @Override
     public synchronized void clean() {
-        taskSizeMetrics.clear();
         profilerTime.clear();
-        taskTimers.clear();
+        for (TaskMetrics task : tasks.values()) {
+            task.timers.clear();
+            task.sizes.clear();
+        }
         indent = new StringBuilder("");
     }
 
     @Override
-    public synchronized void setTaskTimer(ProfilerType type, String taskID, long timer) {
-        if (!taskTimers.containsKey(taskID)) {
-            taskTimers.put(taskID, new HashMap<>());
+    public void setTaskTimer(ProfilerType type, String taskID, long timer) {
+        getTask(taskID).timers.set(type, timer);
+    }
+
+    @Override
+    public void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
+        getTask(taskID).labels.set(type.ordinal(), power > 0 ? Long.toString(power) : "n/a");
+    }
+
+    @Override
+    public void sum(ProfilerType acc, long value) {
+        profilerTime.add(acc, value);
+    }
+
+    @Override
+    public void deferEvent(long executionPlanId, Event event, Consumer<Event> update) {
+        if (!TornadoOptions.PROFILER_DEFERRED_EVENTS) {
+            event.waitForEvents(executionPlanId);
+            update.accept(event);
+            return;
+        }
+        if (!event.retain()) {
+            event.waitForEvents(executionPlanId);
+            update.accept(event);
+            return;
+        }
+        boolean isWindowFull;
+        synchronized (deferredEvents) {
+            deferredEvents.add(new DeferredEvent(executionPlanId, event, update));
+            isWindowFull = deferredEvents.size() >= MAX_DEFERRED_EVENTS;
+        }
+        if (isWindowFull) {
+            resolveDeferredEvents();
         }
-        taskTimers.get(taskID).put(type, timer);
     }
 
     @Override
-    public synchronized void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
-        if (!taskPowerMetrics.containsKey(taskID)) {
-            taskPowerMetrics.put(taskID, new HashMap<>());
+    public void resolveDeferredEvents() {
+        List<DeferredEvent> events;
+        synchronized (deferredEvents) {
+            if (deferredEvents.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<>(deferredEvents);
+            deferredEvents.clear();
         }
-        if (power > 0) {
-            taskPowerMetrics.get(taskID).put(type, Long.toString(power));
-        } else {
-            taskPowerMetrics.get(taskID).put(type, "n/a");
+        // Waiting for an event that has already completed does not block
+        for (int i = 0; i < events.size(); i++) {
+            DeferredEvent deferredEvent = events.get(i);
+            try {
+                deferredEvent.event().waitForEvents(deferredEvent.executionPlanId());
+                deferredEvent.update().accept(deferredEvent.event());
+            } catch (RuntimeException e) {
+                releaseAll(events.subList(i + 1, events.size()));
+                throw e;
+            } finally {
+                deferredEvent.event().releaseRetained();
+            }
         }
     }
 
     @Override
-    public synchronized void sum(ProfilerType acc, long value) {
-        long sum = getTimer(acc) + value;
-        profilerTime.put(acc, sum);
+    public void discardDeferredEvents() {
+        List<DeferredEvent> events;
+        synchronized (deferredEvents) {
+            events = new ArrayList<>(deferredEvents);
+            deferredEvents.clear();
+        }
+        releaseAll(events);
     }
 
+    private static void releaseAll(List<DeferredEvent> events) {
+        for (DeferredEvent deferredEvent : events) {
+            deferredEvent.event().releaseRetained();
+        }
+    }
 }
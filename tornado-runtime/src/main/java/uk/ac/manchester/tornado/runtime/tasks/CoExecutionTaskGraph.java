@@ -0,0 +1,502 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.manchester.tornado.api.CoExecution;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
+import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
+import uk.ac.manchester.tornado.api.types.arrays.CharArray;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.common.CancellableThread;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.enums.DataTypeSize;
+
+/**
+ * Co-execution of a task-graph across several devices and the JVM. The
+ * iteration space is divided in {@link TornadoOptions#COEXECUTION_GRANULARITY}
+ * chunks, and each device runs a contiguous slice of whole chunks:
+ *
+ * <ul>
+ * <li>Devices run a generated task-graph that processes its slice as a single
+ * batch: only the slice of each array is copied in and out, so the output
+ * slices of all the devices are merged in the host arrays.</li>
+ * <li>The JVM runs the Java code of the tasks on copies of the slices of the
+ * arrays, and copies the output slices back.</li>
+ * </ul>
+ *
+ * <p>
+ * The devices run concurrently, and the JVM slice runs in the calling thread.
+ * With an adaptive split, the throughput (elements per nanosecond) of each
+ * device is measured in every execution, and the next split is proportional to
+ * the throughputs. Every slice keeps a minimum share, so the throughput of
+ * each device keeps being measured. The slices are only resized when the new
+ * split is predicted to be faster by more than
+ * {@link TornadoOptions#COEXECUTION_RESPLIT_THRESHOLD}, because the kernels are
+ * recompiled for a device when the size of its slice changes. Executions that
+ * compile kernels are not used to learn the throughputs.
+ * </p>
+ */
+class CoExecutionTaskGraph {
+
+    private static final String TASK_GRAPH_PREFIX = "XXX__GENERATED_COEXECUTION";
+
+    /**
+     * Weight of the last execution in the learned throughputs.
+     */
+    private static final double SMOOTHING_FACTOR = 0.5;
+
+    /**
+     * Minimum share of the chunks of each slice with an adaptive split.
+     */
+    private static final double MIN_SHARE = 0.02;
+
+    private static final AtomicInteger counterName = new AtomicInteger(0);
+
+    private final TornadoTaskGraph originalTaskGraph;
+    private final List<TaskPackage> taskPackages;
+    private final List<StreamingObject> inputModeObjects;
+    private final List<StreamingObject> outputModeObjects;
+    private final CoExecution coExecution;
+    private final List<Object> arrays;
+    private final int numElements;
+    private final int elementSize;
+    private final int chunkSize;
+    private final int numChunks;
+    private final Slice[] slices;
+    private final double[] throughputs;
+    private int[] currentChunks;
+    private boolean throughputsLearned;
+    private ExecutorService executorService;
+
+    /**
+     * Slice of the iteration space assigned to a device, or to the JVM if the
+     * device is null.
+     */
+    private static final class Slice {
+        private final TornadoDevice device;
+        private int start;
+        private int length;
+        private TornadoTaskGraph taskGraph;
+        private Map<Object, Object> jvmArrays;
+        private boolean compiled;
+        private long time;
+
+        private Slice(TornadoDevice device) {
+            this.device = device;
+        }
+
+        private boolean isJVM() {
+            return device == null;
+        }
+
+        private String getName() {
+            return isJVM() ? "JVM" : device.getDeviceName();
+        }
+    }
+
+    CoExecutionTaskGraph(TornadoTaskGraph originalTaskGraph, List<TaskPackage> taskPackages, List<StreamingObject> inputModeObjects, List<StreamingObject> outputModeObjects,
+            CoExecution coExecution) {
+        this.originalTaskGraph = originalTaskGraph;
+        this.taskPackages = taskPackages;
+        this.inputModeObjects = inputModeObjects;
+        this.outputModeObjects = outputModeObjects;
+        this.coExecution = coExecution;
+
+        List<TornadoDevice> devices = coExecution.getDevices();
+        if (devices.isEmpty()) {
+            throw new TornadoRuntimeException("[ERROR] No devices for the co-execution of the task-graph " + originalTaskGraph.getTaskGraphName());
+        }
+
+        this.arrays = collectArrays();
+        this.numElements = getNumElements(arrays.getFirst());
+        this.elementSize = getElementSize(arrays.getFirst());
+        for (Object array : arrays) {
+            if (getNumElements(array) != numElements) {
+                throw new TornadoRuntimeException("[UNSUPPORTED] Input objects with different sizes not currently supported");
+            }
+            if (getElementSize(array) != elementSize) {
+                throw new TornadoRuntimeException("[UNSUPPORTED] Input objects with different element sizes not currently supported");
+            }
+        }
+
+        int granularity = Math.max(1, Math.min(TornadoOptions.COEXECUTION_GRANULARITY, numElements));
+        this.chunkSize = Math.max(1, (numElements + granularity - 1) / granularity);
+        this.numChunks = (numElements + chunkSize - 1) / chunkSize;
+
+        this.slices = new Slice[devices.size()];
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new Slice(devices.get(i));
+        }
+        this.throughputs = coExecution.getRatios();
+    }
+
+    CoExecution getCoExecution() {
+        return coExecution;
+    }
+
+    private List<Object> collectArrays() {
+        Map<Object, Boolean> found = new IdentityHashMap<>();
+        List<Object> objects = new ArrayList<>();
+        List<StreamingObject> streamingObjects = new ArrayList<>(inputModeObjects);
+        streamingObjects.addAll(outputModeObjects);
+        for (StreamingObject streamingObject : streamingObjects) {
+            if (streamingObject.getMode() == DataTransferMode.UNDER_DEMAND) {
+                throw new TornadoRuntimeException("[UNSUPPORTED] Co-execution does not support the UNDER_DEMAND data transfer mode");
+            }
+            Object object = streamingObject.getObject();
+            if (!(object instanceof TornadoNativeArray || (object.getClass().isArray() && object.getClass().getComponentType().isPrimitive()))) {
+                throw new TornadoRuntimeException("[UNSUPPORTED] Co-execution only supports arrays. Type found: " + object.getClass());
+            }
+            if (found.put(object, Boolean.TRUE) == null) {
+                objects.add(object);
+            }
+        }
+        if (objects.isEmpty()) {
+            throw new TornadoRuntimeException("[ERROR] No arrays to split for the co-execution of the task-graph " + originalTaskGraph.getTaskGraphName());
+        }
+        return objects;
+    }
+
+    private static int getNumElements(Object array) {
+        return array instanceof TornadoNativeArray nativeArray ? nativeArray.getSize() : Array.getLength(array);
+    }
+
+    private static int getElementSize(Object array) {
+        if (array instanceof TornadoNativeArray nativeArray) {
+            return nativeArray.getElementSize();
+        }
+        DataTypeSize dataTypeSize = DataTypeSize.findDataTypeSize(array.getClass().getComponentType());
+        if (dataTypeSize == null) {
+            throw new TornadoRuntimeException("[UNSUPPORTED] Data type not supported for co-execution: " + array.getClass());
+        }
+        return dataTypeSize.getSize();
+    }
+
+    /**
+     * Splits the chunks in proportion to the throughputs, with the largest
+     * remainder method. With an adaptive split, each slice gets at least
+     * {@link #MIN_SHARE} of the chunks.
+     */
+    private int[] computeChunksPerSlice() {
+        int minChunks = coExecution.isAdaptive() ? Math.min(Math.max(1, (int) (numChunks * MIN_SHARE)), numChunks / slices.length) : 0;
+        int available = numChunks - minChunks * slices.length;
+        double total = Arrays.stream(throughputs).sum();
+        int[] chunks = new int[slices.length];
+        double[] remainders = new double[slices.length];
+        int assigned = minChunks * slices.length;
+        for (int i = 0; i < slices.length; i++) {
+            double share = total > 0 ? available * throughputs[i] / total : (double) available / slices.length;
+            chunks[i] = minChunks + (int) share;
+            remainders[i] = share - (int) share;
+            assigned += (int) share;
+        }
+        for (; assigned < numChunks; assigned++) {
+            int largest = 0;
+            for (int i = 1; i < slices.length; i++) {
+                if (remainders[i] > remainders[largest]) {
+                    largest = i;
+                }
+            }
+            chunks[largest]++;
+            remainders[largest] = -1;
+        }
+        return chunks;
+    }
+
+    /**
+     * Predicted time of the slowest slice with the learned throughputs.
+     */
+    private double predictTime(int[] chunks) {
+        double time = 0;
+        for (int i = 0; i < slices.length; i++) {
+            if (chunks[i] > 0) {
+                time = Math.max(time, throughputs[i] > 0 ? chunks[i] / throughputs[i] : Double.POSITIVE_INFINITY);
+            }
+        }
+        return time;
+    }
+
+    /**
+     * Checks if the slices have to be resized to the new split. Once the
+     * throughputs are learned, the split only changes if it is predicted to be
+     * faster than the current split by more than the threshold, to avoid
+     * recompiling the kernels for small changes of the throughputs.
+     */
+    private boolean isResplitNeeded(int[] chunks) {
+        if (currentChunks == null) {
+            return true;
+        }
+        if (!throughputsLearned) {
+            return !Arrays.equals(chunks, currentChunks);
+        }
+        double gain = 1 - predictTime(chunks) / predictTime(currentChunks);
+        return gain * 100 > TornadoOptions.COEXECUTION_RESPLIT_THRESHOLD;
+    }
+
+    private void updateSlices(int[] chunks) {
+        currentChunks = chunks;
+        int startChunk = 0;
+        for (int i = 0; i < slices.length; i++) {
+            Slice slice = slices[i];
+            int start = Math.min(startChunk * chunkSize, numElements);
+            int length = Math.min(chunks[i] * chunkSize, numElements - start);
+            startChunk += chunks[i];
+            if (slice.start == start && slice.length == length && (length == 0 || slice.taskGraph != null || slice.jvmArrays != null)) {
+                continue;
+            }
+            freeSlice(slice);
+            slice.start = start;
+            slice.length = length;
+            slice.compiled = false;
+            if (length > 0) {
+                if (slice.isJVM()) {
+                    slice.jvmArrays = createJVMArrays(length);
+                } else {
+                    slice.taskGraph = createSliceTaskGraph(slice);
+                }
+            }
+        }
+        coExecution.updateSplit(Arrays.stream(slices).mapToInt(slice -> slice.length).toArray());
+    }
+
+    private TornadoTaskGraph createSliceTaskGraph(Slice slice) {
+        TornadoTaskGraph taskGraph = new TornadoTaskGraph(TASK_GRAPH_PREFIX + counterName.getAndIncrement());
+        for (StreamingObject streamingObject : inputModeObjects) {
+            taskGraph.transferToDevice(streamingObject.getMode(), streamingObject.getObject());
+        }
+        for (TaskPackage taskPackage : taskPackages) {
+            taskGraph.addTask(taskPackage);
+        }
+        for (StreamingObject streamingObject : outputModeObjects) {
+            taskGraph.transferToHost(streamingObject.getMode(), streamingObject.getObject());
+        }
+        taskGraph.setDevice(slice.device);
+        taskGraph.withSlice((long) slice.start * elementSize, (long) slice.length * elementSize);
+        return taskGraph;
+    }
+
+    private Map<Object, Object> createJVMArrays(int length) {
+        Map<Object, Object> jvmArrays = new IdentityHashMap<>();
+        for (Object array : arrays) {
+            jvmArrays.put(array, createArray(array, length));
+        }
+        return jvmArrays;
+    }
+
+    private static Object createArray(Object array, int length) {
+        return switch (array) {
+            case IntArray _ -> new IntArray(length);
+            case FloatArray _ -> new FloatArray(length);
+            case DoubleArray _ -> new DoubleArray(length);
+            case LongArray _ -> new LongArray(length);
+            case ShortArray _ -> new ShortArray(length);
+            case ByteArray _ -> new ByteArray(length);
+            case CharArray _ -> new CharArray(length);
+            case HalfFloatArray _ -> new HalfFloatArray(length);
+            case TornadoNativeArray _ -> throw new TornadoRuntimeException("[UNSUPPORTED] Data type not supported for co-execution: " + array.getClass());
+            default -> Array.newInstance(array.getClass().getComponentType(), length);
+        };
+    }
+
+    private void copy(Object source, int sourceStart, Object destination, int destinationStart, int length) {
+        if (source instanceof TornadoNativeArray nativeSource) {
+            MemorySegment.copy(nativeSource.getSegment(), (long) sourceStart * elementSize, ((TornadoNativeArray) destination).getSegment(), (long) destinationStart * elementSize,
+                    (long) length * elementSize);
+        } else {
+            System.arraycopy(source, sourceStart, destination, destinationStart, length);
+        }
+    }
+
+    private void runJVMSlice(Slice slice) {
+        for (Object array : arrays) {
+            copy(array, slice.start, slice.jvmArrays.get(array), 0, slice.length);
+        }
+        for (TaskPackage taskPackage : taskPackages) {
+            Object[] parameters = taskPackage.getTaskParameters().clone();
+            for (int i = 1; i < parameters.length; i++) {
+                Object sliceArray = parameters[i] == null ? null : slice.jvmArrays.get(parameters[i]);
+                if (sliceArray != null) {
+                    parameters[i] = sliceArray;
+                }
+            }
+            TornadoTaskGraph.runSequentialCode(taskPackage.getTaskType(), parameters);
+        }
+        for (StreamingObject streamingObject : outputModeObjects) {
+            copy(slice.jvmArrays.get(streamingObject.getObject()), 0, streamingObject.getObject(), slice.start, slice.length);
+        }
+    }
+
+    private void runSlice(Slice slice, long executionPlanId) {
+        final long start = System.nanoTime();
+        if (slice.isJVM()) {
+            runJVMSlice(slice);
+        } else {
+            slice.taskGraph.execute(new ExecutorFrame(executionPlanId));
+        }
+        slice.time = System.nanoTime() - start;
+    }
+
+    /**
+     * Runs all the slices and waits for them.
+     *
+     * @param executionPlanId
+     *     Id of the execution plan.
+     */
+    void execute(long executionPlanId) {
+        int[] chunks = computeChunksPerSlice();
+        if (isResplitNeeded(chunks)) {
+            updateSlices(chunks);
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+        Slice jvmSlice = null;
+        for (Slice slice : slices) {
+            if (slice.length == 0) {
+                continue;
+            }
+            if (slice.isJVM()) {
+                jvmSlice = slice;
+            } else {
+                futures.add(getExecutorService().submit(() -> runSlice(slice, executionPlanId)));
+            }
+        }
+
+        RuntimeException failure = null;
+        if (jvmSlice != null) {
+            try {
+                runSlice(jvmSlice, executionPlanId);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new TornadoRuntimeException("[ERROR] Co-execution of the task-graph " + originalTaskGraph.getTaskGraphName() + " failed: " + e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TornadoRuntimeException(e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (coExecution.isAdaptive()) {
+            learnThroughputs();
+        }
+        for (Slice slice : slices) {
+            slice.compiled = true;
+        }
+
+        if (TornadoOptions.DEBUG) {
+            for (Slice slice : slices) {
+                System.out.printf("Co-execution: %s [%d, %d) in %d ns%n", slice.getName(), slice.start, slice.start + slice.length, slice.length == 0 ? 0 : slice.time);
+            }
+        }
+    }
+
+    private void learnThroughputs() {
+        for (Slice slice : slices) {
+            if (slice.length > 0 && !slice.compiled) {
+                // The time includes the compilation of the kernels
+                return;
+            }
+        }
+        double minThroughput = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < slices.length; i++) {
+            Slice slice = slices[i];
+            if (slice.length == 0) {
+                continue;
+            }
+            double throughput = (double) slice.length / Math.max(1, slice.time);
+            throughputs[i] = throughputsLearned ? SMOOTHING_FACTOR * throughput + (1 - SMOOTHING_FACTOR) * throughputs[i] : throughput;
+            minThroughput = Math.min(minThroughput, throughputs[i]);
+        }
+        if (!throughputsLearned) {
+            // Slices that were not measured keep a share, instead of starving
+            for (int i = 0; i < slices.length; i++) {
+                if (slices[i].length == 0) {
+                    throughputs[i] = minThroughput;
+                }
+            }
+        }
+        throughputsLearned = true;
+    }
+
+    private ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(slices.length, CancellableThread::new);
+        }
+        return executorService;
+    }
+
+    private void freeSlice(Slice slice) {
+        if (slice.taskGraph != null) {
+            slice.taskGraph.freeDeviceMemory();
+            slice.taskGraph = null;
+        }
+        slice.jvmArrays = null;
+    }
+
+    void freeDeviceMemory() {
+        for (Slice slice : slices) {
+            freeSlice(slice);
+            slice.length = 0;
+        }
+        currentChunks = null;
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Cost model for the device selection of the dynamic reconfiguration. For each
+ * policy, set of task methods and device, it keeps the execution times observed
+ * when racing the devices, and fits the linear model
+ * {@code time = fixedCost + costPerByte * bytes}, where {@code bytes} is the
+ * size of the data of the task-graph. The fixed cost captures the launch and
+ * compute overheads of the device, and the cost per byte the data transfers
+ * and the computation that grows with the input.
+ *
+ * <p>
+ * Once every device has {@link TornadoOptions#DR_MODEL_MIN_OBSERVATIONS}
+ * observations for the task methods, the device with the lowest predicted time
+ * is selected without racing the devices. The model is only trusted for data
+ * sizes close to the ones observed (see
+ * {@link TornadoOptions#DR_MODEL_EXTRAPOLATION}), and the devices are raced
+ * again every {@link TornadoOptions#DR_MODEL_EXPLORATION_INTERVAL} executions,
+ * so it keeps recording observations. The observations are persisted in the
+ * file given by {@link TornadoOptions#DR_MODEL_FILE}, so they are shared across
+ * runs of the application. When several processes update the file, the last one
+ * to finish wins.
+ * </p>
+ */
+public final class DeviceCostModel {
+
+    private static final DeviceCostModel INSTANCE = new DeviceCostModel(TornadoOptions.DR_MODEL_FILE);
+
+    /**
+     * Running sums of the observations of a device, enough for the least
+     * squares fit of the linear model.
+     */
+    private static final class Observations {
+        private long count;
+        private double sumBytes;
+        private double sumTime;
+        private double sumBytesTime;
+        private double sumBytesSquared;
+        private double minBytes = Double.MAX_VALUE;
+        private double maxBytes;
+
+        private void add(double bytes, double time) {
+            minBytes = Math.min(minBytes, bytes);
+            maxBytes = Math.max(maxBytes, bytes);
+            count++;
+            sumBytes += bytes;
+            sumTime += time;
+            sumBytesTime += bytes * time;
+            sumBytesSquared += bytes * bytes;
+        }
+
+        /**
+         * Checks whether the data size is within or near the range of the
+         * observed sizes, where the linear model can be trusted.
+         */
+        private boolean covers(double bytes) {
+            return bytes >= minBytes / TornadoOptions.DR_MODEL_EXTRAPOLATION && bytes <= maxBytes * TornadoOptions.DR_MODEL_EXTRAPOLATION;
+        }
+
+        private double predict(double bytes) {
+            double denominator = count * sumBytesSquared - sumBytes * sumBytes;
+            if (Math.abs(denominator) < 1e-9 * Math.max(1, count * sumBytesSquared)) {
+                // All the observations have the same size
+                return sumTime / count;
+            }
+            double costPerByte = (count * sumBytesTime - sumBytes * sumTime) / denominator;
+            double fixedCost = (sumTime - costPerByte * sumBytes) / count;
+            return fixedCost + Math.max(0, costPerByte) * bytes;
+        }
+
+        private String serialize() {
+            return count + "," + sumBytes + "," + sumTime + "," + sumBytesTime + "," + sumBytesSquared + "," + minBytes + "," + maxBytes;
+        }
+
+        private static Observations deserialize(String value) {
+            String[] fields = value.split(",");
+            Observations observations = new Observations();
+            observations.count = Long.parseLong(fields[0]);
+            observations.sumBytes = Double.parseDouble(fields[1]);
+            observations.sumTime = Double.parseDouble(fields[2]);
+            observations.sumBytesTime = Double.parseDouble(fields[3]);
+            observations.sumBytesSquared = Double.parseDouble(fields[4]);
+            if (fields.length > 6) {
+                observations.minBytes = Double.parseDouble(fields[5]);
+                observations.maxBytes = Double.parseDouble(fields[6]);
+            } else {
+                // Models saved without the range of sizes only cover the mean size
+                observations.minBytes = observations.sumBytes / observations.count;
+                observations.maxBytes = observations.minBytes;
+            }
+            return observations;
+        }
+    }
+
+    private final String file;
+    private final Map<String, Observations> observations;
+    private final Map<String, Long> executions;
+    private final TornadoLogger logger;
+
+    /**
+     * Creates a cost model and loads the observations of the given file. A file
+     * that cannot be read or parsed is ignored.
+     *
+     * @param file
+     *     File in which the observations are persisted. If empty, the
+     *     observations are only kept in memory.
+     */
+    public DeviceCostModel(String file) {
+        this.file = file;
+        this.observations = new HashMap<>();
+        this.executions = new HashMap<>();
+        this.logger = new TornadoLogger(this.getClass());
+        load();
+    }
+
+    static DeviceCostModel getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The observations of the LATENCY policy (a single execution on each device)
+     * are the ones of the END_2_END policy.
+     */
+    private static Policy modelPolicy(Policy policy) {
+        return policy == Policy.LATENCY ? Policy.END_2_END : policy;
+    }
+
+    private static String key(Policy policy, String methods, String device) {
+        return modelPolicy(policy) + "|" + methods + "|" + device;
+    }
+
+    /**
+     * Selects the device with the lowest predicted time.
+     *
+     * @param policy
+     *     Dynamic reconfiguration policy.
+     * @param methods
+     *     Identifier of the task methods of the task-graph.
+     * @param devices
+     *     Identifiers of the candidate devices, in the order of the device
+     *     indexes.
+     * @param bytes
+     *     Size of the data of the task-graph.
+     * @return The index of the selected device, or -1 if there are not enough
+     *     observations for all the devices, or the data size is far from the
+     *     sizes observed.
+     */
+    public synchronized int selectDevice(Policy policy, String methods, List<String> devices, long bytes) {
+        int winner = -1;
+        double bestTime = Double.MAX_VALUE;
+        for (int i = 0; i < devices.size(); i++) {
+            Observations deviceObservations = observations.get(key(policy, methods, devices.get(i)));
+            if (deviceObservations == null || deviceObservations.count < TornadoOptions.DR_MODEL_MIN_OBSERVATIONS || !deviceObservations.covers(bytes)) {
+                return -1;
+            }
+            double time = deviceObservations.predict(bytes);
+            if (time < bestTime) {
+                bestTime = time;
+                winner = i;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Counts an execution on the selected device, and checks whether the devices
+     * have to be raced again to record new observations.
+     *
+     * @param policy
+     *     Dynamic reconfiguration policy.
+     * @param methods
+     *     Identifier of the task methods of the task-graph.
+     * @return true every {@link TornadoOptions#DR_MODEL_EXPLORATION_INTERVAL}
+     *     executions.
+     */
+    public synchronized boolean isExplorationRun(Policy policy, String methods) {
+        if (TornadoOptions.DR_MODEL_EXPLORATION_INTERVAL <= 0) {
+            return false;
+        }
+        long count = executions.merge(modelPolicy(policy) + "|" + methods, 1L, Long::sum);
+        return count % TornadoOptions.DR_MODEL_EXPLORATION_INTERVAL == 0;
+    }
+
+    /**
+     * Records the execution times of a race between the devices and persists
+     * the model.
+     *
+     * @param policy
+     *     Dynamic reconfiguration policy.
+     * @param methods
+     *     Identifier of the task methods of the task-graph.
+     * @param devices
+     *     Identifiers of the devices, in the order of the device indexes.
+     * @param bytes
+     *     Size of the data of the task-graph.
+     * @param times
+     *     Execution time in nanoseconds for each device. Devices that did not
+     *     run (0 or {@link Long#MAX_VALUE}) are not recorded.
+     */
+    public synchronized void record(Policy policy, String methods, List<String> devices, long bytes, long[] times) {
+        for (int i = 0; i < devices.size(); i++) {
+            if (times[i] > 0 && times[i] != Long.MAX_VALUE) {
+                observations.computeIfAbsent(key(policy, methods, devices.get(i)), k -> new Observations()).add(bytes, times[i]);
+            }
+        }
+        save();
+    }
+
+    private void load() {
+        if (file.isEmpty() || !Files.exists(Path.of(file))) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+            properties.load(reader);
+            for (String key : properties.stringPropertyNames()) {
+                observations.put(key, Observations.deserialize(properties.getProperty(key)));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to load the dynamic reconfiguration model from %s: %s", file, e.getMessage());
+            observations.clear();
+        }
+    }
+
+    private void save() {
+        if (file.isEmpty()) {
+            return;
+        }
+        Properties properties = new Properties();
+        observations.forEach((key, value) -> properties.setProperty(key, value.serialize()));
+        Path path = Path.of(file).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temporary)) {
+                properties.store(writer, "TornadoVM dynamic reconfiguration model");
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Unable to save the dynamic reconfiguration model to %s: %s", file, e.getMessage());
+        }
+    }
+}
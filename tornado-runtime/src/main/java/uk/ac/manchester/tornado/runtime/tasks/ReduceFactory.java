@@ -24,6 +24,7 @@
 package uk.ac.manchester.tornado.runtime.tasks;
 
 import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
@@ -290,6 +291,396 @@ class ReduceFactory {
         array.set(0, acc);
     }
 
+    /*
+     * Parallel passes of the final reduction. Each pass combines the partial
+     * results in blocks of blockSize elements, placed stride elements apart, and
+     * leaves the result of each block in its first element. The last pass has a
+     * single group, which leaves the result in the first element of the array.
+     */
+    private static void rAddStage(int[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc += array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rAddStage(long[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc += array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rAddStage(float[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc += array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rAddStage(double[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc += array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rAddStage(IntArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc += array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rAddStage(FloatArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc += array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rAddStage(DoubleArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc += array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rAddStage(LongArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc += array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMulStage(int[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc *= array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMulStage(long[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc *= array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMulStage(float[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc *= array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMulStage(double[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc *= array[j * stride];
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMulStage(IntArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc *= array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMulStage(FloatArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc *= array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMulStage(DoubleArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc *= array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMulStage(LongArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc *= array.get(j * stride);
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMaxStage(int[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMaxStage(long[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMaxStage(float[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMaxStage(double[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMaxStage(IntArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMaxStage(FloatArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMaxStage(DoubleArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMaxStage(LongArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.max(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMinStage(int[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMinStage(long[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMinStage(float[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMinStage(double[] array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array[first * stride];
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array[j * stride]);
+            }
+            array[first * stride] = acc;
+        }
+    }
+
+    private static void rMinStage(IntArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            int acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMinStage(FloatArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            float acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMinStage(DoubleArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            double acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
+    private static void rMinStage(LongArray array, final int numGroups, final int numElements, final int blockSize, final int stride) {
+        for (@Parallel int i = 0; i < numGroups; i++) {
+            int first = i * blockSize;
+            int last = Math.min(first + blockSize, numElements);
+            long acc = array.get(first * stride);
+            for (int j = first + 1; j < last; j++) {
+                acc = Math.min(acc, array.get(j * stride));
+            }
+            array.set(first * stride, acc);
+        }
+    }
+
     static void handleAdd(Object newArray, TaskGraph task, int sizeReduceArray, String taskName) {
         switch (newArray.getClass().getTypeName()) {
             case "int[]":
@@ -413,4 +804,128 @@ class ReduceFactory {
                 throw new TornadoRuntimeException(ERROR_MESSAGE + newArray.getClass().getTypeName());
         }
     }
+
+    static void handleAddStage(Object newArray, TaskGraph task, int numGroups, int numElements, int blockSize, int stride, String taskName) {
+        switch (newArray.getClass().getTypeName()) {
+            case "int[]":
+                task.task(taskName, ReduceFactory::rAddStage, (int[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "long[]":
+                task.task(taskName, ReduceFactory::rAddStage, (long[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "float[]":
+                task.task(taskName, ReduceFactory::rAddStage, (float[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "double[]":
+                task.task(taskName, ReduceFactory::rAddStage, (double[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.IntArray":
+                task.task(taskName, ReduceFactory::rAddStage, (IntArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.FloatArray":
+                task.task(taskName, ReduceFactory::rAddStage, (FloatArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.DoubleArray":
+                task.task(taskName, ReduceFactory::rAddStage, (DoubleArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.LongArray":
+                task.task(taskName, ReduceFactory::rAddStage, (LongArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            default:
+                throw new TornadoRuntimeException(ERROR_MESSAGE + newArray.getClass().getTypeName());
+        }
+    }
+
+    static void handleMulStage(Object newArray, TaskGraph task, int numGroups, int numElements, int blockSize, int stride, String taskName) {
+        switch (newArray.getClass().getTypeName()) {
+            case "int[]":
+                task.task(taskName, ReduceFactory::rMulStage, (int[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "long[]":
+                task.task(taskName, ReduceFactory::rMulStage, (long[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "float[]":
+                task.task(taskName, ReduceFactory::rMulStage, (float[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "double[]":
+                task.task(taskName, ReduceFactory::rMulStage, (double[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.IntArray":
+                task.task(taskName, ReduceFactory::rMulStage, (IntArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.FloatArray":
+                task.task(taskName, ReduceFactory::rMulStage, (FloatArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.DoubleArray":
+                task.task(taskName, ReduceFactory::rMulStage, (DoubleArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.LongArray":
+                task.task(taskName, ReduceFactory::rMulStage, (LongArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            default:
+                throw new TornadoRuntimeException(ERROR_MESSAGE + newArray.getClass().getTypeName());
+        }
+    }
+
+    static void handleMaxStage(Object newArray, TaskGraph task, int numGroups, int numElements, int blockSize, int stride, String taskName) {
+        switch (newArray.getClass().getTypeName()) {
+            case "int[]":
+                task.task(taskName, ReduceFactory::rMaxStage, (int[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "long[]":
+                task.task(taskName, ReduceFactory::rMaxStage, (long[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "float[]":
+                task.task(taskName, ReduceFactory::rMaxStage, (float[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "double[]":
+                task.task(taskName, ReduceFactory::rMaxStage, (double[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.IntArray":
+                task.task(taskName, ReduceFactory::rMaxStage, (IntArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.FloatArray":
+                task.task(taskName, ReduceFactory::rMaxStage, (FloatArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.DoubleArray":
+                task.task(taskName, ReduceFactory::rMaxStage, (DoubleArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.LongArray":
+                task.task(taskName, ReduceFactory::rMaxStage, (LongArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            default:
+                throw new TornadoRuntimeException(ERROR_MESSAGE + newArray.getClass().getTypeName());
+        }
+    }
+
+    static void handleMinStage(Object newArray, TaskGraph task, int numGroups, int numElements, int blockSize, int stride, String taskName) {
+        switch (newArray.getClass().getTypeName()) {
+            case "int[]":
+                task.task(taskName, ReduceFactory::rMinStage, (int[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "long[]":
+                task.task(taskName, ReduceFactory::rMinStage, (long[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "float[]":
+                task.task(taskName, ReduceFactory::rMinStage, (float[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "double[]":
+                task.task(taskName, ReduceFactory::rMinStage, (double[]) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.IntArray":
+                task.task(taskName, ReduceFactory::rMinStage, (IntArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.FloatArray":
+                task.task(taskName, ReduceFactory::rMinStage, (FloatArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.DoubleArray":
+                task.task(taskName, ReduceFactory::rMinStage, (DoubleArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            case "uk.ac.manchester.tornado.api.types.arrays.LongArray":
+                task.task(taskName, ReduceFactory::rMinStage, (LongArray) newArray, numGroups, numElements, blockSize, stride);
+                break;
+            default:
+                throw new TornadoRuntimeException(ERROR_MESSAGE + newArray.getClass().getTypeName());
+        }
+    }
 }
@@ -574,12 +574,16 @@ class ReduceTaskGraph {
                         TornadoRuntimeProvider.setProperty(fullName + ".device", backendToRun + ":" + deviceToRun);
                         inspectBinariesFPGA(taskScheduleReduceName, graphName, taskPackage.getId(), true);
 
-                        switch (operation) {
-                            case SUM -> ReduceFactory.handleAdd(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            case MUL -> ReduceFactory.handleMul(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            case MAX -> ReduceFactory.handleMax(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            case MIN -> ReduceFactory.handleMin(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            default -> throw new TornadoRuntimeException("[ERROR] Reduce operation not supported yet.");
+                        if (isMultiStageReduction(sizeReduceArray)) {
+                            addReductionStages(operation, newArray, sizeReduceArray, newTaskSequentialName, backendToRun, deviceToRun);
+                        } else {
+                            switch (operation) {
+                                case SUM -> ReduceFactory.handleAdd(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                case MUL -> ReduceFactory.handleMul(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                case MAX -> ReduceFactory.handleMax(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                case MIN -> ReduceFactory.handleMin(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                default -> throw new TornadoRuntimeException("[ERROR] Reduce operation not supported yet.");
+                            }
                         }
 
                         if (hybridMode) {
@@ -605,6 +609,57 @@ class ReduceTaskGraph {
         return rewrittenTaskGraph;
     }
 
+    /**
+     * The partial results are combined in parallel passes on the device when
+     * there are more than {@link TornadoOptions#REDUCE_STAGE_SIZE} of them. The
+     * FPGA binaries are compiled ahead of time with the single-thread final
+     * reduction, so they keep it.
+     */
+    private boolean isMultiStageReduction(int sizeReduceArray) {
+        return TornadoOptions.REDUCE_STAGE_SIZE > 1 && sizeReduceArray > TornadoOptions.REDUCE_STAGE_SIZE && !isAheadOfTime();
+    }
+
+    /**
+     * Adds the final reduction as a sequence of parallel passes on the device,
+     * instead of a single thread that combines all the partial results. Each pass
+     * reduces blocks of {@link TornadoOptions#REDUCE_STAGE_SIZE} partial results
+     * in place, until the result is left in the first element of the array. The
+     * array stays on the device between passes, so the tasks that follow in the
+     * task-graph read the result without a copy to the host.
+     *
+     * @param operation
+     *     Reduce operation.
+     * @param newArray
+     *     Array with the partial results.
+     * @param sizeReduceArray
+     *     Number of partial results.
+     * @param taskName
+     *     Base name for the tasks of the passes.
+     * @param backendIndex
+     *     Backend of the device that runs the reduction.
+     * @param deviceIndex
+     *     Device that runs the reduction.
+     */
+    private void addReductionStages(REDUCE_OPERATION operation, Object newArray, int sizeReduceArray, String taskName, int backendIndex, int deviceIndex) {
+        final int blockSize = TornadoOptions.REDUCE_STAGE_SIZE;
+        int numElements = sizeReduceArray;
+        int stride = 1;
+        for (int stage = 0; numElements > 1; stage++) {
+            int numGroups = (numElements + blockSize - 1) / blockSize;
+            String stageName = taskName + "_stage" + stage;
+            TornadoRuntimeProvider.setProperty(rewrittenTaskGraph.getTaskGraphName() + "." + stageName + ".device", backendIndex + ":" + deviceIndex);
+            switch (operation) {
+                case SUM -> ReduceFactory.handleAddStage(newArray, rewrittenTaskGraph, numGroups, numElements, blockSize, stride, stageName);
+                case MUL -> ReduceFactory.handleMulStage(newArray, rewrittenTaskGraph, numGroups, numElements, blockSize, stride, stageName);
+                case MAX -> ReduceFactory.handleMaxStage(newArray, rewrittenTaskGraph, numGroups, numElements, blockSize, stride, stageName);
+                case MIN -> ReduceFactory.handleMinStage(newArray, rewrittenTaskGraph, numGroups, numElements, blockSize, stride, stageName);
+                default -> throw new TornadoRuntimeException("[ERROR] Reduce operation not supported yet.");
+            }
+            numElements = numGroups;
+            stride *= blockSize;
+        }
+    }
+
     private boolean checkAllArgumentsPerTask() {
         for (TaskPackage task : taskPackages) {
             Object[] taskParameters = task.getTaskParameters();
@@ -40,12 +40,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -55,6 +62,7 @@ import org.graalvm.compiler.graph.Graph;
 import org.graalvm.compiler.phases.util.Providers;
 
 import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.CoExecution;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.KernelContext;
@@ -94,6 +102,7 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoDynamicReconfigurationException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
@@ -103,12 +112,15 @@ import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
 import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis;
 import uk.ac.manchester.tornado.runtime.analyzer.TaskUtils;
 import uk.ac.manchester.tornado.runtime.common.BatchConfiguration;
+import uk.ac.manchester.tornado.runtime.common.CancellableThread;
+import uk.ac.manchester.tornado.runtime.common.DeviceBufferResidencyManager;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
@@ -121,6 +133,7 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoGraph;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraphBuilder;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeBuilder;
 import uk.ac.manchester.tornado.runtime.profiler.EmptyProfiler;
+import uk.ac.manchester.tornado.runtime.profiler.LatencyHistogramExporter;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
@@ -141,7 +154,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private static final int PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL = 3;
     private static final boolean TIME_IN_NANOSECONDS = TornadoOptions.TIME_IN_NANOSECONDS;
     private static final String TASK_GRAPH_PREFIX = "XXX";
-    private static final ConcurrentHashMap<Policy, ConcurrentHashMap<String, HistoryTable>> executionHistoryPolicy = new ConcurrentHashMap<>();
+    private static final ProfilerType[] LATENCY_HISTOGRAM_TIMERS = { ProfilerType.TOTAL_TASK_GRAPH_TIME, ProfilerType.TOTAL_KERNEL_TIME, ProfilerType.TOTAL_DISPATCH_KERNEL_TIME,
+            ProfilerType.COPY_IN_TIME, ProfilerType.COPY_OUT_TIME, ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME };
 
     private static final boolean USE_GLOBAL_TASK_CACHE = false;
 
@@ -155,7 +169,6 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private static final int MAX_ITERATIONS_DYNAMIC_RECONF_SEQUENTIAL = 100;
 
     private static ConcurrentHashMap<Integer, TaskGraph> globalTaskGraphIndex = new ConcurrentHashMap<>();
-    private static int baseGlobalIndex = 0;
     private static AtomicInteger offsetGlobalIndex = new AtomicInteger(0);
     MetaReduceCodeAnalysis analysisTaskGraph;
     private TornadoExecutionContext executionContext;
@@ -185,12 +198,14 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerInputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, TaskGraph> taskGraphIndex = new ConcurrentHashMap<>();
     private StringBuilder bufferLogProfiler = new StringBuilder();
+    private final LatencyHistograms latencyHistograms = new LatencyHistograms();
     private Graph compilationGraph;
     /**
      * Options for new reductions - experimental.
      */
     private boolean reduceExpressionRewritten = false;
     private ReduceTaskGraph reduceTaskGraph;
+    private CoExecutionTaskGraph coExecutionTaskGraph;
     private boolean reduceAnalysis = false;
     private TornadoProfiler timeProfiler;
     private boolean updateData;
@@ -817,6 +832,27 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         vm.warmup();
     }
 
+    /**
+     * Accumulates the timers of the last execution in the latency histograms.
+     * The timers that were not measured in this execution (e.g., copies that
+     * are only performed in the first execution) are not recorded.
+     */
+    private void recordLatencyHistograms() {
+        for (ProfilerType type : LATENCY_HISTOGRAM_TIMERS) {
+            long time = timeProfiler.getTimer(type);
+            if (time > 0) {
+                latencyHistograms.record(getId(), type, time);
+            }
+        }
+        for (SchedulableTask task : executionContext.getTasks()) {
+            long time = timeProfiler.getTaskTimer(ProfilerType.TASK_KERNEL_TIME, task.getId());
+            if (time > 0) {
+                latencyHistograms.record(task.getId(), ProfilerType.TASK_KERNEL_TIME, time);
+            }
+        }
+        LatencyHistogramExporter.register(latencyHistograms, executionPlanId);
+    }
+
     /**
      * If current FPGA execution and JIT mode, then run warm-up.
      */
@@ -843,6 +879,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             return;
         }
 
+        recordLatencyHistograms();
+
         if (!TornadoOptions.PROFILER_LOGS_ACCUMULATE()) {
             timeProfiler.dumpJson(new StringBuilder(), this.getId());
         } else {
@@ -890,6 +928,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         try {
             event = vm.execute(isConcurrentDevicesEnabled, timeProfiler);
+            // Sync point: collect the timers of the kernels and copies of this execution
+            timeProfiler.resolveDeferredEvents();
             timeProfiler.stop(ProfilerType.TOTAL_TASK_GRAPH_TIME);
             updateProfiler();
         } catch (TornadoBailoutRuntimeException e) {
@@ -901,6 +941,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 }
                 throw new TornadoBailoutRuntimeException("Bailout is disabled. \nReason: " + e.getMessage());
             }
+        } finally {
+            // The events of a failed execution are not reported in the next one
+            timeProfiler.discardDeferredEvents();
         }
 
     }
@@ -1062,6 +1105,22 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> precompile(ExecutorFrame executionPackage) {
+        setupProfiler();
+        getDevice().getDeviceContext().setResetToFalse();
+        timeProfiler.clean();
+
+        compileComputeGraphToTornadoVMBytecode();
+        executionPlanId = executionPackage.getExecutionPlanId();
+        executionContext.setExecutionPlanId(executionPlanId);
+        return vm.precompile().thenRun(() -> {
+            if (TornadoOptions.isProfilerEnabled() && !TornadoOptions.PROFILER_LOGS_ACCUMULATE()) {
+                timeProfiler.dumpJson(new StringBuilder(), this.getId());
+            }
+        });
+    }
+
     private Access getObjectAccess(Object object) {
         boolean isRead = false;
         boolean isWrite = false;
@@ -1120,6 +1179,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private void free() {
+        if (coExecutionTaskGraph != null) {
+            coExecutionTaskGraph.freeDeviceMemory();
+        }
         if (vm == null) {
             return;
         }
@@ -1152,6 +1214,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         final DataObjectState dataObjectState = localState.getDataObjectState();
         final XPUDeviceBufferState deviceBufferState = dataObjectState.getDeviceBufferState(device);
         deviceBufferState.setLockBuffer(false);
+        if (DeviceBufferResidencyManager.isEnabled() && device instanceof TornadoXPUDevice xpuDevice) {
+            DeviceBufferResidencyManager.getInstance(xpuDevice).remove(deviceBufferState);
+        }
        if (deviceBufferState.hasObjectBuffer()) {
             device.deallocate(deviceBufferState);
        }
@@ -1491,11 +1556,24 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         };
     }
 
+    private TornadoTaskGraphInterface executeWithCoExecution(CoExecution coExecution) {
+        if (coExecutionTaskGraph == null || coExecutionTaskGraph.getCoExecution() != coExecution) {
+            if (coExecutionTaskGraph != null) {
+                coExecutionTaskGraph.freeDeviceMemory();
+            }
+            coExecutionTaskGraph = new CoExecutionTaskGraph(this, taskPackages, inputModesObjects, outputModeObjects, coExecution);
+        }
+        coExecutionTaskGraph.execute(executionPlanId);
+        return this;
+    }
+
     @Override
     public TornadoTaskGraphInterface execute(ExecutorFrame executorFrame) {
         executionPlanId = executorFrame.getExecutionPlanId();
         checkProfilerOn(executorFrame);
-        if (executorFrame.getDynamicReconfigurationPolicy() == null) {
+        if (executorFrame.getCoExecution() != null) {
+            return executeWithCoExecution(executorFrame.getCoExecution());
+        } else if (executorFrame.getDynamicReconfigurationPolicy() == null) {
             return execute();
         } else {
             return executeWithDynamicReconfiguration(executorFrame);
@@ -1521,92 +1599,90 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     }
 
-    @SuppressWarnings("unchecked")
     private void runSequentialCodeInThread(TaskPackage taskPackage) {
-        int type = taskPackage.getTaskType();
+        runSequentialCode(taskPackage.getTaskType(), taskPackage.getTaskParameters());
+    }
+
+    /**
+     * Runs the Java code of a task.
+     *
+     * @param type
+     *     Type of the task (number of parameters).
+     * @param taskParameters
+     *     The task to run, followed by its parameters.
+     */
+    @SuppressWarnings("unchecked")
+    static void runSequentialCode(int type, Object[] taskParameters) {
         switch (type) {
             case 0:
-                @SuppressWarnings("rawtypes") Task task = (Task) taskPackage.getTaskParameters()[0];
+                @SuppressWarnings("rawtypes") Task task = (Task) taskParameters[0];
                 task.apply();
                 break;
             case 1:
-                @SuppressWarnings("rawtypes") Task1 task1 = (Task1) taskPackage.getTaskParameters()[0];
-                task1.apply(taskPackage.getTaskParameters()[1]);
+                @SuppressWarnings("rawtypes") Task1 task1 = (Task1) taskParameters[0];
+                task1.apply(taskParameters[1]);
                 break;
             case 2:
-                @SuppressWarnings("rawtypes") Task2 task2 = (Task2) taskPackage.getTaskParameters()[0];
-                task2.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2]);
+                @SuppressWarnings("rawtypes") Task2 task2 = (Task2) taskParameters[0];
+                task2.apply(taskParameters[1], taskParameters[2]);
                 break;
             case 3:
-                @SuppressWarnings("rawtypes") Task3 task3 = (Task3) taskPackage.getTaskParameters()[0];
-                task3.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3]);
+                @SuppressWarnings("rawtypes") Task3 task3 = (Task3) taskParameters[0];
+                task3.apply(taskParameters[1], taskParameters[2], taskParameters[3]);
                 break;
             case 4:
-                @SuppressWarnings("rawtypes") Task4 task4 = (Task4) taskPackage.getTaskParameters()[0];
-                task4.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4]);
+                @SuppressWarnings("rawtypes") Task4 task4 = (Task4) taskParameters[0];
+                task4.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4]);
                 break;
             case 5:
-                @SuppressWarnings("rawtypes") Task5 task5 = (Task5) taskPackage.getTaskParameters()[0];
-                task5.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5]);
+                @SuppressWarnings("rawtypes") Task5 task5 = (Task5) taskParameters[0];
+                task5.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5]);
                 break;
             case 6:
-                @SuppressWarnings("rawtypes") Task6 task6 = (Task6) taskPackage.getTaskParameters()[0];
-                task6.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6]);
+                @SuppressWarnings("rawtypes") Task6 task6 = (Task6) taskParameters[0];
+                task6.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6]);
                 break;
             case 7:
-                @SuppressWarnings("rawtypes") Task7 task7 = (Task7) taskPackage.getTaskParameters()[0];
-                task7.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7]);
+                @SuppressWarnings("rawtypes") Task7 task7 = (Task7) taskParameters[0];
+                task7.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7]);
                 break;
             case 8:
-                @SuppressWarnings("rawtypes") Task8 task8 = (Task8) taskPackage.getTaskParameters()[0];
-                task8.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8]);
+                @SuppressWarnings("rawtypes") Task8 task8 = (Task8) taskParameters[0];
+                task8.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8]);
                 break;
             case 9:
-                @SuppressWarnings("rawtypes") Task9 task9 = (Task9) taskPackage.getTaskParameters()[0];
-                task9.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9]);
+                @SuppressWarnings("rawtypes") Task9 task9 = (Task9) taskParameters[0];
+                task9.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9]);
                 break;
             case 10:
-                @SuppressWarnings("rawtypes") Task10 task10 = (Task10) taskPackage.getTaskParameters()[0];
-                task10.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10]);
+                @SuppressWarnings("rawtypes") Task10 task10 = (Task10) taskParameters[0];
+                task10.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10]);
                 break;
             case 11:
-                @SuppressWarnings("rawtypes") Task11 task11 = (Task11) taskPackage.getTaskParameters()[0];
-                task11.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11]);
+                @SuppressWarnings("rawtypes") Task11 task11 = (Task11) taskParameters[0];
+                task11.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11]);
                 break;
             case 12:
-                @SuppressWarnings("rawtypes") Task12 task12 = (Task12) taskPackage.getTaskParameters()[0];
-                task12.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12]);
+                @SuppressWarnings("rawtypes") Task12 task12 = (Task12) taskParameters[0];
+                task12.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12]);
                 break;
             case 13:
-                @SuppressWarnings("rawtypes") Task13 task13 = (Task13) taskPackage.getTaskParameters()[0];
-                task13.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13]);
+                @SuppressWarnings("rawtypes") Task13 task13 = (Task13) taskParameters[0];
+                task13.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12], taskParameters[13]);
                 break;
             case 14:
-                @SuppressWarnings("rawtypes") Task14 task14 = (Task14) taskPackage.getTaskParameters()[0];
-                task14.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13], taskPackage
-                                .getTaskParameters()[14]);
+                @SuppressWarnings("rawtypes") Task14 task14 = (Task14) taskParameters[0];
+                task14.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12], taskParameters[13], taskParameters[14]);
                 break;
             case 15:
-                @SuppressWarnings("rawtypes") Task15 task15 = (Task15) taskPackage.getTaskParameters()[0];
-                task15.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13], taskPackage
-                                .getTaskParameters()[14], taskPackage.getTaskParameters()[15]);
+                @SuppressWarnings("rawtypes") Task15 task15 = (Task15) taskParameters[0];
+                task15.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4], taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12], taskParameters[13], taskParameters[14], taskParameters[15]);
                 break;
             default:
                 throw new TornadoRuntimeException("Sequential Runner not supported yet. Number of parameters: " + type);
@@ -1641,48 +1717,19 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return deviceWinnerIndex;
     }
 
-    public record Tuple2(int threadWinnerIndex, Thread join) {
-    }
-
-    private Tuple2 syncWinner(Thread[] threads) {
-        int winner = 0;
-        boolean isAlive = true;
-        Thread join = null;
-        while (isAlive) {
-            for (int i = 0; i < threads.length; i++) {
-                isAlive = threads[i].isAlive();
-                if (!isAlive) {
-                    if (TornadoOptions.DEBUG) {
-                        System.out.println("SELECTED Thread-Device: " + threads[i].getName() + " ");
-                    }
-                    winner = i;
-                    join = new Thread(() -> {
-                        // kill the others
-                        for (Thread thread : threads) {
-                            if (thread.isAlive()) {
-                                try {
-                                    thread.join();
-                                } catch (InterruptedException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            }
-                        }
-                    });
-                }
-            }
-        }
-        return new Tuple2(winner, join);
-    }
-
     private void runAllTasksJavaSequential() {
         for (TaskPackage taskPackage : taskPackages) {
+            if (CancellableThread.isCurrentThreadCancelled()) {
+                // Another device won the race
+                return;
+            }
             runSequentialCodeInThread(taskPackage);
         }
     }
 
-    private void runThreadSequentialVersion(Policy policy, Thread[] threads, int indexSequential, Timer timer, long[] totalTimers) {
-        // Last Thread runs the sequential code
-        threads[indexSequential] = new Thread(() -> {
+    private Callable<Integer> createSequentialRunner(Policy policy, int indexSequential, Timer timer, long[] totalTimers) {
+        // The last runner executes the sequential code
+        return () -> {
             Thread.currentThread().setName("Thread-sequential");
 
             if (policy == Policy.PERFORMANCE) {
@@ -1699,38 +1746,40 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             }
 
             totalTimers[indexSequential] = (endSequentialCode - start);
-        });
+            return indexSequential;
+        };
     }
 
-    private void runParallelTaskGraphs(int numDevices, Thread[] threads, Timer timer, Policy policy, long[] totalTimers) {
-        for (int i = 0; i < numDevices; i++) {
-            final int taskScheduleNumber = i;
-            threads[i] = new Thread(() -> {
-                String newTaskScheduleName = TASK_GRAPH_PREFIX + taskScheduleNumber;
-                TaskGraph task = new TaskGraph(newTaskScheduleName);
-
-                Thread.currentThread().setName("Thread-DEV: " + TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getDevice(taskScheduleNumber).getPhysicalDevice().getDeviceName());
+    private Callable<Integer> createDeviceRunner(int taskScheduleNumber, Timer timer, Policy policy, long[] totalTimers) {
+        return () -> {
+            String newTaskScheduleName = TASK_GRAPH_PREFIX + taskScheduleNumber;
+            TaskGraph task = new TaskGraph(newTaskScheduleName);
 
-                for (StreamingObject streamingObject : inputModesObjects) {
-                    performStreamInObject(task, streamingObject.object, streamingObject.mode);
-                }
+            Thread.currentThread().setName("Thread-DEV: " + TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getDevice(taskScheduleNumber).getPhysicalDevice().getDeviceName());
 
-                for (TaskPackage taskPackage : taskPackages) {
-                    String taskID = taskPackage.getId();
-                    TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", "0:" + taskScheduleNumber);
-                    if (TornadoOptions.DEBUG) {
-                        System.out.println("SET DEVICE: " + newTaskScheduleName + "." + taskID + ".device=0:" + taskScheduleNumber);
-                    }
-                    task.addTask(taskPackage);
-                }
+            for (StreamingObject streamingObject : inputModesObjects) {
+                performStreamInObject(task, streamingObject.object, streamingObject.mode);
+            }
 
-                for (StreamingObject streamingObject : outputModeObjects) {
-                    performStreamOutThreads(streamingObject.mode, task, streamingObject.object);
+            for (TaskPackage taskPackage : taskPackages) {
+                String taskID = taskPackage.getId();
+                TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", "0:" + taskScheduleNumber);
+                if (TornadoOptions.DEBUG) {
+                    System.out.println("SET DEVICE: " + newTaskScheduleName + "." + taskID + ".device=0:" + taskScheduleNumber);
                 }
+                task.addTask(taskPackage);
+            }
 
-                ImmutableTaskGraph immutableTaskGraph = task.snapshot();
-                TornadoExecutionPlan executor = new TornadoExecutionPlan(immutableTaskGraph);
+            for (StreamingObject streamingObject : outputModeObjects) {
+                performStreamOutThreads(streamingObject.mode, task, streamingObject.object);
+            }
 
+            ImmutableTaskGraph immutableTaskGraph = task.snapshot();
+            final long start;
+            final long end;
+            // The plan is closed even if the runner is cancelled in the middle of the
+            // bytecodes, so the device buffers it allocated are released
+            try (TornadoExecutionPlan executor = new TornadoExecutionPlan(immutableTaskGraph)) {
                 if (policy == Policy.PERFORMANCE) {
                     // first warm up
                     for (int k = 0; k < PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL; k++) {
@@ -1738,22 +1787,70 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                     }
                 }
 
-                long start = timer.time();
+                start = timer.time();
                 executor.execute();
-                final long end = timer.time();
-                taskGraphIndex.put(taskScheduleNumber, task);
+                end = timer.time();
+            }
+            taskGraphIndex.put(taskScheduleNumber, task);
 
-                if (USE_GLOBAL_TASK_CACHE) {
-                    globalTaskGraphIndex.put(offsetGlobalIndex.get(), task);
-                    offsetGlobalIndex.incrementAndGet();
-                } else {
-                    globalTaskGraphIndex.put(taskScheduleNumber, task);
-                }
+            if (USE_GLOBAL_TASK_CACHE) {
+                globalTaskGraphIndex.put(offsetGlobalIndex.get(), task);
+                offsetGlobalIndex.incrementAndGet();
+            } else {
+                globalTaskGraphIndex.put(taskScheduleNumber, task);
+            }
+
+            totalTimers[taskScheduleNumber] = (end - start);
+            return taskScheduleNumber;
+        };
+    }
 
-                totalTimers[taskScheduleNumber] = (end - start);
-            });
+    /**
+     * Returns the index of the first runner that finishes. The rest of the
+     * runners are cancelled: the devices stop launching the remaining bytecodes
+     * and the sequential runner stops before its next task.
+     */
+    private int raceForLatency(ExecutorService executorService, List<Callable<Integer>> runners) throws InterruptedException {
+        ExecutorCompletionService<Integer> race = new ExecutorCompletionService<>(executorService);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (Callable<Integer> runner : runners) {
+            futures.add(race.submit(runner));
+        }
+        try {
+            for (int i = 0; i < runners.size(); i++) {
+                try {
+                    int winner = race.take().get();
+                    if (TornadoOptions.DEBUG) {
+                        System.out.println("SELECTED Thread-Device: #" + winner);
+                    }
+                    return winner;
+                } catch (ExecutionException e) {
+                    // This runner failed: wait for the next one
+                    new TornadoLogger().debug("Dynamic reconfiguration runner failed: %s", e.getCause());
+                }
+            }
+            throw new TornadoDynamicReconfigurationException("All the devices failed to run the task-graph " + getTaskGraphName());
+        } finally {
+            for (Future<Integer> future : futures) {
+                future.cancel(true);
+            }
         }
+    }
 
+    /**
+     * Waits for all the runners. A runner that fails is not considered when
+     * selecting the device.
+     */
+    private void runAllRunners(ExecutorService executorService, List<Callable<Integer>> runners, long[] totalTimers) throws InterruptedException {
+        List<Future<Integer>> futures = executorService.invokeAll(runners);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (ExecutionException e) {
+                new TornadoLogger().debug("Dynamic reconfiguration runner failed: %s", e.getCause());
+                totalTimers[i] = Long.MAX_VALUE;
+            }
+        }
     }
 
     private void runScheduleWithParallelProfiler(Policy policy) {
@@ -1761,44 +1858,38 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         final Timer timer = (TIME_IN_NANOSECONDS) ? new NanoSecTimer() : new MilliSecTimer();
         TornadoBackend tornadoDriver = TornadoCoreRuntime.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX);
         int numDevices = tornadoDriver.getNumDevices();
-        long masterThreadID = Thread.currentThread().getId();
 
-        // One additional threads is reserved for sequential CPU execution
+        // One additional runner is reserved for sequential CPU execution
         final int numThreads = numDevices + 1;
-        Thread[] threads = new Thread[numThreads];
         long[] totalTimers = new long[numThreads];
 
-        // Last Thread runs the sequential code
-        runThreadSequentialVersion(policy, threads, numDevices, timer, totalTimers);
-
-        // Run all task schedules in parallel
-        runParallelTaskGraphs(numDevices, threads, timer, policy, totalTimers);
-
-        // FORK
-        for (int i = 0; i < numThreads; i++) {
-            threads[i].start();
+        List<Callable<Integer>> runners = new ArrayList<>(numThreads);
+        for (int i = 0; i < numDevices; i++) {
+            runners.add(createDeviceRunner(i, timer, policy, totalTimers));
         }
+        runners.add(createSequentialRunner(policy, numDevices, timer, totalTimers));
 
-        // Define the winner, based on the first thread to finish
-        if (policy == Policy.LATENCY) {
-            Tuple2 tuple = syncWinner(threads);
-            int deviceWinnerIndex = tuple.threadWinnerIndex;
-            tuple.join.start();
-            policyTimeTable.put(Policy.LATENCY, deviceWinnerIndex);
-        } else {
-            // JOIN for the PERFORMANCE and END_TO_END policies.
-            for (Thread t : threads) {
-                try {
-                    t.join();
-                } catch (InterruptedException e) {
-                    throw new TornadoDynamicReconfigurationException(e);
-                }
+        ExecutorService executorService = Executors.newFixedThreadPool(numThreads, CancellableThread::new);
+        try {
+            if (policy == Policy.LATENCY) {
+                // The winner is the first runner to finish
+                int deviceWinnerIndex = raceForLatency(executorService, runners);
+                policyTimeTable.put(Policy.LATENCY, deviceWinnerIndex);
+            } else {
+                // JOIN for the PERFORMANCE and END_TO_END policies.
+                runAllRunners(executorService, runners, totalTimers);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TornadoDynamicReconfigurationException(e);
+        } finally {
+            executorService.shutdownNow();
         }
 
-        if ((policy == Policy.PERFORMANCE || policy == Policy.END_2_END) && (masterThreadID == Thread.currentThread().getId())) {
+        if (policy == Policy.PERFORMANCE || policy == Policy.END_2_END) {
             int deviceWinnerIndex = synchronizeWithPolicy(policy, totalTimers);
             policyTimeTable.put(policy, deviceWinnerIndex);
+            recordTimersInCostModel(policy, numDevices, totalTimers);
             if (TornadoOptions.DEBUG) {
                 System.out.println(getListDevices());
                 System.out.println("BEST Position: #" + deviceWinnerIndex + " " + Arrays.toString(totalTimers));
@@ -1851,12 +1942,14 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private TornadoTaskGraphInterface scheduleDynamicReconfigurationParallel(Policy policy) {
-        if (policyTimeTable.get(policy) == null) {
+        int numDevices = TornadoRuntimeProvider.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX).getNumDevices();
+        boolean explore = exploreDevices(policy);
+        if (policyTimeTable.get(policy) == null && (explore || !selectDeviceWithCostModel(policy, numDevices))) {
             runScheduleWithParallelProfiler(policy);
         } else {
             // Run with the winner device
             int deviceWinnerIndex = policyTimeTable.get(policy);
-            if (deviceWinnerIndex >= TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getNumDevices()) {
+            if (deviceWinnerIndex >= numDevices) {
                 runSequential();
             } else {
                 runTaskGraphParallelSelected(deviceWinnerIndex);
@@ -1983,41 +2076,94 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
-    private void updateHistoryTables(Policy policy, int deviceWinnerIndex) {
-        // Matching the name
-        for (TaskPackage taskPackage : taskPackages) {
-            Object code = taskPackage.getTaskParameters()[0];
-            Method m = TaskUtils.resolveMethodHandle(code);
-            ConcurrentHashMap<String, HistoryTable> tableSizes = null;
-
-            int dev = baseGlobalIndex + deviceWinnerIndex;
+    private List<String> getCostModelDevices(int numDevices) {
+        List<String> devices = new ArrayList<>();
+        for (int i = 0; i < numDevices; i++) {
+            devices.add(i + ":" + TornadoRuntimeProvider.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX).getDevice(i).getPhysicalDevice().getDeviceName());
+        }
+        // The last index is the sequential execution
+        devices.add("JVM");
+        return devices;
+    }
 
-            if (!executionHistoryPolicy.containsKey(policy)) {
-                tableSizes = new ConcurrentHashMap<>();
-                HistoryTable table = new HistoryTable();
-                int size = getMaxInputSize();
-                table.getTree().put(size, dev);
+    private String getCostModelMethods() {
+        StringBuilder methods = new StringBuilder();
+        for (TaskPackage taskPackage : taskPackages) {
+            Method method = TaskUtils.resolveMethodHandle(taskPackage.getTaskParameters()[0]);
+            methods.append(methods.isEmpty() ? "" : ";").append(method.toGenericString());
+        }
+        return methods.toString();
+    }
 
-                tableSizes.put(m.toGenericString(), table);
+    private static long getArraySizeInBytes(Object object) {
+        if (object instanceof TornadoNativeArray nativeArray) {
+            return nativeArray.getNumBytesOfSegment();
+        } else if (object != null && object.getClass().isArray() && object.getClass().getComponentType().isPrimitive()) {
+            Class<?> type = object.getClass().getComponentType();
+            int elementSize = (type == long.class || type == double.class) ? 8 : (type == int.class || type == float.class) ? 4 : (type == short.class || type == char.class) ? 2 : 1;
+            return (long) Array.getLength(object) * elementSize;
+        }
+        return 0;
+    }
 
-            } else {
-                tableSizes = executionHistoryPolicy.get(policy);
-                if (!tableSizes.containsKey(m.toGenericString())) {
-                    HistoryTable table = new HistoryTable();
-                    int size = getMaxInputSize();
-                    table.getTree().put(size, dev);
-                    tableSizes.put(m.toGenericString(), table);
-                } else {
-                    // update the size
-                    HistoryTable table = tableSizes.get(m.toGenericString());
-                    int size = getMaxInputSize();
-                    table.getTree().put(size, dev);
-                    tableSizes.put(m.toGenericString(), table);
+    /**
+     * It obtains the size of the data accessed by the tasks, counting each
+     * array once.
+     *
+     * @return size in bytes of all the array parameters.
+     */
+    private long getDataSizeInBytes() {
+        Set<Object> arrays = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (TaskPackage taskPackage : taskPackages) {
+            Object[] parameters = taskPackage.getTaskParameters();
+            for (int i = 1; i < parameters.length; i++) {
+                if (arrays.add(parameters[i])) {
+                    bytes += getArraySizeInBytes(parameters[i]);
                 }
             }
-            executionHistoryPolicy.put(policy, tableSizes);
-            baseGlobalIndex = offsetGlobalIndex.get();
         }
+        return bytes;
+    }
+
+    /**
+     * Selects the device with the cost model of the previous executions, instead of
+     * racing all the devices.
+     *
+     * @return true if the model had enough observations to select a device.
+     */
+    private boolean selectDeviceWithCostModel(Policy policy, int numDevices) {
+        int deviceWinnerIndex = DeviceCostModel.getInstance().selectDevice(policy, getCostModelMethods(), getCostModelDevices(numDevices), getDataSizeInBytes());
+        if (deviceWinnerIndex == -1) {
+            return false;
+        }
+        if (TornadoOptions.DEBUG) {
+            System.out.println("Device selected by the cost model: #" + deviceWinnerIndex);
+        }
+        policyTimeTable.put(policy, deviceWinnerIndex);
+        return true;
+    }
+
+    /**
+     * Discards the selected device from time to time, so the devices are raced
+     * again and the cost model keeps recording observations.
+     *
+     * @return true if the devices have to be raced in this execution.
+     */
+    private boolean exploreDevices(Policy policy) {
+        if (policyTimeTable.get(policy) != null && DeviceCostModel.getInstance().isExplorationRun(policy, getCostModelMethods())) {
+            policyTimeTable.remove(policy);
+            return true;
+        }
+        return false;
+    }
+
+    private void recordTimersInCostModel(Policy policy, int numDevices, long[] totalTimers) {
+        long[] timesInNanoseconds = new long[totalTimers.length];
+        for (int i = 0; i < totalTimers.length; i++) {
+            timesInNanoseconds[i] = (TIME_IN_NANOSECONDS || totalTimers[i] == Long.MAX_VALUE) ? totalTimers[i] : totalTimers[i] * 1_000_000;
+        }
+        DeviceCostModel.getInstance().record(policy, getCostModelMethods(), getCostModelDevices(numDevices), getDataSizeInBytes(), timesInNanoseconds);
     }
 
     private String getListDevices() {
@@ -2055,7 +2201,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             int deviceWinnerIndex = synchronizeWithPolicy(policy, totalTimers);
             policyTimeTable.put(policy, deviceWinnerIndex);
 
-            updateHistoryTables(policy, deviceWinnerIndex);
+            recordTimersInCostModel(policy, numDevices, totalTimers);
 
             if (TornadoOptions.DEBUG) {
                 System.out.println(getListDevices());
@@ -2088,26 +2234,6 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
-    /**
-     * It obtains the maximum input size for an input task.
-     *
-     * @return max size of all input arrays.
-     */
-    private int getMaxInputSize() {
-        Object[] parameters = taskPackages.getFirst().getTaskParameters();
-        int size = 0;
-        for (int i = 1; i < parameters.length; i++) {
-            Object o = parameters[i];
-            if (o.getClass().isArray()) {
-                int currentSize = Array.getLength(o);
-                size = Math.max(currentSize, size);
-            } else {
-                size = Math.max(1, size);
-            }
-        }
-        return size;
-    }
-
     private TornadoTaskGraphInterface scheduleDynamicReconfigurationSequential(Policy policy) {
 
         if (policy == Policy.LATENCY) {
@@ -2118,8 +2244,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
 
         int numDevices = TornadoRuntimeProvider.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX).getNumDevices();
+        boolean explore = exploreDevices(policy);
 
-        if (policyTimeTable.get(policy) == null) {
+        if (policyTimeTable.get(policy) == null && (explore || !selectDeviceWithCostModel(policy, numDevices))) {
             runWithSequentialProfiler(policy);
 
             if (EXPERIMENTAL_MULTI_HOST_HEAP) {
@@ -2332,6 +2459,29 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     public void withBatch(String batchSize) {
         this.batchSizeBytes = parseSizeToBytes(batchSize);
         executionContext.setBatchSize(this.batchSizeBytes);
+        executionContext.setBatchPipelined(false);
+    }
+
+    /**
+     * Restricts the execution of the task-graph to a slice of the iteration
+     * space, processed as a single batch. This is used to co-execute a task-graph
+     * across several devices.
+     *
+     * @param offset
+     *     Offset of the slice in bytes.
+     * @param size
+     *     Size of the slice in bytes.
+     */
+    void withSlice(long offset, long size) {
+        executionContext.setBatchSize(size);
+        executionContext.setBatchOffset(offset);
+        executionContext.setBatchPipelined(false);
+    }
+
+    @Override
+    public void withPipelinedBatch(String batchSize) {
+        withBatch(batchSize);
+        executionContext.setBatchPipelined(true);
     }
 
     @Override
@@ -2458,6 +2608,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return bufferLogProfiler.toString();
     }
 
+    @Override
+    public LatencyHistograms getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
     @Override
     public long getTotalBytesCopyIn() {
         return getProfilerValue(TOTAL_COPY_IN_SIZE_BYTES);
@@ -2505,36 +2660,4 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             this.updateDevice = updateDevice;
         }
     }
-
-    /**
-     * Class that keeps the history of executions based on their data sizes. It has a sorted map (TreeMap) that keeps the relationship between the input size and the actual Tornado device in which the
-     * task was executed based on the profiler for the dynamic reconfiguration.
-     */
-    private static class HistoryTable {
-        /**
-         * TreeMap between input size -> device index.
-         */
-        private TreeMap<Integer, Integer> table = new TreeMap<>();
-
-        private int getClosestKey(int goal) {
-            Set<Integer> keySet = table.keySet();
-            return keySet.stream().reduce((prev, current) -> Math.abs(current - goal) < Math.abs(prev - goal) ? current : prev).get();
-        }
-
-        private TreeMap<Integer, Integer> getTree() {
-            return table;
-        }
-
-        private int getNumKeys() {
-            return table.keySet().size();
-        }
-
-        private int getDeviceNumber(int key) {
-            return table.get(key);
-        }
-
-        private boolean isKeyInTable(int key) {
-            return table.containsKey(key);
-        }
-    }
 }
@@ -1,6 +1,7 @@
 open module tornado.unittests {
     requires transitive junit;
     requires transitive tornado.api;
+    requires tornado.runtime;
     requires lucene.core;
     requires java.desktop;
     requires jdk.incubator.vector;
@@ -13,6 +14,7 @@ open module tornado.unittests {
     exports uk.ac.manchester.tornado.unittests.batches;
     exports uk.ac.manchester.tornado.unittests.bitsets;
     exports uk.ac.manchester.tornado.unittests.branching;
+    exports uk.ac.manchester.tornado.unittests.coexecution;
     exports uk.ac.manchester.tornado.unittests.common;
     exports uk.ac.manchester.tornado.unittests.dynamic;
     exports uk.ac.manchester.tornado.unittests.fields;
@@ -37,5 +39,6 @@ open module tornado.unittests {
     exports uk.ac.manchester.tornado.unittests.tools;
     exports uk.ac.manchester.tornado.unittests.vectortypes;
     exports uk.ac.manchester.tornado.unittests.virtualization;
+    exports uk.ac.manchester.tornado.unittests.vm;
     exports uk.ac.manchester.tornado.unittests.memory.leak;
 }
@@ -19,6 +19,7 @@
 package uk.ac.manchester.tornado.unittests.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 import java.lang.foreign.Arena;
@@ -44,6 +45,7 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 
@@ -505,5 +507,92 @@ public class TestAPI extends TornadoTestBase {
         IntArray intArray = IntArray.fromSegment(m);
     }
 
+    @Test
+    public void testBulkCopyRange() {
+        final int numElements = 1024;
+        float[] heapArray = new float[numElements];
+        for (int i = 0; i < numElements; i++) {
+            heapArray[i] = i;
+        }
+        FloatArray floatArray = new FloatArray(numElements);
+        floatArray.init(-1.0f);
+
+        // Copy the second half of the heap array into the first half of the native array
+        floatArray.copyFrom(heapArray, numElements / 2, 0, numElements / 2);
+        for (int i = 0; i < numElements; i++) {
+            float expected = i < numElements / 2 ? i + numElements / 2 : -1.0f;
+            assertEquals(expected, floatArray.get(i), 0.0f);
+        }
+
+        float[] output = new float[8];
+        floatArray.copyTo(10, output, 2, 4);
+        for (int i = 0; i < output.length; i++) {
+            float expected = (i >= 2 && i < 6) ? (10 + i - 2) + numElements / 2 : 0.0f;
+            assertEquals(expected, output[i], 0.0f);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBulkCopyOutOfBounds() {
+        IntArray intArray = new IntArray(16);
+        intArray.copyFrom(new int[32], 0, 8, 16);
+    }
+
+    @Test
+    public void testHalfFloatConversion() {
+        float[] values = new float[] { 0.0f, 1.5f, -2.25f, 1024.0f };
+        HalfFloatArray halfFloatArray = HalfFloatArray.fromFloatArray(values);
+        float[] output = halfFloatArray.toFloatArray();
+        short[] shortValues = halfFloatArray.toShortArray();
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], halfFloatArray.get(i).getFloat32(), 0.0f);
+            assertEquals(values[i], output[i], 0.0f);
+            assertEquals(Float.floatToFloat16(values[i]), shortValues[i]);
+        }
+    }
+
+    @Test
+    public void testArrayAlignment() {
+        TornadoNativeArray[] arrays = new TornadoNativeArray[] { new ByteArray(3), new IntArray(5), new FloatArray(7), new DoubleArray(9) };
+        for (TornadoNativeArray array : arrays) {
+            assertEquals(0, array.getSegmentWithHeader().address() % TornadoNativeArray.ARRAY_ALIGNMENT);
+        }
+    }
+
+    @Test
+    public void testArenaAllocation() throws TornadoExecutionPlanException {
+        final int N = 1024;
+        Arena arena = Arena.ofShared();
+        IntArray data = IntArray.allocate(arena, N);
+        data.init(20);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestArrays::addAccumulator, data, 1) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withArena(arena).execute();
+            for (int i = 0; i < N; i++) {
+                assertEquals(21, data.get(i));
+            }
+        }
+
+        // Closing the plan releases the device buffers and the host memory of the arena
+        assertFalse(arena.scope().isAlive());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testArenaClosed() {
+        FloatArray floatArray;
+        try (Arena arena = Arena.ofConfined()) {
+            floatArray = FloatArray.allocate(arena, 16);
+            floatArray.init(1.0f);
+            assertEquals(1.0f, floatArray.get(15), 0.0f);
+        }
+        floatArray.get(0);
+    }
+
     // CHECKSTYLE:ON
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * How to run?
+ *
+ * <p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestMappedArrays
+ * </code>
+ * </p>
+ */
+public class TestMappedArrays extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static final int SIZE = 1024;
+    private static final int OFFSET = 64;
+
+    private static Path createFloatFile(int size) throws IOException {
+        return createFloatFile(size, OFFSET);
+    }
+
+    private static Path createFloatFile(int size, int offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(offset + size * Float.BYTES).order(ByteOrder.nativeOrder());
+        buffer.position(offset);
+        for (int i = 0; i < size; i++) {
+            buffer.putFloat(i);
+        }
+        Path path = Files.createTempFile("tornado-mapped", ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    private static float readFloat(Path path, int index) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.nativeOrder()).getFloat(OFFSET + index * Float.BYTES);
+    }
+
+    private static void scale(FloatArray data) {
+        for (@Parallel int i = 0; i < data.getSize(); i++) {
+            data.set(i, data.get(i) * 2.0f);
+        }
+    }
+
+    private static void copyAndScale(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+        }
+    }
+
+    @Test
+    public void testMapFilePrivate() throws IOException, TornadoExecutionPlanException {
+        Path path = createFloatFile(SIZE);
+        FloatArray data = TornadoNativeArray.mapFile(FloatArray.class, path, OFFSET, SIZE, FileChannel.MapMode.PRIVATE);
+        assertEquals(SIZE, data.getSize());
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestMappedArrays::scale, data) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i * 2.0f, data.get(i), 0.0f);
+            // Private mappings are copy-on-write: the file keeps its contents
+            assertEquals(i, readFloat(path, i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testMapFileReadWrite() throws IOException, TornadoExecutionPlanException {
+        Path path = createFloatFile(SIZE);
+        FloatArray data = TornadoNativeArray.mapFile(FloatArray.class, path, OFFSET, SIZE, FileChannel.MapMode.READ_WRITE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestMappedArrays::scale, data) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i * 2.0f, data.get(i), 0.0f);
+            assertEquals(i * 2.0f, readFloat(path, i), 0.0f);
+        }
+        // The header is not stored in the file
+        byte[] bytes = Files.readAllBytes(path);
+        for (int i = 0; i < OFFSET; i++) {
+            assertEquals(0, bytes[i]);
+        }
+    }
+
+    @Test
+    public void testMapFileAtOffsetZero() throws IOException, TornadoExecutionPlanException {
+        Path path = createFloatFile(SIZE, 0);
+        FloatArray data = TornadoNativeArray.mapFile(FloatArray.class, path, 0, SIZE, FileChannel.MapMode.PRIVATE);
+        assertTrue(data.isHeaderDetached());
+        assertEquals(SIZE, data.getHeaderSegment().get(ValueLayout.JAVA_INT, 0));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestMappedArrays::scale, data) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i * 2.0f, data.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testMapFileReadOnly() throws IOException, TornadoExecutionPlanException {
+        Path path = createFloatFile(SIZE);
+        FloatArray data = TornadoNativeArray.mapFile(FloatArray.class, path, OFFSET, SIZE, FileChannel.MapMode.READ_ONLY);
+        FloatArray output = new FloatArray(SIZE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestMappedArrays::copyAndScale, data, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i * 2.0f, output.get(i), 0.0f);
+            assertEquals(i, data.get(i), 0.0f);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMapFileReadOnlySet() throws IOException {
+        Path path = createFloatFile(SIZE);
+        FloatArray data = TornadoNativeArray.mapFile(FloatArray.class, path, OFFSET, SIZE, FileChannel.MapMode.READ_ONLY);
+        data.set(0, 100.0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMapFileUnalignedOffset() throws IOException {
+        Path path = createFloatFile(SIZE);
+        TornadoNativeArray.mapFile(FloatArray.class, path, OFFSET + 1, SIZE, FileChannel.MapMode.PRIVATE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMapFileOutOfBounds() throws IOException {
+        Path path = createFloatFile(SIZE);
+        TornadoNativeArray.mapFile(IntArray.class, path, OFFSET, SIZE + 1, FileChannel.MapMode.PRIVATE);
+    }
+    // CHECKSTYLE:ON
+}
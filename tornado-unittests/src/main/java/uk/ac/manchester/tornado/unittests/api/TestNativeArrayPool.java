@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.NativeArrayPool;
+import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * How to run?
+ *
+ * <p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestNativeArrayPool
+ * </code>
+ * </p>
+ */
+public class TestNativeArrayPool extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static final int SIZE = 1024;
+
+    @Test
+    public void testBorrowClearedArray() {
+        NativeArrayPool pool = new NativeArrayPool(1024 * 1024);
+        FloatArray array = pool.borrow(FloatArray.class, SIZE);
+        array.init(10.0f);
+        pool.release(array);
+
+        FloatArray reused = pool.borrow(FloatArray.class, SIZE);
+        assertSame(array, reused);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(0.0f, reused.get(i), 0.0f);
+        }
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void testKeyedByTypeAndSize() {
+        NativeArrayPool pool = new NativeArrayPool(1024 * 1024);
+        FloatArray array = pool.borrow(FloatArray.class, SIZE);
+        pool.release(array);
+
+        assertNotSame(array, pool.borrow(FloatArray.class, SIZE * 2));
+        assertEquals(SIZE, pool.borrow(IntArray.class, SIZE).getSize());
+        assertEquals(1, pool.getNumberOfPooledArrays());
+    }
+
+    @Test
+    public void testEviction() {
+        FloatArray first = new FloatArray(SIZE);
+        FloatArray second = new FloatArray(SIZE);
+        NativeArrayPool pool = new NativeArrayPool(first.getNumBytesOfSegmentWithHeader());
+        pool.release(first);
+        pool.release(second);
+
+        // Only the most recently released array fits in the pool
+        assertEquals(1, pool.getNumberOfPooledArrays());
+        assertEquals(second.getNumBytesOfSegmentWithHeader(), pool.getPooledBytes());
+        assertSame(second, pool.borrow(FloatArray.class, SIZE));
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease() {
+        NativeArrayPool pool = new NativeArrayPool(1024 * 1024);
+        IntArray array = pool.borrow(IntArray.class, SIZE);
+        pool.release(array);
+        pool.release(array);
+    }
+
+    @Test
+    public void testPooledArraysInExecutionPlan() throws TornadoExecutionPlanException {
+        NativeArrayPool pool = new NativeArrayPool(1024 * 1024);
+        for (int request = 0; request < 4; request++) {
+            IntArray data = pool.borrow(IntArray.class, SIZE);
+            data.init(request);
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, data) //
+                    .task("t0", TestArrays::addAccumulator, data, 1) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+            }
+
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(request + 1, data.get(i));
+            }
+            pool.release(data);
+        }
+        assertEquals(3, pool.getHits());
+    }
+    // CHECKSTYLE:ON
+}
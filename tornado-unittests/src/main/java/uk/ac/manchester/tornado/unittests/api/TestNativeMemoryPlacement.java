@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests the alignment and the placement hints (huge pages and NUMA binding) of
+ * the memory of the native arrays. The hints are best effort: when the system
+ * calls fail, the arrays are still allocated and usable.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.panama.alignment=2MB -Dtornado.panama.numaNode=1023" uk.ac.manchester.tornado.unittests.api.TestNativeMemoryPlacement
+ * </code>
+ */
+public class TestNativeMemoryPlacement extends TornadoTestBase {
+
+    private static final int SIZE = 1024 * 1024;
+
+    /**
+     * NUMA node that does not exist in the system, so {@code mbind} fails.
+     */
+    private static final int MISSING_NUMA_NODE = 1023;
+
+    @Test
+    public void testAlignmentOfArrays() {
+        TornadoNativeArray[] arrays = new TornadoNativeArray[] { new ByteArray(3), new IntArray(SIZE), new FloatArray(7), new DoubleArray(SIZE + 1) };
+        for (TornadoNativeArray array : arrays) {
+            assertEquals(0, array.getSegmentWithHeader().address() % TornadoNativeArray.ARRAY_ALIGNMENT);
+        }
+    }
+
+    @Test
+    public void testAllocationWithPlacementHints() {
+        // With -Dtornado.panama.alignment=2MB, the allocation advises huge pages,
+        // and with -Dtornado.panama.numaNode, it binds the pages to the node
+        FloatArray array = new FloatArray(SIZE);
+        array.init(2.0f);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(2.0f, array.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testBindToNumaNode() {
+        FloatArray array = new FloatArray(SIZE);
+        array.init(3.0f);
+
+        // Node 0 exists on Linux machines, but the system call may not be allowed
+        array.bindToNumaNode(0);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(3.0f, array.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testBindToMissingNumaNode() {
+        FloatArray array = new FloatArray(SIZE);
+        array.init(4.0f);
+
+        assertFalse(array.bindToNumaNode(MISSING_NUMA_NODE));
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(4.0f, array.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testBindSmallArray() {
+        // The array does not span a whole page, so the memory of other allocations is not bound
+        IntArray array = new IntArray(4);
+        assertFalse(array.bindToNumaNode(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBindToInvalidNumaNode() {
+        new IntArray(SIZE).bindToNumaNode(-1);
+    }
+
+    @Test
+    public void testExecutionWithPlacementHints() throws TornadoExecutionPlanException {
+        IntArray data = new IntArray(SIZE);
+        data.init(20);
+        data.bindToNumaNode(MISSING_NUMA_NODE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestArrays::addAccumulator, data, 1) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(21, data.get(i));
+        }
+    }
+}
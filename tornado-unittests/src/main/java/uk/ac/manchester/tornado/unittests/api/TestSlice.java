@@ -203,4 +203,11 @@ public class TestSlice extends TornadoTestBase {
 
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testSliceOutOfBoundsOverflow() {
+        FloatArray a = new FloatArray(numElements);
+        // offset + length overflows an int
+        a.slice(16, Integer.MAX_VALUE);
+    }
+
 }
@@ -32,6 +32,7 @@ import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoExecutionResult;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
@@ -935,6 +936,100 @@ public class TestBatches extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testPipelinedBatch() throws TornadoExecutionPlanException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        // Allocate ~ 64MB per array
+        int size = 1024 * 1024 * 16;
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+        FloatArray arrayC = new FloatArray(size);
+
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> {
+            arrayA.set(idx, idx);
+            arrayB.set(idx, idx);
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, arrayA, arrayB) //
+                .task("t0", TestBatches::compute, arrayA, arrayB, arrayC) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayC);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            // Batches of 10MB, with the last one smaller
+            executionPlan.withPipelinedBatch("10MB").execute();
+
+            for (int i = 0; i < arrayA.getSize(); i++) {
+                assertEquals(arrayA.get(i) + arrayB.get(i), arrayC.get(i), 0.1f);
+            }
+
+            // Second execution reuses the compiled kernels and the buffers
+            arrayB.init(1.0f);
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < arrayA.getSize(); i++) {
+            assertEquals(arrayA.get(i) + 1.0f, arrayC.get(i), 0.1f);
+        }
+    }
+
+    @Test
+    public void testPipelinedBatchMultipleTasks() throws TornadoExecutionPlanException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        // Allocate ~ 64MB
+        FloatArray array = new FloatArray(1024 * 1024 * 16);
+        FloatArray array2 = new FloatArray(1024 * 1024 * 16);
+        array.init(1.0f);
+        array2.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, array) //
+                .task("t1", TestBatches::compute2, array) //
+                .task("t2", TestBatches::compute2, array) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, array);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withPipelinedBatch("8MB") // Batches of 8MB
+                    .execute();
+        }
+
+        for (int i = 0; i < array.getSize(); i++) {
+            assertEquals(array2.get(i) * 4, array.get(i), 0.01f);
+        }
+    }
+
+    @Test
+    public void testPipelinedBatchUsesSeveralSlots() throws TornadoExecutionPlanException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        // Allocate ~ 64MB
+        FloatArray array = new FloatArray(1024 * 1024 * 16);
+        array.init(1.0f);
+        final long batchSize = 8 * 1024 * 1024;
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, array) //
+                .task("t0", TestBatches::compute2, array) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, array);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            TornadoExecutionResult tornadoExecutionResult = executionPlan.withPipelinedBatch("8MB") // Batches of 8MB
+                    .withProfiler(ProfilerMode.SILENT) //
+                    .execute();
+
+            // Each batch allocates the buffers of its own slot. If the allocations
+            // were merged across batches, only the first slot would be used.
+            long allocatedBytes = tornadoExecutionResult.getProfilerResult().getTotalDeviceMemoryUsage();
+            Assert.assertTrue("Only one batch slot was allocated: " + allocatedBytes + " bytes", allocatedBytes >= 2 * batchSize);
+        }
+
+        for (int i = 0; i < array.getSize(); i++) {
+            assertEquals(2.0f, array.get(i), 0.01f);
+        }
+    }
+
     private long checkMaxHeapAllocationOnDevice(int size, MemoryUnit memoryUnit) throws UnsupportedConfigurationException {
         long maxAllocMemory = getTornadoRuntime().getDefaultDevice().getDeviceContext().getMemoryManager().getHeapSize();
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.coexecution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.CoExecution;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.common.TornadoVMMultiDeviceNotSupported;
+
+/**
+ * How to run?
+ * <p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.coexecution.TestCoExecution
+ * </code>
+ * </p>
+ */
+public class TestCoExecution extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 100_000;
+
+    public static void vectorAdd(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    /**
+     * Runs the co-execution and checks the results.
+     *
+     * @return The split of each iteration.
+     */
+    private static List<int[]> runAndCheck(CoExecution coExecution, int iterations) throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        b.init(2.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, b) //
+                .task("t0", TestCoExecution::vectorAdd, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        List<int[]> splits = new ArrayList<>();
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withCoExecution(coExecution);
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    a.set(i, i + iteration);
+                }
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(i + iteration + 2.0f, c.get(i), 0.01f);
+                }
+                splits.add(coExecution.getSplit());
+            }
+        }
+        return splits;
+    }
+
+    @Test
+    public void testCoExecutionStaticSplit() throws TornadoExecutionPlanException {
+        CoExecution coExecution = new CoExecution() //
+                .addDevice(TornadoExecutionPlan.DEFAULT_DEVICE, 3) //
+                .addJVM(1) //
+                .withStaticSplit();
+        runAndCheck(coExecution, 5);
+    }
+
+    @Test
+    public void testCoExecutionAdaptiveSplit() throws TornadoExecutionPlanException {
+        CoExecution coExecution = new CoExecution() //
+                .addDevice(TornadoExecutionPlan.DEFAULT_DEVICE) //
+                .addJVM();
+        runAndCheck(coExecution, 10);
+    }
+
+    @Test
+    public void testCoExecutionAdaptiveSplitConverges() throws TornadoExecutionPlanException {
+        CoExecution coExecution = new CoExecution() //
+                .addDevice(TornadoExecutionPlan.DEFAULT_DEVICE) //
+                .addJVM();
+        final int iterations = 40;
+        List<int[]> splits = runAndCheck(coExecution, iterations);
+
+        int resplits = 0;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            int[] split = splits.get(iteration);
+            assertEquals(NUM_ELEMENTS, Arrays.stream(split).sum());
+            // Each device keeps a share of the iteration space
+            for (int length : split) {
+                assertTrue(length > 0);
+            }
+            if (iteration >= iterations / 2 && !Arrays.equals(split, splits.get(iteration - 1))) {
+                resplits++;
+            }
+        }
+        // Once the throughputs are learned, the split only changes for large imbalances
+        assertTrue("The split did not converge: " + resplits + " resplits", resplits < iterations / 4);
+    }
+
+    @Test
+    public void testCoExecutionJVM() throws TornadoExecutionPlanException {
+        runAndCheck(new CoExecution().addJVM(), 3);
+    }
+
+    @Test
+    public void testCoExecutionMultipleDevices() throws TornadoExecutionPlanException {
+        if (TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getNumDevices() < 2) {
+            throw new TornadoVMMultiDeviceNotSupported("This test needs at least 2 devices enabled");
+        }
+        CoExecution coExecution = new CoExecution() //
+                .addDevice(TornadoExecutionPlan.getDevice(0, 0)) //
+                .addDevice(TornadoExecutionPlan.getDevice(0, 1)) //
+                .addJVM(0.5);
+        runAndCheck(coExecution, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCoExecutionDuplicatedDevice() {
+        new CoExecution().addDevice(TornadoExecutionPlan.DEFAULT_DEVICE).addDevice(TornadoExecutionPlan.DEFAULT_DEVICE);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.compiler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the persistent kernel cache. The last test needs the cache to be
+ * enabled.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.kernel.cache.dir=/tmp/tornado-kernel-cache" uk.ac.manchester.tornado.unittests.compiler.TestPersistentKernelCache
+ * </code>
+ */
+public class TestPersistentKernelCache extends TornadoTestBase {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final String KERNEL_TYPE = "Luk/ac/manchester/tornado/unittests/compiler/Kernel;";
+
+    private Path cacheDirectory;
+
+    @Before
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("tornado-kernel-cache");
+    }
+
+    @After
+    public void deleteCacheDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testStoreLoadRoundTrip() {
+        byte[] code = "__kernel void add(__global uchar *_heap_base) { }".getBytes(StandardCharsets.UTF_8);
+        DomainTree domain = new DomainTree(2);
+        domain.set(0, new IntDomain(0, 1, 1024));
+        domain.set(1, new IntDomain(2, 4, 256));
+
+        PersistentKernelCache.store(cacheDirectory, KEY, code, domain);
+        PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(cacheDirectory, KEY);
+
+        assertNotNull(cachedKernel);
+        assertArrayEquals(code, cachedKernel.code());
+        assertEquals(2, cachedKernel.domain().getDepth());
+        for (int i = 0; i < domain.getDepth(); i++) {
+            IntDomain expected = (IntDomain) domain.get(i);
+            IntDomain loaded = (IntDomain) cachedKernel.domain().get(i);
+            assertEquals(expected.getOffset(), loaded.getOffset());
+            assertEquals(expected.getStep(), loaded.getStep());
+            assertEquals(expected.cardinality(), loaded.cardinality());
+        }
+    }
+
+    @Test
+    public void testStoreLoadWithoutDomain() {
+        byte[] code = { 0x03, 0x02, 0x23, 0x07 };
+
+        PersistentKernelCache.store(cacheDirectory, KEY, code, null);
+        PersistentKernelCache.CachedKernel cachedKernel = PersistentKernelCache.load(cacheDirectory, KEY);
+
+        assertNotNull(cachedKernel);
+        assertArrayEquals(code, cachedKernel.code());
+        assertNull(cachedKernel.domain());
+    }
+
+    @Test
+    public void testMissingOrCorruptKernel() throws IOException {
+        assertNull(PersistentKernelCache.load(cacheDirectory, KEY));
+
+        Path path = cacheDirectory.resolve(KEY.substring(0, 2)).resolve(KEY + ".kernel");
+        Files.createDirectories(path.getParent());
+        Files.write(path, "not a kernel".getBytes(StandardCharsets.UTF_8));
+        assertNull(PersistentKernelCache.load(cacheDirectory, KEY));
+    }
+
+    @Test
+    public void testChangedKernelSourceInvalidatesKey() {
+        byte[] digest = PersistentKernelCache.getClassFileDigest(new ClassFileLoader("return a + b;"), KERNEL_TYPE);
+        byte[] sameDigest = PersistentKernelCache.getClassFileDigest(new ClassFileLoader("return a + b;"), KERNEL_TYPE);
+        byte[] changedDigest = PersistentKernelCache.getClassFileDigest(new ClassFileLoader("return a * b;"), KERNEL_TYPE);
+
+        assertNotNull(digest);
+        assertArrayEquals(digest, sameDigest);
+        assertFalse(Arrays.equals(digest, changedDigest));
+    }
+
+    @Test
+    public void testClassFileOfTheTaskLoader() {
+        // Classes of the application are read through their own class loader
+        String typeName = "L" + TestPersistentKernelCache.class.getName().replace('.', '/') + ";";
+        assertNotNull(PersistentKernelCache.getClassFileDigest(TestPersistentKernelCache.class.getClassLoader(), typeName));
+        assertNull(PersistentKernelCache.getClassFileDigest(new ClassFileLoader("return a + b;"), "Lnot/a/Kernel;"));
+    }
+
+    public static void add(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    /**
+     * Two execution plans with the same task: the first one compiles and stores
+     * the kernel, and the second one loads it from the cache.
+     */
+    @Test
+    public void testKernelReusedAcrossExecutionPlans() throws TornadoExecutionPlanException, IOException {
+        if (!PersistentKernelCache.isEnabled()) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.kernel.cache.dir");
+        }
+        final int size = 1024;
+        IntArray a = new IntArray(size);
+        IntArray b = new IntArray(size);
+        a.init(10);
+        b.init(20);
+
+        for (String name : new String[] { "cacheStore", "cacheLoad" }) {
+            IntArray c = new IntArray(size);
+            ImmutableTaskGraph immutableTaskGraph = new TaskGraph(name) //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                    .task("t0", TestPersistentKernelCache::add, a, b, c) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, c) //
+                    .snapshot();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+            }
+            for (int i = 0; i < size; i++) {
+                assertEquals(30, c.get(i));
+            }
+        }
+
+        try (Stream<Path> paths = Files.walk(Paths.get(TornadoOptions.KERNEL_CACHE_DIRECTORY))) {
+            assertTrue(paths.anyMatch(path -> path.toString().endsWith(".kernel")));
+        }
+    }
+
+    /**
+     * Class loader that returns the given source as the class file of the
+     * kernel, so each instance acts as a different version of the class.
+     */
+    private static final class ClassFileLoader extends ClassLoader {
+        private final byte[] classFile;
+
+        private ClassFileLoader(String source) {
+            super(null);
+            this.classFile = source.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.equals(KERNEL_TYPE.substring(1, KERNEL_TYPE.length() - 1) + ".class")) {
+                return new ByteArrayInputStream(classFile);
+            }
+            return super.getResourceAsStream(name);
+        }
+    }
+}
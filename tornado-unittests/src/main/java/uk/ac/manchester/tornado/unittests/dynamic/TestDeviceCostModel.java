@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.dynamic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.DRMode;
+import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.tasks.DeviceCostModel;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the cost model used by the dynamic reconfiguration to select a device
+ * without racing all the devices. Most tests use a model without devices: they
+ * record times that follow a linear model and check the predictions. The last
+ * test runs two execution plans with a model file.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.dynamic.TestDeviceCostModel
+ * tornado-test -V --jvm="-Dtornado.dr.model.file=/tmp/tornado-dr-model.properties -Dtornado.dr.model.minObservations=1" uk.ac.manchester.tornado.unittests.dynamic.TestDeviceCostModel#testModelFileSelectsWithoutRacing
+ * </code>
+ */
+public class TestDeviceCostModel extends TornadoTestBase {
+
+    private static final String METHODS = "static void Test.compute(int[],int[])";
+
+    private static final List<String> DEVICES = List.of("device0", "device1");
+
+    private static final long[] SIZES = { 500, 1000, 3000 };
+
+    /**
+     * device0: 100 + 1.0 * bytes. device1: 1000 + 0.1 * bytes. The first one is
+     * faster for less than 1000 bytes.
+     */
+    private static long[] times(long bytes) {
+        return new long[] { 100 + bytes, 1000 + bytes / 10 };
+    }
+
+    private static void recordObservations(DeviceCostModel model, Policy policy, int numObservations) {
+        for (int i = 0; i < numObservations; i++) {
+            long bytes = SIZES[i % SIZES.length];
+            model.record(policy, METHODS, DEVICES, bytes, times(bytes));
+        }
+    }
+
+    private static int requiredObservations() {
+        return Math.max(TornadoOptions.DR_MODEL_MIN_OBSERVATIONS, SIZES.length);
+    }
+
+    @Test
+    public void testPredictLinearModel() {
+        DeviceCostModel model = new DeviceCostModel("");
+        recordObservations(model, Policy.END_2_END, requiredObservations());
+
+        assertEquals(0, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, 600));
+        assertEquals(1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, 1200));
+        assertEquals(1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, 3000));
+    }
+
+    @Test
+    public void testSameSizeObservations() {
+        DeviceCostModel model = new DeviceCostModel("");
+        for (int i = 0; i < TornadoOptions.DR_MODEL_MIN_OBSERVATIONS; i++) {
+            model.record(Policy.PERFORMANCE, METHODS, DEVICES, 2048, new long[] { 500 + i, 400 + i });
+        }
+        // The prediction is the mean time of each device
+        assertEquals(1, model.selectDevice(Policy.PERFORMANCE, METHODS, DEVICES, 2048));
+    }
+
+    @Test
+    public void testNotEnoughObservations() {
+        DeviceCostModel model = new DeviceCostModel("");
+        recordObservations(model, Policy.END_2_END, TornadoOptions.DR_MODEL_MIN_OBSERVATIONS - 1);
+        assertEquals(-1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, 2000));
+    }
+
+    @Test
+    public void testDevicesWithoutObservations() {
+        DeviceCostModel model = new DeviceCostModel("");
+        recordObservations(model, Policy.END_2_END, requiredObservations());
+
+        assertEquals(-1, model.selectDevice(Policy.END_2_END, METHODS, List.of("device0", "device1", "device2"), 2000));
+        assertEquals(-1, model.selectDevice(Policy.END_2_END, "static void Test.other(int[])", DEVICES, 2000));
+        assertEquals(-1, model.selectDevice(Policy.PERFORMANCE, METHODS, DEVICES, 2000));
+    }
+
+    @Test
+    public void testFailedRunnersAreNotRecorded() {
+        DeviceCostModel model = new DeviceCostModel("");
+        for (int i = 0; i < requiredObservations(); i++) {
+            model.record(Policy.END_2_END, METHODS, DEVICES, SIZES[i % SIZES.length], new long[] { 100, Long.MAX_VALUE });
+        }
+        assertEquals(-1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, 2000));
+    }
+
+    @Test
+    public void testLatencyUsesEnd2EndObservations() {
+        DeviceCostModel model = new DeviceCostModel("");
+        recordObservations(model, Policy.END_2_END, requiredObservations());
+        assertEquals(1, model.selectDevice(Policy.LATENCY, METHODS, DEVICES, 2000));
+    }
+
+    @Test
+    public void testCoversObservedSizes() {
+        DeviceCostModel model = new DeviceCostModel("");
+        recordObservations(model, Policy.END_2_END, requiredObservations());
+        long extrapolation = TornadoOptions.DR_MODEL_EXTRAPOLATION;
+
+        assertEquals(1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, SIZES[SIZES.length - 1] * extrapolation));
+        assertEquals(-1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, SIZES[SIZES.length - 1] * extrapolation + 1));
+        assertEquals(-1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, SIZES[0] / extrapolation - 1));
+    }
+
+    @Test
+    public void testExplorationRun() {
+        DeviceCostModel model = new DeviceCostModel("");
+        int interval = TornadoOptions.DR_MODEL_EXPLORATION_INTERVAL;
+        for (int i = 1; i <= 2 * Math.max(interval, 1); i++) {
+            assertEquals(interval > 0 && i % interval == 0, model.isExplorationRun(Policy.LATENCY, METHODS));
+        }
+    }
+
+    @Test
+    public void testPersistence() throws IOException {
+        Path file = Files.createTempFile("tornado-dr-model", ".properties");
+        try {
+            DeviceCostModel model = new DeviceCostModel(file.toString());
+            recordObservations(model, Policy.END_2_END, requiredObservations());
+
+            DeviceCostModel reloaded = new DeviceCostModel(file.toString());
+            assertEquals(0, reloaded.selectDevice(Policy.END_2_END, METHODS, DEVICES, 600));
+            assertEquals(1, reloaded.selectDevice(Policy.END_2_END, METHODS, DEVICES, 2000));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testCorruptFileIsIgnored() throws IOException {
+        Path file = Files.createTempFile("tornado-dr-model", ".properties");
+        try {
+            Files.writeString(file, "END_2_END|" + METHODS.replace(" ", "\\ ") + "|device0=3,not-a-number\nEND_2_END|truncated=1\n");
+            DeviceCostModel model = new DeviceCostModel(file.toString());
+            assertEquals(-1, model.selectDevice(Policy.END_2_END, METHODS, DEVICES, 2000));
+
+            // The model overwrites the corrupt file with its own observations
+            recordObservations(model, Policy.END_2_END, requiredObservations());
+            assertEquals(1, new DeviceCostModel(file.toString()).selectDevice(Policy.END_2_END, METHODS, DEVICES, 2000));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Properties readModelFile() throws IOException {
+        Properties properties = new Properties();
+        Path file = Path.of(TornadoOptions.DR_MODEL_FILE);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    private static void runWithDynamicReconfiguration(String name, IntArray a, IntArray b) throws TornadoExecutionPlanException {
+        TaskGraph taskGraph = new TaskGraph(name) //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestDynamic::compute, a, b) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withDynamicReconfiguration(Policy.END_2_END, DRMode.PARALLEL).execute();
+        }
+    }
+
+    /**
+     * The first plan races the devices (unless the model file already has
+     * enough observations) and persists the model. The second plan, with the
+     * same task and data size, selects the device with the model, so the file
+     * does not change.
+     */
+    @Test
+    public void testModelFileSelectsWithoutRacing() throws IOException, TornadoExecutionPlanException {
+        if (TornadoOptions.DR_MODEL_FILE.isEmpty() || TornadoOptions.DR_MODEL_MIN_OBSERVATIONS != 1) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.dr.model.file=FILE -Dtornado.dr.model.minObservations=1");
+        }
+        final int numElements = 4096;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        a.init(10);
+
+        runWithDynamicReconfiguration("model0", a, b);
+        Properties model = readModelFile();
+        assertFalse(model.isEmpty());
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(20, b.get(i));
+        }
+
+        b.init(0);
+        runWithDynamicReconfiguration("model1", a, b);
+        assertEquals(model, readModelFile());
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(20, b.get(i));
+        }
+        assertTrue(Files.exists(Path.of(TornadoOptions.DR_MODEL_FILE)));
+    }
+}
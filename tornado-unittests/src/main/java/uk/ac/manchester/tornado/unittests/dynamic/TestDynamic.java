@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.unittests.dynamic;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -32,6 +33,7 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
 
 /**
  * How to run?
@@ -61,6 +63,16 @@ public class TestDynamic extends TornadoTestBase {
         }
     }
 
+    public static void relax(FloatArray input, FloatArray output, int iterations) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            float value = input.get(i);
+            for (int j = 0; j < iterations; j++) {
+                value = value * 0.99f + 0.01f;
+            }
+            output.set(i, value);
+        }
+    }
+
     @Test
     public void testDynamicWithProfiler() {
         int numElements = 256;
@@ -248,4 +260,70 @@ public class TestDynamic extends TornadoTestBase {
             assertEquals(a.get(i) * 2, b.get(i));
         }
     }
+
+    /**
+     * The LATENCY policy returns as soon as the first runner finishes. The
+     * sequential runner takes much longer than the default device, so waiting
+     * for the runners that lost the race would make the first execution as slow
+     * as the sequential one.
+     */
+    @Test
+    public void testDynamicLatencyDoesNotWaitForLosers() throws TornadoExecutionPlanException {
+        final int numElements = 1024 * 1024;
+        final int iterations = 1000;
+        final int slices = 256;
+        FloatArray input = new FloatArray(numElements);
+        FloatArray output = new FloatArray(numElements);
+        input.init(2.0f);
+
+        // Estimate the time of the sequential runner from a slice of the input
+        FloatArray inputSlice = new FloatArray(numElements / slices);
+        FloatArray outputSlice = new FloatArray(numElements / slices);
+        inputSlice.init(2.0f);
+        long sequentialTime = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            relax(inputSlice, outputSlice, iterations);
+            sequentialTime = Math.min(sequentialTime, (System.nanoTime() - start) * slices);
+        }
+
+        // Time of a first execution (including the compilation) on the default device
+        TaskGraph deviceGraph = new TaskGraph("latency0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestDynamic::relax, input, output, iterations) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        long deviceTime;
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(deviceGraph.snapshot())) {
+            long start = System.nanoTime();
+            executionPlan.execute();
+            deviceTime = System.nanoTime() - start;
+        }
+        if (2 * deviceTime > sequentialTime) {
+            throw new UnsupportedConfigurationException("Test requires a device faster than the sequential execution");
+        }
+
+        output.init(0.0f);
+        TaskGraph taskGraph = new TaskGraph("latency1") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestDynamic::relax, input, output, iterations) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            long start = System.nanoTime();
+            executionPlan.withDynamicReconfiguration(Policy.LATENCY, DRMode.PARALLEL) //
+                    .execute();
+            long latencyTime = System.nanoTime() - start;
+            assertTrue("The LATENCY policy waited for the runners that lost the race", latencyTime < (deviceTime + sequentialTime) / 2);
+
+            // The next executions run on the selected device
+            executionPlan.execute();
+        }
+
+        float expected = 2.0f;
+        for (int j = 0; j < iterations; j++) {
+            expected = expected * 0.99f + 0.01f;
+        }
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(expected, output.get(i), 0.01f);
+        }
+    }
 }
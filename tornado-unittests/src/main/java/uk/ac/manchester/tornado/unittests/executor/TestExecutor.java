@@ -23,6 +23,7 @@ import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
 
@@ -403,5 +404,104 @@ public class TestExecutor extends TornadoTestBase {
         }
     }
 
+    /**
+     * Test the precompilation of an execution plan with multiple task-graphs and
+     * multiple tasks per graph. All tasks are compiled in parallel before the
+     * first execution.
+     *
+     * @throws TornadoExecutionPlanException
+     */
+    @Test
+    public void test08() throws TornadoExecutionPlanException {
+        int numElements = 16;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+        IntArray d = new IntArray(numElements);
+
+        Random r = new Random();
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, r.nextInt(1000));
+            b.set(i, r.nextInt(1000));
+        }
+
+        TaskGraph tg1 = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .task("t1", TestHello::compute, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        TaskGraph tg2 = new TaskGraph("s1") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestHello::simple, a, d) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, d);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(tg1.snapshot(), tg2.snapshot())) {
+
+            executionPlan.withPrecompilation();
+
+            executionPlan.withGraph(0).execute();
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals((a.get(i) + b.get(i)) * 2, c.get(i));
+            }
+
+            executionPlan.withGraph(1).execute();
+            for (int i = 0; i < d.getSize(); i++) {
+                assertEquals(a.get(i) + 1, d.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test the asynchronous execution of an execution plan. The executions of
+     * the same plan run in order, and the results are available once the
+     * returned futures complete.
+     *
+     * @throws TornadoExecutionPlanException
+     */
+    @Test
+    public void test09() throws TornadoExecutionPlanException {
+        int numElements = 16;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        Random r = new Random();
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, r.nextInt(1000));
+            b.set(i, r.nextInt(1000));
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+
+            CompletableFuture<TornadoExecutionResult> first = executionPlan.executeAsync();
+            TornadoExecutionResult executionResult = first.join();
+            assertNotNull(executionResult);
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals(a.get(i) + b.get(i), c.get(i));
+            }
+
+            // The second execution sees the values updated by the first one
+            CompletableFuture<TornadoExecutionResult> second = first.thenCompose(result -> {
+                a.init(1);
+                return executionPlan.executeAsync();
+            });
+            second.join();
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals(1 + b.get(i), c.get(i));
+            }
+
+            // A blocking execution waits for the pending ones
+            executionPlan.executeAsync();
+            executionPlan.execute();
+            assertEquals(executionResult, executionPlan.getPlanResult(0));
+        }
+    }
+
     // CHECKSTYLE:ON
 }
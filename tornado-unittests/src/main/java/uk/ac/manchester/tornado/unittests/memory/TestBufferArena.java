@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Runs task graphs with several small arrays, which are placed as sub-buffers
+ * of the OpenCL buffer arena when {@code -Dtornado.opencl.arena=True}, together
+ * with an array above the arena threshold, which gets its own device buffer.
+ * Each execution plan releases its sub-buffers back to the arena when it is
+ * closed, so the next plan reuses the same regions.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.opencl.arena=True" uk.ac.manchester.tornado.unittests.memory.TestBufferArena
+ * </code>
+ */
+public class TestBufferArena extends TornadoTestBase {
+
+    private static final int SMALL_SIZE = 1024;
+
+    private static final int LARGE_SIZE = 256 * 1024;
+
+    private static void sum(FloatArray a, FloatArray b, FloatArray c, FloatArray d, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, a.get(i) + b.get(i) + c.get(i) + d.get(i));
+        }
+    }
+
+    private static void accumulate(FloatArray input, FloatArray accumulator) {
+        for (@Parallel int i = 0; i < accumulator.getSize(); i++) {
+            accumulator.set(i, accumulator.get(i) + input.get(i));
+        }
+    }
+
+    private static void fill(IntArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, i);
+        }
+    }
+
+    @Test
+    public void testMultipleArrays() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(SMALL_SIZE);
+        FloatArray b = new FloatArray(SMALL_SIZE);
+        FloatArray c = new FloatArray(SMALL_SIZE);
+        FloatArray d = new FloatArray(SMALL_SIZE);
+        FloatArray partial = new FloatArray(SMALL_SIZE);
+        FloatArray accumulator = new FloatArray(SMALL_SIZE);
+        IntArray large = new IntArray(LARGE_SIZE);
+        a.init(1.0f);
+        b.init(2.0f);
+        c.init(3.0f);
+        d.init(4.0f);
+
+        TaskGraph taskGraph = new TaskGraph("arena") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b, c, d, accumulator) //
+                .task("sum", TestBufferArena::sum, a, b, c, d, partial) //
+                .task("accumulate", TestBufferArena::accumulate, partial, accumulator) //
+                .task("fill", TestBufferArena::fill, large) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, partial, accumulator, large);
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+
+        // Each plan allocates the arrays again after the previous one has released
+        // them
+        for (int plan = 0; plan < 3; plan++) {
+            accumulator.init(0.0f);
+            large.init(-1);
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                for (int execution = 1; execution <= 2; execution++) {
+                    executionPlan.execute();
+                    for (int i = 0; i < SMALL_SIZE; i++) {
+                        assertEquals(10.0f, partial.get(i), 0.0f);
+                        assertEquals(10.0f * execution, accumulator.get(i), 0.0f);
+                    }
+                    for (int i = 0; i < LARGE_SIZE; i++) {
+                        assertEquals(i, large.get(i));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.common.DeviceBufferResidencyManager;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests the eviction of device buffers kept across executions. The first tests
+ * use a device and buffers that only record the calls of the
+ * {@link DeviceBufferResidencyManager}. The last one runs two execution plans
+ * that do not fit together in the device memory.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.device.buffer.eviction=True -Dtornado.device.memory=100MB" uk.ac.manchester.tornado.unittests.memory.TestDeviceBufferEviction
+ * </code>
+ */
+public class TestDeviceBufferEviction extends TornadoTestBase {
+
+    private static final long BUFFER_SIZE = 1024;
+
+    private static final int NUM_ELEMENTS = 8 * 1024 * 1024;
+
+    private List<Object> streamedOut;
+    private List<XPUBuffer> released;
+    private DeviceBufferResidencyManager residencyManager;
+
+    @Before
+    public void setUpResidencyManager() {
+        streamedOut = new ArrayList<>();
+        released = new ArrayList<>();
+        // A new device per test, so each test gets its own residency manager
+        TornadoXPUDevice device = (TornadoXPUDevice) Proxy.newProxyInstance(TornadoXPUDevice.class.getClassLoader(), new Class<?>[] { TornadoXPUDevice.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "streamOutBlocking":
+                    streamedOut.add(args[1]);
+                    return 0;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "FakeDevice";
+                default:
+                    return null;
+            }
+        });
+        residencyManager = DeviceBufferResidencyManager.getInstance(device);
+    }
+
+    private XPUBuffer newBuffer() {
+        return (XPUBuffer) Proxy.newProxyInstance(XPUBuffer.class.getClassLoader(), new Class<?>[] { XPUBuffer.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "release":
+                    released.add((XPUBuffer) proxy);
+                    return BUFFER_SIZE;
+                case "size":
+                    return BUFFER_SIZE;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "FakeBuffer";
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private XPUDeviceBufferState allocate(Object object, Access access, long executionPlanId) {
+        XPUDeviceBufferState state = new XPUDeviceBufferState();
+        allocate(state, object, access, executionPlanId);
+        return state;
+    }
+
+    private XPUBuffer allocate(XPUDeviceBufferState state, Object object, Access access, long executionPlanId) {
+        XPUBuffer buffer = newBuffer();
+        state.setXPUBuffer(buffer);
+        state.setLockBuffer(true);
+        residencyManager.recordUse(state, object, access, executionPlanId);
+        return buffer;
+    }
+
+    @Test
+    public void testEvictionOrderReadOnlyFirst() {
+        Object output = new Object();
+        Object input = new Object();
+        // The output is the least-recently-used buffer, but it has to be copied back
+        XPUDeviceBufferState outputState = allocate(output, Access.READ_WRITE, 1);
+        XPUDeviceBufferState inputState = allocate(input, Access.READ_ONLY, 1);
+
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertTrue(inputState.isEvicted());
+        assertFalse(outputState.isEvicted());
+        assertTrue(streamedOut.isEmpty());
+
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertTrue(outputState.isEvicted());
+        assertEquals(List.of(output), streamedOut);
+
+        assertEquals(0, residencyManager.evictLeastRecentlyUsed());
+    }
+
+    @Test
+    public void testCleanBufferAfterWriteBack() {
+        XPUDeviceBufferState outputState = allocate(new Object(), Access.WRITE_ONLY, 1);
+        allocate(new Object(), Access.READ_WRITE, 1);
+
+        // The host has the latest contents of the first output after a transfer
+        residencyManager.markClean(outputState);
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertTrue(outputState.isEvicted());
+        assertTrue(streamedOut.isEmpty());
+    }
+
+    @Test
+    public void testReallocationAfterEviction() {
+        Object input = new Object();
+        XPUDeviceBufferState state = new XPUDeviceBufferState();
+        XPUBuffer firstBuffer = allocate(state, input, Access.READ_ONLY, 1);
+        state.setContents(true);
+
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertEquals(List.of(firstBuffer), released);
+        assertTrue(state.isEvicted());
+        assertFalse(state.hasObjectBuffer());
+        assertFalse(state.hasContent());
+        assertFalse(state.isLockedBuffer());
+        assertNull(state.getXPUBuffer());
+
+        // The next ALLOC of the execution plan locks the state again
+        XPUBuffer secondBuffer = allocate(state, input, Access.READ_ONLY, 1);
+        assertFalse(state.isEvicted());
+        assertSame(secondBuffer, state.getXPUBuffer());
+
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertEquals(List.of(firstBuffer, secondBuffer), released);
+    }
+
+    @Test
+    public void testReleasedBufferIsNotEvicted() {
+        XPUDeviceBufferState state = allocate(new Object(), Access.READ_ONLY, 1);
+
+        // The execution plan released its buffers
+        state.setLockBuffer(false);
+        assertEquals(0, residencyManager.evictLeastRecentlyUsed());
+        assertTrue(released.isEmpty());
+    }
+
+    @Test
+    public void testRunningPlanGuard() {
+        XPUDeviceBufferState a = allocate(new Object(), Access.READ_ONLY, 1);
+        XPUDeviceBufferState b = allocate(new Object(), Access.READ_ONLY, 1);
+
+        residencyManager.beginExecution(1);
+        assertEquals(0, residencyManager.evictLeastRecentlyUsed());
+
+        // The running plan can evict its own buffers that its pending bytecodes do not use
+        assertEquals(BUFFER_SIZE, residencyManager.evictUnusedBuffer(1, Set.of(a)));
+        assertFalse(a.isEvicted());
+        assertTrue(b.isEvicted());
+        assertEquals(0, residencyManager.evictUnusedBuffer(1, Set.of(a)));
+
+        // Another thread runs the same plan, so its buffers may still be in use
+        XPUDeviceBufferState c = allocate(new Object(), Access.READ_ONLY, 1);
+        residencyManager.beginExecution(1);
+        assertEquals(0, residencyManager.evictUnusedBuffer(1, Collections.emptySet()));
+
+        // The buffers of other execution plans can still be evicted
+        XPUDeviceBufferState other = allocate(new Object(), Access.READ_ONLY, 2);
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertTrue(other.isEvicted());
+        assertFalse(a.isEvicted());
+        assertFalse(c.isEvicted());
+
+        residencyManager.endExecution(1);
+        assertEquals(0, residencyManager.evictLeastRecentlyUsed());
+        residencyManager.endExecution(1);
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertEquals(BUFFER_SIZE, residencyManager.evictLeastRecentlyUsed());
+        assertTrue(a.isEvicted());
+        assertTrue(c.isEvicted());
+    }
+
+    public static void scale(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+        }
+    }
+
+    /**
+     * Each execution plan keeps two buffers of 32MB, and only one plan fits in
+     * 100MB. Each execution evicts the buffers of the other plan, which are
+     * allocated and uploaded again on its next execution.
+     */
+    @Test
+    public void testEvictionAcrossExecutionPlans() throws TornadoExecutionPlanException {
+        FloatArray inputA = new FloatArray(NUM_ELEMENTS);
+        FloatArray outputA = new FloatArray(NUM_ELEMENTS);
+        FloatArray inputB = new FloatArray(NUM_ELEMENTS);
+        FloatArray outputB = new FloatArray(NUM_ELEMENTS);
+        inputA.init(1.0f);
+        inputB.init(3.0f);
+
+        ImmutableTaskGraph graphA = new TaskGraph("evictionA") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, inputA) //
+                .task("t0", TestDeviceBufferEviction::scale, inputA, outputA) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, outputA) //
+                .snapshot();
+        ImmutableTaskGraph graphB = new TaskGraph("evictionB") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, inputB) //
+                .task("t0", TestDeviceBufferEviction::scale, inputB, outputB) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, outputB) //
+                .snapshot();
+
+        try (TornadoExecutionPlan planA = new TornadoExecutionPlan(graphA); TornadoExecutionPlan planB = new TornadoExecutionPlan(graphB)) {
+            for (int i = 0; i < 3; i++) {
+                outputA.init(0.0f);
+                outputB.init(0.0f);
+                planA.execute();
+                planB.execute();
+                for (int j = 0; j < NUM_ELEMENTS; j++) {
+                    assertEquals(2.0f, outputA.get(j), 0.0f);
+                    assertEquals(6.0f, outputB.get(j), 0.0f);
+                }
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.unittests.profiler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
@@ -36,6 +37,9 @@ import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistograms;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.unittests.TestHello;
@@ -390,4 +394,48 @@ public class TestProfiler extends TornadoTestBase {
             executionPlan.withoutThreadInfo().execute();
         }
     }
+
+    @Test
+    public void testLatencyHistograms() throws TornadoExecutionPlanException {
+        final int numElements = 256;
+        final int iterations = 10;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        a.init(1);
+        b.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withProfiler(ProfilerMode.SILENT);
+            TornadoExecutionResult executionResult = null;
+            for (int i = 0; i < iterations; i++) {
+                executionResult = executionPlan.execute();
+            }
+
+            LatencyHistograms histograms = executionResult.getProfilerResult().getLatencyHistograms();
+
+            LatencyHistogram total = histograms.getHistogram("s0", ProfilerType.TOTAL_TASK_GRAPH_TIME);
+            assertNotNull(total);
+            assertEquals(iterations, total.getCount());
+            assertTrue(total.getValueAtPercentile(50) <= total.getValueAtPercentile(99));
+            assertTrue(total.getValueAtPercentile(99.9) <= total.getMax());
+
+            LatencyHistogram kernel = histograms.getHistogram("s0.t0", ProfilerType.TASK_KERNEL_TIME);
+            assertNotNull(kernel);
+            assertEquals(iterations, kernel.getCount());
+
+            String prometheus = histograms.toPrometheusText();
+            assertTrue(prometheus.contains(LatencyHistograms.PROMETHEUS_METRIC + "_count{id=\"s0.t0\",type=\"TASK_KERNEL_TIME\"} " + iterations));
+        }
+
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(3, c.get(i));
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests the metric tables of the {@link TimeProfiler}, which are updated
+ * without locks by several threads.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.profiler.TestTimeProfiler
+ * </code>
+ */
+public class TestTimeProfiler extends TornadoTestBase {
+
+    private static final int NUM_THREADS = 8;
+
+    private static final int ITERATIONS = 10000;
+
+    private static final int NUM_SHARED_TASKS = 4;
+
+    /**
+     * Profiler types set by each thread, one per thread.
+     */
+    private static final ProfilerType[] THREAD_TYPES = { //
+            ProfilerType.COPY_IN_TIME, //
+            ProfilerType.COPY_OUT_TIME, //
+            ProfilerType.COPY_OUT_TIME_SYNC, //
+            ProfilerType.TASK_COMPILE_DRIVER_TIME, //
+            ProfilerType.TASK_COMPILE_GRAAL_TIME, //
+            ProfilerType.TASK_CODE_GENERATION_TIME, //
+            ProfilerType.TASK_KERNEL_TIME, //
+            ProfilerType.TOTAL_TASK_GRAPH_TIME };
+
+    @Test
+    public void testProfilerTypesFitInSetMask() {
+        // The metric tables keep one bit per profiler type in a long
+        assertTrue(ProfilerType.values().length <= Long.SIZE);
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        TimeProfiler profiler = new TimeProfiler();
+        CyclicBarrier barrier = new CyclicBarrier(NUM_THREADS);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS; i++) {
+                final int thread = i;
+                futures.add(executorService.submit(() -> {
+                    barrier.await();
+                    String ownTask = "task" + thread;
+                    // Each thread sets a different bit of the same set masks
+                    profiler.setTimer(THREAD_TYPES[thread], thread + 1);
+                    profiler.setTaskTimer(THREAD_TYPES[thread], ownTask, thread + 1);
+                    profiler.registerDeviceName(ownTask, "device" + thread);
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        // The shared tasks are created and updated by all the threads
+                        profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, "shared" + (j % NUM_SHARED_TASKS), 1);
+                        profiler.sum(ProfilerType.TOTAL_KERNEL_TIME, 1);
+                        profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, "shared" + (j % NUM_SHARED_TASKS), 1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals((long) NUM_THREADS * ITERATIONS, profiler.getSize(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES));
+        assertEquals((long) NUM_THREADS * ITERATIONS, profiler.getTimer(ProfilerType.TOTAL_KERNEL_TIME));
+        for (int i = 0; i < NUM_SHARED_TASKS; i++) {
+            assertEquals(1, profiler.getTaskTimer(ProfilerType.TASK_KERNEL_TIME, "shared" + i));
+        }
+        String json = profiler.createJson(new StringBuilder(), "graph");
+        for (int i = 0; i < NUM_THREADS; i++) {
+            assertEquals(i + 1, profiler.getTimer(THREAD_TYPES[i]));
+            assertEquals(i + 1, profiler.getTaskTimer(THREAD_TYPES[i], "task" + i));
+            assertTrue(json.contains("\"device" + i + "\""));
+        }
+
+        profiler.clean();
+        assertEquals(0, profiler.getSize(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES));
+        assertEquals(0, profiler.getTimer(ProfilerType.TOTAL_KERNEL_TIME));
+    }
+}
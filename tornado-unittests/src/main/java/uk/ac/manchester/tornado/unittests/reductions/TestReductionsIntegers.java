@@ -50,6 +50,7 @@ public class TestReductionsIntegers extends TornadoTestBase {
     private static final int BIG_SIZE = 1024;
 
     private static final int LARGE_SIZE = 262144;
+    private static final int MULTI_STAGE_SIZE = 4194304;
     private static final int SIZE = 4096;
 
     /**
@@ -87,6 +88,12 @@ public class TestReductionsIntegers extends TornadoTestBase {
         }
     }
 
+    private static void subtractResult(IntArray input, IntArray result, IntArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) - result.get(0));
+        }
+    }
+
     private static void multReductionAnnotation(IntArray input, @Reduce IntArray result) {
         result.set(0, 0);
         for (@Parallel int i = 0; i < input.getSize(); i++) {
@@ -272,6 +279,101 @@ public class TestReductionsIntegers extends TornadoTestBase {
         assertEquals(sequential.get(0), result.get(0));
     }
 
+    /**
+     * The parallel reduction of a large input produces more partial results than
+     * {@code tornado.reduce.stage.size}, so they are combined on the device in
+     * several passes.
+     */
+    @Test
+    public void testReductionMultiStage() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(MULTI_STAGE_SIZE);
+        IntArray result = new IntArray(1);
+
+        Random r = new Random();
+        IntStream.range(0, input.getSize()).forEach(i -> {
+            input.set(i, r.nextInt(100));
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsIntegers::reductionAnnotationLarge, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        IntArray sequential = new IntArray(1);
+        reductionAnnotationLarge(input, sequential);
+
+        assertEquals(sequential.get(0), result.get(0));
+    }
+
+    @Test
+    public void testMaxReductionMultiStage() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(MULTI_STAGE_SIZE);
+
+        Random r = new Random();
+        IntStream.range(0, input.getSize()).forEach(idx -> {
+            input.set(idx, r.nextInt(1000000));
+        });
+
+        IntArray result = new IntArray(1);
+        int neutral = Integer.MIN_VALUE + 1;
+        result.init(neutral);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsIntegers::maxReductionAnnotation, input, result, neutral) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        IntArray sequential = new IntArray(1);
+        maxReductionAnnotation(input, sequential, neutral);
+
+        assertEquals(sequential.get(0), result.get(0));
+    }
+
+    /**
+     * The result of a multi-stage reduction is consumed by the next task of the
+     * task-graph on the device.
+     */
+    @Test
+    public void testReductionMultiStageFeedsNextTask() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(MULTI_STAGE_SIZE);
+        IntArray result = new IntArray(1);
+        IntArray output = new IntArray(MULTI_STAGE_SIZE);
+
+        IntStream.range(0, input.getSize()).forEach(i -> {
+            input.set(i, i % 10);
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsIntegers::reductionAnnotationLarge, input, result) //
+                .task("t1", TestReductionsIntegers::subtractResult, input, result, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        IntArray sequential = new IntArray(1);
+        IntArray sequentialOutput = new IntArray(MULTI_STAGE_SIZE);
+        reductionAnnotationLarge(input, sequential);
+        subtractResult(input, sequential, sequentialOutput);
+
+        assertEquals(sequential.get(0), result.get(0));
+        for (int i = 0; i < output.getSize(); i++) {
+            assertEquals(sequentialOutput.get(i), output.get(i));
+        }
+    }
+
     @Test
     public void testReductionAnnotation() throws TornadoExecutionPlanException {
         IntArray input = new IntArray(SIZE);
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.reductions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.reductions.KeyedReductions;
+import uk.ac.manchester.tornado.api.reductions.SegmentedReductions;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.reductions.TestSegmentedReductions
+ * </code>
+ */
+public class TestSegmentedReductions extends TornadoTestBase {
+
+    private static final int NUM_SEGMENTS = 1024;
+    private static final int SIZE = 262144;
+    private static final int NUM_KEYS = 100;
+    private static final int NUM_LARGE_KEYS = 65536;
+
+    /**
+     * Offsets of segments with random sizes, including empty segments.
+     */
+    private static IntArray createOffsets(Random r) {
+        IntArray offsets = new IntArray(NUM_SEGMENTS + 1);
+        int position = 0;
+        for (int segment = 0; segment < NUM_SEGMENTS; segment++) {
+            offsets.set(segment, position);
+            position += r.nextInt(2 * SIZE / NUM_SEGMENTS);
+        }
+        offsets.set(NUM_SEGMENTS, position);
+        return offsets;
+    }
+
+    @Test
+    public void testSegmentedSum() throws TornadoExecutionPlanException {
+        Random r = new Random();
+        IntArray offsets = createOffsets(r);
+        IntArray values = new IntArray(offsets.get(NUM_SEGMENTS));
+        IntArray output = new IntArray(NUM_SEGMENTS);
+        for (int i = 0; i < values.getSize(); i++) {
+            values.set(i, r.nextInt(100));
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, values, offsets) //
+                .task("t0", SegmentedReductions::sum, values, offsets, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int segment = 0; segment < NUM_SEGMENTS; segment++) {
+            int sequential = 0;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                sequential += values.get(i);
+            }
+            assertEquals(sequential, output.get(segment));
+        }
+    }
+
+    @Test
+    public void testSegmentedMax() throws TornadoExecutionPlanException {
+        Random r = new Random();
+        IntArray offsets = createOffsets(r);
+        FloatArray values = new FloatArray(offsets.get(NUM_SEGMENTS));
+        FloatArray output = new FloatArray(NUM_SEGMENTS);
+        for (int i = 0; i < values.getSize(); i++) {
+            values.set(i, r.nextFloat());
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, values, offsets) //
+                .task("t0", SegmentedReductions::max, values, offsets, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int segment = 0; segment < NUM_SEGMENTS; segment++) {
+            // Empty segments get the identity of max
+            float sequential = Float.NEGATIVE_INFINITY;
+            for (int i = offsets.get(segment); i < offsets.get(segment + 1); i++) {
+                sequential = Math.max(sequential, values.get(i));
+            }
+            assertEquals(sequential, output.get(segment), 0.0f);
+        }
+    }
+
+    @Test
+    public void testPartialsSize() {
+        // Small key domains: chunks of 64 values
+        assertEquals(SIZE / 64 * 16, KeyedReductions.partialsSize(SIZE, 16));
+        // Larger key domains: chunks of numKeys values, bounded by the input size plus numKeys
+        assertEquals(2622 * NUM_KEYS, KeyedReductions.partialsSize(SIZE, NUM_KEYS));
+        assertEquals(5 * NUM_LARGE_KEYS, KeyedReductions.partialsSize(4 * NUM_LARGE_KEYS + 1, NUM_LARGE_KEYS));
+        assertEquals(NUM_KEYS, KeyedReductions.partialsSize(0, NUM_KEYS));
+        assertEquals(NUM_KEYS, KeyedReductions.partialsSize(10, NUM_KEYS));
+    }
+
+    @Test
+    public void testSumByKey() throws TornadoExecutionPlanException {
+        Random r = new Random();
+        IntArray keys = new IntArray(SIZE);
+        FloatArray values = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            keys.set(i, r.nextInt(NUM_KEYS));
+            values.set(i, r.nextInt(10));
+        }
+        FloatArray partials = new FloatArray(KeyedReductions.partialsSize(SIZE, NUM_KEYS));
+        FloatArray output = new FloatArray(NUM_KEYS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys, values) //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, partials) //
+                .task("t0", KeyedReductions::partialSumByKey, keys, values, partials, NUM_KEYS) //
+                .task("t1", KeyedReductions::mergeSumByKey, partials, output, NUM_KEYS) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        float[] sequential = new float[NUM_KEYS];
+        for (int i = 0; i < SIZE; i++) {
+            sequential[keys.get(i)] += values.get(i);
+        }
+
+        for (int key = 0; key < NUM_KEYS; key++) {
+            assertEquals(sequential[key], output.get(key), 0.01f);
+        }
+    }
+
+    @Test
+    public void testMinByKey() throws TornadoExecutionPlanException {
+        Random r = new Random();
+        IntArray keys = new IntArray(SIZE);
+        IntArray values = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            keys.set(i, r.nextInt(NUM_KEYS));
+            values.set(i, r.nextInt());
+        }
+        IntArray partials = new IntArray(KeyedReductions.partialsSize(SIZE, NUM_KEYS));
+        IntArray output = new IntArray(NUM_KEYS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys, values) //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, partials) //
+                .task("t0", KeyedReductions::partialMinByKey, keys, values, partials, NUM_KEYS) //
+                .task("t1", KeyedReductions::mergeMinByKey, partials, output, NUM_KEYS) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        int[] sequential = new int[NUM_KEYS];
+        Arrays.fill(sequential, Integer.MAX_VALUE);
+        for (int i = 0; i < SIZE; i++) {
+            sequential[keys.get(i)] = Math.min(sequential[keys.get(i)], values.get(i));
+        }
+
+        for (int key = 0; key < NUM_KEYS; key++) {
+            assertEquals(sequential[key], output.get(key));
+        }
+    }
+
+    @Test
+    public void testMaxByKeyEmptyKeys() throws TornadoExecutionPlanException {
+        Random r = new Random();
+        IntArray keys = new IntArray(SIZE);
+        FloatArray values = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            // Only the first half of the keys has values
+            keys.set(i, r.nextInt(NUM_KEYS / 2));
+            values.set(i, -r.nextFloat() * Float.MAX_VALUE);
+        }
+        FloatArray partials = new FloatArray(KeyedReductions.partialsSize(SIZE, NUM_KEYS));
+        FloatArray output = new FloatArray(NUM_KEYS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys, values) //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, partials) //
+                .task("t0", KeyedReductions::partialMaxByKey, keys, values, partials, NUM_KEYS) //
+                .task("t1", KeyedReductions::mergeMaxByKey, partials, output, NUM_KEYS) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        float[] sequential = new float[NUM_KEYS];
+        Arrays.fill(sequential, Float.NEGATIVE_INFINITY);
+        for (int i = 0; i < SIZE; i++) {
+            sequential[keys.get(i)] = Math.max(sequential[keys.get(i)], values.get(i));
+        }
+
+        for (int key = 0; key < NUM_KEYS; key++) {
+            assertEquals(sequential[key], output.get(key), 0.0f);
+        }
+    }
+
+    @Test
+    public void testSumBySortedKey() throws TornadoExecutionPlanException {
+        Random r = new Random();
+        int[] sortedKeys = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // Includes keys out of the range, which are ignored
+            sortedKeys[i] = r.nextInt(NUM_LARGE_KEYS + 2) - 1;
+        }
+        Arrays.sort(sortedKeys);
+        IntArray keys = IntArray.fromArray(sortedKeys);
+        IntArray values = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            values.set(i, r.nextInt(100));
+        }
+        IntArray offsets = new IntArray(NUM_LARGE_KEYS + 1);
+        IntArray output = new IntArray(NUM_LARGE_KEYS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys, values) //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, offsets) //
+                .task("t0", KeyedReductions::segmentsByKey, keys, offsets, NUM_LARGE_KEYS) //
+                .task("t1", SegmentedReductions::sum, values, offsets, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        int[] sequential = new int[NUM_LARGE_KEYS];
+        for (int i = 0; i < SIZE; i++) {
+            int key = keys.get(i);
+            if (key >= 0 && key < NUM_LARGE_KEYS) {
+                sequential[key] += values.get(i);
+            }
+        }
+
+        for (int key = 0; key < NUM_LARGE_KEYS; key++) {
+            assertEquals(sequential[key], output.get(key));
+        }
+    }
+}
@@ -103,6 +103,14 @@ public class TestTensorTypes extends TornadoTestBase {
         Assert.assertEquals("Expected ONNX shape string does not match", "{dim_0: 64, dim_1: 64, dim_2: 64}", tensorA.getShape().toONNXShapeString());
     }
 
+    @Test
+    public void testShapeSize() {
+        Shape shape = new Shape(1024, 1024, 1024, 4);
+        Assert.assertEquals(4L * 1024 * 1024 * 1024, shape.getSizeLong());
+        Assert.assertThrows(IllegalArgumentException.class, shape::getSize);
+        Assert.assertEquals(64 * 64 * 64, new Shape(64, 64, 64).getSize());
+    }
+
     @Test
     public void testTensorFloat16Add() throws TornadoExecutionPlanException {
         // Define the shape for the tensors
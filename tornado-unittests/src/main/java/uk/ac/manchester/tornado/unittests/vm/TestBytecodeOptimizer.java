@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.vm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeOptimizer;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the peephole optimizer of the TornadoVM bytecodes. Each test builds
+ * the bytecodes of a known task-graph and checks the listing before and after
+ * the optimizer.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.vm.TestBytecodeOptimizer
+ * </code>
+ */
+public class TestBytecodeOptimizer extends TornadoTestBase {
+
+    private static final long BATCH_SIZE = 1024;
+
+    /**
+     * Emits bytecodes with the same encoding as the TornadoVM bytecode builder.
+     */
+    private static final class Bytecodes {
+        private final ByteBuffer buffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+
+        private Bytecodes() {
+            buffer.put(TornadoVMBytecodes.INIT.value()).putInt(1).putInt(1).putInt(2);
+            buffer.put(TornadoVMBytecodes.CONTEXT.value()).putInt(0);
+            buffer.put(TornadoVMBytecodes.BEGIN.value());
+        }
+
+        private Bytecodes alloc(long size, int... objects) {
+            buffer.put(TornadoVMBytecodes.ALLOC.value()).putLong(size).putInt(objects.length);
+            for (int object : objects) {
+                buffer.putInt(object);
+            }
+            return this;
+        }
+
+        private Bytecodes dealloc(int object) {
+            buffer.put(TornadoVMBytecodes.DEALLOC.value()).putInt(object);
+            return this;
+        }
+
+        private Bytecodes copyIn(int object, long offset) {
+            buffer.put(TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()).putInt(object).putInt(0).putLong(offset).putLong(BATCH_SIZE);
+            return this;
+        }
+
+        private Bytecodes copyOut(int object, long offset) {
+            buffer.put(TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()).putInt(object).putInt(1).putLong(offset).putLong(BATCH_SIZE);
+            return this;
+        }
+
+        private Bytecodes launch(int task, long offset) {
+            buffer.put(TornadoVMBytecodes.LAUNCH.value()).putInt(0).putInt(task).putInt(2).putInt(1).putLong(offset).putLong(BATCH_SIZE);
+            buffer.put(TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()).putInt(0);
+            buffer.put(TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value()).putInt(1);
+            return this;
+        }
+
+        private Bytecodes addDependency(int eventList) {
+            buffer.put(TornadoVMBytecodes.ADD_DEPENDENCY.value()).putInt(eventList);
+            return this;
+        }
+
+        private Bytecodes barrier(int eventList) {
+            buffer.put(TornadoVMBytecodes.BARRIER.value()).putInt(eventList);
+            return this;
+        }
+
+        private byte[] end() {
+            buffer.put(TornadoVMBytecodes.END.value());
+            byte[] code = new byte[buffer.position()];
+            buffer.get(0, code);
+            return code;
+        }
+    }
+
+    /**
+     * Bytecodes of a task-graph with one input (object 0) and one output
+     * (object 1), run in two batches of the same size.
+     */
+    private static byte[] twoBatches() {
+        return new Bytecodes() //
+                .alloc(BATCH_SIZE, 0, 1) //
+                .copyIn(0, 0) //
+                .addDependency(0) //
+                .launch(0, 0) //
+                .addDependency(1) //
+                .copyOut(1, 0) //
+                .dealloc(0) //
+                .dealloc(1) //
+                .alloc(BATCH_SIZE, 0, 1) //
+                .copyIn(0, BATCH_SIZE) //
+                .addDependency(0) //
+                .launch(0, BATCH_SIZE) //
+                .addDependency(1) //
+                .copyOut(1, BATCH_SIZE) //
+                .dealloc(0) //
+                .dealloc(1) //
+                .barrier(1) //
+                .end();
+    }
+
+    private static String optimize(byte[] code, boolean isSingleContext, boolean isOutOfOrder, boolean isBatchPipelined) {
+        byte[] optimized = TornadoVMBytecodeOptimizer.optimize(code, code.length, isSingleContext, isOutOfOrder, isBatchPipelined);
+        return TornadoVMBytecodeOptimizer.disassemble(optimized, optimized.length);
+    }
+
+    private static final String TWO_BATCHES = """
+            ALLOC objects=[0, 1], size=1024
+            TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+            ADD_DEPENDENCY event list=0
+            LAUNCH task=0, offset=0, size=1024 [event list=1]
+            ADD_DEPENDENCY event list=1
+            TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=0, size=1024 [event list=1]
+            DEALLOC object=0
+            DEALLOC object=1
+            ALLOC objects=[0, 1], size=1024
+            TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=1024, size=1024 [event list=0]
+            ADD_DEPENDENCY event list=0
+            LAUNCH task=0, offset=1024, size=1024 [event list=1]
+            ADD_DEPENDENCY event list=1
+            TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=1024, size=1024 [event list=1]
+            DEALLOC object=0
+            DEALLOC object=1
+            BARRIER event list=1
+            END
+            """;
+
+    @Test
+    public void testDisassemble() {
+        byte[] code = twoBatches();
+        assertEquals(TWO_BATCHES, TornadoVMBytecodeOptimizer.disassemble(code, code.length));
+    }
+
+    /**
+     * The buffers are kept across the batches, and the dependencies are removed
+     * on a single in-order queue.
+     */
+    @Test
+    public void testAllocationHoistingInOrder() {
+        String expected = """
+                ALLOC objects=[0, 1], size=1024
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+                LAUNCH task=0, offset=0, size=1024 [event list=1]
+                TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=0, size=1024 [event list=1]
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=1024, size=1024 [event list=0]
+                LAUNCH task=0, offset=1024, size=1024 [event list=1]
+                TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=1024, size=1024 [event list=1]
+                DEALLOC object=0
+                DEALLOC object=1
+                BARRIER event list=1
+                END
+                """;
+        assertEquals(expected, optimize(twoBatches(), true, false, false));
+    }
+
+    /**
+     * Out-of-order queues need the dependencies, so only the allocations are
+     * hoisted.
+     */
+    @Test
+    public void testKeepDependenciesOutOfOrder() {
+        String expected = """
+                ALLOC objects=[0, 1], size=1024
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+                ADD_DEPENDENCY event list=0
+                LAUNCH task=0, offset=0, size=1024 [event list=1]
+                ADD_DEPENDENCY event list=1
+                TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=0, size=1024 [event list=1]
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=1024, size=1024 [event list=0]
+                ADD_DEPENDENCY event list=0
+                LAUNCH task=0, offset=1024, size=1024 [event list=1]
+                ADD_DEPENDENCY event list=1
+                TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=1024, size=1024 [event list=1]
+                DEALLOC object=0
+                DEALLOC object=1
+                BARRIER event list=1
+                END
+                """;
+        assertEquals(expected, optimize(twoBatches(), true, true, false));
+    }
+
+    /**
+     * Task-graphs that run on several devices need the dependencies.
+     */
+    @Test
+    public void testKeepDependenciesMultipleContexts() {
+        String optimized = optimize(twoBatches(), false, false, false);
+        assertEquals(4, optimized.lines().filter(line -> line.startsWith("ADD_DEPENDENCY")).count());
+    }
+
+    /**
+     * Pipelined batches start a new slot of buffers at each {@code ALLOC}, so
+     * the allocations are kept.
+     */
+    @Test
+    public void testKeepAllocationsPipelinedBatches() {
+        String expected = """
+                ALLOC objects=[0, 1], size=1024
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+                LAUNCH task=0, offset=0, size=1024 [event list=1]
+                TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=0, size=1024 [event list=1]
+                DEALLOC object=0
+                DEALLOC object=1
+                ALLOC objects=[0, 1], size=1024
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=1024, size=1024 [event list=0]
+                LAUNCH task=0, offset=1024, size=1024 [event list=1]
+                TRANSFER_DEVICE_TO_HOST_ALWAYS object=1, offset=1024, size=1024 [event list=1]
+                DEALLOC object=0
+                DEALLOC object=1
+                BARRIER event list=1
+                END
+                """;
+        assertEquals(expected, optimize(twoBatches(), true, false, true));
+    }
+
+    /**
+     * The last batch is smaller, so its buffers cannot be reused.
+     */
+    @Test
+    public void testNoHoistingWithDifferentSizes() {
+        byte[] code = new Bytecodes() //
+                .alloc(BATCH_SIZE, 0) //
+                .copyIn(0, 0) //
+                .dealloc(0) //
+                .alloc(BATCH_SIZE / 2, 0) //
+                .copyIn(0, BATCH_SIZE) //
+                .dealloc(0) //
+                .end();
+        String expected = """
+                ALLOC objects=[0], size=1024
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+                DEALLOC object=0
+                ALLOC objects=[0], size=512
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=1024, size=1024 [event list=0]
+                DEALLOC object=0
+                END
+                """;
+        assertEquals(expected, optimize(code, true, false, false));
+    }
+
+    @Test
+    public void testRedundantBarriersAndTransfers() {
+        byte[] code = new Bytecodes() //
+                .alloc(BATCH_SIZE, 0) //
+                .copyIn(0, 0) //
+                .copyIn(0, 0) //
+                .launch(0, 0) //
+                .copyIn(0, 0) //
+                .barrier(1) //
+                .barrier(1) //
+                .end();
+        String expected = """
+                ALLOC objects=[0], size=1024
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+                LAUNCH task=0, offset=0, size=1024 [event list=1]
+                TRANSFER_HOST_TO_DEVICE_ALWAYS object=0, offset=0, size=1024 [event list=0]
+                BARRIER event list=1
+                END
+                """;
+        assertEquals(expected, optimize(code, true, false, false));
+    }
+}